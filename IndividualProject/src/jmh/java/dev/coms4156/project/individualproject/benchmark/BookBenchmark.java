@@ -0,0 +1,73 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import dev.coms4156.project.individualproject.model.Book;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the {@link Book} inventory operations, both on a book private to each thread and
+ * on one hot title shared by every thread, to show contention on a single stripe lock.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BookBenchmark {
+
+  /** A book owned by one benchmark thread; ids differ per thread to avoid sharing a stripe. */
+  @State(Scope.Thread)
+  public static class PrivateBook {
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    final Book book;
+
+    /**
+     * Creates a book with a thread-unique id and enough copies for a checkout to succeed.
+     */
+    public PrivateBook() {
+      final int bookId = NEXT_ID.incrementAndGet();
+      book = new Book("Private " + bookId, bookId);
+      book.addCopy();
+    }
+  }
+
+  /** One book shared by all benchmark threads. */
+  @State(Scope.Benchmark)
+  public static class SharedBook {
+    final Book book = new Book("Course Reserve", 0);
+
+    /**
+     * Stocks the shared book with more copies than there can be concurrent threads.
+     */
+    public SharedBook() {
+      for (int i = 0; i < 1024; i++) {
+        book.addCopy();
+      }
+    }
+  }
+
+  @Benchmark
+  public boolean checkoutAndReturnPrivate(final PrivateBook state) {
+    return state.book.returnCopy(state.book.checkoutCopy());
+  }
+
+  @Benchmark
+  public boolean checkoutAndReturnShared(final SharedBook state) {
+    return state.book.returnCopy(state.book.checkoutCopy());
+  }
+
+  @Benchmark
+  public int addCopyShared(final SharedBook state) {
+    state.book.addCopy();
+    return state.book.getTotalCopies();
+  }
+}
@@ -0,0 +1,75 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.coms4156.project.individualproject.model.Book;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Builds synthetic catalogs for the benchmarks.
+ *
+ * <p>Books get contiguous ids starting at 1, a handful of repeating languages, locations and
+ * subjects like the real catalog, and a seeded spread of checkout counts so popularity sorting
+ * has real work to do.
+ */
+final class CatalogFixtures {
+
+  /** Copies given to every synthetic book so checkouts never run dry mid-iteration. */
+  static final int COPIES_PER_BOOK = 64;
+
+  private static final String[] LANGUAGES = {"eng", "kor", "fre", "ger", "spa"};
+  private static final String[] LOCATIONS = {"eax", "fax", "off,utn", "glx", "bar"};
+  private static final String[] SUBJECTS = {"Medicine", "Public health", "Photography",
+      "Tombs", "Archaeology", "History"};
+
+  private CatalogFixtures() {
+  }
+
+  /**
+   * Creates {@code size} books with ids {@code 1..size}. The same seed always yields the same
+   * catalog so runs are comparable.
+   *
+   * @param size The number of books.
+   * @return A new list of books.
+   */
+  static List<Book> books(final int size) {
+    final SplittableRandom random = new SplittableRandom(4156L);
+    final List<Book> books = new ArrayList<>(size);
+    for (int id = 1; id <= size; id++) {
+      final Book book = new Book("Title " + id,
+          List.of("Author " + random.nextInt(size / 4 + 1)),
+          LANGUAGES[id % LANGUAGES.length],
+          LOCATIONS[id % LOCATIONS.length],
+          (1900 + id % 125) + ".",
+          "Publisher " + id % 500,
+          List.of(SUBJECTS[id % SUBJECTS.length]),
+          id, COPIES_PER_BOOK, COPIES_PER_BOOK);
+      // Leave roughly a third of the catalog with nothing on the shelf
+      if (id % 3 == 0) {
+        while (book.deleteCopy()) {
+          // drain every copy
+        }
+        book.addCopy();
+        book.checkoutCopy();
+      }
+      for (int i = random.nextInt(4); i > 0; i--) {
+        book.checkoutCopy();
+      }
+      books.add(book);
+    }
+    return books;
+  }
+
+  /**
+   * Serializes a synthetic catalog to the JSON format of {@code mockdata/books.json}.
+   *
+   * @param size The number of books.
+   * @return The catalog as UTF-8 JSON.
+   * @throws IOException if serialization fails.
+   */
+  static byte[] json(final int size) throws IOException {
+    return new ObjectMapper().writeValueAsBytes(books(size));
+  }
+}
@@ -0,0 +1,36 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import java.util.SplittableRandom;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-thread source of random book ids, so benchmark threads spread their requests over the
+ * whole catalog without sharing a random number generator.
+ */
+@State(Scope.Thread)
+public class IdCursor {
+
+  private final SplittableRandom random = new SplittableRandom();
+
+  /**
+   * Returns a random id in {@code 1..catalogSize}.
+   *
+   * @param catalogSize The number of books in the catalog.
+   * @return A book id.
+   */
+  int nextId(final int catalogSize) {
+    return 1 + random.nextInt(catalogSize);
+  }
+
+  /**
+   * Returns a random id of a book that {@link CatalogFixtures} left with copies on the shelf.
+   *
+   * @param catalogSize The number of books in the catalog.
+   * @return A book id that is not a multiple of three.
+   */
+  int nextAvailableId(final int catalogSize) {
+    final int id = nextId(catalogSize);
+    return id % 3 == 0 ? id - 1 : id;
+  }
+}
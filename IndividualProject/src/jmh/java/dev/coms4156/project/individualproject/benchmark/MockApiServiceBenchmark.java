@@ -0,0 +1,126 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import dev.coms4156.project.individualproject.config.CatalogProperties;
+import dev.coms4156.project.individualproject.config.StorageEngine;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.BookStore;
+import dev.coms4156.project.individualproject.service.CatalogLoader;
+import dev.coms4156.project.individualproject.service.CatalogSnapshot;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the {@link MockApiService} catalog operations: point lookup, single-book update and
+ * loading a whole catalog from JSON or from a binary snapshot, for each storage engine.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MockApiServiceBenchmark {
+
+  @Param({"1000", "100000", "1000000"})
+  private int catalogSize;
+
+  @Param({"OBJECTS", "COLUMNAR"})
+  private StorageEngine storage;
+
+  private MockApiService service;
+  private Book[] replacements;
+  private byte[] catalogJson;
+  private CatalogProperties properties;
+  private Path snapshot;
+
+  /**
+   * Builds the catalog, a pool of replacement books, the serialized catalog and a snapshot of it
+   * once per parameter combination.
+   *
+   * @throws IOException if the catalog cannot be serialized.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    final List<Book> books = CatalogFixtures.books(catalogSize);
+    properties = new CatalogProperties();
+    properties.setStorage(storage);
+    service = new MockApiService(books, properties);
+    replacements = new Book[catalogSize + 1];
+    for (final Book book : books) {
+      replacements[book.getId()] = new Book(book.getTitle() + " (rev.)", book.getId());
+    }
+    catalogJson = CatalogFixtures.json(catalogSize);
+    snapshot = Files.createTempFile("catalog", ".snapshot");
+    CatalogSnapshot.write(new BookStore(books), snapshot);
+  }
+
+  /**
+   * Deletes the snapshot written by {@link #setUp()}.
+   *
+   * @throws IOException if the file cannot be deleted.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(snapshot);
+  }
+
+  @Benchmark
+  public Book findById(final IdCursor cursor) {
+    return service.findById(cursor.nextId(catalogSize));
+  }
+
+  @Benchmark
+  public void updateBook(final IdCursor cursor) {
+    service.updateBook(replacements[cursor.nextId(catalogSize)]);
+  }
+
+  /**
+   * Streams the serialized catalog through {@link CatalogLoader} and builds a service over it,
+   * the same work the service does at startup.
+   *
+   * @return The loaded service.
+   * @throws IOException if the catalog cannot be parsed.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Warmup(iterations = 2)
+  @Measurement(iterations = 5)
+  public MockApiService loadCatalog() throws IOException {
+    return new MockApiService(
+        CatalogLoader.read(new ByteArrayInputStream(catalogJson)), properties);
+  }
+
+  /**
+   * Loads the same catalog from a binary snapshot instead of JSON.
+   *
+   * @return The loaded service.
+   * @throws IOException if the snapshot cannot be read.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Warmup(iterations = 2)
+  @Measurement(iterations = 5)
+  public MockApiService loadSnapshot() throws IOException {
+    return new MockApiService(CatalogSnapshot.read(snapshot), properties);
+  }
+}
@@ -0,0 +1,92 @@
+package dev.coms4156.project.individualproject.benchmark;
+
+import dev.coms4156.project.individualproject.controller.RouteController;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Benchmarks the {@link RouteController} handlers directly, without the servlet stack, so the
+ * numbers isolate lookup, inventory and list-building costs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RouteControllerBenchmark {
+
+  @Param({"1000", "100000", "1000000"})
+  private int catalogSize;
+
+  private MockApiService service;
+  private RouteController controller;
+  private String dueDate;
+
+  /**
+   * Builds a fresh catalog and controller for each parameter combination.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    service = new MockApiService(CatalogFixtures.books(catalogSize));
+    controller = new RouteController(service);
+    dueDate = LocalDate.now().plusWeeks(2).format(DateTimeFormatter.ISO_LOCAL_DATE);
+  }
+
+  @Benchmark
+  public ResponseEntity<?> getBook(final IdCursor cursor) {
+    return controller.getBook(cursor.nextId(catalogSize));
+  }
+
+  /**
+   * Checks out a random available book and immediately returns the copy, keeping inventory
+   * steady across iterations.
+   *
+   * @param cursor The per-thread id source.
+   * @return The checkout response.
+   */
+  @Benchmark
+  public ResponseEntity<?> checkoutBook(final IdCursor cursor) {
+    final int bookId = cursor.nextAvailableId(catalogSize);
+    final ResponseEntity<?> response = controller.checkoutBook(bookId);
+    service.findById(bookId).returnCopy(dueDate);
+    return response;
+  }
+
+  /**
+   * Streams every available book into a discarding sink, measuring serialization as well.
+   *
+   * @throws IOException never, the sink discards everything.
+   */
+  @Benchmark
+  public void getAvailableBooks() throws IOException {
+    controller.getAvailableBooks().getBody().writeTo(OutputStream.nullOutputStream());
+  }
+
+  /**
+   * Builds and serializes one set of recommendations into a discarding sink.
+   *
+   * @throws IOException never, the sink discards everything.
+   */
+  @Benchmark
+  public void getBookRecommendations() throws IOException {
+    controller.getBookRecommendations().getBody().writeTo(OutputStream.nullOutputStream());
+  }
+}
@@ -0,0 +1,219 @@
+package dev.coms4156.project.individualproject.config;
+
+import dev.coms4156.project.individualproject.model.LoanPolicy;
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tunable settings of the book catalog, bound from the {@code catalog.*} keys in
+ * {@code application.properties}.
+ */
+@Component
+@ConfigurationProperties(prefix = "catalog")
+public class CatalogProperties {
+
+  /** Default number of most-checked-out books shown in recommendations. */
+  public static final int DEFAULT_POPULAR_COUNT = 5;
+
+  private int popularCount = DEFAULT_POPULAR_COUNT;
+  private String path = "";
+  private StorageEngine storage = StorageEngine.OBJECTS;
+  private final Wal wal = new Wal();
+  private final Snapshot snapshot = new Snapshot();
+  private final Loan loan = new Loan();
+
+  public int getPopularCount() {
+    return popularCount;
+  }
+
+  public void setPopularCount(final int popularCount) {
+    this.popularCount = popularCount;
+  }
+
+  /**
+   * Returns the filesystem path of the JSON catalog to load at startup.
+   *
+   * @return The path, or an empty string to load the bundled {@code mockdata/books.json}.
+   */
+  public String getPath() {
+    return path;
+  }
+
+  public void setPath(final String path) {
+    this.path = path != null ? path : "";
+  }
+
+  public StorageEngine getStorage() {
+    return storage;
+  }
+
+  public void setStorage(final StorageEngine storage) {
+    this.storage = storage != null ? storage : StorageEngine.OBJECTS;
+  }
+
+  public Wal getWal() {
+    return wal;
+  }
+
+  public Snapshot getSnapshot() {
+    return snapshot;
+  }
+
+  public Loan getLoan() {
+    return loan;
+  }
+
+  /**
+   * Settings of the write-ahead log of inventory mutations, bound from {@code catalog.wal.*}.
+   */
+  public static class Wal {
+
+    /** Default time between background flushes of the log, in milliseconds. */
+    public static final long DEFAULT_FSYNC_INTERVAL_MS = 10;
+
+    private String path = "";
+    private FsyncPolicy fsync = FsyncPolicy.BATCHED;
+    private long fsyncIntervalMs = DEFAULT_FSYNC_INTERVAL_MS;
+
+    /**
+     * Returns the filesystem path of the log file.
+     *
+     * @return The path, or an empty string if mutations are not logged.
+     */
+    public String getPath() {
+      return path;
+    }
+
+    public void setPath(final String path) {
+      this.path = path != null ? path : "";
+    }
+
+    public boolean isEnabled() {
+      return !path.isEmpty();
+    }
+
+    public FsyncPolicy getFsync() {
+      return fsync;
+    }
+
+    public void setFsync(final FsyncPolicy fsync) {
+      this.fsync = fsync;
+    }
+
+    public long getFsyncIntervalMs() {
+      return fsyncIntervalMs;
+    }
+
+    public void setFsyncIntervalMs(final long fsyncIntervalMs) {
+      this.fsyncIntervalMs = fsyncIntervalMs;
+    }
+  }
+
+  /**
+   * Settings of the binary catalog snapshot, bound from {@code catalog.snapshot.*}.
+   */
+  public static class Snapshot {
+
+    /** Default time between periodic snapshots, in seconds. */
+    public static final long DEFAULT_INTERVAL_SECONDS = 300;
+
+    private String path = "";
+    private long intervalSeconds = DEFAULT_INTERVAL_SECONDS;
+
+    /**
+     * Returns the filesystem path of the snapshot file.
+     *
+     * @return The path, or an empty string if no snapshots are taken.
+     */
+    public String getPath() {
+      return path;
+    }
+
+    public void setPath(final String path) {
+      this.path = path != null ? path : "";
+    }
+
+    public boolean isEnabled() {
+      return !path.isEmpty();
+    }
+
+    /**
+     * Returns the time between periodic snapshots. A snapshot is also written on shutdown.
+     *
+     * @return The interval in seconds, or {@code 0} to snapshot only on shutdown.
+     */
+    public long getIntervalSeconds() {
+      return intervalSeconds;
+    }
+
+    public void setIntervalSeconds(final long intervalSeconds) {
+      this.intervalSeconds = intervalSeconds;
+    }
+  }
+
+  /**
+   * Loan periods of checked-out copies, bound from {@code catalog.loan.*}. A book's own period
+   * takes precedence over the period of its shelving location, which takes precedence over the
+   * default.
+   */
+  public static class Loan {
+
+    private int days = LoanPolicy.DEFAULT_LOAN_DAYS;
+    private Map<String, Integer> locationDays = new HashMap<>();
+    private Map<Integer, Integer> bookDays = new HashMap<>();
+
+    /**
+     * Returns the default loan period.
+     *
+     * @return The number of days a copy is lent for.
+     */
+    public int getDays() {
+      return days;
+    }
+
+    public void setDays(final int days) {
+      this.days = days;
+    }
+
+    /**
+     * Returns the loan periods by shelving location, e.g.
+     * {@code catalog.loan.location-days[off,glx]=28}.
+     *
+     * @return A mutable map from shelving location to days.
+     */
+    public Map<String, Integer> getLocationDays() {
+      return locationDays;
+    }
+
+    public void setLocationDays(final Map<String, Integer> locationDays) {
+      this.locationDays = locationDays != null ? locationDays : new HashMap<>();
+    }
+
+    /**
+     * Returns the loan periods of individual books, e.g. {@code catalog.loan.book-days[42]=3}.
+     *
+     * @return A mutable map from book id to days.
+     */
+    public Map<Integer, Integer> getBookDays() {
+      return bookDays;
+    }
+
+    public void setBookDays(final Map<Integer, Integer> bookDays) {
+      this.bookDays = bookDays != null ? bookDays : new HashMap<>();
+    }
+
+    /**
+     * Builds the loan policy these settings describe.
+     *
+     * @param clock The source of the current date.
+     * @return A new policy.
+     * @throws IllegalArgumentException if any configured period is not positive.
+     */
+    public LoanPolicy toPolicy(final Clock clock) {
+      return new LoanPolicy(clock, days, locationDays, bookDays);
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package dev.coms4156.project.individualproject.config;
+
+/**
+ * When the write-ahead log forces appended records to stable storage.
+ */
+public enum FsyncPolicy {
+
+  /**
+   * Every mutation waits until its record has been fsynced. Records appended while an fsync is
+   * in progress share the next one, so concurrent writers are not limited to one fsync each.
+   */
+  PER_OP,
+
+  /**
+   * Records are written and fsynced in the background every {@code fsync-interval-ms}; a crash
+   * can lose the mutations of the last interval.
+   */
+  BATCHED,
+
+  /**
+   * Records are buffered in the process and handed to the operating system every
+   * {@code fsync-interval-ms}, but never fsynced; a process crash can lose the mutations of the
+   * last interval, an operating system crash anything the kernel has not yet written back.
+   */
+  NONE
+}
@@ -0,0 +1,68 @@
+package dev.coms4156.project.individualproject.config;
+
+import dev.coms4156.project.individualproject.controller.CheckoutTraceInterceptor;
+import dev.coms4156.project.individualproject.controller.RouteMetricsInterceptor;
+import dev.coms4156.project.individualproject.service.CheckoutTracer;
+import dev.coms4156.project.individualproject.service.RouteMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Collects per-route request metrics, served at {@code /metrics}, and phase traces of sampled
+ * checkouts, served at {@code /traces/checkout}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class MetricsConfig implements WebMvcConfigurer {
+
+  private final long windowSeconds;
+  private final CheckoutTracer checkoutTracer;
+
+  /**
+   * Creates the configuration.
+   *
+   * @param windowSeconds Length of the window latency percentiles are computed over, bound from
+   *                      {@code metrics.window-seconds}.
+   * @param sampleEvery One in this many checkouts is traced, bound from
+   *                    {@code metrics.checkout-trace.sample-every}; {@code 0} disables tracing.
+   * @param slowThresholdMs Traced checkouts slower than this are kept, bound from
+   *                        {@code metrics.checkout-trace.slow-threshold-ms}.
+   * @param capacity Number of slow checkouts kept, bound from
+   *                 {@code metrics.checkout-trace.capacity}.
+   */
+  public MetricsConfig(@Value("${metrics.window-seconds:"
+      + RouteMetrics.DEFAULT_WINDOW_SECONDS + "}") final long windowSeconds,
+      @Value("${metrics.checkout-trace.sample-every:"
+          + CheckoutTracer.DEFAULT_SAMPLE_EVERY + "}") final int sampleEvery,
+      @Value("${metrics.checkout-trace.slow-threshold-ms:"
+          + CheckoutTracer.DEFAULT_SLOW_THRESHOLD_MS + "}") final long slowThresholdMs,
+      @Value("${metrics.checkout-trace.capacity:"
+          + CheckoutTracer.DEFAULT_CAPACITY + "}") final int capacity) {
+    this.windowSeconds = windowSeconds;
+    this.checkoutTracer = new CheckoutTracer(sampleEvery, slowThresholdMs, capacity);
+  }
+
+  @Bean
+  public RouteMetrics routeMetrics() {
+    return new RouteMetrics(windowSeconds);
+  }
+
+  @Bean
+  public CheckoutTracer checkoutTracer() {
+    return checkoutTracer;
+  }
+
+  @Override
+  public void addInterceptors(final InterceptorRegistry registry) {
+    registry.addInterceptor(new RouteMetricsInterceptor(routeMetrics()))
+        .excludePathPatterns("/metrics", "/traces/checkout", "/error");
+    if (checkoutTracer.isEnabled()) {
+      registry.addInterceptor(new CheckoutTraceInterceptor(checkoutTracer))
+          .addPathPatterns("/checkout");
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package dev.coms4156.project.individualproject.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs at startup whether requests are served on virtual or platform threads.
+ *
+ * <p>With {@code spring.threads.virtual.enabled=true} on Java 21 or later, Spring Boot runs
+ * every Tomcat request and every application task on its own virtual thread. On older runtimes
+ * the setting is silently ignored, so this reports the mode actually in effect and warns when
+ * virtual threads were asked for but are unavailable.
+ */
+@Component
+public class ServingThreadsReporter implements ApplicationListener<ApplicationReadyEvent> {
+
+  /** Property enabling virtual threads for request handling. */
+  public static final String VIRTUAL_THREADS_PROPERTY = "spring.threads.virtual.enabled";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ServingThreadsReporter.class);
+
+  @Override
+  public void onApplicationEvent(final ApplicationReadyEvent event) {
+    final Environment environment = event.getApplicationContext().getEnvironment();
+    if (Threading.VIRTUAL.isActive(environment)) {
+      if (LOGGER.isInfoEnabled()) {
+        LOGGER.info("Serving requests on virtual threads (Java {})", Runtime.version());
+      }
+    } else if (environment.getProperty(VIRTUAL_THREADS_PROPERTY, Boolean.class, false)) {
+      if (LOGGER.isWarnEnabled()) {
+        LOGGER.warn("{} is set but Java {} has no virtual threads; serving requests on "
+            + "platform threads. Build with -P java21 and run on Java 21 or later.",
+            VIRTUAL_THREADS_PROPERTY, Runtime.version());
+      }
+    } else if (LOGGER.isInfoEnabled()) {
+      LOGGER.info("Serving requests on platform threads");
+    }
+  }
+}
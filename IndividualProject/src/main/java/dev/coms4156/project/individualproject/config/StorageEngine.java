@@ -0,0 +1,20 @@
+package dev.coms4156.project.individualproject.config;
+
+/**
+ * How the catalog keeps its books in memory.
+ */
+public enum StorageEngine {
+
+  /**
+   * One {@code Book} object per title, each owning its strings and lists. Lookups return the
+   * stored object itself.
+   */
+  OBJECTS,
+
+  /**
+   * One primitive array per numeric field and shared string pools for the text fields, so the
+   * catalog takes a fraction of the heap and scans over counters touch only dense arrays.
+   * {@code Book} objects are created as views when a book is looked up.
+   */
+  COLUMNAR
+}
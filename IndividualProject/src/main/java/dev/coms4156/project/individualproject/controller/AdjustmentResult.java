@@ -0,0 +1,75 @@
+package dev.coms4156.project.individualproject.controller;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import dev.coms4156.project.individualproject.model.Book;
+
+/**
+ * One entry of a bulk inventory response: whether the adjustment of a book was applied and, if
+ * the book exists, its copy counts afterwards.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"bookId", "status", "totalCopies", "copiesAvailable"})
+public final class AdjustmentResult {
+
+  /**
+   * Outcome of a single adjustment.
+   */
+  public enum Status {
+    /** The copies were added or deleted. */
+    ADJUSTED,
+    /** No book has the requested id. */
+    NOT_FOUND,
+    /** Fewer copies were on the shelf than the adjustment would delete. */
+    INSUFFICIENT_COPIES
+  }
+
+  private final int bookId;
+  private final Status status;
+  private final Integer totalCopies;
+  private final Integer copiesAvailable;
+
+  private AdjustmentResult(final int bookId, final Status status, final Integer totalCopies,
+      final Integer copiesAvailable) {
+    this.bookId = bookId;
+    this.status = status;
+    this.totalCopies = totalCopies;
+    this.copiesAvailable = copiesAvailable;
+  }
+
+  static AdjustmentResult of(final Book book, final boolean applied) {
+    return new AdjustmentResult(book.getId(),
+        applied ? Status.ADJUSTED : Status.INSUFFICIENT_COPIES,
+        book.getTotalCopies(), book.getCopiesAvailable());
+  }
+
+  static AdjustmentResult notFound(final int bookId) {
+    return new AdjustmentResult(bookId, Status.NOT_FOUND, null, null);
+  }
+
+  public int getBookId() {
+    return bookId;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  /**
+   * Returns the book's total copies after the whole request was applied.
+   *
+   * @return The copy count, or {@code null} if the book does not exist.
+   */
+  public Integer getTotalCopies() {
+    return totalCopies;
+  }
+
+  /**
+   * Returns the book's available copies after the whole request was applied.
+   *
+   * @return The copy count, or {@code null} if the book does not exist.
+   */
+  public Integer getCopiesAvailable() {
+    return copiesAvailable;
+  }
+}
@@ -0,0 +1,51 @@
+package dev.coms4156.project.individualproject.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.coms4156.project.individualproject.model.Book;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Writes lists of books as a JSON array straight to the response stream.
+ *
+ * <p>Books are serialized one at a time through a Jackson {@link JsonGenerator}, so the response
+ * is never materialized in memory and bytes reach the client as soon as the generator's buffer
+ * fills, however many books the source yields. Serialization follows the given
+ * {@link ObjectMapper}, so in the application the {@code spring.jackson.*} settings and
+ * registered modules apply as they do to every other response.
+ */
+final class BookJsonStreamer {
+
+  private final ObjectWriter bookWriter;
+
+  /**
+   * Creates a streamer that serializes books like {@code objectMapper}.
+   *
+   * @param objectMapper The mapper to derive the book writer from; not modified.
+   */
+  BookJsonStreamer(final ObjectMapper objectMapper) {
+    this.bookWriter = objectMapper.writerFor(Book.class)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+  }
+
+  /**
+   * Creates a response body that streams {@code books} as a JSON array when written.
+   *
+   * @param books The books to write; iterated once, on the thread writing the response.
+   * @return A body for a {@code ResponseEntity}.
+   */
+  StreamingResponseBody of(final Iterable<Book> books) {
+    return outputStream -> {
+      try (JsonGenerator generator = bookWriter.createGenerator(outputStream)) {
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartArray();
+        for (final Book book : books) {
+          bookWriter.writeValue(generator, book);
+        }
+        generator.writeEndArray();
+      }
+    };
+  }
+}
@@ -0,0 +1,38 @@
+package dev.coms4156.project.individualproject.controller;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import dev.coms4156.project.individualproject.model.Book;
+
+/**
+ * One line of a batch checkout response: the book checked out and when its copy is due.
+ */
+@JsonPropertyOrder({"bookId", "title", "dueDate"})
+public final class CheckoutReceipt {
+
+  private final int bookId;
+  private final String title;
+  private final String dueDate;
+
+  CheckoutReceipt(final Book book, final String dueDate) {
+    this.bookId = book.getId();
+    this.title = book.getTitle();
+    this.dueDate = dueDate;
+  }
+
+  public int getBookId() {
+    return bookId;
+  }
+
+  public String getTitle() {
+    return title;
+  }
+
+  /**
+   * Returns the due date of the checked-out copy.
+   *
+   * @return The ISO-8601 date ({@code yyyy-MM-dd}) to pass to {@code POST /return}.
+   */
+  public String getDueDate() {
+    return dueDate;
+  }
+}
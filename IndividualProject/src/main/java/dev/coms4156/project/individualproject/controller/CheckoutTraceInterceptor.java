@@ -0,0 +1,27 @@
+package dev.coms4156.project.individualproject.controller;
+
+import dev.coms4156.project.individualproject.service.CheckoutTracer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Ends the trace of a sampled {@code /checkout} once its response has been written, so the
+ * serialize phase covers Jackson writing the body.
+ */
+public class CheckoutTraceInterceptor implements HandlerInterceptor {
+
+  private static final int SERVER_ERROR = 500;
+  private final CheckoutTracer tracer;
+
+  public CheckoutTraceInterceptor(final CheckoutTracer tracer) {
+    this.tracer = tracer;
+  }
+
+  @Override
+  public void afterCompletion(final HttpServletRequest request,
+      final HttpServletResponse response, final Object handler, final Exception ex) {
+    tracer.finish(ex != null && response.getStatus() < SERVER_ERROR
+        ? SERVER_ERROR : response.getStatus());
+  }
+}
@@ -0,0 +1,45 @@
+package dev.coms4156.project.individualproject.controller;
+
+/**
+ * One entry of a bulk inventory request: the book to adjust and how many copies to add to it,
+ * or to delete from it if negative.
+ */
+public final class InventoryAdjustment {
+
+  private Integer bookId;
+  private Integer delta;
+
+  /**
+   * No args constructor for Jackson.
+   */
+  public InventoryAdjustment() {
+    // fields are bound from the request body
+  }
+
+  /**
+   * Creates an adjustment of {@code delta} copies of the book {@code bookId}.
+   *
+   * @param bookId The id of the book.
+   * @param delta The number of copies to add, or to delete if negative.
+   */
+  public InventoryAdjustment(final Integer bookId, final Integer delta) {
+    this.bookId = bookId;
+    this.delta = delta;
+  }
+
+  public Integer getBookId() {
+    return bookId;
+  }
+
+  public void setBookId(final Integer bookId) {
+    this.bookId = bookId;
+  }
+
+  public Integer getDelta() {
+    return delta;
+  }
+
+  public void setDelta(final Integer delta) {
+    this.delta = delta;
+  }
+}
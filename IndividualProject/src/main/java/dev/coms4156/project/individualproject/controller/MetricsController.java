@@ -0,0 +1,49 @@
+package dev.coms4156.project.individualproject.controller;
+
+import dev.coms4156.project.individualproject.service.CheckoutTracer;
+import dev.coms4156.project.individualproject.service.RouteMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Serves the request metrics of every route for Prometheus to scrape, and the phase breakdown
+ * of sampled checkouts. Only the servlet stack is instrumented.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class MetricsController {
+
+  private static final MediaType PROMETHEUS_TEXT =
+      MediaType.parseMediaType("text/plain;version=0.0.4;charset=utf-8");
+  private final RouteMetrics routeMetrics;
+  private final CheckoutTracer checkoutTracer;
+
+  public MetricsController(final RouteMetrics routeMetrics, final CheckoutTracer checkoutTracer) {
+    this.routeMetrics = routeMetrics;
+    this.checkoutTracer = checkoutTracer;
+  }
+
+  /**
+   * Returns per-route latency percentiles, status counters and in-flight gauges.
+   *
+   * @return The metrics in the Prometheus text exposition format.
+   */
+  @GetMapping("/metrics")
+  public ResponseEntity<String> metrics() {
+    return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(routeMetrics.toPrometheusText());
+  }
+
+  /**
+   * Returns where sampled {@code /checkout} requests spent their time: per-phase percentiles
+   * and the most recent slow checkouts broken down into lookup, mutate, persist and serialize.
+   *
+   * @return The checkout trace report as JSON.
+   */
+  @GetMapping("/traces/checkout")
+  public ResponseEntity<CheckoutTracer.Report> checkoutTraces() {
+    return ResponseEntity.ok(checkoutTracer.report());
+  }
+}
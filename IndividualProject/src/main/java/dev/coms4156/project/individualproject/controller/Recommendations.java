@@ -0,0 +1,80 @@
+package dev.coms4156.project.individualproject.controller;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Composes the {@code /books/recommendation} list, shared by the servlet and reactive
+ * controllers so both serve the same recommendations.
+ */
+final class Recommendations {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(Recommendations.class);
+  private static final int MIN_BOOKS_FOR_REC = 10;
+
+  private Recommendations() {
+  }
+
+  /**
+   * Generate book recommendations: the most popular books followed by random picks from the
+   * rest of the catalog, or every book by popularity if the catalog is too small for that.
+   *
+   * @param mockApiService The catalog to recommend from.
+   * @return List of recommended books
+   */
+  static List<Book> compose(final MockApiService mockApiService) {
+    final int bookCount = mockApiService.getBookCount();
+    List<Book> result;
+
+    if (bookCount == 0) {
+      result = List.of();
+    } else if (bookCount < MIN_BOOKS_FOR_REC) {
+      if (LOGGER.isWarnEnabled()) {
+        LOGGER.warn("Not enough books available for recommendations. Found: {}", bookCount);
+      }
+      // Return all available books instead of an error
+      result = createLimitedRecommendationList(mockApiService.getBooks());
+    } else {
+      result = createRecommendationList(mockApiService);
+      if (LOGGER.isInfoEnabled()) {
+        LOGGER.info("Successfully generated recommendation with {} books", result.size());
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Create the recommendation list with the most popular books followed by random picks from
+   * the rest of the catalog, {@code MIN_BOOKS_FOR_REC} books in total. Both parts come from
+   * indexes kept by the service, so the cost does not depend on the catalog size.
+   *
+   * @return List of recommended books
+   */
+  private static List<Book> createRecommendationList(final MockApiService mockApiService) {
+    final List<Book> popular = mockApiService.getMostPopularBooks();
+    final List<Book> recommendations = new ArrayList<>(MIN_BOOKS_FOR_REC);
+    recommendations.addAll(popular);
+    recommendations.addAll(
+        mockApiService.sampleBooks(MIN_BOOKS_FOR_REC - popular.size(), popular));
+
+    return recommendations;
+  }
+
+  /**
+   * Create a limited recommendation list when fewer than 10 books are available.
+   *
+   * @param allBooks List of all available books (less than 10)
+   * @return List of all available books sorted by popularity
+   */
+  private static List<Book> createLimitedRecommendationList(final List<Book> allBooks) {
+    final List<Book> sortedBooks = new ArrayList<>(allBooks);
+    sortedBooks.sort((book1, book2) ->
+        Integer.compare(book2.getAmountOfTimesCheckedOut(), book1.getAmountOfTimesCheckedOut()));
+    return sortedBooks;
+  }
+}
@@ -1,40 +1,81 @@
 package dev.coms4156.project.individualproject.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.EpochDayMultiset;
+import dev.coms4156.project.individualproject.service.BookFilter;
+import dev.coms4156.project.individualproject.service.CheckoutTracer;
+import dev.coms4156.project.individualproject.service.FilterIndex;
 import dev.coms4156.project.individualproject.service.MockApiService;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 /**
  * REST controller that defines routes for interacting with books.
  *
  * <p>Provides endpoints for retrieving books, checking availability,
- * and adding copies to existing books.
+ * and adding copies to existing books. Serves the servlet stack; when the application runs
+ * with {@code spring.main.web-application-type=reactive}, {@code ReactiveRouteController}
+ * serves the same routes instead.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class RouteController {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(RouteController.class);
-  private static final int MIN_BOOKS_FOR_REC = 10;
   private static final int MIN_VALID_BOOK_ID = 1;
+  private static final int MAX_BATCH_SIZE = 100;
+  private static final int MAX_ADJUSTMENTS = 10_000;
+  private static final int MAX_DELTA = 100_000;
+  private static final int DEFAULT_SEARCH_LIMIT = 20;
+  private static final int MAX_SEARCH_LIMIT = 100;
+  private static final int DEFAULT_SUGGEST_LIMIT = 10;
+  private static final int MAX_SUGGEST_LIMIT = 50;
+  private static final int DEFAULT_FACET_LIMIT = 10;
+  private static final int MAX_FACET_LIMIT = 100;
+  static final String FILTER_REQUIRED = "At least one of language, subject, location,"
+      + " publisher, available, publishedFrom or publishedTo is required";
+  static final String YEAR_RANGE_INVALID = "publishedFrom must not be after publishedTo";
   private final MockApiService mockApiService;
+  private final CheckoutTracer checkoutTracer;
+  private final BookJsonStreamer bookJsonStreamer;
 
   public RouteController(final MockApiService mockApiService) {
+    this(mockApiService, CheckoutTracer.disabled(), new ObjectMapper());
+  }
+
+  /**
+   * Creates the controller.
+   *
+   * @param mockApiService The catalog.
+   * @param checkoutTracer Times the phases of sampled {@code /checkout} requests.
+   * @param objectMapper The application's mapper, used for the streamed book lists.
+   */
+  @Autowired
+  public RouteController(final MockApiService mockApiService,
+      final CheckoutTracer checkoutTracer, final ObjectMapper objectMapper) {
     this.mockApiService = mockApiService;
+    this.checkoutTracer = checkoutTracer;
+    this.bookJsonStreamer = new BookJsonStreamer(objectMapper);
   }
 
   @GetMapping({"/", "/index"})
@@ -56,46 +97,208 @@ public class RouteController {
   public ResponseEntity<?> getBook(@PathVariable final int bookId) {
     ResponseEntity<?> result = new ResponseEntity<>("Book not found.", HttpStatus.NOT_FOUND);
     
-    for (final Book book : mockApiService.getBooks()) {
-      if (book.getId() == bookId) {
-        result = new ResponseEntity<>(book, HttpStatus.OK);
-        break;
-      }
+    final Book book = mockApiService.findById(bookId);
+    if (book != null) {
+      result = new ResponseEntity<>(book, HttpStatus.OK);
     }
 
     return result;
   }
 
   /**
-   * Get and return a list of all the books with available copies.
+   * Get and return a list of all the books with available copies. The list is streamed to the
+   * client as it is serialized rather than built in memory first.
    *
    * @return A {@code ResponseEntity} containing a list of available {@code Book} objects with an
    *         HTTP 200 response if sucessful, or a message indicating an error occurred with an
    *         HTTP 500 response.
    */
   @PutMapping({"/books/available"})
-  public ResponseEntity<?> getAvailableBooks() {
-    ResponseEntity<?> result;
+  public ResponseEntity<StreamingResponseBody> getAvailableBooks() {
+    ResponseEntity<StreamingResponseBody> result;
     
     try {
-      final ArrayList<Book> availableBooks = new ArrayList<>();
-
-      for (final Book book : mockApiService.getBooks()) {
-        if (book.hasCopies()) {
-          availableBooks.add(book);
-        }
-      }
-
-      result = new ResponseEntity<>(availableBooks, HttpStatus.OK);
+      final Iterable<Book> availableBooks = mockApiService.availableBooks();
+      result = jsonList(availableBooks);
     } catch (final Exception e) {
       LOGGER.error("Error occurred when getting all available books", e);
-      result = new ResponseEntity<>("Error occurred when getting all available books",
+      result = textBody("Error occurred when getting all available books",
           HttpStatus.INTERNAL_SERVER_ERROR);
     }
     
     return result;
   }
 
+  /**
+   * Lists the books matching every given condition, streamed in id order. Attribute values are
+   * compared ignoring case, diacritics and trailing MARC punctuation, and a location matches any
+   * of the comma-separated codes of a book's shelving location. Publication years are parsed
+   * from the cataloged dates, so {@code "[1964?]"} counts as 1964; books without a recognizable
+   * year do not match a year range.
+   *
+   * @param language The required language code, e.g. {@code eng}.
+   * @param subject The required subjects; repeat the parameter to require several.
+   * @param location The required shelving location code, e.g. {@code eax}.
+   * @param publisher The required publisher.
+   * @param available {@code true} for books with copies available, {@code false} for books
+   *                  without.
+   * @param publishedFrom The first publication year wanted.
+   * @param publishedTo The last publication year wanted.
+   * @return A {@code ResponseEntity} streaming the matching books with an HTTP 200 response, a
+   *         message with an HTTP 400 response if no condition is given or the year range is
+   *         empty, or a message with an HTTP 500 response on error.
+   */
+  @GetMapping("/books")
+  public ResponseEntity<StreamingResponseBody> filterBooks(
+      @RequestParam(required = false) final String language,
+      @RequestParam(required = false) final List<String> subject,
+      @RequestParam(required = false) final String location,
+      @RequestParam(required = false) final String publisher,
+      @RequestParam(required = false) final Boolean available,
+      @RequestParam(required = false) final Integer publishedFrom,
+      @RequestParam(required = false) final Integer publishedTo) {
+    ResponseEntity<StreamingResponseBody> result;
+    final BookFilter filter = filterOf(language, subject, location, publisher, available)
+        .publishedBetween(publishedFrom, publishedTo);
+
+    if (filter.isEmpty()) {
+      result = textBody(FILTER_REQUIRED, HttpStatus.BAD_REQUEST);
+    } else if (!isYearRange(publishedFrom, publishedTo)) {
+      result = textBody(YEAR_RANGE_INVALID, HttpStatus.BAD_REQUEST);
+    } else {
+      try {
+        result = jsonList(mockApiService.filterBooks(filter));
+      } catch (final Exception e) {
+        LOGGER.error("Error occurred when filtering books", e);
+        result = textBody("Error occurred when filtering books",
+            HttpStatus.INTERNAL_SERVER_ERROR);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Counts titles, titles with copies available and copies per language, shelving location and
+   * subject, for the whole catalog or for the books matching the same conditions as
+   * {@code GET /books}. Whole-catalog counts are maintained as books change, so they cost the
+   * same however large the catalog; filtered counts are aggregated over the matching books.
+   *
+   * @param language The required language code.
+   * @param subject The required subjects; repeat the parameter to require several.
+   * @param location The required shelving location code.
+   * @param publisher The required publisher.
+   * @param available {@code true} for books with copies available, {@code false} for books
+   *                  without.
+   * @param publishedFrom The first publication year counted.
+   * @param publishedTo The last publication year counted.
+   * @param limit The maximum number of values per attribute, from 1 to 100; 10 if omitted.
+   * @return A {@code ResponseEntity} containing the facets per attribute, most titles first,
+   *         with an HTTP 200 response, a message with an HTTP 400 response if the limit is out
+   *         of range or the year range is empty, or a message with an HTTP 500 response on
+   *         error.
+   */
+  @GetMapping("/books/facets")
+  public ResponseEntity<?> getFacets(@RequestParam(required = false) final String language,
+      @RequestParam(required = false) final List<String> subject,
+      @RequestParam(required = false) final String location,
+      @RequestParam(required = false) final String publisher,
+      @RequestParam(required = false) final Boolean available,
+      @RequestParam(required = false) final Integer publishedFrom,
+      @RequestParam(required = false) final Integer publishedTo,
+      @RequestParam(required = false) final Integer limit) {
+    ResponseEntity<?> result;
+    final int max = limit == null ? DEFAULT_FACET_LIMIT : limit;
+
+    if (max < 1 || max > MAX_FACET_LIMIT) {
+      result = new ResponseEntity<>("The limit must be between 1 and " + MAX_FACET_LIMIT,
+          HttpStatus.BAD_REQUEST);
+    } else if (!isYearRange(publishedFrom, publishedTo)) {
+      result = new ResponseEntity<>(YEAR_RANGE_INVALID, HttpStatus.BAD_REQUEST);
+    } else {
+      try {
+        final BookFilter filter = filterOf(language, subject, location, publisher, available)
+            .publishedBetween(publishedFrom, publishedTo);
+        result = new ResponseEntity<>(mockApiService.facets(filter, max), HttpStatus.OK);
+      } catch (final Exception e) {
+        LOGGER.error("Error occurred when counting facets", e);
+        result = new ResponseEntity<>("Error occurred when counting facets",
+            HttpStatus.INTERNAL_SERVER_ERROR);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Finds books by free text over their titles, authors and subjects, ranked by relevance.
+   * Matching ignores case and diacritics, so romanized titles match plain ASCII queries.
+   *
+   * @param q The words to look for; a book matches if it contains any of them.
+   * @param limit The maximum number of books to return, from 1 to 100; 20 if omitted.
+   * @return A {@code ResponseEntity} containing the matching books, best match first, with an
+   *         HTTP 200 response, a message with an HTTP 400 response if the query is blank or
+   *         the limit out of range, or a message with an HTTP 500 response on error.
+   */
+  @GetMapping("/books/search")
+  public ResponseEntity<?> searchBooks(@RequestParam(required = false) final String q,
+      @RequestParam(required = false) final Integer limit) {
+    ResponseEntity<?> result;
+    final int max = limit == null ? DEFAULT_SEARCH_LIMIT : limit;
+
+    if (q == null || q.isBlank()) {
+      result = new ResponseEntity<>("A search query is required", HttpStatus.BAD_REQUEST);
+    } else if (max < 1 || max > MAX_SEARCH_LIMIT) {
+      result = new ResponseEntity<>("The limit must be between 1 and " + MAX_SEARCH_LIMIT,
+          HttpStatus.BAD_REQUEST);
+    } else {
+      try {
+        result = new ResponseEntity<>(mockApiService.search(q, max), HttpStatus.OK);
+      } catch (final Exception e) {
+        LOGGER.error("Error occurred when searching for books", e);
+        result = new ResponseEntity<>("Error occurred when searching for books",
+            HttpStatus.INTERNAL_SERVER_ERROR);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Suggests titles and author names for a catalog search box as the user types. Titles and
+   * names starting with the prefix come first; similarly spelled ones follow, so a typo still
+   * finds the book. MARC punctuation, case and diacritics are ignored.
+   *
+   * @param prefix The text typed so far.
+   * @param limit The maximum number of suggestions, from 1 to 50; 10 if omitted.
+   * @return A {@code ResponseEntity} containing the suggestions with an HTTP 200 response, a
+   *         message with an HTTP 400 response if the prefix is blank or the limit out of range,
+   *         or a message with an HTTP 500 response on error.
+   */
+  @GetMapping("/books/suggest")
+  public ResponseEntity<?> suggestBooks(@RequestParam(required = false) final String prefix,
+      @RequestParam(required = false) final Integer limit) {
+    ResponseEntity<?> result;
+    final int max = limit == null ? DEFAULT_SUGGEST_LIMIT : limit;
+
+    if (prefix == null || prefix.isBlank()) {
+      result = new ResponseEntity<>("A prefix is required", HttpStatus.BAD_REQUEST);
+    } else if (max < 1 || max > MAX_SUGGEST_LIMIT) {
+      result = new ResponseEntity<>("The limit must be between 1 and " + MAX_SUGGEST_LIMIT,
+          HttpStatus.BAD_REQUEST);
+    } else {
+      try {
+        result = new ResponseEntity<>(mockApiService.suggest(prefix, max), HttpStatus.OK);
+      } catch (final Exception e) {
+        LOGGER.error("Error occurred when suggesting books", e);
+        result = new ResponseEntity<>("Error occurred when suggesting books",
+            HttpStatus.INTERNAL_SERVER_ERROR);
+      }
+    }
+
+    return result;
+  }
+
   /**
    * Adds a copy to the {@code} Book object if it exists.
    *
@@ -109,12 +312,10 @@ public class RouteController {
     ResponseEntity<?> result = ResponseEntity.notFound().build();
     
     try {
-      for (final Book book : mockApiService.getBooks()) {
-        if (bookId.equals(book.getId())) {
-          book.addCopy();
-          result = new ResponseEntity<>(book, HttpStatus.OK);
-          break;
-        }
+      final Book book = mockApiService.findById(bookId);
+      if (book != null) {
+        book.addCopy();
+        result = new ResponseEntity<>(book, HttpStatus.OK);
       }
 
       if (result.equals(ResponseEntity.notFound().build())) {
@@ -128,6 +329,97 @@ public class RouteController {
     return result;
   }
 
+  /**
+   * Adds or deletes copies of many books in one request, e.g. to import a shipment. Each entry
+   * is applied as by {@link Book#adjustCopies(int)}: positive deltas add copies and negative
+   * deltas delete copies that are on the shelf. Entries are independent, so one unknown book or
+   * short shelf does not stop the others; the response reports the outcome of each.
+   *
+   * @param adjustments The {@code (bookId, delta)} pairs, applied in order.
+   * @return ResponseEntity with one result per adjustment, in request order, or error message
+   */
+  @PatchMapping("/books/inventory")
+  public ResponseEntity<?> adjustInventory(
+      @RequestBody(required = false) final List<InventoryAdjustment> adjustments) {
+    ResponseEntity<?> result;
+
+    if (adjustments == null || adjustments.isEmpty()
+        || adjustments.size() > MAX_ADJUSTMENTS) {
+      if (LOGGER.isWarnEnabled()) {
+        LOGGER.warn("Invalid number of inventory adjustments: {}",
+            adjustments == null ? null : adjustments.size());
+      }
+      result = new ResponseEntity<>("A request must list between 1 and " + MAX_ADJUSTMENTS
+          + " adjustments", HttpStatus.BAD_REQUEST);
+    } else if (!adjustments.stream().allMatch(RouteController::isValidAdjustment)) {
+      if (LOGGER.isWarnEnabled()) {
+        LOGGER.warn("Invalid inventory adjustment in bulk request");
+      }
+      result = new ResponseEntity<>("Every adjustment needs a valid bookId and a non-zero delta"
+          + " of at most " + MAX_DELTA + " copies", HttpStatus.BAD_REQUEST);
+    } else {
+      try {
+        result = new ResponseEntity<>(applyAdjustments(adjustments), HttpStatus.OK);
+      } catch (final Exception e) {
+        LOGGER.error("Error occurred during bulk inventory adjustment", e);
+        result = new ResponseEntity<>("An error occurred during inventory adjustment",
+            HttpStatus.INTERNAL_SERVER_ERROR);
+      }
+    }
+
+    return result;
+  }
+
+  private static boolean isValidAdjustment(final InventoryAdjustment adjustment) {
+    return adjustment != null
+        && adjustment.getBookId() != null && adjustment.getBookId() >= MIN_VALID_BOOK_ID
+        && adjustment.getDelta() != null && adjustment.getDelta() != 0
+        && adjustment.getDelta() >= -MAX_DELTA && adjustment.getDelta() <= MAX_DELTA;
+  }
+
+  /**
+   * Looks up the books of valid adjustments and applies them in one pass.
+   *
+   * @param adjustments The adjustments to apply
+   * @return The outcome of each adjustment
+   */
+  private List<AdjustmentResult> applyAdjustments(final List<InventoryAdjustment> adjustments) {
+    final List<Book> books = new ArrayList<>(adjustments.size());
+    final int[] deltas = new int[adjustments.size()];
+    final int[] positions = new int[adjustments.size()];
+    for (int i = 0; i < adjustments.size(); i++) {
+      final Book book = mockApiService.findById(adjustments.get(i).getBookId());
+      positions[i] = book != null ? books.size() : -1;
+      if (book != null) {
+        deltas[books.size()] = adjustments.get(i).getDelta();
+        books.add(book);
+      }
+    }
+
+    final boolean[] applied = Book.adjustCopies(books, Arrays.copyOf(deltas, books.size()));
+    final List<AdjustmentResult> result = new ArrayList<>(adjustments.size());
+    for (int i = 0; i < adjustments.size(); i++) {
+      result.add(positions[i] >= 0
+          ? AdjustmentResult.of(books.get(positions[i]), applied[positions[i]])
+          : AdjustmentResult.notFound(adjustments.get(i).getBookId()));
+    }
+    if (LOGGER.isInfoEnabled()) {
+      LOGGER.info("Applied {} of {} inventory adjustments", countTrue(applied),
+          adjustments.size());
+    }
+    return result;
+  }
+
+  private static int countTrue(final boolean... values) {
+    int result = 0;
+    for (final boolean value : values) {
+      if (value) {
+        result++;
+      }
+    }
+    return result;
+  }
+
   /**
    * Checkout a book by updating its checkout information.
    *
@@ -171,7 +463,9 @@ public class RouteController {
   }
 
   /**
-   * Process the book checkout operation.
+   * Process the book checkout operation. The lookup, mutate and persist phases of sampled
+   * requests are timed by the checkout tracer, which times serialization once the response is
+   * complete.
    *
    * @param bookId The ID of the book to checkout
    * @return ResponseEntity with the result
@@ -183,21 +477,17 @@ public class RouteController {
         new ResponseEntity<>("No copies available for checkout", HttpStatus.CONFLICT);
     
     ResponseEntity<?> result = notFound;
-    Book foundBook = null;
+    final CheckoutTracer.Span span = checkoutTracer.begin(bookId);
+    final Book foundBook = mockApiService.findById(bookId);
+    span.mark(CheckoutTracer.Phase.LOOKUP);
 
-    // Find the book without creating objects in loop
-    for (final Book book : mockApiService.getBooks()) {
-      if (bookId.equals(book.getId())) {
-        foundBook = book;
-        break;
-      }
-    }
-
-    // Process the found book outside of the loop
     if (foundBook != null) {
-      if (foundBook.getCopiesAvailable() > 0) {
-        foundBook.checkoutCopy();
+      // checkoutCopy claims a copy atomically, so there is no separate availability check
+      final String dueDate = foundBook.checkoutCopy(mockApiService.loanPolicy());
+      span.mark(CheckoutTracer.Phase.MUTATE);
+      if (dueDate != null) {
         mockApiService.updateBook(foundBook);
+        span.mark(CheckoutTracer.Phase.PERSIST);
         if (LOGGER.isInfoEnabled()) {
           LOGGER.info("Successfully checked out book with ID: {}", bookId);
         }
@@ -214,92 +504,246 @@ public class RouteController {
   }
 
   /**
-   * Get book recommendations - 5 most popular + 5 random books.
+   * Checks out one copy of each of several books at once, all or nothing. Every id is validated
+   * and looked up as by {@link #checkoutBook(Integer)}; the copies are then claimed with
+   * {@link Book#checkoutCopies}, so either every book is checked out or none is, even when
+   * batches over the same books run concurrently. An id may be repeated to check out several
+   * copies of the same book.
    *
-   * @return ResponseEntity containing a list of 10 recommended books
+   * @param bookIds The IDs of the books to check out, e.g. {@code bookIds=1,4,4}
+   * @return ResponseEntity with the due date of each copy, in request order, or error message
    */
-  @GetMapping("/books/recommendation")
-  public ResponseEntity<?> getBookRecommendations() {
+  @PostMapping("/checkout/batch")
+  public ResponseEntity<?> checkoutBooks(
+      @RequestParam(required = false) final List<Integer> bookIds) {
     ResponseEntity<?> result;
 
-    if (LOGGER.isInfoEnabled()) {
-      LOGGER.info("Retrieving book recommendations");
+    if (bookIds == null || bookIds.isEmpty() || bookIds.size() > MAX_BATCH_SIZE) {
+      if (LOGGER.isWarnEnabled()) {
+        LOGGER.warn("Invalid batch size provided for checkout: {}",
+            bookIds == null ? null : bookIds.size());
+      }
+      result = new ResponseEntity<>("A batch must list between 1 and " + MAX_BATCH_SIZE
+          + " book IDs", HttpStatus.BAD_REQUEST);
+    } else if (bookIds.stream().anyMatch(id -> id == null || id < MIN_VALID_BOOK_ID)) {
+      if (LOGGER.isWarnEnabled()) {
+        LOGGER.warn("Invalid book ID provided for batch checkout: {}", bookIds);
+      }
+      result = new ResponseEntity<>("Invalid book ID", HttpStatus.BAD_REQUEST);
+    } else {
+      try {
+        result = processBatchCheckout(bookIds);
+      } catch (final Exception e) {
+        LOGGER.error("Error occurred during batch checkout for book IDs: {}", bookIds, e);
+        result = new ResponseEntity<>("An error occurred during batch checkout",
+            HttpStatus.INTERNAL_SERVER_ERROR);
+      }
     }
 
-    try {
-      result = generateRecommendations();
-    } catch (final Exception e) {
-      LOGGER.error("Error generating book recommendations", e);
-      result = new ResponseEntity<>("Error generating recommendations", 
-          HttpStatus.INTERNAL_SERVER_ERROR);
+    return result;
+  }
+
+  /**
+   * Process a batch checkout whose IDs are all valid.
+   *
+   * @param bookIds The IDs of the books to check out
+   * @return ResponseEntity with the result
+   */
+  private ResponseEntity<?> processBatchCheckout(final List<Integer> bookIds) {
+    ResponseEntity<?> result = null;
+    final List<Book> books = new ArrayList<>(bookIds.size());
+
+    for (final Integer bookId : bookIds) {
+      final Book book = mockApiService.findById(bookId);
+      if (book == null && result == null) {
+        result = new ResponseEntity<>("Book not found with ID: " + bookId, HttpStatus.NOT_FOUND);
+      }
+      books.add(book);
+    }
+
+    if (result == null) {
+      final List<String> dueDates = Book.checkoutCopies(books, mockApiService.loanPolicy());
+      if (dueDates != null) {
+        final List<CheckoutReceipt> receipts = new ArrayList<>(books.size());
+        for (int i = 0; i < books.size(); i++) {
+          receipts.add(new CheckoutReceipt(books.get(i), dueDates.get(i)));
+        }
+        books.stream().distinct().forEach(mockApiService::updateBook);
+        if (LOGGER.isInfoEnabled()) {
+          LOGGER.info("Successfully checked out batch of book IDs: {}", bookIds);
+        }
+        result = new ResponseEntity<>(receipts, HttpStatus.OK);
+      } else {
+        if (LOGGER.isWarnEnabled()) {
+          LOGGER.warn("No copies available for batch checkout of book IDs: {}", bookIds);
+        }
+        result = new ResponseEntity<>("Not enough copies available to check out every book; "
+            + "nothing was checked out", HttpStatus.CONFLICT);
+      }
     }
 
     return result;
   }
 
   /**
-   * Generate book recommendations.
+   * Return a checked-out copy of a book.
    *
-   * @return ResponseEntity with recommendations
+   * @param bookId The ID of the book being returned
+   * @param dueDate The due date of the returned copy, as an ISO-8601 date ({@code yyyy-MM-dd})
+   * @return ResponseEntity with the updated book or error message
    */
-  private ResponseEntity<?> generateRecommendations() {
-    final List<Book> allBooks = mockApiService.getBooks();
+  @PostMapping("/return")
+  public ResponseEntity<?> returnBook(@RequestParam(required = false) final Integer bookId,
+      @RequestParam(required = false) final String dueDate) {
     ResponseEntity<?> result;
 
-    if (allBooks.isEmpty()) {
-      result = new ResponseEntity<>(new ArrayList<>(), HttpStatus.OK);
-    } else if (allBooks.size() < MIN_BOOKS_FOR_REC) {
+    if (bookId == null || bookId < MIN_VALID_BOOK_ID) {
+      if (LOGGER.isWarnEnabled()) {
+        LOGGER.warn("Invalid book ID provided for return: {}", bookId);
+      }
+      result = new ResponseEntity<>("Invalid book ID", HttpStatus.BAD_REQUEST);
+    } else if (EpochDayMultiset.parseDay(dueDate) == Integer.MIN_VALUE) {
       if (LOGGER.isWarnEnabled()) {
-        LOGGER.warn("Not enough books available for recommendations. Found: {}", allBooks.size());
+        LOGGER.warn("Invalid due date provided for return: {}", dueDate);
       }
-      // Return all available books instead of an error
-      final List<Book> recommendations = createLimitedRecommendationList(allBooks);
-      result = new ResponseEntity<>(recommendations, HttpStatus.OK);
+      result = new ResponseEntity<>("Invalid due date", HttpStatus.BAD_REQUEST);
     } else {
-      final List<Book> recommendations = createRecommendationList(allBooks);
-      if (LOGGER.isInfoEnabled()) {
-        LOGGER.info("Successfully generated recommendation with {} books", recommendations.size());
+      result = performReturn(bookId, dueDate);
+    }
+
+    return result;
+  }
+
+  /**
+   * Helper method to perform the actual return operation.
+   *
+   * @param bookId The ID of the book being returned
+   * @param dueDate The due date of the returned copy
+   * @return ResponseEntity with the result
+   */
+  private ResponseEntity<?> performReturn(final Integer bookId, final String dueDate) {
+    ResponseEntity<?> result;
+
+    try {
+      result = processBookReturn(bookId, dueDate);
+    } catch (final Exception e) {
+      LOGGER.error("Error occurred during return for book ID: {}", bookId, e);
+      result = new ResponseEntity<>("An error occurred during return",
+          HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    return result;
+  }
+
+  /**
+   * Process the book return operation.
+   *
+   * @param bookId The ID of the book being returned
+   * @param dueDate The due date of the returned copy
+   * @return ResponseEntity with the result
+   */
+  private ResponseEntity<?> processBookReturn(final Integer bookId, final String dueDate) {
+    ResponseEntity<?> result = new ResponseEntity<>("Book not found", HttpStatus.NOT_FOUND);
+    final Book foundBook = mockApiService.findById(bookId);
+
+    if (foundBook != null) {
+      // returnCopy matches the due date and restocks the copy atomically
+      if (foundBook.returnCopy(dueDate)) {
+        mockApiService.updateBook(foundBook);
+        if (LOGGER.isInfoEnabled()) {
+          LOGGER.info("Successfully returned book with ID: {}", bookId);
+        }
+        result = new ResponseEntity<>(foundBook, HttpStatus.OK);
+      } else {
+        if (LOGGER.isWarnEnabled()) {
+          LOGGER.warn("No copy of book ID {} is due on {}", bookId, dueDate);
+        }
+        result = new ResponseEntity<>("No checked-out copy is due on " + dueDate,
+            HttpStatus.CONFLICT);
       }
-      result = new ResponseEntity<>(recommendations, HttpStatus.OK);
     }
 
     return result;
   }
 
   /**
-   * Create the recommendation list with 5 popular + 5 random books.
+   * Get book recommendations - 5 most popular + 5 random books.
    *
-   * @param allBooks List of all available books
-   * @return List of recommended books
+   * @return ResponseEntity containing a list of 10 recommended books
    */
-  private List<Book> createRecommendationList(final List<Book> allBooks) {
-    final List<Book> sortedBooks = new ArrayList<>(allBooks);
-    sortedBooks.sort((book1, book2) -> 
-        Integer.compare(book2.getAmountOfTimesCheckedOut(), book1.getAmountOfTimesCheckedOut()));
+  @GetMapping("/books/recommendation")
+  public ResponseEntity<StreamingResponseBody> getBookRecommendations() {
+    ResponseEntity<StreamingResponseBody> result;
 
-    final List<Book> recommendations = new ArrayList<>();
-    final List<Book> topFive = sortedBooks.subList(0, 5);
-    recommendations.addAll(topFive);
+    if (LOGGER.isInfoEnabled()) {
+      LOGGER.info("Retrieving book recommendations");
+    }
 
-    final List<Book> remainingBooks = new ArrayList<>(sortedBooks.subList(5, sortedBooks.size()));
-    Collections.shuffle(remainingBooks, new Random());
-    recommendations.addAll(remainingBooks.subList(0, 5));
+    try {
+      result = generateRecommendations();
+    } catch (final Exception e) {
+      LOGGER.error("Error generating book recommendations", e);
+      result = textBody("Error generating recommendations",
+          HttpStatus.INTERNAL_SERVER_ERROR);
+    }
 
-    return recommendations;
+    return result;
   }
 
   /**
-   * Create a limited recommendation list when fewer than 10 books are available.
+   * Generate book recommendations.
    *
-   * @param allBooks List of all available books (less than 10)
-   * @return List of all available books sorted by popularity
+   * @return ResponseEntity with recommendations
    */
-  private List<Book> createLimitedRecommendationList(final List<Book> allBooks) {
-    final List<Book> sortedBooks = new ArrayList<>(allBooks);
-    sortedBooks.sort((book1, book2) -> 
-        Integer.compare(book2.getAmountOfTimesCheckedOut(), book1.getAmountOfTimesCheckedOut()));
-    return sortedBooks;
+  private ResponseEntity<StreamingResponseBody> generateRecommendations() {
+    return jsonList(Recommendations.compose(mockApiService));
   }
 
+  /**
+   * Returns whether the year bounds, each optional, form a non-empty range.
+   */
+  static boolean isYearRange(final Integer from, final Integer to) {
+    return from == null || to == null || from <= to;
+  }
 
+  /**
+   * Collects the attribute and availability parameters of {@code GET /books} into a filter.
+   */
+  static BookFilter filterOf(final String language, final List<String> subjects,
+      final String location, final String publisher, final Boolean available) {
+    return new BookFilter()
+        .require(FilterIndex.Attribute.LANGUAGE, language)
+        .requireAll(FilterIndex.Attribute.SUBJECT, subjects)
+        .require(FilterIndex.Attribute.LOCATION, location)
+        .require(FilterIndex.Attribute.PUBLISHER, publisher)
+        .available(available);
+  }
+
+  /**
+   * Wraps {@code books} in an HTTP 200 response that streams them as a JSON array.
+   *
+   * @param books The books to send.
+   * @return A {@code ResponseEntity} with a streaming JSON body.
+   */
+  private ResponseEntity<StreamingResponseBody> jsonList(final Iterable<Book> books) {
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(bookJsonStreamer.of(books));
+  }
+
+  /**
+   * Wraps a plain-text message in a response of the same body type as the streaming list
+   * endpoints, so they can report errors without changing their declared return type.
+   *
+   * @param message The message to send.
+   * @param status The HTTP status of the response.
+   * @return A {@code ResponseEntity} whose body writes {@code message}.
+   */
+  private static ResponseEntity<StreamingResponseBody> textBody(final String message,
+      final HttpStatus status) {
+    final byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+    return ResponseEntity.status(status)
+        .contentType(MediaType.TEXT_PLAIN)
+        .body(outputStream -> outputStream.write(bytes));
+  }
 }
@@ -0,0 +1,55 @@
+package dev.coms4156.project.individualproject.controller;
+
+import dev.coms4156.project.individualproject.service.RouteMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Times every request handled by Spring MVC into {@link RouteMetrics}, keyed by the URI template
+ * of the matched handler.
+ *
+ * <p>A request is started the first time a handler is about to run and finished once its
+ * response is complete. Streamed responses are dispatched a second time when the body has been
+ * written, so their latency includes the streaming and they stay in flight until then. A handler
+ * that throws is counted as a server error even though the error page has not set the status
+ * yet.
+ */
+public class RouteMetricsInterceptor implements HandlerInterceptor {
+
+  private static final String ROUTE = RouteMetricsInterceptor.class.getName() + ".route";
+  private static final String START = RouteMetricsInterceptor.class.getName() + ".start";
+  private static final String UNMATCHED = "UNMATCHED";
+  private static final int SERVER_ERROR = 500;
+  private final RouteMetrics metrics;
+
+  public RouteMetricsInterceptor(final RouteMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  @Override
+  public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response,
+      final Object handler) {
+    if (request.getAttribute(ROUTE) == null) {
+      final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      final RouteMetrics.Route route = metrics.route(request.getMethod(),
+          pattern != null ? pattern.toString() : UNMATCHED);
+      request.setAttribute(START, route.start());
+      request.setAttribute(ROUTE, route);
+    }
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(final HttpServletRequest request,
+      final HttpServletResponse response, final Object handler, final Exception ex) {
+    final Object route = request.getAttribute(ROUTE);
+    if (route != null) {
+      request.removeAttribute(ROUTE);
+      final int status = ex != null && response.getStatus() < SERVER_ERROR
+          ? SERVER_ERROR : response.getStatus();
+      ((RouteMetrics.Route) route).finish((Long) request.getAttribute(START), status);
+    }
+  }
+}
@@ -1,12 +1,19 @@
 package dev.coms4156.project.individualproject.model;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
 
 /**
  * This class defines the Book entry model.
+ *
+ * <p>The inventory counters and return dates are updated under a striped lock keyed by book id
+ * (see {@link InventoryLocks}), so concurrent checkouts never oversell a title. Counters are
+ * volatile so readers see the latest committed value without locking. Due dates are kept as an
+ * {@link EpochDayMultiset} and only formatted as ISO-8601 strings for {@link #getReturnDates()};
+ * the due date of a checkout comes from a {@link LoanPolicy}.
  */
 public class Book implements Comparable<Book> {
   private String title;
@@ -17,10 +24,11 @@ public class Book implements Comparable<Book> {
   private String publisher;
   private List<String> subjects;
   private int bookId;
-  private int amountOfTimesCheckedOut;
-  private int copiesAvailable;
-  private List<String> returnDates;
-  private int totalCopies;
+  private volatile int amountOfTimesCheckedOut;
+  private volatile int copiesAvailable;
+  private EpochDayMultiset dueDays;
+  private volatile int totalCopies;
+  private volatile InventoryListener inventoryListener;
 
   /**
    * Very basic Book constructor.
@@ -39,7 +47,7 @@ public class Book implements Comparable<Book> {
     this.subjects = new ArrayList<>();
     this.amountOfTimesCheckedOut = 0;
     this.copiesAvailable = 1;
-    this.returnDates = new ArrayList<>();
+    this.dueDays = new EpochDayMultiset();
     this.totalCopies = 1;
   }
 
@@ -71,7 +79,7 @@ public class Book implements Comparable<Book> {
     this.bookId = bookId;
     this.amountOfTimesCheckedOut = 0;
     this.copiesAvailable = copiesAvailable;
-    this.returnDates = new ArrayList<>();
+    this.dueDays = new EpochDayMultiset();
     this.totalCopies = totalCopies;
   }
 
@@ -81,7 +89,7 @@ public class Book implements Comparable<Book> {
   public Book() {
     this.authors = new ArrayList<>();
     this.subjects = new ArrayList<>();
-    this.returnDates = new ArrayList<>();
+    this.dueDays = new EpochDayMultiset();
     this.language = "";
     this.shelvingLocation = "";
     this.publicationDate = "";
@@ -93,12 +101,22 @@ public class Book implements Comparable<Book> {
     this.bookId = 0;
   }
 
+  /**
+   * Constructor for subclasses that keep the book's state elsewhere and override every
+   * accessor, so none of the fields beyond the id are initialized.
+   *
+   * @param bookId The id of the book.
+   */
+  protected Book(final int bookId) {
+    this.bookId = bookId;
+  }
+
   public boolean hasCopies() {
-    return copiesAvailable > 0;
+    return getCopiesAvailable() > 0;
   }
 
   public boolean hasMultipleAuthors() {
-    return authors.size() > 1;
+    return getAuthors().size() > 1;
   }
 
   /**
@@ -109,67 +127,314 @@ public class Book implements Comparable<Book> {
    */
 
   public boolean deleteCopy() {
+    return adjustCopies(-1);
+  }
+
+  /**
+   * Adds a single new copy of the book, which is immediately available for checkout.
+   */
+  public void addCopy() {
+    adjustCopies(1);
+  }
+
+  /**
+   * Adds {@code delta} copies to the book, or deletes {@code -delta} available copies, in one
+   * step under the inventory lock. A deletion only succeeds if that many copies are on the
+   * shelf; otherwise, or if {@code delta} is zero, nothing changes.
+   *
+   * @param delta The number of copies to add, or to delete if negative.
+   * @return {@code true} if the copies were added or deleted.
+   */
+  public boolean adjustCopies(final int delta) {
     final boolean result;
-    if (totalCopies > 0 && copiesAvailable > 0) {
-      totalCopies--;
-      copiesAvailable--;
-      result = true;
-    } else {
-      result = false;
+    final Lock lock = inventoryLock();
+    lock.lock();
+    try {
+      result = applyCopies(delta);
+    } finally {
+      lock.unlock();
+    }
+    if (result) {
+      notifyInventoryCommitted(changeOf(delta));
     }
     return result;
   }
 
-  public void addCopy() {
-    totalCopies++;
-    copiesAvailable++;
+  /**
+   * Adjusts the copies of many books in one pass, as a shipment import does: each
+   * {@code deltas[i]} is applied to {@code books.get(i)} as by {@link #adjustCopies(int)}, taking
+   * one book's lock at a time. Unlike calling that method in a loop, listeners are told about
+   * the commits only once every adjustment has been applied, so a listener that waits for
+   * durability waits once for the whole batch rather than once per book. Adjustments are
+   * independent: one that cannot be applied does not stop the others.
+   *
+   * @param books The books to adjust, possibly repeated.
+   * @param deltas The number of copies to add to, or delete from, each book.
+   * @return Whether each adjustment was applied, in the order of {@code books}.
+   * @throws IllegalArgumentException if {@code books} and {@code deltas} differ in length.
+   */
+  public static boolean[] adjustCopies(final List<Book> books, final int[] deltas) {
+    if (books.size() != deltas.length) {
+      throw new IllegalArgumentException("Expected " + books.size() + " deltas, got "
+          + deltas.length);
+    }
+    final boolean[] result = new boolean[deltas.length];
+    for (int i = 0; i < deltas.length; i++) {
+      final Book book = books.get(i);
+      final Lock lock = book.inventoryLock();
+      lock.lock();
+      try {
+        result[i] = book.applyCopies(deltas[i]);
+      } finally {
+        lock.unlock();
+      }
+    }
+    for (int i = 0; i < deltas.length; i++) {
+      if (result[i]) {
+        books.get(i).notifyInventoryCommitted(changeOf(deltas[i]));
+      }
+    }
+    return result;
   }
 
   /**
-   * Checks out a copy of the book if available and generates a due date two weeks from today.
+   * Adds or deletes copies. Callers must hold the book's inventory lock.
+   */
+  private boolean applyCopies(final int delta) {
+    final boolean result = delta > 0
+        || delta < 0 && getCopiesAvailable() + delta >= 0 && getTotalCopies() + delta >= 0;
+    if (result) {
+      setTotalCopies(Math.addExact(getTotalCopies(), delta));
+      setCopiesAvailable(getCopiesAvailable() + delta);
+      notifyInventoryChanged(changeOf(delta));
+    }
+    return result;
+  }
+
+  private static InventoryChange changeOf(final int delta) {
+    return delta > 0 ? InventoryChange.ADD_COPY : InventoryChange.DELETE_COPY;
+  }
+
+  /**
+   * Checks out a copy of the book if available, due after the default
+   * {@value LoanPolicy#DEFAULT_LOAN_DAYS}-day loan period.
    *
    * @return A {@code String} representing the due date if the checkout is successful;
    *         otherwise, {@code null} if no copies are available.
    */
-
   public String checkoutCopy() {
+    return checkoutCopy(LoanPolicy.systemDefault());
+  }
+
+  /**
+   * Checks out a copy of the book if available, due on the date {@code policy} assigns to
+   * this book today. The policy caches the day's due dates, so no date is computed or
+   * formatted here.
+   *
+   * @param policy The loan policy deciding the due date.
+   * @return A {@code String} representing the due date if the checkout is successful;
+   *         otherwise, {@code null} if no copies are available.
+   */
+  public String checkoutCopy(final LoanPolicy policy) {
     String result = null;
-    if (copiesAvailable > 0) {
-      copiesAvailable--;
-      amountOfTimesCheckedOut++;
-      final LocalDate today = LocalDate.now();
-      final LocalDate dueDate = today.plusWeeks(2);
-      final String dueDateStr = dueDate.format(DateTimeFormatter.ISO_LOCAL_DATE);
-      returnDates.add(dueDateStr);
-      result = dueDateStr;
+    final DueDate dueDate = policy.dueDate(this);
+    final Lock lock = inventoryLock();
+    lock.lock();
+    try {
+      if (getCopiesAvailable() > 0) {
+        result = claimCopy(dueDate);
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (result != null) {
+      notifyInventoryCommitted(InventoryChange.CHECKOUT);
     }
     return result;
   }
 
+  /**
+   * Checks out one copy of each of {@code books} atomically: either every copy is checked out
+   * or, if any book has too few copies available, none is. A book listed several times needs
+   * that many available copies. The books' stripe locks are all taken in the order given by
+   * {@link InventoryLocks#forBooks}, so concurrent batches never deadlock, and listeners are
+   * told about the commits only once every lock is released.
+   *
+   * @param books The books to check out, possibly repeated.
+   * @param policy The loan policy deciding the due dates.
+   * @return The due dates in the order of {@code books}, or {@code null} if nothing was checked
+   *         out because some book had too few copies available.
+   */
+  public static List<String> checkoutCopies(final List<Book> books, final LoanPolicy policy) {
+    final int[] bookIds = new int[books.size()];
+    final DueDate[] dueDates = new DueDate[books.size()];
+    for (int i = 0; i < bookIds.length; i++) {
+      bookIds[i] = books.get(i).getId();
+      dueDates[i] = policy.dueDate(books.get(i));
+    }
+    List<String> result = null;
+    final Lock[] locks = InventoryLocks.forBooks(bookIds);
+    int held = 0;
+    try {
+      for (final Lock lock : locks) {
+        lock.lock();
+        held++;
+      }
+      if (haveCopies(books)) {
+        result = new ArrayList<>(books.size());
+        for (int i = 0; i < bookIds.length; i++) {
+          result.add(books.get(i).claimCopy(dueDates[i]));
+        }
+      }
+    } finally {
+      while (held > 0) {
+        locks[--held].unlock();
+      }
+    }
+    if (result != null) {
+      for (final Book book : books) {
+        book.notifyInventoryCommitted(InventoryChange.CHECKOUT);
+      }
+    }
+    return result;
+  }
+
+  private static boolean haveCopies(final List<Book> books) {
+    final Map<Integer, Integer> wanted = new HashMap<>();
+    boolean result = true;
+    for (final Book book : books) {
+      final int count = wanted.merge(book.getId(), 1, Integer::sum);
+      result &= book.getCopiesAvailable() >= count;
+    }
+    return result;
+  }
+
+  /**
+   * Takes one available copy off the shelf. Callers must hold the book's inventory lock and
+   * have checked that a copy is available.
+   */
+  private String claimCopy(final DueDate dueDate) {
+    setCopiesAvailable(getCopiesAvailable() - 1);
+    setAmountOfTimesCheckedOut(getAmountOfTimesCheckedOut() + 1);
+    liveDueDays(true).add(dueDate.epochDay(), 1);
+    notifyInventoryChanged(InventoryChange.CHECKOUT);
+    return dueDate.isoDate();
+  }
+
   /**
    * Returns a previously checked-out copy of the book corresponding to the given due date.
+   * The date is parsed once and looked up by binary search among the distinct due dates.
    *
    * @param date A {@code String} representing the due date of the book being returned.
    * @return {@code true} if the return was successful and a matching date was removed;
-   *         {@code false} if no matching due date is found.
+   *         {@code false} if the date is not a valid ISO-8601 date or no copy is due on it.
    */
   public boolean returnCopy(final String date) {
     boolean result = false;
-    
-    if (date != null && returnDates != null) {
-      for (int i = 0; i < returnDates.size(); i++) {
-        if (returnDates.get(i).equals(date)) {
-          returnDates.remove(i);
-          copiesAvailable++;
+    final int day = EpochDayMultiset.parseDay(date);
+
+    if (day != Integer.MIN_VALUE) {
+      final Lock lock = inventoryLock();
+      lock.lock();
+      try {
+        if (liveDueDays(false).remove(day)) {
+          setCopiesAvailable(getCopiesAvailable() + 1);
+          notifyInventoryChanged(InventoryChange.RETURN);
           result = true;
-          break;
         }
+      } finally {
+        lock.unlock();
+      }
+      if (result) {
+        notifyInventoryCommitted(InventoryChange.RETURN);
       }
     }
     
     return result;
   }
 
+  private Lock inventoryLock() {
+    return InventoryLocks.forBook(bookId);
+  }
+
+  /**
+   * Returns the live due dates of the checked-out copies. Callers must hold the book's
+   * inventory lock.
+   *
+   * @param forUpdate {@code true} if the caller is about to add to the multiset, letting
+   *                  subclasses that store empty multisets lazily allocate one.
+   * @return The multiset the inventory operations add to and remove from.
+   */
+  protected EpochDayMultiset liveDueDays(final boolean forUpdate) {
+    return dueDays;
+  }
+
+  /**
+   * Replaces the live due dates. Callers must hold the book's inventory lock.
+   *
+   * @param days The new multiset, owned by the book from now on.
+   */
+  protected void storeDueDays(final EpochDayMultiset days) {
+    this.dueDays = days;
+  }
+
+  /**
+   * Returns a copy of the due dates of all checked-out copies as epoch days, for serializers
+   * that store dates compactly. Deliberately not a bean getter, so it never appears in JSON.
+   *
+   * @return A new multiset.
+   */
+  public EpochDayMultiset dueDays() {
+    final Lock lock = inventoryLock();
+    lock.lock();
+    try {
+      return new EpochDayMultiset(liveDueDays(false));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Replaces the due dates of all checked-out copies with a copy of {@code days}, for loaders
+   * restoring a saved catalog. Does not notify the inventory listener.
+   *
+   * @param days The due dates as epoch days.
+   */
+  public void restoreDueDays(final EpochDayMultiset days) {
+    final EpochDayMultiset copy = new EpochDayMultiset(days);
+    final Lock lock = inventoryLock();
+    lock.lock();
+    try {
+      storeDueDays(copy);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Registers the listener told about every inventory mutation of this book, replacing any
+   * previous one. Deliberately not a bean setter, so Jackson never treats it as a property.
+   *
+   * @param listener The listener, or {@code null} to stop notifications.
+   */
+  public void attachInventoryListener(final InventoryListener listener) {
+    this.inventoryListener = listener;
+  }
+
+  private void notifyInventoryChanged(final InventoryChange change) {
+    final InventoryListener listener = inventoryListener;
+    if (listener != null) {
+      listener.inventoryChanged(this, change);
+    }
+  }
+
+  private void notifyInventoryCommitted(final InventoryChange change) {
+    final InventoryListener listener = inventoryListener;
+    if (listener != null) {
+      listener.inventoryCommitted(this, change);
+    }
+  }
+
 
   public String getTitle() {
     return title;
@@ -239,16 +504,60 @@ public class Book implements Comparable<Book> {
     return amountOfTimesCheckedOut;
   }
 
+  /**
+   * Sets the checkout counter directly, for loaders restoring a saved catalog. Unlike
+   * {@link #checkoutCopy()} this does not notify the inventory listener.
+   *
+   * @param amountOfTimesCheckedOut The number of times the book has been checked out.
+   */
+  public void setAmountOfTimesCheckedOut(final int amountOfTimesCheckedOut) {
+    this.amountOfTimesCheckedOut = amountOfTimesCheckedOut;
+  }
+
   public int getCopiesAvailable() {
     return copiesAvailable;
   }
 
+  /**
+   * Sets the available copy count directly, for loaders restoring a saved catalog. Unlike the
+   * inventory operations this does not notify the inventory listener.
+   *
+   * @param copiesAvailable The number of copies on the shelf.
+   */
+  public void setCopiesAvailable(final int copiesAvailable) {
+    this.copiesAvailable = copiesAvailable;
+  }
+
+  /**
+   * Returns a snapshot of the due dates of all checked-out copies.
+   *
+   * @return A new list of ISO-8601 due date strings in ascending order.
+   */
   public List<String> getReturnDates() {
-    return new ArrayList<>(returnDates);
+    final Lock lock = inventoryLock();
+    lock.lock();
+    try {
+      return liveDueDays(false).toIsoDates();
+    } finally {
+      lock.unlock();
+    }
   }
 
+  /**
+   * Replaces the due dates of all checked-out copies.
+   *
+   * @param returnDates The ISO-8601 due date strings, or {@code null} for none. Entries that
+   *                    are not valid dates are ignored.
+   */
   public void setReturnDates(final List<String> returnDates) {
-    this.returnDates = returnDates != null ? new ArrayList<>(returnDates) : new ArrayList<>();
+    final EpochDayMultiset days = EpochDayMultiset.parse(returnDates);
+    final Lock lock = inventoryLock();
+    lock.lock();
+    try {
+      storeDueDays(days);
+    } finally {
+      lock.unlock();
+    }
   }
 
   public int getTotalCopies() {
@@ -285,7 +594,7 @@ public class Book implements Comparable<Book> {
 
   @Override
   public String toString() {
-    return String.format("(%d)\t%s", this.bookId, this.title);
+    return String.format("(%d)\t%s", this.bookId, getTitle());
   }
 }
 
@@ -0,0 +1,50 @@
+package dev.coms4156.project.individualproject.model;
+
+/**
+ * A loan due date in both forms a checkout needs: the epoch day recorded in the book's
+ * {@link EpochDayMultiset} and the ISO-8601 string returned to the caller. Instances are
+ * computed once per day by a {@link LoanPolicy} and shared by every checkout of that day.
+ */
+public final class DueDate {
+
+  private final int epochDay;
+  private final String isoDate;
+
+  /**
+   * Creates the due date falling on {@code epochDay}.
+   *
+   * @param epochDay The number of days since 1970-01-01.
+   */
+  public DueDate(final int epochDay) {
+    this.epochDay = epochDay;
+    this.isoDate = EpochDayMultiset.format(epochDay);
+  }
+
+  public int epochDay() {
+    return epochDay;
+  }
+
+  /**
+   * Returns the due date formatted as {@code yyyy-MM-dd}.
+   *
+   * @return The ISO-8601 date.
+   */
+  public String isoDate() {
+    return isoDate;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    return obj instanceof DueDate && ((DueDate) obj).epochDay == epochDay;
+  }
+
+  @Override
+  public int hashCode() {
+    return Integer.hashCode(epochDay);
+  }
+
+  @Override
+  public String toString() {
+    return isoDate;
+  }
+}
@@ -0,0 +1,239 @@
+package dev.coms4156.project.individualproject.model;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorted multiset of dates stored as epoch days, used for the due dates of a book's checked-out
+ * copies.
+ *
+ * <p>Each distinct day is kept once with a count, in two parallel sorted {@code int} arrays.
+ * Loans share a handful of due dates even when a title has hundreds of copies out, so adding or
+ * removing a copy is a binary search plus, only for a day not yet present, a short array shift.
+ * Not thread-safe; a book's multiset is guarded by its inventory lock.
+ */
+public final class EpochDayMultiset {
+
+  private static final int[] NO_DAYS = new int[0];
+  private static final int INITIAL_CAPACITY = 4;
+  private int[] days = NO_DAYS;
+  private int[] counts = NO_DAYS;
+  private int distinct;
+  private int size;
+
+  /**
+   * Creates an empty multiset.
+   */
+  public EpochDayMultiset() {
+    // starts empty; arrays are allocated by the first add
+  }
+
+  /**
+   * Creates a copy of {@code other}.
+   *
+   * @param other The multiset to copy.
+   */
+  public EpochDayMultiset(final EpochDayMultiset other) {
+    days = Arrays.copyOf(other.days, other.distinct);
+    counts = Arrays.copyOf(other.counts, other.distinct);
+    distinct = other.distinct;
+    size = other.size;
+  }
+
+  /**
+   * Parses ISO-8601 dates ({@code yyyy-MM-dd}) into a new multiset. Entries that are not valid
+   * dates are ignored.
+   *
+   * @param dates The dates to parse, or {@code null} for none.
+   * @return A new multiset holding every valid date.
+   */
+  public static EpochDayMultiset parse(final List<String> dates) {
+    final EpochDayMultiset result = new EpochDayMultiset();
+    if (dates != null) {
+      for (final String date : dates) {
+        final int day = parseDay(date);
+        if (day != Integer.MIN_VALUE) {
+          result.add(day, 1);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Converts an ISO-8601 date ({@code yyyy-MM-dd}) to its epoch day.
+   *
+   * @param date The date to parse, possibly {@code null}.
+   * @return The epoch day, or {@link Integer#MIN_VALUE} if {@code date} is not a valid date or
+   *         its epoch day does not fit in an {@code int} (e.g. {@code +9999999-01-01}).
+   */
+  public static int parseDay(final String date) {
+    int result = Integer.MIN_VALUE;
+    if (date != null) {
+      try {
+        final long day = LocalDate.parse(date, DateTimeFormatter.ISO_LOCAL_DATE).toEpochDay();
+        if (day > Integer.MIN_VALUE && day <= Integer.MAX_VALUE) {
+          result = (int) day;
+        }
+      } catch (final DateTimeException e) {
+        result = Integer.MIN_VALUE;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Converts a date to its epoch day.
+   *
+   * @param date The date.
+   * @return The number of days since 1970-01-01.
+   */
+  public static int toEpochDay(final LocalDate date) {
+    return Math.toIntExact(date.toEpochDay());
+  }
+
+  /**
+   * Formats an epoch day as an ISO-8601 date ({@code yyyy-MM-dd}).
+   *
+   * @param day The epoch day.
+   * @return The formatted date.
+   */
+  public static String format(final int day) {
+    return LocalDate.ofEpochDay(day).format(DateTimeFormatter.ISO_LOCAL_DATE);
+  }
+
+  /**
+   * Adds {@code count} occurrences of {@code day}.
+   *
+   * @param day The epoch day.
+   * @param count The number of occurrences to add; must be positive.
+   */
+  public void add(final int day, final int count) {
+    if (count <= 0) {
+      throw new IllegalArgumentException("Count must be positive: " + count);
+    }
+    final int index = Arrays.binarySearch(days, 0, distinct, day);
+    if (index >= 0) {
+      counts[index] += count;
+    } else {
+      final int insertAt = -index - 1;
+      if (distinct == days.length) {
+        final int capacity = Math.max(INITIAL_CAPACITY, distinct * 2);
+        days = Arrays.copyOf(days, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+      }
+      System.arraycopy(days, insertAt, days, insertAt + 1, distinct - insertAt);
+      System.arraycopy(counts, insertAt, counts, insertAt + 1, distinct - insertAt);
+      days[insertAt] = day;
+      counts[insertAt] = count;
+      distinct++;
+    }
+    size += count;
+  }
+
+  /**
+   * Removes one occurrence of {@code day}, if present.
+   *
+   * @param day The epoch day.
+   * @return {@code true} if an occurrence was removed.
+   */
+  public boolean remove(final int day) {
+    final int index = Arrays.binarySearch(days, 0, distinct, day);
+    final boolean result = index >= 0;
+    if (result) {
+      size--;
+      if (--counts[index] == 0) {
+        System.arraycopy(days, index + 1, days, index, distinct - index - 1);
+        System.arraycopy(counts, index + 1, counts, index, distinct - index - 1);
+        distinct--;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns how many times {@code day} occurs.
+   *
+   * @param day The epoch day.
+   * @return The number of occurrences.
+   */
+  public int count(final int day) {
+    final int index = Arrays.binarySearch(days, 0, distinct, day);
+    return index >= 0 ? counts[index] : 0;
+  }
+
+  /**
+   * Returns the total number of occurrences.
+   *
+   * @return The number of dates, counting repeats.
+   */
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the number of distinct days.
+   *
+   * @return The distinct day count.
+   */
+  public int distinctDays() {
+    return distinct;
+  }
+
+  /**
+   * Returns the {@code index}-th smallest distinct day.
+   *
+   * @param index A position in {@code 0..distinctDays()-1}.
+   * @return The epoch day.
+   */
+  public int dayAt(final int index) {
+    return days[checkIndex(index)];
+  }
+
+  /**
+   * Returns how many times the {@code index}-th smallest distinct day occurs.
+   *
+   * @param index A position in {@code 0..distinctDays()-1}.
+   * @return The number of occurrences.
+   */
+  public int countAt(final int index) {
+    return counts[checkIndex(index)];
+  }
+
+  private int checkIndex(final int index) {
+    if (index < 0 || index >= distinct) {
+      throw new IndexOutOfBoundsException("Index " + index + " of " + distinct + " days");
+    }
+    return index;
+  }
+
+  /**
+   * Expands the multiset into ISO-8601 date strings in ascending order, repeating each date as
+   * often as it occurs. Each distinct day is formatted once.
+   *
+   * @return A new mutable list of {@link #size()} dates.
+   */
+  public List<String> toIsoDates() {
+    final List<String> result = new ArrayList<>(size);
+    for (int i = 0; i < distinct; i++) {
+      final String date = format(days[i]);
+      for (int j = 0; j < counts[i]; j++) {
+        result.add(date);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return toIsoDates().toString();
+  }
+}
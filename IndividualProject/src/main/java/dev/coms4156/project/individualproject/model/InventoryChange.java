@@ -0,0 +1,15 @@
+package dev.coms4156.project.individualproject.model;
+
+/**
+ * The kinds of inventory mutation a {@link Book} reports to its {@link InventoryListener}.
+ */
+public enum InventoryChange {
+  /** A copy was checked out. */
+  CHECKOUT,
+  /** A checked-out copy was returned. */
+  RETURN,
+  /** A new copy was added to the collection. */
+  ADD_COPY,
+  /** An available copy was removed from the collection. */
+  DELETE_COPY
+}
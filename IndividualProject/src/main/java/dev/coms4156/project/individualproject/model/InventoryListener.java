@@ -0,0 +1,32 @@
+package dev.coms4156.project.individualproject.model;
+
+/**
+ * Receives a callback every time the inventory of a {@link Book} changes.
+ *
+ * <p>Callbacks run while the book's inventory lock is held, so the events for one book arrive in
+ * the order they happened and the book's counters cannot change during the callback.
+ * Implementations must therefore be short and must never block.
+ */
+@FunctionalInterface
+public interface InventoryListener {
+
+  /**
+   * Called after {@code book}'s inventory has been mutated.
+   *
+   * @param book The book whose counters changed.
+   * @param change The kind of mutation that happened.
+   */
+  void inventoryChanged(Book book, InventoryChange change);
+
+  /**
+   * Called after {@code book}'s inventory lock has been released again following a mutation
+   * reported to {@link #inventoryChanged}. Unlike that callback this one may block, e.g. to wait
+   * until the mutation is durable, without holding up other threads using the same lock.
+   *
+   * @param book The book whose counters changed.
+   * @param change The kind of mutation that happened.
+   */
+  default void inventoryCommitted(final Book book, final InventoryChange change) {
+    // nothing to do after the lock by default
+  }
+}
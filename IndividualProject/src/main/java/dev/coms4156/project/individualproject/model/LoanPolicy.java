@@ -0,0 +1,142 @@
+package dev.coms4156.project.individualproject.model;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decides when a checked-out copy is due, from an injectable {@link Clock} and a loan period
+ * that may vary per shelving location or per book.
+ *
+ * <p>All due dates of the current day are computed together, once, and cached until the next
+ * local midnight of the clock's zone. A checkout therefore reads the clock's millisecond time
+ * and does a map lookup at most; it never does date arithmetic or formatting, and every
+ * checkout of the same day and loan period shares one {@link DueDate}. Thread-safe: racing
+ * threads that both see an expired day compute the same values.
+ */
+public final class LoanPolicy {
+
+  /** Default loan period, in days. */
+  public static final int DEFAULT_LOAN_DAYS = 14;
+
+  private static final LoanPolicy SYSTEM_DEFAULT = new LoanPolicy(Clock.systemDefaultZone(),
+      DEFAULT_LOAN_DAYS, Map.of(), Map.of());
+
+  private final Clock clock;
+  private final int loanDays;
+  private final Map<String, Integer> locationDays;
+  private final Map<Integer, Integer> bookDays;
+  private volatile Day today;
+
+  /**
+   * Creates a policy lending every book for {@code loanDays} unless overridden.
+   *
+   * @param clock The source of the current date; tests may pass a fixed clock.
+   * @param loanDays The default loan period in days; must be positive.
+   * @param locationDays Loan periods of books by shelving location, overriding the default.
+   * @param bookDays Loan periods of individual books by id, overriding the location.
+   * @throws IllegalArgumentException if any loan period is not positive.
+   */
+  public LoanPolicy(final Clock clock, final int loanDays,
+      final Map<String, Integer> locationDays, final Map<Integer, Integer> bookDays) {
+    this.clock = clock;
+    this.loanDays = checkDays(loanDays);
+    this.locationDays = Map.copyOf(locationDays);
+    this.bookDays = Map.copyOf(bookDays);
+    this.locationDays.values().forEach(LoanPolicy::checkDays);
+    this.bookDays.values().forEach(LoanPolicy::checkDays);
+    this.today = computeDay();
+  }
+
+  /**
+   * Returns the policy used when none is configured: the system clock in the default time
+   * zone and a {@value #DEFAULT_LOAN_DAYS}-day loan for every book.
+   *
+   * @return The shared default policy.
+   */
+  public static LoanPolicy systemDefault() {
+    return SYSTEM_DEFAULT;
+  }
+
+  private static int checkDays(final int days) {
+    if (days <= 0) {
+      throw new IllegalArgumentException("Loan period must be positive: " + days);
+    }
+    return days;
+  }
+
+  /**
+   * Returns the due date of a copy of {@code book} checked out now.
+   *
+   * @param book The book being checked out.
+   * @return The cached due date for the book's loan period.
+   */
+  public DueDate dueDate(final Book book) {
+    Day day = today;
+    if (clock.millis() >= day.endMillis) {
+      day = computeDay();
+      today = day;
+    }
+    DueDate result = null;
+    if (!day.byBook.isEmpty()) {
+      result = day.byBook.get(book.getId());
+    }
+    if (result == null && !day.byLocation.isEmpty()) {
+      result = day.byLocation.get(book.getShelvingLocation());
+    }
+    return result != null ? result : day.standard;
+  }
+
+  /**
+   * Returns the loan period of {@code book}.
+   *
+   * @param book The book.
+   * @return The number of days a copy of the book is lent for.
+   */
+  public int loanDays(final Book book) {
+    Integer result = bookDays.get(book.getId());
+    if (result == null) {
+      result = locationDays.getOrDefault(book.getShelvingLocation(), loanDays);
+    }
+    return result;
+  }
+
+  private Day computeDay() {
+    final LocalDate date = LocalDate.now(clock);
+    final long endMillis = date.plusDays(1).atStartOfDay(clock.getZone()).toInstant()
+        .toEpochMilli();
+    final int epochDay = EpochDayMultiset.toEpochDay(date);
+    final Map<Integer, DueDate> byPeriod = new HashMap<>();
+    final DueDate standard = dueAfter(byPeriod, epochDay, loanDays);
+    final Map<String, DueDate> byLocation = new HashMap<>();
+    locationDays.forEach((location, days) ->
+        byLocation.put(location, dueAfter(byPeriod, epochDay, days)));
+    final Map<Integer, DueDate> byBook = new HashMap<>();
+    bookDays.forEach((bookId, days) -> byBook.put(bookId, dueAfter(byPeriod, epochDay, days)));
+    return new Day(endMillis, standard, byLocation, byBook);
+  }
+
+  private static DueDate dueAfter(final Map<Integer, DueDate> byPeriod, final int epochDay,
+      final int days) {
+    return byPeriod.computeIfAbsent(days, period -> new DueDate(epochDay + period));
+  }
+
+  /**
+   * The due dates of one day, valid until the clock reaches {@code endMillis}.
+   */
+  private static final class Day {
+    private final long endMillis;
+    private final DueDate standard;
+    private final Map<String, DueDate> byLocation;
+    private final Map<Integer, DueDate> byBook;
+
+    private Day(final long endMillis, final DueDate standard,
+        final Map<String, DueDate> byLocation, final Map<Integer, DueDate> byBook) {
+      this.endMillis = endMillis;
+      this.standard = standard;
+      this.byLocation = byLocation;
+      this.byBook = byBook;
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package dev.coms4156.project.individualproject.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent bitset over book ids recording which books have at least one copy available.
+ *
+ * <p>Bits are flipped with compare-and-set on 64-bit words, so updates for different books never
+ * block each other and readers can iterate without locking. Iteration cost is proportional to
+ * the id range divided by 64 plus the number of available books, instead of touching every
+ * {@code Book}.
+ */
+public class AvailabilityIndex {
+
+  private static final int WORD_SHIFT = 6;
+  private final AtomicLongArray words;
+  private final AtomicInteger count = new AtomicInteger();
+  private final int capacity;
+
+  /**
+   * Creates an empty index able to hold ids {@code 0..capacity-1}.
+   *
+   * @param capacity One more than the largest id to track.
+   */
+  public AvailabilityIndex(final int capacity) {
+    this.capacity = capacity;
+    this.words = new AtomicLongArray((capacity + Long.SIZE - 1) >>> WORD_SHIFT);
+  }
+
+  /**
+   * Records whether the book with the given id has copies available. Ids outside the index are
+   * ignored.
+   *
+   * @param bookId The id of the book.
+   * @param available {@code true} if the book has at least one copy available.
+   */
+  public void update(final int bookId, final boolean available) {
+    if (bookId >= 0 && bookId < capacity) {
+      final int word = bookId >>> WORD_SHIFT;
+      final long mask = 1L << bookId;
+      long current;
+      long next;
+      do {
+        current = words.get(word);
+        next = available ? current | mask : current & ~mask;
+      } while (current != next && !words.compareAndSet(word, current, next));
+
+      if (current != next) {
+        count.addAndGet(available ? 1 : -1);
+      }
+    }
+  }
+
+  /**
+   * Returns whether the book with the given id is marked available.
+   *
+   * @param bookId The id of the book.
+   * @return {@code true} if the book's bit is set.
+   */
+  public boolean isAvailable(final int bookId) {
+    boolean result = false;
+    if (bookId >= 0 && bookId < capacity) {
+      result = (words.get(bookId >>> WORD_SHIFT) & (1L << bookId)) != 0;
+    }
+    return result;
+  }
+
+  /**
+   * Finds the smallest available id greater than or equal to {@code fromId}.
+   *
+   * @param fromId The id to start searching from.
+   * @return The next available id, or {@code -1} if there is none.
+   */
+  public int nextAvailable(final int fromId) {
+    int result = -1;
+    final int start = Math.max(fromId, 0);
+    if (start < capacity) {
+      int word = start >>> WORD_SHIFT;
+      long bits = words.get(word) & (-1L << start);
+      while (bits == 0 && ++word < words.length()) {
+        bits = words.get(word);
+      }
+      if (bits != 0) {
+        result = (word << WORD_SHIFT) + Long.numberOfTrailingZeros(bits);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of books currently marked available.
+   *
+   * @return The number of set bits.
+   */
+  public int count() {
+    return count.get();
+  }
+}
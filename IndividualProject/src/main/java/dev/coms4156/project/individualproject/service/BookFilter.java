@@ -0,0 +1,111 @@
+package dev.coms4156.project.individualproject.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The conditions of a {@link MockApiService#filterBooks} query. Every condition must hold; a
+ * filter without conditions matches every book.
+ */
+public final class BookFilter {
+
+  private final Map<FilterIndex.Attribute, List<String>> values =
+      new EnumMap<>(FilterIndex.Attribute.class);
+  private Boolean available;
+  private Integer publishedFrom;
+  private Integer publishedTo;
+
+  /**
+   * Requires books to have {@code value} for {@code attribute}. Blank values are ignored.
+   *
+   * @param attribute The attribute to filter on.
+   * @param value The required value, possibly {@code null}.
+   * @return This filter.
+   */
+  public BookFilter require(final FilterIndex.Attribute attribute, final String value) {
+    if (value != null && !value.isBlank()) {
+      values.computeIfAbsent(attribute, key -> new ArrayList<>()).add(value);
+    }
+    return this;
+  }
+
+  /**
+   * Requires books to have every one of {@code required} for {@code attribute}.
+   *
+   * @param attribute The attribute to filter on.
+   * @param required The required values, possibly {@code null}.
+   * @return This filter.
+   */
+  public BookFilter requireAll(final FilterIndex.Attribute attribute,
+      final Collection<String> required) {
+    if (required != null) {
+      for (final String value : required) {
+        require(attribute, value);
+      }
+    }
+    return this;
+  }
+
+  /**
+   * Requires books to have copies available, or to have none.
+   *
+   * @param available {@code true} or {@code false}; {@code null} to accept either.
+   * @return This filter.
+   */
+  public BookFilter available(final Boolean available) {
+    this.available = available;
+    return this;
+  }
+
+  /**
+   * Requires books to have been published in the given range of years, as parsed by
+   * {@link PublicationYearIndex#parseYear}. Books whose year is unknown never match a range.
+   *
+   * @param from The first year wanted; {@code null} for no lower bound.
+   * @param to The last year wanted; {@code null} for no upper bound.
+   * @return This filter.
+   */
+  public BookFilter publishedBetween(final Integer from, final Integer to) {
+    this.publishedFrom = from;
+    this.publishedTo = to;
+    return this;
+  }
+
+  public Map<FilterIndex.Attribute, List<String>> getValues() {
+    return Collections.unmodifiableMap(values);
+  }
+
+  public Boolean getAvailable() {
+    return available;
+  }
+
+  public Integer getPublishedFrom() {
+    return publishedFrom;
+  }
+
+  public Integer getPublishedTo() {
+    return publishedTo;
+  }
+
+  /**
+   * Returns whether this filter restricts the publication year.
+   *
+   * @return {@code true} if either bound is set.
+   */
+  public boolean hasYearRange() {
+    return publishedFrom != null || publishedTo != null;
+  }
+
+  /**
+   * Returns whether this filter has no conditions.
+   *
+   * @return {@code true} if every book matches.
+   */
+  public boolean isEmpty() {
+    return values.isEmpty() && available == null && !hasYearRange();
+  }
+}
@@ -0,0 +1,199 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.InventoryListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Concurrent, id-keyed store backing the catalog of {@link MockApiService}, holding one
+ * {@code Book} object per id. This is the default {@code catalog.storage} engine.
+ *
+ * <p>Slot {@code i} holds the book whose id is {@code i}. Catalog ids are mostly contiguous, so
+ * the table stays dense and lookups and single-entry replacements are a single array access.
+ * Slots are read and written with volatile semantics, so readers always see a fully published
+ * book without any locking.
+ *
+ * <p>Every book added or stored by {@link #replace} has its repeated metadata canonicalized
+ * through the store's {@link StringDictionary}, so equal languages, publishers, authors and the
+ * like share one instance across the catalog.
+ */
+public class BookStore implements CatalogStore {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BookStore.class);
+  private final AtomicReferenceArray<Book> slots;
+  private final int size;
+  private final StringDictionary dictionary;
+  private volatile InventoryListener inventoryListener;
+
+  /**
+   * Creates a store holding the given books. Books with negative ids cannot be addressed and are
+   * skipped; when two books share an id the later one wins.
+   *
+   * @param books The books to store.
+   */
+  public BookStore(final Collection<Book> books) {
+    this(buildTable(books));
+  }
+
+  private BookStore(final Builder builder) {
+    slots = new AtomicReferenceArray<>(Arrays.copyOf(builder.table, builder.maxId + 1));
+    size = builder.size;
+    dictionary = builder.dictionary;
+  }
+
+  private static Builder buildTable(final Collection<Book> books) {
+    final Builder builder = new Builder();
+    books.forEach(builder::add);
+    return builder;
+  }
+
+  @Override
+  public Book get(final int bookId) {
+    Book result = null;
+    if (bookId >= 0 && bookId < slots.length()) {
+      result = slots.get(bookId);
+    }
+    return result;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The replacement is a single slot write, so concurrent readers see either the old or the
+   * new book. The store's inventory listener is moved from the old book to the new one.
+   */
+  @Override
+  public Book replace(final Book book) {
+    Book result = null;
+    final Book current = get(book.getId());
+    if (current != null) {
+      if (current != book) {
+        dictionary.canonicalize(book);
+      }
+      book.attachInventoryListener(inventoryListener);
+      result = slots.getAndSet(book.getId(), book);
+      if (result != book) {
+        result.attachInventoryListener(null);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public boolean holds(final Book book) {
+    return get(book.getId()) == book;
+  }
+
+  @Override
+  public void forEach(final Consumer<? super Book> action) {
+    for (int i = 0; i < slots.length(); i++) {
+      final Book book = slots.get(i);
+      if (book != null) {
+        action.accept(book);
+      }
+    }
+  }
+
+  @Override
+  public void forEachInventory(final InventoryVisitor visitor) {
+    forEach(book -> visitor.visit(book.getId(), book.getTotalCopies(), book.getCopiesAvailable(),
+        book.getAmountOfTimesCheckedOut()));
+  }
+
+  @Override
+  public List<Book> toList() {
+    final List<Book> result = new ArrayList<>(size);
+    forEach(result::add);
+    return result;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public int capacity() {
+    return slots.length();
+  }
+
+  /**
+   * Returns the dictionary sharing repeated metadata between the stored books.
+   *
+   * @return The store's string dictionary.
+   */
+  public StringDictionary dictionary() {
+    return dictionary;
+  }
+
+  @Override
+  public void attachInventoryListener(final InventoryListener listener) {
+    inventoryListener = listener;
+    forEach(book -> book.attachInventoryListener(listener));
+  }
+
+  /**
+   * Accumulates books one at a time, growing the id table as larger ids arrive, so a loader can
+   * index books while it is still parsing them. Each book's metadata is canonicalized as it is
+   * added, so duplicates never outlive the book being parsed. Not thread-safe.
+   */
+  public static final class Builder {
+    private static final int INITIAL_CAPACITY = 1024;
+    private final StringDictionary dictionary = new StringDictionary();
+    private Book[] table = new Book[INITIAL_CAPACITY];
+    private int maxId = -1;
+    private int size;
+
+    /**
+     * Adds a book, replacing any earlier book with the same id. Books with negative ids are
+     * skipped with a warning.
+     *
+     * @param book The book to add.
+     * @return This builder.
+     */
+    public Builder add(final Book book) {
+      final int bookId = book.getId();
+      if (bookId < 0) {
+        if (LOGGER.isWarnEnabled()) {
+          LOGGER.warn("Skipping book with negative id {}", bookId);
+        }
+      } else {
+        if (bookId >= table.length) {
+          table = Arrays.copyOf(table, Math.max(bookId + 1, table.length * 2));
+        }
+        if (table[bookId] == null) {
+          size++;
+        }
+        dictionary.canonicalize(book);
+        table[bookId] = book;
+        maxId = Math.max(maxId, bookId);
+      }
+      return this;
+    }
+
+    /**
+     * Returns the number of distinct books added so far.
+     *
+     * @return The book count.
+     */
+    public int size() {
+      return size;
+    }
+
+    /**
+     * Creates the store. The builder should not be used afterwards.
+     *
+     * @return A new store holding every added book.
+     */
+    public BookStore build() {
+      return new BookStore(this);
+    }
+  }
+}
@@ -0,0 +1,227 @@
+package dev.coms4156.project.individualproject.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import dev.coms4156.project.individualproject.config.CatalogProperties;
+import dev.coms4156.project.individualproject.model.Book;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads the catalog at startup by streaming a JSON array of books token by token.
+ *
+ * <p>Only one book is being parsed at any moment, and each finished book goes straight into a
+ * {@link BookStore.Builder}, so the id index grows while the file is read and no intermediate
+ * tree or list of the whole catalog is ever built. The builder also deduplicates repeated
+ * metadata strings through a {@link StringDictionary} as books arrive. The catalog comes from
+ * the file named by {@code catalog.path}, or from the bundled {@code mockdata/books.json} when
+ * no path is set, unless a binary snapshot at {@code catalog.snapshot.path} can be loaded
+ * instead.
+ */
+public class CatalogLoader {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CatalogLoader.class);
+  private static final String BUNDLED_CATALOG = "mockdata/books.json";
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+  private static final long BYTES_PER_MB = 1024L * 1024L;
+  private final String path;
+  private final String snapshotPath;
+
+  /**
+   * Creates a loader for the catalog configured in {@code properties}.
+   *
+   * @param properties The {@code catalog.*} settings.
+   */
+  public CatalogLoader(final CatalogProperties properties) {
+    this.path = properties.getPath();
+    this.snapshotPath = properties.getSnapshot().getPath();
+  }
+
+  /**
+   * Loads the catalog, logging how long it took and how much heap it used. A snapshot written by
+   * {@link CatalogSnapshot} is preferred when one exists; the JSON catalog is read only when
+   * there is no snapshot or it cannot be read. If neither can be loaded, the error is logged and
+   * an empty store is returned.
+   *
+   * @return The loaded catalog.
+   */
+  public BookStore load() {
+    BookStore result = null;
+    if (!snapshotPath.isEmpty() && Files.isRegularFile(Path.of(snapshotPath))) {
+      result = measure(snapshotPath, () -> CatalogSnapshot.read(Path.of(snapshotPath)));
+    }
+    if (result == null) {
+      result = measure(path.isEmpty() ? BUNDLED_CATALOG : path, this::readJson);
+    }
+    if (result == null) {
+      result = new BookStore(List.of());
+    }
+    return result;
+  }
+
+  /**
+   * Reads one catalog source, logging its size, load time and heap use.
+   *
+   * @return The catalog, or {@code null} if the source is missing or unreadable.
+   */
+  private BookStore measure(final String source, final Source reader) {
+    final long startNanos = System.nanoTime();
+    final long heapBefore = usedHeapBytes();
+    resetPeakHeap();
+
+    BookStore result = null;
+    try {
+      result = reader.read();
+      if (result != null && LOGGER.isInfoEnabled()) {
+        LOGGER.info("Successfully loaded {} books from {} in {} ms "
+                + "(heap grew by {} MB, peak heap {} MB during load)",
+            result.size(), source,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+            (usedHeapBytes() - heapBefore) / BYTES_PER_MB, peakHeapBytes() / BYTES_PER_MB);
+        final StringDictionary dictionary = result.dictionary();
+        LOGGER.info("Shared {} distinct metadata strings, replacing {} duplicates "
+                + "(about {} KB of heap saved)",
+            dictionary.size(), dictionary.duplicates(), dictionary.savedBytes() / 1024);
+      }
+    } catch (final IOException | RuntimeException e) {
+      LOGGER.error("Failed to load books from {}", source, e);
+    }
+    return result;
+  }
+
+  private BookStore readJson() throws IOException {
+    BookStore result = null;
+    try (InputStream inputStream = open()) {
+      if (inputStream == null) {
+        LOGGER.error("Failed to find catalog {}", path.isEmpty() ? BUNDLED_CATALOG : path);
+      } else {
+        result = read(inputStream);
+      }
+    }
+    return result;
+  }
+
+  private InputStream open() throws IOException {
+    InputStream result = null;
+    if (path.isEmpty()) {
+      result = Thread.currentThread().getContextClassLoader()
+          .getResourceAsStream(BUNDLED_CATALOG);
+    } else if (Files.isReadable(Path.of(path))) {
+      result = Files.newInputStream(Path.of(path));
+    }
+    return result;
+  }
+
+  /**
+   * Parses a JSON array of books into a store.
+   *
+   * @param inputStream The JSON to read; not closed by this method.
+   * @return A store holding every parsed book.
+   * @throws IOException if the stream cannot be read or is not a JSON array of book objects.
+   */
+  public static BookStore read(final InputStream inputStream) throws IOException {
+    final BookStore.Builder builder = new BookStore.Builder();
+    try (JsonParser parser = JSON_FACTORY.createParser(inputStream)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new JsonParseException(parser, "Expected a JSON array of books");
+      }
+      JsonToken token = parser.nextToken();
+      while (token == JsonToken.START_OBJECT) {
+        builder.add(readBook(parser));
+        token = parser.nextToken();
+      }
+      if (token != JsonToken.END_ARRAY) {
+        throw new JsonParseException(parser, "Expected a book object, found " + token);
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Reads one book object; the parser must be positioned on its {@code START_OBJECT}. Unknown
+   * fields are skipped so newer catalog files still load.
+   */
+  private static Book readBook(final JsonParser parser) throws IOException {
+    final Book book = new Book();
+    String field = parser.nextFieldName();
+    while (field != null) {
+      parser.nextToken();
+      switch (field) {
+        case "title" -> book.setTitle(parser.getValueAsString());
+        case "authors" -> book.setAuthors(readStrings(parser));
+        case "language" -> book.setLanguage(parser.getValueAsString());
+        case "shelvingLocation" -> book.setShelvingLocation(parser.getValueAsString());
+        case "publicationDate" -> book.setPublicationDate(parser.getValueAsString());
+        case "publisher" -> book.setPublisher(parser.getValueAsString());
+        case "subjects" -> book.setSubjects(readStrings(parser));
+        case "id" -> book.setId(parser.getValueAsInt());
+        case "amountOfTimesCheckedOut" -> book.setAmountOfTimesCheckedOut(parser.getValueAsInt());
+        case "copiesAvailable" -> book.setCopiesAvailable(parser.getValueAsInt());
+        case "returnDates" -> book.setReturnDates(readStrings(parser));
+        case "totalCopies" -> book.setTotalCopies(parser.getValueAsInt());
+        default -> parser.skipChildren();
+      }
+      field = parser.nextFieldName();
+    }
+    return book;
+  }
+
+  private static List<String> readStrings(final JsonParser parser) throws IOException {
+    List<String> result = null;
+    if (parser.currentToken() == JsonToken.START_ARRAY) {
+      result = new ArrayList<>();
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        result.add(parser.getValueAsString());
+      }
+    } else {
+      parser.skipChildren();
+    }
+    return result;
+  }
+
+  private static long usedHeapBytes() {
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+
+  private static void resetPeakHeap() {
+    for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+        pool.resetPeakUsage();
+      }
+    }
+  }
+
+  /**
+   * Sums the peak usage of every heap pool since the last reset. Pools may peak at different
+   * moments, so this is an upper bound on the true peak.
+   */
+  private static long peakHeapBytes() {
+    long result = 0;
+    for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+        result += pool.getPeakUsage().getUsed();
+      }
+    }
+    return result;
+  }
+
+  /**
+   * A catalog source that may fail with an I/O error.
+   */
+  @FunctionalInterface
+  private interface Source {
+    BookStore read() throws IOException;
+  }
+}
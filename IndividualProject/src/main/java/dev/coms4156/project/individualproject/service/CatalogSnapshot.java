@@ -0,0 +1,378 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.EpochDayMultiset;
+import dev.coms4156.project.individualproject.model.InventoryLocks;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary image of the catalog, so restarts can skip parsing JSON.
+ *
+ * <p>The file holds a magic number, the format version and the book count, then every book in
+ * ascending id order, and finally a CRC32 of everything before it. Integers are zig-zag varints and
+ * ids are stored as the gap to the previous id, so the ids and counters of a dense catalog mostly
+ * take one byte each. Strings are dictionary-encoded inline: the first occurrence is written as
+ * UTF-8 bytes and becomes the next dictionary entry, later occurrences are just the entry's index.
+ * Repeated authors, publishers and subjects are therefore stored once, and share one
+ * {@code String} instance after loading. Titles are nearly unique and always written literally, and
+ * the dictionary stops growing at about a million entries, bounding the memory both sides need.
+ * Due dates are written as distinct epoch days, each as the gap to the previous day, with their
+ * counts. Version 1 snapshots, which held due dates as strings, are rejected.
+ *
+ * <p>Snapshots are read by memory-mapping the file, verifying the checksum and decoding in one
+ * sequential pass. They are written to a temporary file that replaces the old snapshot only
+ * once complete and fsynced, so a crash never leaves a half-written snapshot behind.
+ */
+public final class CatalogSnapshot {
+
+  private static final int MAGIC = 0x424B534E;
+  private static final int VERSION = 2;
+  private static final int DICTIONARY_LIMIT = 1 << 20;
+  private static final int BUFFER_BYTES = 1 << 20;
+  private static final int NULL_STRING = 0;
+  private static final int LITERAL = 1;
+  private static final int NEW_ENTRY = 2;
+  private static final int FIRST_REFERENCE = 3;
+
+  private CatalogSnapshot() {
+  }
+
+  /**
+   * Writes a snapshot of {@code store} to {@code path}, atomically replacing any earlier one.
+   * Each book's inventory is read under its inventory lock, so every book is captured in a
+   * consistent state while checkouts continue.
+   *
+   * @param store The catalog to save.
+   * @param path The snapshot file.
+   * @return The size of the snapshot in bytes.
+   * @throws IOException if the snapshot cannot be written.
+   */
+  public static long write(final CatalogStore store, final Path path) throws IOException {
+    final Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+    final long result;
+    try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      final Writer writer = new Writer(channel);
+      writer.writeRaw(MAGIC);
+      writer.writeRaw(VERSION);
+      writer.writeInt(store.size());
+      int previousId = 0;
+      for (int bookId = 0; bookId < store.capacity(); bookId++) {
+        final Book book = store.get(bookId);
+        if (book != null) {
+          writeBook(writer, book, bookId - previousId);
+          previousId = bookId;
+        }
+      }
+      writer.finish();
+      channel.force(true);
+      result = channel.size();
+    }
+    Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    return result;
+  }
+
+  private static void writeBook(final Writer writer, final Book book, final int idGap)
+      throws IOException {
+    final int totalCopies;
+    final int copiesAvailable;
+    final int timesCheckedOut;
+    final EpochDayMultiset dueDays;
+    final Lock lock = InventoryLocks.forBook(book.getId());
+    lock.lock();
+    try {
+      totalCopies = book.getTotalCopies();
+      copiesAvailable = book.getCopiesAvailable();
+      timesCheckedOut = book.getAmountOfTimesCheckedOut();
+      dueDays = book.dueDays();
+    } finally {
+      lock.unlock();
+    }
+
+    writer.writeInt(idGap);
+    writer.writeLiteral(book.getTitle());
+    writer.writeStrings(book.getAuthors());
+    writer.writeString(book.getLanguage());
+    writer.writeString(book.getShelvingLocation());
+    writer.writeString(book.getPublicationDate());
+    writer.writeString(book.getPublisher());
+    writer.writeStrings(book.getSubjects());
+    writer.writeInt(totalCopies);
+    writer.writeInt(copiesAvailable);
+    writer.writeInt(timesCheckedOut);
+    writer.writeInt(dueDays.distinctDays());
+    int previousDay = 0;
+    for (int i = 0; i < dueDays.distinctDays(); i++) {
+      writer.writeInt(dueDays.dayAt(i) - previousDay);
+      writer.writeInt(dueDays.countAt(i));
+      previousDay = dueDays.dayAt(i);
+    }
+  }
+
+  /**
+   * Reads the snapshot at {@code path}.
+   *
+   * @param path The snapshot file.
+   * @return A store holding every book in the snapshot.
+   * @throws IOException if the file cannot be read, is larger than 2 GB, or is not an intact
+   *         snapshot.
+   */
+  public static BookStore read(final Path path) throws IOException {
+    final BookStore.Builder builder = new BookStore.Builder();
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      final long size = channel.size();
+      if (size < 3 * Integer.BYTES || size > Integer.MAX_VALUE) {
+        throw new IOException(path + " has an invalid snapshot size of " + size + " bytes");
+      }
+      final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      final int bodyBytes = (int) size - Integer.BYTES;
+      final CRC32 checksum = new CRC32();
+      checksum.update(mapped.slice(0, bodyBytes));
+      if (mapped.getInt(bodyBytes) != (int) checksum.getValue()) {
+        throw new IOException(path + " is corrupt: checksum mismatch");
+      }
+
+      final Reader reader = new Reader(mapped.limit(bodyBytes));
+      if (reader.readRaw() != MAGIC) {
+        throw new IOException(path + " is not a catalog snapshot");
+      }
+      final int version = reader.readRaw();
+      if (version != VERSION) {
+        throw new IOException(path + " has unsupported snapshot version " + version);
+      }
+      final int count = reader.readInt();
+      int bookId = 0;
+      for (int i = 0; i < count; i++) {
+        bookId += reader.readInt();
+        builder.add(readBook(reader, bookId));
+      }
+    }
+    return builder.build();
+  }
+
+  private static Book readBook(final Reader reader, final int bookId) throws IOException {
+    final Book book = new Book();
+    book.setId(bookId);
+    book.setTitle(reader.readString());
+    book.setAuthors(reader.readStrings());
+    book.setLanguage(reader.readString());
+    book.setShelvingLocation(reader.readString());
+    book.setPublicationDate(reader.readString());
+    book.setPublisher(reader.readString());
+    book.setSubjects(reader.readStrings());
+    book.setTotalCopies(reader.readInt());
+    book.setCopiesAvailable(reader.readInt());
+    book.setAmountOfTimesCheckedOut(reader.readInt());
+    book.restoreDueDays(reader.readDueDays());
+    return book;
+  }
+
+  /**
+   * Encodes values into a reusable buffer that is checksummed and written out whenever it
+   * fills up.
+   */
+  private static final class Writer {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private final CRC32 checksum = new CRC32();
+    private final Map<String, Integer> dictionary = new HashMap<>();
+
+    private Writer(final FileChannel channel) {
+      this.channel = channel;
+    }
+
+    void writeRaw(final int value) throws IOException {
+      ensure(Integer.BYTES);
+      buffer.putInt(value);
+    }
+
+    void writeInt(final int value) throws IOException {
+      ensure(Integer.BYTES + 1);
+      int remaining = (value << 1) ^ (value >> 31);
+      while ((remaining & ~0x7F) != 0) {
+        buffer.put((byte) (remaining & 0x7F | 0x80));
+        remaining >>>= 7;
+      }
+      buffer.put((byte) remaining);
+    }
+
+    void writeString(final String value) throws IOException {
+      if (value == null) {
+        writeInt(NULL_STRING);
+      } else {
+        final Integer entry = dictionary.get(value);
+        if (entry != null) {
+          writeInt(FIRST_REFERENCE + entry);
+        } else if (dictionary.size() < DICTIONARY_LIMIT) {
+          dictionary.put(value, dictionary.size());
+          writeInt(NEW_ENTRY);
+          writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        } else {
+          writeInt(LITERAL);
+          writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+      }
+    }
+
+    void writeLiteral(final String value) throws IOException {
+      if (value == null) {
+        writeInt(NULL_STRING);
+      } else {
+        writeInt(LITERAL);
+        writeBytes(value.getBytes(StandardCharsets.UTF_8));
+      }
+    }
+
+    void writeStrings(final List<String> values) throws IOException {
+      writeInt(values.size());
+      for (final String value : values) {
+        writeString(value);
+      }
+    }
+
+    private void writeBytes(final byte[] bytes) throws IOException {
+      writeInt(bytes.length);
+      if (bytes.length > buffer.capacity()) {
+        flush();
+        final ByteBuffer direct = ByteBuffer.wrap(bytes);
+        checksum.update(direct.duplicate());
+        writeFully(direct);
+      } else {
+        ensure(bytes.length);
+        buffer.put(bytes);
+      }
+    }
+
+    private void ensure(final int bytes) throws IOException {
+      if (buffer.remaining() < bytes) {
+        flush();
+      }
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      checksum.update(buffer.duplicate());
+      writeFully(buffer);
+      buffer.clear();
+    }
+
+    private void writeFully(final ByteBuffer bytes) throws IOException {
+      while (bytes.hasRemaining()) {
+        channel.write(bytes);
+      }
+    }
+
+    /**
+     * Writes out the buffered bytes followed by the checksum of everything written.
+     */
+    void finish() throws IOException {
+      flush();
+      writeFully(ByteBuffer.allocate(Integer.BYTES).putInt((int) checksum.getValue()).flip());
+    }
+  }
+
+  /**
+   * Decodes values sequentially from the mapped snapshot, rebuilding the string dictionary as
+   * entries appear.
+   */
+  private static final class Reader {
+    private final ByteBuffer buffer;
+    private final List<String> dictionary = new ArrayList<>();
+
+    private Reader(final ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    int readRaw() {
+      return buffer.getInt();
+    }
+
+    int readInt() throws IOException {
+      int raw = 0;
+      int shift = 0;
+      byte next;
+      do {
+        if (shift > Integer.SIZE || !buffer.hasRemaining()) {
+          throw new IOException("Malformed varint in snapshot at byte " + buffer.position());
+        }
+        next = buffer.get();
+        raw |= (next & 0x7F) << shift;
+        shift += 7;
+      } while (next < 0);
+      return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    String readString() throws IOException {
+      final int code = readInt();
+      final String result;
+      if (code == NULL_STRING) {
+        result = null;
+      } else if (code == LITERAL) {
+        result = readUtf8();
+      } else if (code == NEW_ENTRY) {
+        result = readUtf8();
+        dictionary.add(result);
+      } else if (code - FIRST_REFERENCE < dictionary.size()) {
+        result = dictionary.get(code - FIRST_REFERENCE);
+      } else {
+        throw new IOException("Unknown string reference " + code + " in snapshot");
+      }
+      return result;
+    }
+
+    List<String> readStrings() throws IOException {
+      final int size = readInt();
+      if (size < 0 || size > buffer.remaining()) {
+        throw new IOException("Invalid list length " + size + " in snapshot");
+      }
+      final List<String> result = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        result.add(readString());
+      }
+      return result;
+    }
+
+    EpochDayMultiset readDueDays() throws IOException {
+      final int distinct = readInt();
+      if (distinct < 0 || distinct > buffer.remaining()) {
+        throw new IOException("Invalid due date count " + distinct + " in snapshot");
+      }
+      final EpochDayMultiset result = new EpochDayMultiset();
+      int day = 0;
+      for (int i = 0; i < distinct; i++) {
+        day += readInt();
+        final int count = readInt();
+        if (count <= 0) {
+          throw new IOException("Invalid due date count " + count + " in snapshot");
+        }
+        result.add(day, count);
+      }
+      return result;
+    }
+
+    private String readUtf8() throws IOException {
+      final int length = readInt();
+      if (length < 0 || length > buffer.remaining()) {
+        throw new IOException("Invalid string length " + length + " in snapshot");
+      }
+      final byte[] bytes = new byte[length];
+      buffer.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.InventoryListener;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Id-keyed storage engine behind {@link MockApiService}, selected with {@code catalog.storage}.
+ *
+ * <p>{@link BookStore} keeps one {@code Book} object per id; {@link ColumnarStore} keeps each
+ * field in its own array and hands out {@code Book} views on demand. Either way the books
+ * returned are live: their inventory operations update the store and are reported to the
+ * listener registered with {@link #attachInventoryListener}.
+ */
+public interface CatalogStore {
+
+  /**
+   * Returns the book with the given id.
+   *
+   * @param bookId The unique id of the book.
+   * @return The matching {@code Book}, or {@code null} if no book has that id.
+   */
+  Book get(int bookId);
+
+  /**
+   * Replaces the stored book that has the same id as {@code book}. Ids that are not already in
+   * the store are ignored, matching the update-only semantics of the catalog.
+   *
+   * @param book The new version of the book.
+   * @return The book that was replaced, or {@code null} if nothing was stored under that id.
+   */
+  Book replace(Book book);
+
+  /**
+   * Returns whether {@code book} is the live representation of its id in this store, rather
+   * than a copy or a book that has since been replaced.
+   *
+   * @param book The book to check.
+   * @return {@code true} if mutating {@code book} mutates the store.
+   */
+  boolean holds(Book book);
+
+  /**
+   * Visits every stored book in ascending id order.
+   *
+   * @param action The action to run for each book.
+   */
+  void forEach(Consumer<? super Book> action);
+
+  /**
+   * Visits the inventory counters of every stored book in ascending id order, without
+   * materializing any {@code Book}. Counters are read without locking, so a book changing
+   * concurrently may be seen in either state.
+   *
+   * @param visitor The visitor to call for each book.
+   */
+  void forEachInventory(InventoryVisitor visitor);
+
+  /**
+   * Copies the stored books into a new list in ascending id order.
+   *
+   * @return A new, mutable list of all books.
+   */
+  List<Book> toList();
+
+  /**
+   * Returns the number of books in the store.
+   *
+   * @return The book count.
+   */
+  int size();
+
+  /**
+   * Returns one more than the largest id the store can address.
+   *
+   * @return The length of the id table.
+   */
+  int capacity();
+
+  /**
+   * Registers the listener told about inventory mutations of every stored book, including books
+   * stored later by {@link #replace}.
+   *
+   * @param listener The listener, or {@code null} to stop notifications.
+   */
+  void attachInventoryListener(InventoryListener listener);
+
+  /**
+   * Receives the inventory counters of one book during {@link #forEachInventory}.
+   */
+  @FunctionalInterface
+  interface InventoryVisitor {
+
+    /**
+     * Called once per stored book.
+     *
+     * @param bookId The id of the book.
+     * @param totalCopies The number of copies owned.
+     * @param copiesAvailable The number of copies on the shelf.
+     * @param timesCheckedOut The number of checkouts so far.
+     */
+    void visit(int bookId, int totalCopies, int copiesAvailable, int timesCheckedOut);
+  }
+}
@@ -0,0 +1,321 @@
+package dev.coms4156.project.individualproject.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sampled phase timing of {@code /checkout}: how long a request spent looking up the book,
+ * mutating its inventory, persisting the update and serializing the response.
+ *
+ * <p>One in {@code sampleEvery} checkouts is traced. The phases of every traced checkout are
+ * recorded into per-phase {@link LatencyHistogram}s, and those slower than the threshold are also
+ * kept, phase by phase, in a ring buffer of the most recent slow checkouts. A trace lives in a
+ * buffer owned by the request's thread, since every phase runs on it, so marking a phase reads
+ * the clock and stores one number; only a slow trace is copied out. Requests that are not
+ * sampled get a shared no-op span, and with sampling off nothing is traced at all.
+ */
+public final class CheckoutTracer {
+
+  /** Default sampling rate: one in this many checkouts is traced. */
+  public static final int DEFAULT_SAMPLE_EVERY = 100;
+
+  /** Default duration, in milliseconds, above which a traced checkout is kept as slow. */
+  public static final long DEFAULT_SLOW_THRESHOLD_MS = 50;
+
+  /** Default number of slow checkouts kept. */
+  public static final int DEFAULT_CAPACITY = 64;
+
+  private static final Phase[] PHASES = Phase.values();
+  private static final double[] QUANTILES = {0.5, 0.99};
+  private static final Span NOOP = new Span();
+  private final int sampleEvery;
+  private final long slowNanos;
+  private final LatencyHistogram[] histograms = new LatencyHistogram[PHASES.length];
+  private final LongAdder traced = new LongAdder();
+  private final AtomicReferenceArray<Trace> slow;
+  private final AtomicLong slowCount = new AtomicLong();
+  private final ThreadLocal<Span> spans = ThreadLocal.withInitial(Span::new);
+
+  /**
+   * The phases of a checkout, in the order they run.
+   */
+  public enum Phase {
+    /** Finding the book by id. */
+    LOOKUP,
+    /** Claiming a copy, including the wait for its write-ahead log record to be durable. */
+    MUTATE,
+    /** Storing the updated book and refreshing the indexes. */
+    PERSIST,
+    /** Writing the response, from the handler returning until the request completes. */
+    SERIALIZE
+  }
+
+  /**
+   * Creates a tracer with the default sampling rate, threshold and capacity.
+   */
+  public CheckoutTracer() {
+    this(DEFAULT_SAMPLE_EVERY, DEFAULT_SLOW_THRESHOLD_MS, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates a tracer.
+   *
+   * @param sampleEvery Trace one in this many checkouts; {@code 1} traces every checkout and
+   *                    {@code 0} or less disables tracing.
+   * @param slowThresholdMs Traced checkouts taking longer than this many milliseconds are kept.
+   * @param capacity The number of slow checkouts kept; values below one are treated as one.
+   */
+  public CheckoutTracer(final int sampleEvery, final long slowThresholdMs, final int capacity) {
+    this.sampleEvery = Math.max(sampleEvery, 0);
+    this.slowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(slowThresholdMs, 0));
+    this.slow = new AtomicReferenceArray<>(Math.max(capacity, 1));
+    for (int i = 0; i < histograms.length; i++) {
+      histograms[i] = new LatencyHistogram();
+    }
+  }
+
+  /**
+   * Returns a tracer that traces nothing.
+   *
+   * @return A disabled tracer.
+   */
+  public static CheckoutTracer disabled() {
+    return new CheckoutTracer(0, DEFAULT_SLOW_THRESHOLD_MS, 1);
+  }
+
+  /**
+   * Returns whether any checkout is traced.
+   *
+   * @return {@code false} if sampling is off.
+   */
+  public boolean isEnabled() {
+    return sampleEvery > 0;
+  }
+
+  /**
+   * Starts the trace of a checkout on the calling thread, if it is sampled. The clock starts
+   * now; each {@link Span#mark} ends a phase and {@link #finish(int)} ends the serialize phase.
+   *
+   * @param bookId The id of the book being checked out.
+   * @return The span to mark phases on; a no-op span if this checkout is not traced.
+   */
+  public Span begin(final int bookId) {
+    Span result = NOOP;
+    if (sampleEvery > 0
+        && (sampleEvery == 1 || ThreadLocalRandom.current().nextInt(sampleEvery) == 0)) {
+      result = spans.get();
+      result.start(bookId);
+    }
+    return result;
+  }
+
+  /**
+   * Ends the checkout traced on the calling thread, if any, once its response is complete. The
+   * time since the last mark counts as {@link Phase#SERIALIZE}.
+   *
+   * @param status The HTTP status sent.
+   */
+  public void finish(final int status) {
+    if (sampleEvery > 0) {
+      final Span span = spans.get();
+      if (span.active) {
+        span.mark(Phase.SERIALIZE);
+        span.active = false;
+        record(span, status);
+      }
+    }
+  }
+
+  private void record(final Span span, final int status) {
+    traced.increment();
+    long total = 0;
+    for (int i = 0; i < PHASES.length; i++) {
+      histograms[i].record(TimeUnit.NANOSECONDS.toMicros(span.phaseNanos[i]));
+      total += span.phaseNanos[i];
+    }
+    if (total > slowNanos) {
+      final long sequence = slowCount.getAndIncrement();
+      slow.set((int) (sequence % slow.length()), new Trace(span, status, total));
+    }
+  }
+
+  /**
+   * Summarizes the traced checkouts: per-phase latency percentiles over every traced checkout
+   * and the most recent slow ones.
+   *
+   * @return A new report.
+   */
+  public Report report() {
+    return new Report(this);
+  }
+
+  /**
+   * The phase timings of one checkout, reused by its thread for the next traced checkout.
+   */
+  public static final class Span {
+    private final long[] phaseNanos = new long[PHASES.length];
+    private boolean active;
+    private int bookId;
+    private long startMillis;
+    private long lastNanos;
+
+    private Span() {
+    }
+
+    private void start(final int bookId) {
+      Arrays.fill(phaseNanos, 0);
+      this.bookId = bookId;
+      this.startMillis = System.currentTimeMillis();
+      this.lastNanos = System.nanoTime();
+      this.active = true;
+    }
+
+    /**
+     * Ends {@code phase}: the time since the previous mark, or since the trace began, is added
+     * to it. Does nothing if the checkout is not traced.
+     *
+     * @param phase The phase that just ended.
+     */
+    public void mark(final Phase phase) {
+      if (active) {
+        final long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] += now - lastNanos;
+        lastNanos = now;
+      }
+    }
+  }
+
+  /**
+   * A slow checkout, broken down by phase.
+   */
+  public static final class Trace {
+    private final int bookId;
+    private final int status;
+    private final Instant startedAt;
+    private final long totalMicros;
+    private final Map<Phase, Long> phaseMicros = new EnumMap<>(Phase.class);
+
+    private Trace(final Span span, final int status, final long totalNanos) {
+      this.bookId = span.bookId;
+      this.status = status;
+      this.startedAt = Instant.ofEpochMilli(span.startMillis);
+      this.totalMicros = TimeUnit.NANOSECONDS.toMicros(totalNanos);
+      for (final Phase phase : PHASES) {
+        phaseMicros.put(phase, TimeUnit.NANOSECONDS.toMicros(span.phaseNanos[phase.ordinal()]));
+      }
+    }
+
+    public int getBookId() {
+      return bookId;
+    }
+
+    public int getStatus() {
+      return status;
+    }
+
+    /**
+     * Returns when the checkout began.
+     *
+     * @return The start time, as an ISO-8601 instant.
+     */
+    public String getStartedAt() {
+      return startedAt.toString();
+    }
+
+    public long getTotalMicros() {
+      return totalMicros;
+    }
+
+    /**
+     * Returns the time spent in each phase.
+     *
+     * @return Microseconds per phase, in phase order.
+     */
+    public Map<Phase, Long> getPhaseMicros() {
+      return Collections.unmodifiableMap(phaseMicros);
+    }
+  }
+
+  /**
+   * What {@code /traces/checkout} reports.
+   */
+  public static final class Report {
+    private final int sampleEvery;
+    private final long slowThresholdMicros;
+    private final long tracedCheckouts;
+    private final Map<Phase, Map<String, Long>> phasePercentileMicros =
+        new EnumMap<>(Phase.class);
+    private final List<Trace> slowCheckouts = new ArrayList<>();
+
+    private Report(final CheckoutTracer tracer) {
+      this.sampleEvery = tracer.sampleEvery;
+      this.slowThresholdMicros = TimeUnit.NANOSECONDS.toMicros(tracer.slowNanos);
+      this.tracedCheckouts = tracer.traced.sum();
+      for (final Phase phase : PHASES) {
+        final long[] totals = new long[LatencyHistogram.bucketCount()];
+        tracer.histograms[phase.ordinal()].addTo(totals);
+        final Map<String, Long> percentiles = new LinkedHashMap<>();
+        for (final double quantile : QUANTILES) {
+          percentiles.put("p" + Math.round(quantile * 100),
+              LatencyHistogram.percentile(totals, quantile));
+        }
+        percentiles.put("max", LatencyHistogram.max(totals));
+        phasePercentileMicros.put(phase, percentiles);
+      }
+      final long count = tracer.slowCount.get();
+      final int capacity = tracer.slow.length();
+      for (long sequence = count - 1; sequence >= 0 && sequence >= count - capacity; sequence--) {
+        final Trace trace = tracer.slow.get((int) (sequence % capacity));
+        if (trace != null) {
+          slowCheckouts.add(trace);
+        }
+      }
+    }
+
+    /**
+     * Returns the sampling rate.
+     *
+     * @return One in this many checkouts is traced; {@code 0} if tracing is off.
+     */
+    public int getSampleEvery() {
+      return sampleEvery;
+    }
+
+    public long getSlowThresholdMicros() {
+      return slowThresholdMicros;
+    }
+
+    public long getTracedCheckouts() {
+      return tracedCheckouts;
+    }
+
+    /**
+     * Returns the p50, p99 and maximum time of each phase over every traced checkout.
+     *
+     * @return Microseconds per percentile, per phase.
+     */
+    public Map<Phase, Map<String, Long>> getPhasePercentileMicros() {
+      return Collections.unmodifiableMap(phasePercentileMicros);
+    }
+
+    /**
+     * Returns the most recent slow checkouts.
+     *
+     * @return At most {@code capacity} traces, newest first.
+     */
+    public List<Trace> getSlowCheckouts() {
+      return Collections.unmodifiableList(slowCheckouts);
+    }
+  }
+}
@@ -0,0 +1,353 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.EpochDayMultiset;
+import dev.coms4156.project.individualproject.model.InventoryListener;
+import dev.coms4156.project.individualproject.model.InventoryLocks;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+
+/**
+ * Struct-of-arrays catalog store, selected with {@code catalog.storage=columnar}.
+ *
+ * <p>Every field lives in its own array indexed by book id: the inventory counters in primitive
+ * {@code int} columns, the single-valued text fields as codes into one shared {@link StringPool},
+ * and authors and subjects as small arrays of such codes. Titles are nearly unique, so they are
+ * kept as plain references rather than pooled, and due dates are only allocated for books that
+ * are on loan. A catalog therefore costs a few dozen bytes per book plus its distinct strings,
+ * instead of a {@code Book} with its own strings and three lists, and scans over the counters
+ * such as {@link #forEachInventory} walk dense arrays without touching any object.
+ *
+ * <p>{@link #get} returns a lightweight {@code Book} view that reads and writes the columns, so
+ * the rest of the service, the controller and JSON serialization work unchanged. Views are
+ * created per lookup; two views of the same id are {@code equals} and see the same state.
+ * The set of ids is fixed when the store is built.
+ */
+public class ColumnarStore implements CatalogStore {
+
+  private static final int WORD_SHIFT = 6;
+  private final int size;
+  private final long[] present;
+  private final AtomicIntegerArray totalCopies;
+  private final AtomicIntegerArray copiesAvailable;
+  private final AtomicIntegerArray timesCheckedOut;
+  private final AtomicReferenceArray<String> titles;
+  private final AtomicIntegerArray languages;
+  private final AtomicIntegerArray shelvingLocations;
+  private final AtomicIntegerArray publicationDates;
+  private final AtomicIntegerArray publishers;
+  private final AtomicReferenceArray<int[]> authors;
+  private final AtomicReferenceArray<int[]> subjects;
+  private final AtomicReferenceArray<EpochDayMultiset> dueDays;
+  private final StringPool pool = new StringPool();
+  private volatile InventoryListener inventoryListener;
+
+  /**
+   * Creates a columnar copy of {@code source}. The source is not modified and can be discarded
+   * afterwards.
+   *
+   * @param source The catalog to copy.
+   */
+  public ColumnarStore(final CatalogStore source) {
+    final int capacity = source.capacity();
+    size = source.size();
+    present = new long[(capacity + Long.SIZE - 1) >>> WORD_SHIFT];
+    totalCopies = new AtomicIntegerArray(capacity);
+    copiesAvailable = new AtomicIntegerArray(capacity);
+    timesCheckedOut = new AtomicIntegerArray(capacity);
+    titles = new AtomicReferenceArray<>(capacity);
+    languages = new AtomicIntegerArray(capacity);
+    shelvingLocations = new AtomicIntegerArray(capacity);
+    publicationDates = new AtomicIntegerArray(capacity);
+    publishers = new AtomicIntegerArray(capacity);
+    authors = new AtomicReferenceArray<>(capacity);
+    subjects = new AtomicReferenceArray<>(capacity);
+    dueDays = new AtomicReferenceArray<>(capacity);
+    source.forEach(book -> {
+      present[book.getId() >>> WORD_SHIFT] |= 1L << book.getId();
+      write(book.getId(), book);
+    });
+  }
+
+  private void write(final int bookId, final Book book) {
+    titles.set(bookId, book.getTitle());
+    authors.set(bookId, pool.encodeAll(book.getAuthors()));
+    languages.set(bookId, pool.encode(book.getLanguage()));
+    shelvingLocations.set(bookId, pool.encode(book.getShelvingLocation()));
+    publicationDates.set(bookId, pool.encode(book.getPublicationDate()));
+    publishers.set(bookId, pool.encode(book.getPublisher()));
+    subjects.set(bookId, pool.encodeAll(book.getSubjects()));
+    totalCopies.set(bookId, book.getTotalCopies());
+    copiesAvailable.set(bookId, book.getCopiesAvailable());
+    timesCheckedOut.set(bookId, book.getAmountOfTimesCheckedOut());
+    setDueDays(bookId, book.dueDays());
+  }
+
+  private void setDueDays(final int bookId, final EpochDayMultiset days) {
+    dueDays.set(bookId, days.isEmpty() ? null : days);
+  }
+
+  private boolean contains(final int bookId) {
+    return bookId >= 0 && bookId < titles.length()
+        && (present[bookId >>> WORD_SHIFT] & (1L << bookId)) != 0;
+  }
+
+  @Override
+  public Book get(final int bookId) {
+    Book result = null;
+    if (contains(bookId)) {
+      result = new BookView(bookId);
+    }
+    return result;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The fields of {@code book} are copied into the columns under the book's inventory lock,
+   * so its inventory is replaced atomically; readers of the text fields may briefly see a mix of
+   * old and new values. No copy of the old values is kept, so the returned view already shows
+   * the new ones. Storing a view of this store is a no-op that returns the view itself.
+   */
+  @Override
+  public Book replace(final Book book) {
+    Book result = null;
+    final int bookId = book.getId();
+    if (holds(book)) {
+      result = book;
+    } else if (contains(bookId)) {
+      final Lock lock = InventoryLocks.forBook(bookId);
+      lock.lock();
+      try {
+        write(bookId, book);
+      } finally {
+        lock.unlock();
+      }
+      result = new BookView(bookId);
+    }
+    return result;
+  }
+
+  @Override
+  public boolean holds(final Book book) {
+    return book instanceof BookView && ((BookView) book).store() == this;
+  }
+
+  @Override
+  public void forEach(final Consumer<? super Book> action) {
+    forEachId(bookId -> action.accept(new BookView(bookId)));
+  }
+
+  @Override
+  public void forEachInventory(final InventoryVisitor visitor) {
+    forEachId(bookId -> visitor.visit(bookId, totalCopies.get(bookId),
+        copiesAvailable.get(bookId), timesCheckedOut.get(bookId)));
+  }
+
+  private void forEachId(final IdConsumer action) {
+    for (int word = 0; word < present.length; word++) {
+      long bits = present[word];
+      while (bits != 0) {
+        action.accept((word << WORD_SHIFT) + Long.numberOfTrailingZeros(bits));
+        bits &= bits - 1;
+      }
+    }
+  }
+
+  @Override
+  public List<Book> toList() {
+    final List<Book> result = new ArrayList<>(size);
+    forEach(result::add);
+    return result;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public int capacity() {
+    return titles.length();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Views created before the call keep reporting to the previous listener.
+   */
+  @Override
+  public void attachInventoryListener(final InventoryListener listener) {
+    inventoryListener = listener;
+  }
+
+  /**
+   * Returns the number of distinct strings shared by the text columns.
+   *
+   * @return The size of the string pool.
+   */
+  public int pooledStringCount() {
+    return pool.size();
+  }
+
+  /**
+   * Receives the ids of stored books without boxing them.
+   */
+  @FunctionalInterface
+  private interface IdConsumer {
+    void accept(int bookId);
+  }
+
+  /**
+   * {@code Book} whose state lives in the columns of the enclosing store. Every accessor reads
+   * or writes its column; the inventory operations inherited from {@code Book} go through these
+   * accessors under the usual striped lock.
+   */
+  private final class BookView extends Book {
+
+    private BookView(final int bookId) {
+      super(bookId);
+      attachInventoryListener(inventoryListener);
+    }
+
+    private ColumnarStore store() {
+      return ColumnarStore.this;
+    }
+
+    @Override
+    public String getTitle() {
+      return titles.get(getId());
+    }
+
+    @Override
+    public void setTitle(final String title) {
+      titles.set(getId(), title);
+    }
+
+    @Override
+    public List<String> getAuthors() {
+      return pool.decodeAll(authors.get(getId()));
+    }
+
+    @Override
+    public void setAuthors(final List<String> authors) {
+      ColumnarStore.this.authors.set(getId(), pool.encodeAll(authors));
+    }
+
+    @Override
+    public String getLanguage() {
+      return pool.decode(languages.get(getId()));
+    }
+
+    @Override
+    public void setLanguage(final String language) {
+      languages.set(getId(), pool.encode(language != null ? language : ""));
+    }
+
+    @Override
+    public String getShelvingLocation() {
+      return pool.decode(shelvingLocations.get(getId()));
+    }
+
+    @Override
+    public void setShelvingLocation(final String shelvingLocation) {
+      shelvingLocations.set(getId(),
+          pool.encode(shelvingLocation != null ? shelvingLocation : ""));
+    }
+
+    @Override
+    public String getPublicationDate() {
+      return pool.decode(publicationDates.get(getId()));
+    }
+
+    @Override
+    public void setPublicationDate(final String publicationDate) {
+      publicationDates.set(getId(), pool.encode(publicationDate));
+    }
+
+    @Override
+    public String getPublisher() {
+      return pool.decode(publishers.get(getId()));
+    }
+
+    @Override
+    public void setPublisher(final String publisher) {
+      publishers.set(getId(), pool.encode(publisher));
+    }
+
+    @Override
+    public List<String> getSubjects() {
+      return pool.decodeAll(subjects.get(getId()));
+    }
+
+    @Override
+    public void setSubjects(final List<String> subjects) {
+      ColumnarStore.this.subjects.set(getId(), pool.encodeAll(subjects));
+    }
+
+    /**
+     * Ids index the columns, so a stored book cannot be renumbered.
+     *
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public void setId(final int bookId) {
+      throw new UnsupportedOperationException("The id of a stored book cannot change");
+    }
+
+    @Override
+    public int getAmountOfTimesCheckedOut() {
+      return timesCheckedOut.get(getId());
+    }
+
+    @Override
+    public void setAmountOfTimesCheckedOut(final int amountOfTimesCheckedOut) {
+      timesCheckedOut.set(getId(), amountOfTimesCheckedOut);
+    }
+
+    @Override
+    public int getCopiesAvailable() {
+      return copiesAvailable.get(getId());
+    }
+
+    @Override
+    public void setCopiesAvailable(final int copiesAvailable) {
+      ColumnarStore.this.copiesAvailable.set(getId(), copiesAvailable);
+    }
+
+    @Override
+    public int getTotalCopies() {
+      return totalCopies.get(getId());
+    }
+
+    @Override
+    public void setTotalCopies(final int totalCopies) {
+      ColumnarStore.this.totalCopies.set(getId(), totalCopies);
+    }
+
+    /**
+     * Books without loans store no multiset; reads get a transient empty one and the first
+     * checkout allocates the stored one.
+     */
+    @Override
+    protected EpochDayMultiset liveDueDays(final boolean forUpdate) {
+      EpochDayMultiset result = dueDays.get(getId());
+      if (result == null) {
+        result = new EpochDayMultiset();
+        if (forUpdate) {
+          dueDays.set(getId(), result);
+        }
+      }
+      return result;
+    }
+
+    @Override
+    protected void storeDueDays(final EpochDayMultiset days) {
+      setDueDays(getId(), days);
+    }
+  }
+}
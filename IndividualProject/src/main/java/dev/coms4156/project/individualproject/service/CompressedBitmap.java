@@ -0,0 +1,380 @@
+package dev.coms4156.project.individualproject.service;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of non-negative ints in the style of Roaring bitmaps.
+ *
+ * <p>Values are split by their high 16 bits into chunks of 65,536. A chunk holding at most
+ * {@value #ARRAY_LIMIT} values is a sorted {@code char} array; a denser chunk is a plain 8 KB
+ * bitset. Either way a chunk never takes more than about 8 KB, a sparse attribute such as a rare
+ * subject costs two bytes per book, and intersecting two sets works chunk by chunk with the
+ * cheapest method for the pair: merging arrays, probing a bitset with an array, or ANDing words.
+ *
+ * <p>Not thread-safe; {@link FilterIndex} guards its bitmaps with a read-write lock.
+ */
+public final class CompressedBitmap {
+
+  private static final int ARRAY_LIMIT = 4096;
+  private static final int CHUNK_BITS = 16;
+  private static final int LOW_MASK = 0xFFFF;
+  private static final int WORDS = 1 << (CHUNK_BITS - 6);
+  private int[] highs = new int[0];
+  private Chunk[] chunks = new Chunk[0];
+  private int size;
+
+  /**
+   * Adds {@code value} to the set.
+   *
+   * @param value A non-negative int.
+   */
+  public void add(final int value) {
+    final int high = value >>> CHUNK_BITS;
+    int index = Arrays.binarySearch(highs, 0, size, high);
+    if (index < 0) {
+      index = -index - 1;
+      if (size == highs.length) {
+        highs = Arrays.copyOf(highs, Math.max(4, size * 2));
+        chunks = Arrays.copyOf(chunks, highs.length);
+      }
+      System.arraycopy(highs, index, highs, index + 1, size - index);
+      System.arraycopy(chunks, index, chunks, index + 1, size - index);
+      highs[index] = high;
+      chunks[index] = new ArrayChunk();
+      size++;
+    }
+    chunks[index] = chunks[index].add((char) (value & LOW_MASK));
+  }
+
+  /**
+   * Removes {@code value} from the set, if present.
+   *
+   * @param value A non-negative int.
+   */
+  public void remove(final int value) {
+    final int index = Arrays.binarySearch(highs, 0, size, value >>> CHUNK_BITS);
+    if (index >= 0) {
+      chunks[index] = chunks[index].remove((char) (value & LOW_MASK));
+      if (chunks[index].cardinality() == 0) {
+        System.arraycopy(highs, index + 1, highs, index, size - index - 1);
+        System.arraycopy(chunks, index + 1, chunks, index, size - index - 1);
+        size--;
+        chunks[size] = null;
+      }
+    }
+  }
+
+  /**
+   * Returns whether {@code value} is in the set.
+   *
+   * @param value A non-negative int.
+   * @return {@code true} if present.
+   */
+  public boolean contains(final int value) {
+    final int index = Arrays.binarySearch(highs, 0, size, value >>> CHUNK_BITS);
+    return index >= 0 && chunks[index].contains((char) (value & LOW_MASK));
+  }
+
+  /**
+   * Returns the number of values in the set.
+   *
+   * @return The cardinality.
+   */
+  public int cardinality() {
+    int result = 0;
+    for (int i = 0; i < size; i++) {
+      result += chunks[i].cardinality();
+    }
+    return result;
+  }
+
+  /**
+   * Returns the values in both this set and {@code other}, leaving both unchanged.
+   *
+   * @param other The set to intersect with.
+   * @return A new set.
+   */
+  public CompressedBitmap and(final CompressedBitmap other) {
+    final CompressedBitmap result = new CompressedBitmap();
+    result.highs = new int[Math.min(size, other.size)];
+    result.chunks = new Chunk[result.highs.length];
+    int i = 0;
+    int j = 0;
+    while (i < size && j < other.size) {
+      if (highs[i] < other.highs[j]) {
+        i++;
+      } else if (highs[i] > other.highs[j]) {
+        j++;
+      } else {
+        final Chunk chunk = chunks[i].and(other.chunks[j]);
+        if (chunk.cardinality() > 0) {
+          result.highs[result.size] = highs[i];
+          result.chunks[result.size] = chunk;
+          result.size++;
+        }
+        i++;
+        j++;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns an independent copy of this set.
+   *
+   * @return A new set with the same values.
+   */
+  public CompressedBitmap copy() {
+    final CompressedBitmap result = new CompressedBitmap();
+    result.highs = Arrays.copyOf(highs, size);
+    result.chunks = new Chunk[size];
+    for (int i = 0; i < size; i++) {
+      result.chunks[i] = chunks[i].copy();
+    }
+    result.size = size;
+    return result;
+  }
+
+  /**
+   * Visits every value in ascending order.
+   *
+   * @param action Called once per value.
+   */
+  public void forEach(final IntConsumer action) {
+    for (int i = 0; i < size; i++) {
+      chunks[i].forEach(highs[i] << CHUNK_BITS, action);
+    }
+  }
+
+  /**
+   * Returns the values in ascending order.
+   *
+   * @return A new array.
+   */
+  public int[] toArray() {
+    final int[] result = new int[cardinality()];
+    final int[] filled = new int[1];
+    forEach(value -> result[filled[0]++] = value);
+    return result;
+  }
+
+  /**
+   * The values of one 65,536-value chunk. Mutators return the chunk to keep, which differs from
+   * the receiver when the representation changes.
+   */
+  private interface Chunk {
+    Chunk add(char low);
+
+    Chunk remove(char low);
+
+    boolean contains(char low);
+
+    int cardinality();
+
+    Chunk and(Chunk other);
+
+    Chunk copy();
+
+    void forEach(int base, IntConsumer action);
+  }
+
+  /**
+   * Sparse chunk: sorted low halves.
+   */
+  private static final class ArrayChunk implements Chunk {
+    private char[] values;
+    private int cardinality;
+
+    private ArrayChunk() {
+      this(new char[4], 0);
+    }
+
+    private ArrayChunk(final char[] values, final int cardinality) {
+      this.values = values;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    public Chunk add(final char low) {
+      Chunk result = this;
+      final int index = Arrays.binarySearch(values, 0, cardinality, low);
+      if (index < 0) {
+        if (cardinality == ARRAY_LIMIT) {
+          result = toBitmap().add(low);
+        } else {
+          final int insert = -index - 1;
+          if (cardinality == values.length) {
+            values = Arrays.copyOf(values, Math.min(Math.max(4, cardinality * 2), ARRAY_LIMIT));
+          }
+          System.arraycopy(values, insert, values, insert + 1, cardinality - insert);
+          values[insert] = low;
+          cardinality++;
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public Chunk remove(final char low) {
+      final int index = Arrays.binarySearch(values, 0, cardinality, low);
+      if (index >= 0) {
+        System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+        cardinality--;
+      }
+      return this;
+    }
+
+    @Override
+    public boolean contains(final char low) {
+      return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+    }
+
+    @Override
+    public int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    public Chunk and(final Chunk other) {
+      final char[] result = new char[Math.min(cardinality, other.cardinality())];
+      int count = 0;
+      if (other instanceof ArrayChunk) {
+        final ArrayChunk array = (ArrayChunk) other;
+        int i = 0;
+        int j = 0;
+        while (i < cardinality && j < array.cardinality) {
+          if (values[i] < array.values[j]) {
+            i++;
+          } else if (values[i] > array.values[j]) {
+            j++;
+          } else {
+            result[count++] = values[i];
+            i++;
+            j++;
+          }
+        }
+      } else {
+        for (int i = 0; i < cardinality; i++) {
+          if (other.contains(values[i])) {
+            result[count++] = values[i];
+          }
+        }
+      }
+      return new ArrayChunk(result, count);
+    }
+
+    @Override
+    public Chunk copy() {
+      return new ArrayChunk(Arrays.copyOf(values, Math.max(cardinality, 1)), cardinality);
+    }
+
+    @Override
+    public void forEach(final int base, final IntConsumer action) {
+      for (int i = 0; i < cardinality; i++) {
+        action.accept(base | values[i]);
+      }
+    }
+
+    private BitmapChunk toBitmap() {
+      final BitmapChunk result = new BitmapChunk(new long[WORDS], 0);
+      for (int i = 0; i < cardinality; i++) {
+        result.add(values[i]);
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Dense chunk: one bit per low half.
+   */
+  private static final class BitmapChunk implements Chunk {
+    private final long[] words;
+    private int cardinality;
+
+    private BitmapChunk(final long[] words, final int cardinality) {
+      this.words = words;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    public Chunk add(final char low) {
+      final long before = words[low >>> 6];
+      words[low >>> 6] = before | (1L << low);
+      if (before != words[low >>> 6]) {
+        cardinality++;
+      }
+      return this;
+    }
+
+    @Override
+    public Chunk remove(final char low) {
+      Chunk result = this;
+      final long before = words[low >>> 6];
+      words[low >>> 6] = before & ~(1L << low);
+      if (before != words[low >>> 6]) {
+        cardinality--;
+        if (cardinality <= ARRAY_LIMIT / 2) {
+          result = toArray(words, cardinality);
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public boolean contains(final char low) {
+      return (words[low >>> 6] & (1L << low)) != 0;
+    }
+
+    @Override
+    public int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    public Chunk and(final Chunk other) {
+      final Chunk result;
+      if (other instanceof BitmapChunk) {
+        final long[] anded = new long[WORDS];
+        int count = 0;
+        for (int i = 0; i < WORDS; i++) {
+          anded[i] = words[i] & ((BitmapChunk) other).words[i];
+          count += Long.bitCount(anded[i]);
+        }
+        result = count > ARRAY_LIMIT ? new BitmapChunk(anded, count) : toArray(anded, count);
+      } else {
+        result = other.and(this);
+      }
+      return result;
+    }
+
+    @Override
+    public Chunk copy() {
+      return new BitmapChunk(words.clone(), cardinality);
+    }
+
+    @Override
+    public void forEach(final int base, final IntConsumer action) {
+      for (int i = 0; i < WORDS; i++) {
+        long word = words[i];
+        while (word != 0) {
+          action.accept(base | (i << 6) + Long.numberOfTrailingZeros(word));
+          word &= word - 1;
+        }
+      }
+    }
+
+    private static ArrayChunk toArray(final long[] words, final int cardinality) {
+      final char[] values = new char[Math.max(cardinality, 1)];
+      int count = 0;
+      for (int i = 0; i < WORDS; i++) {
+        long word = words[i];
+        while (word != 0) {
+          values[count++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+          word &= word - 1;
+        }
+      }
+      return new ArrayChunk(values, count);
+    }
+  }
+}
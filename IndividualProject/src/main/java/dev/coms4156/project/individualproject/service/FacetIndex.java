@@ -0,0 +1,355 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.FilterIndex.Attribute;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Facet counts per language, shelving location and subject: for each value, the number of
+ * titles, the number of titles with copies available and the total number of copies.
+ *
+ * <p>Counters are kept up to date as books change instead of being computed per request.
+ * {@link #update} re-files a book whose attributes changed, under the write lock; inventory
+ * changes only touch the counters of the book's values, under the read lock, by the difference
+ * between the book's new availability and copy count and those last recorded for it. Each book's
+ * values, availability and copies are remembered for that purpose, which also lets
+ * {@link #count} aggregate the facets of any subset of books, such as a filter result, without
+ * looking the books up. Values are normalized like those of {@link FilterIndex}, so a facet
+ * value can be passed straight back as a filter.
+ */
+public final class FacetIndex {
+
+  private static final Set<Attribute> FACETED =
+      EnumSet.of(Attribute.LANGUAGE, Attribute.LOCATION, Attribute.SUBJECT);
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<String, Integer> valueIds = new HashMap<>();
+  private final List<Value> values = new ArrayList<>();
+  private final Deque<Integer> freeIds = new ArrayDeque<>();
+  private final int[][] bookValues;
+  private final Object[][] bookFields;
+  private final int[] bookCopies;
+  private final boolean[] bookAvailable;
+
+  /**
+   * Creates an empty index for ids {@code 0..capacity-1}.
+   *
+   * @param capacity One more than the largest id to index.
+   */
+  public FacetIndex(final int capacity) {
+    this.bookValues = new int[Math.max(capacity, 0)][];
+    this.bookFields = new Object[Math.max(capacity, 0)][];
+    this.bookCopies = new int[Math.max(capacity, 0)];
+    this.bookAvailable = new boolean[Math.max(capacity, 0)];
+  }
+
+  /**
+   * Counts the current attributes and inventory of {@code book}, replacing whatever was counted
+   * for its id. A book whose language, shelving location and subjects equal those last counted
+   * only has its inventory refreshed. Calls for the same id, including {@link #updateInventory},
+   * must not run concurrently; ids outside the index are ignored.
+   *
+   * @param book The book to count.
+   * @return {@code true} if the book's attributes were counted anew.
+   */
+  public boolean update(final Book book) {
+    final int bookId = book.getId();
+    final Object[] fields = {book.getLanguage(), book.getShelvingLocation(),
+        book.getSubjects()};
+    final boolean result = bookId >= 0 && bookId < bookValues.length
+        && !Arrays.equals(bookFields[bookId], fields);
+    if (result) {
+      final Map<String, String> labels = new LinkedHashMap<>();
+      FilterIndex.forEachValue(book, (key, label) -> {
+        if (FACETED.contains(FilterIndex.attributeOf(key))) {
+          labels.putIfAbsent(key, label);
+        }
+      });
+      final Lock writeLock = lock.writeLock();
+      writeLock.lock();
+      try {
+        removeLocked(bookId);
+        final int copies = book.getTotalCopies();
+        final boolean available = book.hasCopies();
+        final int[] ids = new int[labels.size()];
+        int i = 0;
+        for (final Map.Entry<String, String> entry : labels.entrySet()) {
+          final int valueId = valueIdLocked(entry.getKey(), entry.getValue());
+          values.get(valueId).add(1, available ? 1 : 0, copies);
+          ids[i++] = valueId;
+        }
+        bookValues[bookId] = ids;
+        bookCopies[bookId] = copies;
+        bookAvailable[bookId] = available;
+        bookFields[bookId] = fields;
+      } finally {
+        writeLock.unlock();
+      }
+    } else {
+      updateInventory(book);
+    }
+    return result;
+  }
+
+  /**
+   * Moves the counters of {@code book}'s values by the change in its availability and copies
+   * since it was last counted. Call under the book's inventory lock after every checkout,
+   * return and copy change.
+   *
+   * @param book The book whose inventory changed.
+   */
+  public void updateInventory(final Book book) {
+    final int bookId = book.getId();
+    final Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      if (bookId >= 0 && bookId < bookValues.length && bookValues[bookId] != null) {
+        final int copies = book.getTotalCopies();
+        final boolean available = book.hasCopies();
+        final int copiesDelta = copies - bookCopies[bookId];
+        final int availableDelta = (available ? 1 : 0) - (bookAvailable[bookId] ? 1 : 0);
+        if (copiesDelta != 0 || availableDelta != 0) {
+          for (final int valueId : bookValues[bookId]) {
+            values.get(valueId).add(0, availableDelta, copiesDelta);
+          }
+          bookCopies[bookId] = copies;
+          bookAvailable[bookId] = available;
+        }
+      }
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  private int valueIdLocked(final String key, final String label) {
+    Integer result = valueIds.get(key);
+    if (result == null) {
+      result = freeIds.isEmpty() ? values.size() : freeIds.pop();
+      final Value value = new Value(key, label);
+      if (result == values.size()) {
+        values.add(value);
+      } else {
+        values.set(result, value);
+      }
+      valueIds.put(key, result);
+    }
+    return result;
+  }
+
+  private void removeLocked(final int bookId) {
+    final int[] ids = bookValues[bookId];
+    if (ids != null) {
+      for (final int valueId : ids) {
+        final Value value = values.get(valueId);
+        value.add(-1, bookAvailable[bookId] ? -1 : 0, -bookCopies[bookId]);
+        if (value.titles == 0) {
+          valueIds.remove(value.key);
+          values.set(valueId, null);
+          freeIds.push(valueId);
+        }
+      }
+      bookValues[bookId] = null;
+    }
+  }
+
+  /**
+   * Returns the facets of the whole catalog from the maintained counters.
+   *
+   * @param limit The maximum number of values per attribute.
+   * @return The values with the most titles per attribute, most first.
+   */
+  public Map<Attribute, List<Facet>> top(final int limit) {
+    final Map<Attribute, List<Facet>> result;
+    final Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      final int size = values.size();
+      final int[] titles = new int[size];
+      final int[] available = new int[size];
+      final long[] copies = new long[size];
+      for (int i = 0; i < size; i++) {
+        final Value value = values.get(i);
+        if (value != null) {
+          titles[i] = value.titles;
+          available[i] = value.availableTitles.get();
+          copies[i] = value.copies.get();
+        }
+      }
+      result = rankLocked(titles, available, copies, limit);
+    } finally {
+      readLock.unlock();
+    }
+    return result;
+  }
+
+  /**
+   * Returns the facets of the books with the given ids, aggregated from the values,
+   * availability and copies recorded for each. Unknown ids are skipped.
+   *
+   * @param bookIds The books to aggregate over, without repeats.
+   * @param limit The maximum number of values per attribute.
+   * @return The values with the most titles per attribute among those books, most first.
+   */
+  public Map<Attribute, List<Facet>> count(final int[] bookIds, final int limit) {
+    final Map<Attribute, List<Facet>> result;
+    final Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      final int size = values.size();
+      final int[] titles = new int[size];
+      final int[] available = new int[size];
+      final long[] copies = new long[size];
+      for (final int bookId : bookIds) {
+        if (bookId >= 0 && bookId < bookValues.length && bookValues[bookId] != null) {
+          for (final int valueId : bookValues[bookId]) {
+            titles[valueId]++;
+            available[valueId] += bookAvailable[bookId] ? 1 : 0;
+            copies[valueId] += bookCopies[bookId];
+          }
+        }
+      }
+      result = rankLocked(titles, available, copies, limit);
+    } finally {
+      readLock.unlock();
+    }
+    return result;
+  }
+
+  /**
+   * Picks the {@code limit} values with the most titles per attribute, ties broken by value.
+   */
+  private Map<Attribute, List<Facet>> rankLocked(final int[] titles, final int[] available,
+      final long[] copies, final int limit) {
+    final Comparator<Integer> worstFirst = Comparator.comparingInt((Integer id) -> titles[id])
+        .thenComparing((Integer id) -> values.get(id).key, Comparator.reverseOrder());
+    final Map<Attribute, PriorityQueue<Integer>> best = new EnumMap<>(Attribute.class);
+    for (int i = 0; i < titles.length; i++) {
+      if (titles[i] > 0) {
+        final PriorityQueue<Integer> queue = best.computeIfAbsent(
+            FilterIndex.attributeOf(values.get(i).key), key -> new PriorityQueue<>(worstFirst));
+        queue.add(i);
+        if (queue.size() > limit) {
+          queue.poll();
+        }
+      }
+    }
+    final Map<Attribute, List<Facet>> result = new EnumMap<>(Attribute.class);
+    for (final Attribute attribute : FACETED) {
+      final List<Facet> facets = new ArrayList<>();
+      final PriorityQueue<Integer> queue = best.get(attribute);
+      while (queue != null && !queue.isEmpty()) {
+        final int valueId = queue.poll();
+        final Value value = values.get(valueId);
+        facets.add(0, new Facet(FilterIndex.valueOf(value.key), value.label, titles[valueId],
+            available[valueId], copies[valueId]));
+      }
+      result.put(attribute, facets);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of distinct values currently counted.
+   *
+   * @return The value count.
+   */
+  public int valueCount() {
+    final int result;
+    final Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      result = valueIds.size();
+    } finally {
+      readLock.unlock();
+    }
+    return result;
+  }
+
+  /**
+   * The counters of one attribute value. Titles change only under the write lock; availability
+   * and copies also change under the read lock, concurrently for different books.
+   */
+  private static final class Value {
+    private final String key;
+    private final String label;
+    private final AtomicInteger availableTitles = new AtomicInteger();
+    private final AtomicLong copies = new AtomicLong();
+    private int titles;
+
+    private Value(final String key, final String label) {
+      this.key = key;
+      this.label = label;
+    }
+
+    private void add(final int titlesDelta, final int availableDelta, final long copiesDelta) {
+      titles += titlesDelta;
+      availableTitles.addAndGet(availableDelta);
+      copies.addAndGet(copiesDelta);
+    }
+  }
+
+  /**
+   * The counts of one attribute value.
+   */
+  public static final class Facet {
+    private final String value;
+    private final String label;
+    private final int titles;
+    private final int availableTitles;
+    private final long copies;
+
+    private Facet(final String value, final String label, final int titles,
+        final int availableTitles, final long copies) {
+      this.value = value;
+      this.label = label;
+      this.titles = titles;
+      this.availableTitles = availableTitles;
+      this.copies = copies;
+    }
+
+    /**
+     * Returns the normalized value, as accepted by the filter of {@code GET /books}.
+     *
+     * @return The value.
+     */
+    public String getValue() {
+      return value;
+    }
+
+    /**
+     * Returns the value as cataloged on the first book counted under it.
+     *
+     * @return The display label.
+     */
+    public String getLabel() {
+      return label;
+    }
+
+    public int getTitles() {
+      return titles;
+    }
+
+    public int getAvailableTitles() {
+      return availableTitles;
+    }
+
+    public long getCopies() {
+      return copies;
+    }
+  }
+}
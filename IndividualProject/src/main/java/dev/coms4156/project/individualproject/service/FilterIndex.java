@@ -0,0 +1,227 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.Book;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Secondary indexes on the language, shelving locations, subjects and publisher of every book,
+ * one {@link CompressedBitmap} of book ids per distinct value.
+ *
+ * <p>Values are compared after {@link TextFolding#normalize}, so {@code "Medicine"} finds books
+ * filed under {@code "Medicine."} and case and diacritics do not matter. A shelving location
+ * such as {@code "off,eax"} lists several codes and is indexed under each of them. A query is
+ * the intersection of the bitmaps of the values it asks for, smallest first, so its cost follows
+ * the rarest value rather than the catalog size.
+ *
+ * <p>Each book keeps the ids of the values it is indexed under, so re-indexing a book removes
+ * exactly its old entries even when the previous version is no longer available (as with a
+ * {@link ColumnarStore}, which overwrites books in place). Readers share a read lock; re-indexing
+ * a book takes the write lock briefly.
+ */
+public final class FilterIndex {
+
+  /**
+   * The book attributes that can be filtered on.
+   */
+  public enum Attribute {
+    LANGUAGE,
+    LOCATION,
+    SUBJECT,
+    PUBLISHER
+  }
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<String, Integer> valueIds = new HashMap<>();
+  private final List<String> values = new ArrayList<>();
+  private final List<CompressedBitmap> bitmaps = new ArrayList<>();
+  private final Deque<Integer> freeIds = new ArrayDeque<>();
+  private final int[][] bookValues;
+  private final Object[][] bookFields;
+
+  /**
+   * Creates an empty index for ids {@code 0..capacity-1}.
+   *
+   * @param capacity One more than the largest id to index.
+   */
+  public FilterIndex(final int capacity) {
+    this.bookValues = new int[Math.max(capacity, 0)][];
+    this.bookFields = new Object[Math.max(capacity, 0)][];
+  }
+
+  /**
+   * Indexes the current attributes of {@code book}, replacing whatever was indexed for its id. A
+   * book whose language, shelving location, subjects and publisher equal those last indexed is
+   * left as it is, without locking, so this is cheap to call after every checkout. Calls for the
+   * same id must not run concurrently; ids outside the index are ignored.
+   *
+   * @param book The book to index.
+   * @return {@code true} if the book's attributes were indexed.
+   */
+  public boolean update(final Book book) {
+    final int bookId = book.getId();
+    final Object[] fields = {book.getLanguage(), book.getShelvingLocation(),
+        book.getSubjects(), book.getPublisher()};
+    final boolean result = bookId >= 0 && bookId < bookValues.length
+        && !Arrays.equals(bookFields[bookId], fields);
+    if (result) {
+      final Set<String> keys = new LinkedHashSet<>();
+      forEachValue(book, (key, label) -> keys.add(key));
+      final Lock writeLock = lock.writeLock();
+      writeLock.lock();
+      try {
+        removeLocked(bookId);
+        final int[] ids = new int[keys.size()];
+        int i = 0;
+        for (final String key : keys) {
+          final int valueId = valueIdLocked(key);
+          bitmaps.get(valueId).add(bookId);
+          ids[i++] = valueId;
+        }
+        bookValues[bookId] = ids;
+        bookFields[bookId] = fields;
+      } finally {
+        writeLock.unlock();
+      }
+    }
+    return result;
+  }
+
+  private int valueIdLocked(final String key) {
+    Integer result = valueIds.get(key);
+    if (result == null) {
+      result = freeIds.isEmpty() ? values.size() : freeIds.pop();
+      if (result == values.size()) {
+        values.add(key);
+        bitmaps.add(new CompressedBitmap());
+      } else {
+        values.set(result, key);
+        bitmaps.set(result, new CompressedBitmap());
+      }
+      valueIds.put(key, result);
+    }
+    return result;
+  }
+
+  private void removeLocked(final int bookId) {
+    final int[] ids = bookValues[bookId];
+    if (ids != null) {
+      for (final int valueId : ids) {
+        final CompressedBitmap bitmap = bitmaps.get(valueId);
+        bitmap.remove(bookId);
+        if (bitmap.cardinality() == 0) {
+          valueIds.remove(values.get(valueId));
+          values.set(valueId, null);
+          bitmaps.set(valueId, null);
+          freeIds.push(valueId);
+        }
+      }
+      bookValues[bookId] = null;
+    }
+  }
+
+  /**
+   * Calls {@code action} with the index key of every attribute value of {@code book} and the
+   * value as cataloged, without trailing punctuation. Keys are the normalized value prefixed by
+   * a character identifying the attribute; see {@link #attributeOf} and {@link #valueOf}.
+   */
+  static void forEachValue(final Book book, final BiConsumer<String, String> action) {
+    forEachKey(Attribute.LANGUAGE, book.getLanguage(), action);
+    forEachKey(Attribute.LOCATION, book.getShelvingLocation(), action);
+    for (final String subject : book.getSubjects()) {
+      forEachKey(Attribute.SUBJECT, subject, action);
+    }
+    forEachKey(Attribute.PUBLISHER, book.getPublisher(), action);
+  }
+
+  /**
+   * Calls {@code action} with the index key and label of each value in {@code text}: the whole
+   * text, or for a location each comma-separated code.
+   */
+  private static void forEachKey(final Attribute attribute, final String text,
+      final BiConsumer<String, String> action) {
+    final String[] parts = attribute == Attribute.LOCATION && text != null
+        ? text.split(",") : new String[] {text};
+    for (final String part : parts) {
+      final String normalized = TextFolding.normalize(part);
+      if (!normalized.isEmpty()) {
+        action.accept((char) ('0' + attribute.ordinal()) + normalized,
+            TextFolding.trimTrailingPunctuation(part));
+      }
+    }
+  }
+
+  static Attribute attributeOf(final String key) {
+    return Attribute.values()[key.charAt(0) - '0'];
+  }
+
+  static String valueOf(final String key) {
+    return key.substring(1);
+  }
+
+  /**
+   * Returns the ids of the books that have every requested value: for each attribute, every
+   * listed value must be among the book's values for it.
+   *
+   * @param criteria The values required per attribute; compared like the indexed values.
+   * @return A new bitmap of matching ids; empty if any value is unknown, and {@code null} if
+   *         {@code criteria} lists no value at all.
+   */
+  public CompressedBitmap match(final Map<Attribute, ? extends Collection<String>> criteria) {
+    final Set<String> keys = new LinkedHashSet<>();
+    criteria.forEach((attribute, texts) -> {
+      for (final String text : texts) {
+        forEachKey(attribute, text, (key, label) -> keys.add(key));
+      }
+    });
+    CompressedBitmap result = null;
+    if (!keys.isEmpty()) {
+      final Lock readLock = lock.readLock();
+      readLock.lock();
+      try {
+        final List<CompressedBitmap> required = new ArrayList<>(keys.size());
+        for (final String key : keys) {
+          final Integer valueId = valueIds.get(key);
+          required.add(valueId == null ? new CompressedBitmap() : bitmaps.get(valueId));
+        }
+        required.sort(Comparator.comparingInt(CompressedBitmap::cardinality));
+        result = required.get(0).copy();
+        for (int i = 1; i < required.size() && result.cardinality() > 0; i++) {
+          result = result.and(required.get(i));
+        }
+      } finally {
+        readLock.unlock();
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of distinct attribute values currently indexed.
+   *
+   * @return The value count.
+   */
+  public int valueCount() {
+    final int result;
+    final Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      result = valueIds.size();
+    } finally {
+      readLock.unlock();
+    }
+    return result;
+  }
+}
@@ -0,0 +1,117 @@
+package dev.coms4156.project.individualproject.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies in microseconds with log-linear buckets, in the style of
+ * HdrHistogram.
+ *
+ * <p>Values below {@value #SUB_BUCKETS} microseconds get a bucket each; above that every power of
+ * two is split into {@value #HALF} equal buckets, so any recorded value is reported within about
+ * 1.6% of its true value from 1 microsecond up to about 12 days. Recording is one array increment,
+ * so it can sit on every request path; reading percentiles walks the 2,240 buckets.
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BITS = 7;
+  private static final int SUB_BUCKETS = 1 << SUB_BITS;
+  private static final int HALF = SUB_BUCKETS / 2;
+  private static final int MAX_MAGNITUDE = 40;
+  private static final long MAX_VALUE = (1L << MAX_MAGNITUDE) - 1;
+  private static final int BUCKETS = SUB_BUCKETS + (MAX_MAGNITUDE - SUB_BITS) * HALF;
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+  /**
+   * Records one latency.
+   *
+   * @param micros The latency in microseconds; negative values count as zero and values beyond
+   *               the tracked range as the largest tracked value.
+   */
+  public void record(final long micros) {
+    counts.incrementAndGet(indexOf(Math.min(Math.max(micros, 0), MAX_VALUE)));
+  }
+
+  /**
+   * Adds the counts of this histogram to {@code totals}, for merging several histograms before
+   * computing percentiles.
+   *
+   * @param totals An array of {@link #bucketCount()} counts.
+   */
+  public void addTo(final long[] totals) {
+    for (int i = 0; i < BUCKETS; i++) {
+      totals[i] += counts.get(i);
+    }
+  }
+
+  /**
+   * Returns the number of buckets, the length of the arrays taken by {@link #addTo} and
+   * {@link #percentile}.
+   *
+   * @return The bucket count.
+   */
+  public static int bucketCount() {
+    return BUCKETS;
+  }
+
+  /**
+   * Returns the value at or below which {@code quantile} of the counted values fall, reported as
+   * the highest value of its bucket.
+   *
+   * @param totals Bucket counts filled by {@link #addTo}.
+   * @param quantile The quantile, between 0 and 1.
+   * @return The latency in microseconds, or {@code 0} if nothing was counted.
+   */
+  public static long percentile(final long[] totals, final double quantile) {
+    long total = 0;
+    for (final long count : totals) {
+      total += count;
+    }
+    final long rank = Math.max(1, (long) Math.ceil(quantile * total));
+    long seen = 0;
+    int index = 0;
+    while (index < totals.length - 1 && seen + totals[index] < rank) {
+      seen += totals[index];
+      index++;
+    }
+    return total > 0 ? highestEquivalent(index) : 0;
+  }
+
+  /**
+   * Returns the highest value counted so far, to bucket precision.
+   *
+   * @param totals Bucket counts filled by {@link #addTo}.
+   * @return The maximum latency in microseconds, or {@code 0} if nothing was counted.
+   */
+  public static long max(final long[] totals) {
+    long result = 0;
+    for (int i = totals.length - 1; i >= 0 && result == 0; i--) {
+      if (totals[i] > 0) {
+        result = highestEquivalent(i);
+      }
+    }
+    return result;
+  }
+
+  static int indexOf(final long value) {
+    final int result;
+    if (value < SUB_BUCKETS) {
+      result = (int) value;
+    } else {
+      final int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - (SUB_BITS - 1);
+      result = SUB_BUCKETS + (shift - 1) * HALF + (int) (value >>> shift) - HALF;
+    }
+    return result;
+  }
+
+  static long highestEquivalent(final int index) {
+    final long result;
+    if (index < SUB_BUCKETS) {
+      result = index;
+    } else {
+      final int shift = (index - SUB_BUCKETS) / HALF + 1;
+      final long sub = (index - SUB_BUCKETS) % HALF + HALF;
+      result = ((sub + 1) << shift) - 1;
+    }
+    return result;
+  }
+}
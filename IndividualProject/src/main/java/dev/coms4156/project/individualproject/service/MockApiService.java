@@ -1,13 +1,35 @@
 package dev.coms4156.project.individualproject.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.coms4156.project.individualproject.config.CatalogProperties;
+import dev.coms4156.project.individualproject.config.StorageEngine;
 import dev.coms4156.project.individualproject.model.Book;
-import java.io.InputStream;
+import dev.coms4156.project.individualproject.model.InventoryChange;
+import dev.coms4156.project.individualproject.model.InventoryListener;
+import dev.coms4156.project.individualproject.model.InventoryLocks;
+import dev.coms4156.project.individualproject.model.LoanPolicy;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Clock;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 
@@ -19,7 +41,20 @@ import org.springframework.stereotype.Service;
 public class MockApiService {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(MockApiService.class);
-  private List<Book> books;
+  private final CatalogStore store;
+  private final AvailabilityIndex availability;
+  private final PopularityIndex popularity;
+  private final SearchIndex searchIndex;
+  private final SuggestIndex suggestIndex;
+  private final FilterIndex filterIndex;
+  private final FacetIndex facetIndex;
+  private final PublicationYearIndex yearIndex;
+  private final LoanPolicy loanPolicy;
+  private final WriteAheadLog wal;
+  private final InventoryListener inventoryListener = new CatalogInventoryListener();
+  private final Path snapshotPath;
+  private final ReentrantLock snapshotLock = new ReentrantLock();
+  private final ScheduledExecutorService snapshotScheduler;
   private List<String> bags;
 
   /**
@@ -29,50 +64,621 @@ public class MockApiService {
    * cannot be parsed, an error message is printed and no data is loaded.
    */
   public MockApiService() {
-    try (InputStream inputStream = Thread.currentThread().getContextClassLoader()
-        .getResourceAsStream("mockdata/books.json")) {
-      if (inputStream == null) {
-        LOGGER.error("Failed to find mockdata/books.json in resources.");
-        books = new ArrayList<>(0);
+    this(new CatalogProperties());
+  }
+
+  /**
+   * Constructs a new {@code MockApiService} from the catalog configured by {@code catalog.path},
+   * or the bundled JSON file when no path is set. The catalog is streamed into the id index as
+   * it is parsed; see {@link CatalogLoader}.
+   *
+   * @param properties The {@code catalog.*} settings.
+   */
+  @Autowired
+  public MockApiService(final CatalogProperties properties) {
+    this(new CatalogLoader(properties).load(), properties);
+  }
+
+  /**
+   * Constructs a new {@code MockApiService} over an in-memory catalog instead of the bundled
+   * JSON file, e.g. for benchmarks that need catalogs of a specific size.
+   *
+   * @param books The books making up the catalog.
+   */
+  public MockApiService(final Collection<Book> books) {
+    this(books, new CatalogProperties());
+  }
+
+  /**
+   * Constructs a new {@code MockApiService} over an in-memory catalog with the given settings.
+   *
+   * @param books The books making up the catalog.
+   * @param properties The {@code catalog.*} settings.
+   */
+  public MockApiService(final Collection<Book> books, final CatalogProperties properties) {
+    this(new BookStore(books), properties);
+  }
+
+  /**
+   * Constructs a new {@code MockApiService} over an already indexed catalog, e.g. one produced
+   * by {@link CatalogLoader#read(java.io.InputStream)}. With {@code catalog.storage=columnar}
+   * the books are first copied into a {@link ColumnarStore}. If {@code catalog.wal.path} is set,
+   * the mutations recorded in that write-ahead log are replayed into the catalog first and every
+   * later mutation is appended to it.
+   *
+   * @param store The books making up the catalog.
+   * @param properties The {@code catalog.*} settings.
+   * @throws UncheckedIOException if the configured write-ahead log cannot be opened.
+   */
+  public MockApiService(final BookStore store, final CatalogProperties properties) {
+    this(store, properties, Clock.systemDefaultZone());
+  }
+
+  /**
+   * Constructs a new {@code MockApiService} over an already indexed catalog whose loans are
+   * dated by {@code clock}, e.g. a fixed clock in tests.
+   *
+   * @param store The books making up the catalog.
+   * @param properties The {@code catalog.*} settings.
+   * @param clock The source of the current date for due dates.
+   * @throws UncheckedIOException if the configured write-ahead log cannot be opened.
+   */
+  public MockApiService(final BookStore store, final CatalogProperties properties,
+      final Clock clock) {
+    this(storageFor(store, properties.getStorage()), properties, clock);
+  }
+
+  private MockApiService(final CatalogStore store, final CatalogProperties properties,
+      final Clock clock) {
+    this.store = store;
+    loanPolicy = properties.getLoan().toPolicy(clock);
+    wal = openLog(properties.getWal(), store);
+    store.attachInventoryListener(inventoryListener);
+    availability = new AvailabilityIndex(store.capacity());
+    store.forEachInventory((bookId, totalCopies, copiesAvailable, timesCheckedOut) ->
+        availability.update(bookId, copiesAvailable > 0));
+    popularity = new PopularityIndex(properties.getPopularCount());
+    popularity.rebuild(store);
+    searchIndex = new SearchIndex(store.capacity());
+    suggestIndex = new SuggestIndex(store.capacity());
+    filterIndex = new FilterIndex(store.capacity());
+    facetIndex = new FacetIndex(store.capacity());
+    yearIndex = new PublicationYearIndex(store.capacity());
+    yearIndex.rebuild(store);
+    store.forEach(book -> {
+      searchIndex.update(book);
+      suggestIndex.update(book);
+      filterIndex.update(book);
+      facetIndex.update(book);
+    });
+
+    final CatalogProperties.Snapshot snapshot = properties.getSnapshot();
+    snapshotPath = snapshot.isEnabled() ? Path.of(snapshot.getPath()) : null;
+    if (snapshotPath != null && snapshot.getIntervalSeconds() > 0) {
+      snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "catalog-snapshot");
+        thread.setDaemon(true);
+        return thread;
+      });
+      snapshotScheduler.scheduleWithFixedDelay(this::writeSnapshot,
+          snapshot.getIntervalSeconds(), snapshot.getIntervalSeconds(), TimeUnit.SECONDS);
+    } else {
+      snapshotScheduler = null;
+    }
+  }
+
+  private static CatalogStore storageFor(final BookStore store, final StorageEngine engine) {
+    final CatalogStore result;
+    if (engine == StorageEngine.COLUMNAR) {
+      final long startNanos = System.nanoTime();
+      result = new ColumnarStore(store);
+      if (LOGGER.isInfoEnabled()) {
+        LOGGER.info("Copied {} books into columnar storage in {} ms", result.size(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+      }
+    } else {
+      result = store;
+    }
+    return result;
+  }
+
+  private static WriteAheadLog openLog(final CatalogProperties.Wal settings,
+      final CatalogStore store) {
+    WriteAheadLog result = null;
+    if (settings.isEnabled()) {
+      try {
+        result = WriteAheadLog.open(settings, store);
+      } catch (final IOException e) {
+        throw new UncheckedIOException("Failed to open write-ahead log " + settings.getPath(), e);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the policy dating the loans of this catalog; pass it to
+   * {@link Book#checkoutCopy(LoanPolicy)}.
+   *
+   * @return The configured loan policy.
+   */
+  public LoanPolicy loanPolicy() {
+    return loanPolicy;
+  }
+
+  /**
+   * Looks up a book by its id in constant time.
+   *
+   * @param bookId The unique id of the book.
+   * @return The matching {@code Book}, or {@code null} if no book has that id.
+   */
+  public Book findById(final int bookId) {
+    return store.get(bookId);
+  }
+
+  /**
+   * Returns a snapshot of the whole catalog. Callers that only need one book should use
+   * {@link #findById(int)}, which does not copy anything.
+   *
+   * @return A new list of every book, ordered by id.
+   */
+  public List<Book> getBooks() {
+    return store.toList();
+  }
+
+  /**
+   * Returns the number of books in the catalog without copying it.
+   *
+   * @return The book count.
+   */
+  public int getBookCount() {
+    return store.size();
+  }
+
+  /**
+   * Returns the most checked-out books, most popular first. The ranking is maintained as
+   * checkouts happen, so this does not sort the catalog.
+   *
+   * @return An immutable list of at most {@code catalog.popular-count} books.
+   */
+  public List<Book> getMostPopularBooks() {
+    return popularity.leaders();
+  }
+
+  /**
+   * Picks up to {@code count} distinct books uniformly at random, skipping {@code exclude}.
+   * Ids are probed at random in the dense id table, so the cost depends on {@code count}
+   * rather than on the catalog size. When the table is too sparse for probing to finish
+   * quickly, the remaining picks are drawn by reservoir sampling over one pass of the ids not
+   * taken yet, so every set of books stays equally likely.
+   *
+   * @param count The number of books wanted.
+   * @param exclude Books that must not be picked.
+   * @return A new list of at most {@code count} books.
+   */
+  public List<Book> sampleBooks(final int count, final Collection<Book> exclude) {
+    final Set<Integer> taken = new HashSet<>();
+    for (final Book book : exclude) {
+      if (store.get(book.getId()) != null) {
+        taken.add(book.getId());
+      }
+    }
+    final int wanted = Math.max(0, Math.min(count, store.size() - taken.size()));
+    final List<Book> result = new ArrayList<>(wanted);
+    final int capacity = store.capacity();
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+    for (int probes = wanted * 16; result.size() < wanted && probes > 0; probes--) {
+      final Book book = store.get(random.nextInt(capacity));
+      if (book != null && taken.add(book.getId())) {
+        result.add(book);
+      }
+    }
+
+    final int probed = result.size();
+    int seen = 0;
+    for (int bookId = 0; probed < wanted && bookId < capacity; bookId++) {
+      final Book book = store.get(bookId);
+      if (book != null && !taken.contains(bookId)) {
+        seen++;
+        if (result.size() < wanted) {
+          result.add(book);
+        } else {
+          final int slot = random.nextInt(seen);
+          if (slot < wanted - probed) {
+            result.set(probed + slot, book);
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Finds the books whose title, authors or subjects best match {@code query}, ranked by BM25.
+   * Matching ignores case and diacritics; see {@link SearchIndex}.
+   *
+   * @param query Free text.
+   * @param limit The maximum number of books to return.
+   * @return A new list of at most {@code limit} books, best match first.
+   */
+  public List<Book> search(final String query, final int limit) {
+    final int[] bookIds = searchIndex.search(query, limit);
+    final List<Book> result = new ArrayList<>(bookIds.length);
+    for (final int bookId : bookIds) {
+      final Book book = store.get(bookId);
+      if (book != null) {
+        result.add(book);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Suggests titles and author names completing {@code prefix}, falling back to similarly
+   * spelled ones; see {@link SuggestIndex}.
+   *
+   * @param prefix The text typed so far.
+   * @param limit The maximum number of suggestions.
+   * @return At most {@code limit} suggestions, prefix matches first.
+   */
+  public List<SuggestIndex.Suggestion> suggest(final String prefix, final int limit) {
+    return suggestIndex.suggest(prefix, limit);
+  }
+
+  /**
+   * Returns a lazy view of the books matching every condition of {@code filter}. The attribute
+   * conditions are answered by intersecting the bitmaps of {@link FilterIndex} and the year
+   * range by {@link PublicationYearIndex} when this is called; availability is then checked
+   * against the availability index as the result is iterated, so it reflects checkouts and
+   * returns up to that moment.
+   *
+   * @param filter The conditions to match.
+   * @return An iterable over matching books in ascending id order.
+   */
+  public Iterable<Book> filterBooks(final BookFilter filter) {
+    final Iterable<Book> result;
+    final Boolean available = filter.getAvailable();
+    final int[] bookIds = candidateIds(filter);
+    if (bookIds == null && Boolean.TRUE.equals(available)) {
+      result = availableBooks();
+    } else {
+      result = () -> new FilteredBookIterator(bookIds, available);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the ids matching the attribute and year conditions of {@code filter} in ascending
+   * order, or {@code null} if it has neither. With both, the attribute matches are checked
+   * against the year recorded for each; a year range alone is answered by binary search.
+   */
+  private int[] candidateIds(final BookFilter filter) {
+    final CompressedBitmap matches = filterIndex.match(filter.getValues());
+    int[] result = matches == null ? null : matches.toArray();
+    if (filter.hasYearRange()) {
+      final int from = filter.getPublishedFrom() == null ? Integer.MIN_VALUE
+          : filter.getPublishedFrom();
+      final int to = filter.getPublishedTo() == null ? Integer.MAX_VALUE
+          : filter.getPublishedTo();
+      if (result == null) {
+        result = yearIndex.between(from, to);
       } else {
-        final ObjectMapper mapper = new ObjectMapper();
-        books = mapper.readValue(inputStream, new TypeReference<ArrayList<Book>>(){});
-        if (LOGGER.isInfoEnabled()) {
-          LOGGER.info("Successfully loaded {} books from mockdata/books.json", books.size());
+        int count = 0;
+        for (final int bookId : result) {
+          final int year = yearIndex.yearOf(bookId);
+          if (year != PublicationYearIndex.UNKNOWN && year >= from && year <= to) {
+            result[count++] = bookId;
+          }
         }
+        result = Arrays.copyOf(result, count);
       }
-    } catch (final Exception e) {
-      LOGGER.error("Failed to load books from JSON file", e);
-      books = new ArrayList<>(0);
     }
+    return result;
   }
 
-  public List<Book> getBooks() {
-    return new ArrayList<>(books);
+  /**
+   * Returns the facet counts per language, shelving location and subject of the books matching
+   * {@code filter}. Without conditions these are the counters {@link FacetIndex} maintains for
+   * the whole catalog; otherwise they are aggregated over the ids of the matching books.
+   *
+   * @param filter The conditions the counted books must match.
+   * @param limit The maximum number of values per attribute.
+   * @return The values with the most titles per attribute, most first.
+   */
+  public Map<FilterIndex.Attribute, List<FacetIndex.Facet>> facets(final BookFilter filter,
+      final int limit) {
+    return filter.isEmpty() ? facetIndex.top(limit)
+        : facetIndex.count(matchingIds(filter), limit);
+  }
+
+  /**
+   * Returns the ids of the books matching {@code filter}, possibly including ids no book has.
+   */
+  private int[] matchingIds(final BookFilter filter) {
+    final Boolean available = filter.getAvailable();
+    int[] candidates = candidateIds(filter);
+    if (candidates == null && Boolean.TRUE.equals(available)) {
+      candidates = new int[availability.count()];
+      int count = 0;
+      for (int bookId = availability.nextAvailable(0); bookId >= 0 && count < candidates.length;
+          bookId = availability.nextAvailable(bookId + 1)) {
+        candidates[count++] = bookId;
+      }
+    } else if (candidates == null) {
+      candidates = new int[store.capacity()];
+      Arrays.setAll(candidates, bookId -> bookId);
+    }
+    int count = 0;
+    for (final int bookId : candidates) {
+      if (available == null || availability.isAvailable(bookId) == available) {
+        candidates[count++] = bookId;
+      }
+    }
+    return count == candidates.length ? candidates : Arrays.copyOf(candidates, count);
   }
 
   /**
-   * Updates the stored list of books by replacing the existing book that matches the given.
-   * {@code newBook} with the updated version
+   * Returns every book that currently has at least one copy available. Only the books marked in
+   * the availability index are visited, so the cost does not grow with unavailable titles.
+   *
+   * @return A new list of available books, ordered by id.
+   */
+  public List<Book> getAvailableBooks() {
+    final List<Book> result = new ArrayList<>(availability.count());
+    availableBooks().forEach(result::add);
+    return result;
+  }
+
+  /**
+   * Returns a lazy view of the books that currently have copies available. Nothing is copied;
+   * each iteration walks the availability index as it goes, so callers can stream arbitrarily
+   * many books with flat memory use. Books that change availability mid-iteration may or may
+   * not be included.
+   *
+   * @return An iterable over available books in ascending id order.
+   */
+  public Iterable<Book> availableBooks() {
+    return AvailableBookIterator::new;
+  }
+
+  /**
+   * Replaces the existing book that has the same id as {@code newBook} with the updated version
+   * and re-indexes its text for search and suggestions, its attributes for filtering and facet
+   * counts, and its publication date, where those differ from what was indexed. Books whose id is
+   * not already in the catalog are ignored. A replacement by a different instance, or any
+   * metadata change, is written to the write-ahead log; re-storing the stored instance with
+   * unchanged metadata, as after a checkout, logs nothing, as its inventory changes were logged
+   * when they happened.
    *
    * @param newBook A {@code Book} object containing the updated information
    *                to replace the existing entry.
    */
-
   public void updateBook(final Book newBook) {
-    final List<Book> tmpBooks = new ArrayList<>();
-    for (final Book book : books) {
-      if (book.equals(newBook)) {
-        tmpBooks.add(newBook);
-      } else {
-        tmpBooks.add(book);
+    final Book previous;
+    final Lock lock = InventoryLocks.forBook(newBook.getId());
+    lock.lock();
+    try {
+      previous = store.replace(newBook);
+      if (previous != null) {
+        boolean metadataChanged = searchIndex.update(newBook);
+        metadataChanged |= suggestIndex.update(newBook);
+        metadataChanged |= filterIndex.update(newBook);
+        metadataChanged |= facetIndex.update(newBook);
+        metadataChanged |= yearIndex.update(newBook);
+        if (wal != null && (previous != newBook || metadataChanged)) {
+          wal.appendBook(newBook);
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (previous != null) {
+      final Book current = store.get(newBook.getId());
+      refreshAvailability(current);
+      // The stored instance was already offered by the inventory listener on each checkout.
+      if (previous != newBook) {
+        if (popularity.contains(previous)) {
+          popularity.rebuild(store);
+        } else {
+          popularity.offer(current);
+        }
       }
+      awaitDurable();
     }
+  }
 
-    this.books = tmpBooks;
+  /**
+   * Inventory callback attached to every stored book. Runs under the book's inventory lock, so
+   * the indexes and the write-ahead log see each book's changes in order. Books that have since
+   * been replaced in the store are ignored.
+   */
+  private void onInventoryChanged(final Book book, final InventoryChange change) {
+    if (store.holds(book)) {
+      availability.update(book.getId(), book.hasCopies());
+      facetIndex.updateInventory(book);
+      if (change == InventoryChange.CHECKOUT) {
+        popularity.offer(book);
+      }
+      if (wal != null) {
+        wal.appendInventory(book);
+      }
+    }
+  }
+
+  /**
+   * Waits until the calling thread's logged mutations are durable, as the fsync policy defines.
+   */
+  private void awaitDurable() {
+    if (wal != null) {
+      wal.awaitDurable();
+    }
+  }
+
+  /**
+   * Re-derives the availability bit of {@code book} outside its inventory lock. A concurrent
+   * checkout may flip the book between the read and the write, so the bit is rewritten until it
+   * matches a stable read.
+   */
+  private void refreshAvailability(final Book book) {
+    boolean available;
+    do {
+      available = book.hasCopies();
+      availability.update(book.getId(), available);
+    } while (available != book.hasCopies() && store.holds(book));
   }
 
   public void printBooks() {
-    books.forEach(System.out::println);
+    store.forEach(System.out::println);
+  }
+
+  /**
+   * Writes a snapshot of the catalog to {@code catalog.snapshot.path}, if configured. The
+   * write-ahead log is rotated first and its previous segment discarded once the snapshot is
+   * complete, since the snapshot then holds every mutation in it. Runs periodically and on
+   * shutdown; errors are logged and leave the previous snapshot and log in place.
+   *
+   * @return {@code true} if a snapshot was written.
+   */
+  public boolean writeSnapshot() {
+    boolean result = false;
+    if (snapshotPath != null) {
+      snapshotLock.lock();
+      try {
+        final long startNanos = System.nanoTime();
+        if (wal != null) {
+          wal.rotate();
+        }
+        final long bytes = CatalogSnapshot.write(store, snapshotPath);
+        if (wal != null) {
+          wal.discardPrevious();
+        }
+        result = true;
+        if (LOGGER.isInfoEnabled()) {
+          LOGGER.info("Wrote snapshot of {} books to {} in {} ms ({} KB)", store.size(),
+              snapshotPath, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+              bytes / 1024);
+        }
+      } catch (final IOException | RuntimeException e) {
+        LOGGER.error("Failed to write catalog snapshot {}", snapshotPath, e);
+      } finally {
+        snapshotLock.unlock();
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Stops periodic snapshots, writes a final snapshot if configured, then flushes and closes the
+   * write-ahead log, if one is configured.
+   */
+  @PreDestroy
+  public void close() {
+    if (snapshotScheduler != null) {
+      snapshotScheduler.shutdownNow();
+    }
+    writeSnapshot();
+    if (wal != null) {
+      wal.close();
+    }
+  }
+
+  /**
+   * Listener attached to every stored book: updates the indexes and logs the mutation under the
+   * book's lock, then waits for durability once the lock is released.
+   */
+  private final class CatalogInventoryListener implements InventoryListener {
+
+    @Override
+    public void inventoryChanged(final Book book, final InventoryChange change) {
+      onInventoryChanged(book, change);
+    }
+
+    @Override
+    public void inventoryCommitted(final Book book, final InventoryChange change) {
+      awaitDurable();
+    }
+  }
+
+  /**
+   * Walks the set bits of the availability index, resolving each id against the store.
+   */
+  private final class AvailableBookIterator implements Iterator<Book> {
+    private Book next;
+    private int cursor;
+
+    private AvailableBookIterator() {
+      advance();
+    }
+
+    private void advance() {
+      next = null;
+      while (next == null && cursor >= 0) {
+        cursor = availability.nextAvailable(cursor);
+        if (cursor >= 0) {
+          next = store.get(cursor);
+          cursor++;
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Book next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      final Book result = next;
+      advance();
+      return result;
+    }
+  }
+
+  /**
+   * Walks the ids matched by a filter, or every id if there is no attribute condition, resolving
+   * each against the store and skipping those whose availability does not match.
+   */
+  private final class FilteredBookIterator implements Iterator<Book> {
+    private final int[] bookIds;
+    private final Boolean available;
+    private final int end;
+    private Book next;
+    private int cursor;
+
+    private FilteredBookIterator(final int[] bookIds, final Boolean available) {
+      this.bookIds = bookIds;
+      this.available = available;
+      this.end = bookIds == null ? store.capacity() : bookIds.length;
+      advance();
+    }
+
+    private void advance() {
+      next = null;
+      while (next == null && cursor < end) {
+        final int bookId = bookIds == null ? cursor : bookIds[cursor];
+        cursor++;
+        if (available == null || availability.isAvailable(bookId) == available) {
+          next = store.get(bookId);
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Book next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      final Book result = next;
+      advance();
+      return result;
+    }
   }
 }
@@ -0,0 +1,193 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.Book;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the {@code limit} most-checked-out books, ordered by checkout count (ties broken by
+ * ascending id).
+ *
+ * <p>Checkout counts only ever grow, so each checkout just offers its book: a leader moves up
+ * past the entries it overtook and an outsider replaces the last leader once it beats it. That
+ * costs {@code O(limit)} per checkout regardless of catalog size. Readers get an immutable
+ * snapshot published after every change. Because the last leader's count never drops, a
+ * checkout of a book that is not ranked and does not beat the last leader of the snapshot is
+ * turned away without taking the lock, which is the common case in a large catalog.
+ *
+ * <p>Leaders are matched by id, so a book is ranked once however many {@code Book} instances
+ * (e.g. the views of a {@link ColumnarStore}) represent it; the most recently offered instance
+ * is the one returned.
+ */
+public class PopularityIndex {
+
+  private final int limit;
+  private final Book[] leaders;
+  private final ReentrantLock lock = new ReentrantLock();
+  private int size;
+  private volatile List<Book> snapshot = List.of();
+
+  /**
+   * Creates an empty index.
+   *
+   * @param limit The number of books to keep; negative values are treated as zero.
+   */
+  public PopularityIndex(final int limit) {
+    this.limit = Math.max(limit, 0);
+    this.leaders = new Book[this.limit];
+  }
+
+  /**
+   * Recomputes the leaders from scratch with a single pass over the store's checkout counters,
+   * materializing only the books that end up ranked. Used at startup and when a leader is
+   * replaced by a book with a possibly lower count.
+   *
+   * @param store The catalog to rank.
+   */
+  public void rebuild(final CatalogStore store) {
+    lock.lock();
+    try {
+      final TopCounts top = new TopCounts(limit);
+      store.forEachInventory(top);
+      Arrays.fill(leaders, null);
+      size = 0;
+      for (int i = 0; i < top.size; i++) {
+        final Book book = store.get(top.ids[i]);
+        if (book != null) {
+          offerLocked(book);
+        }
+      }
+      publish();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Re-ranks {@code book} after its checkout count grew, or considers it for the first time.
+   *
+   * @param book The book whose count changed.
+   */
+  public void offer(final Book book) {
+    final List<Book> current = snapshot;
+    if (current.size() < limit || isRanked(current, book)
+        || limit > 0 && ranksAbove(book, current.get(limit - 1))) {
+      lock.lock();
+      try {
+        if (offerLocked(book)) {
+          publish();
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Returns whether {@code book} (by id) is currently one of the leaders.
+   *
+   * @param book The book to look for.
+   * @return {@code true} if the book is ranked.
+   */
+  public boolean contains(final Book book) {
+    return isRanked(snapshot, book);
+  }
+
+  /**
+   * Returns the current leaders, most checked out first.
+   *
+   * @return An immutable list of at most {@code limit} books.
+   */
+  public List<Book> leaders() {
+    return snapshot;
+  }
+
+  private static boolean isRanked(final List<Book> ranked, final Book book) {
+    boolean result = false;
+    for (final Book leader : ranked) {
+      if (leader.getId() == book.getId()) {
+        result = true;
+        break;
+      }
+    }
+    return result;
+  }
+
+  private boolean offerLocked(final Book book) {
+    int position = indexOf(book);
+    if (position >= 0) {
+      leaders[position] = book;
+    } else {
+      if (size < limit) {
+        position = size++;
+        leaders[position] = book;
+      } else if (limit > 0 && ranksAbove(book, leaders[size - 1])) {
+        position = size - 1;
+        leaders[position] = book;
+      }
+    }
+
+    if (position >= 0) {
+      while (position > 0 && ranksAbove(leaders[position], leaders[position - 1])) {
+        final Book swap = leaders[position - 1];
+        leaders[position - 1] = leaders[position];
+        leaders[position] = swap;
+        position--;
+      }
+    }
+    return position >= 0;
+  }
+
+  private int indexOf(final Book book) {
+    int result = -1;
+    for (int i = 0; i < size; i++) {
+      if (leaders[i].getId() == book.getId()) {
+        result = i;
+        break;
+      }
+    }
+    return result;
+  }
+
+  private void publish() {
+    snapshot = List.of(Arrays.copyOf(leaders, size));
+  }
+
+  private static boolean ranksAbove(final Book candidate, final Book other) {
+    final int byCount = Integer.compare(
+        candidate.getAmountOfTimesCheckedOut(), other.getAmountOfTimesCheckedOut());
+    return byCount > 0 || byCount == 0 && candidate.getId() < other.getId();
+  }
+
+  /**
+   * Collects the ids of the {@code limit} highest checkout counts during an inventory scan, in
+   * ranking order. Ids arrive in ascending order, so a later id only displaces an equal count
+   * if it is strictly higher.
+   */
+  private static final class TopCounts implements CatalogStore.InventoryVisitor {
+    private final int[] ids;
+    private final int[] counts;
+    private int size;
+
+    private TopCounts(final int limit) {
+      ids = new int[limit];
+      counts = new int[limit];
+    }
+
+    @Override
+    public void visit(final int bookId, final int totalCopies, final int copiesAvailable,
+        final int timesCheckedOut) {
+      if (size < ids.length || size > 0 && timesCheckedOut > counts[size - 1]) {
+        int position = size < ids.length ? size++ : size - 1;
+        while (position > 0 && timesCheckedOut > counts[position - 1]) {
+          ids[position] = ids[position - 1];
+          counts[position] = counts[position - 1];
+          position--;
+        }
+        ids[position] = bookId;
+        counts[position] = timesCheckedOut;
+      }
+    }
+  }
+}
@@ -0,0 +1,204 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.Book;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Books ordered by publication year, for range queries by binary search.
+ *
+ * <p>{@link Book#getPublicationDate()} holds the date as transcribed in the MARC record, e.g.
+ * {@code "2005."}, {@code "[1964?]"}, {@code "c1999"} or {@code "[1972], [c1972]"}; the year
+ * is taken to be the first run of exactly four digits, see {@link #parseYear}. Books without one
+ * are not indexed. Entries are {@code year << 32 | id} in one sorted {@code long} array, so a
+ * range is two binary searches and a copy, and its ids come out grouped by year. The array is
+ * sorted once by {@link #rebuild}; a book whose year changes later is moved with one shift of the
+ * entries between its old and new positions. Readers share a read lock.
+ */
+public final class PublicationYearIndex {
+
+  /** The year of a book whose publication date has no recognizable year. */
+  public static final int UNKNOWN = 0;
+  private static final int YEAR_DIGITS = 4;
+  private static final int MAX_YEAR = 9999;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final int[] bookYears;
+  private final String[] bookDates;
+  private long[] entries = new long[0];
+  private int size;
+
+  /**
+   * Creates an empty index for ids {@code 0..capacity-1}.
+   *
+   * @param capacity One more than the largest id to index.
+   */
+  public PublicationYearIndex(final int capacity) {
+    this.bookYears = new int[Math.max(capacity, 0)];
+    this.bookDates = new String[Math.max(capacity, 0)];
+  }
+
+  /**
+   * Extracts the year from a publication date: the first run of exactly four digits not
+   * starting with {@code 0}. MARC punctuation, brackets, question marks and copyright prefixes
+   * such as {@code c} or a copyright sign around it are ignored; a partial year such as
+   * {@code "19--"} has none.
+   *
+   * @param publicationDate The date as cataloged, possibly {@code null}.
+   * @return The year, or {@link #UNKNOWN}.
+   */
+  public static int parseYear(final String publicationDate) {
+    int result = UNKNOWN;
+    final int length = publicationDate == null ? 0 : publicationDate.length();
+    int start = 0;
+    while (result == UNKNOWN && start < length) {
+      int end = start;
+      while (end < length && isAsciiDigit(publicationDate.charAt(end))) {
+        end++;
+      }
+      if (end - start == YEAR_DIGITS && publicationDate.charAt(start) != '0') {
+        result = Integer.parseInt(publicationDate, start, end, 10);
+      }
+      start = end + 1;
+    }
+    return result;
+  }
+
+  private static boolean isAsciiDigit(final char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static long entry(final int year, final int bookId) {
+    return (long) year << 32 | bookId;
+  }
+
+  /**
+   * Re-indexes every book in {@code store} with a single sort. Used at startup.
+   *
+   * @param store The catalog to index.
+   */
+  public void rebuild(final CatalogStore store) {
+    final Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      Arrays.fill(bookYears, UNKNOWN);
+      Arrays.fill(bookDates, null);
+      final long[] collected = new long[store.size()];
+      final int[] count = new int[1];
+      store.forEach(book -> {
+        final int bookId = book.getId();
+        final String date = book.getPublicationDate();
+        final int year = parseYear(date);
+        if (bookId >= 0 && bookId < bookYears.length) {
+          bookDates[bookId] = date;
+          if (year != UNKNOWN && count[0] < collected.length) {
+            bookYears[bookId] = year;
+            collected[count[0]++] = entry(year, bookId);
+          }
+        }
+      });
+      Arrays.sort(collected, 0, count[0]);
+      entries = collected;
+      size = count[0];
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Records the publication date of {@code book} if it differs from the one last recorded, and
+   * moves the book if the date's year changed. Calls for the same id must not run concurrently;
+   * ids outside the index are ignored.
+   *
+   * @param book The book to index.
+   * @return {@code true} if the book's publication date differed.
+   */
+  public boolean update(final Book book) {
+    final int bookId = book.getId();
+    final String date = book.getPublicationDate();
+    final boolean result = bookId >= 0 && bookId < bookYears.length
+        && !Objects.equals(bookDates[bookId], date);
+    if (result) {
+      bookDates[bookId] = date;
+      final int year = parseYear(date);
+      if (bookYears[bookId] != year) {
+        move(bookId, year);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Moves a book's entry from its recorded year to {@code year}.
+   */
+  private void move(final int bookId, final int year) {
+    final Lock writeLock = lock.writeLock();
+    writeLock.lock();
+    try {
+      if (bookYears[bookId] != UNKNOWN) {
+        final int index = lowerBound(entry(bookYears[bookId], bookId));
+        System.arraycopy(entries, index + 1, entries, index, size - index - 1);
+        size--;
+      }
+      if (year != UNKNOWN) {
+        final int index = lowerBound(entry(year, bookId));
+        if (size == entries.length) {
+          entries = Arrays.copyOf(entries, Math.max(4, size * 2));
+        }
+        System.arraycopy(entries, index, entries, index + 1, size - index);
+        entries[index] = entry(year, bookId);
+        size++;
+      }
+      bookYears[bookId] = year;
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * Returns the ids of the books published from {@code from} to {@code to}, both inclusive.
+   * Finding the range takes two binary searches; the ids are then copied out and sorted.
+   *
+   * @param from The first year wanted.
+   * @param to The last year wanted.
+   * @return A new array of the matching ids in ascending order.
+   */
+  public int[] between(final int from, final int to) {
+    int[] result = new int[0];
+    if (from <= to && from <= MAX_YEAR) {
+      final Lock readLock = lock.readLock();
+      readLock.lock();
+      try {
+        final int low = lowerBound(entry(from, 0));
+        final int high = lowerBound(entry(Math.min(to, MAX_YEAR) + 1, 0));
+        result = new int[high - low];
+        for (int i = low; i < high; i++) {
+          result[i - low] = (int) entries[i];
+        }
+      } finally {
+        readLock.unlock();
+      }
+      Arrays.sort(result);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the index of the first entry not less than {@code key}.
+   */
+  private int lowerBound(final long key) {
+    final int index = Arrays.binarySearch(entries, 0, size, key);
+    return index >= 0 ? index : -index - 1;
+  }
+
+  /**
+   * Returns the year indexed for a book.
+   *
+   * @param bookId The id of the book.
+   * @return The publication year, or {@link #UNKNOWN}.
+   */
+  public int yearOf(final int bookId) {
+    return bookId >= 0 && bookId < bookYears.length ? bookYears[bookId] : UNKNOWN;
+  }
+}
@@ -0,0 +1,211 @@
+package dev.coms4156.project.individualproject.service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Request metrics per route: a latency histogram, response counters by HTTP status and the
+ * number of requests in flight, rendered in the Prometheus text exposition format.
+ *
+ * <p>Routes are identified by HTTP method and URI template (e.g. {@code GET /book/{bookId}}), so
+ * the number of series stays bounded however many ids are requested. Latency percentiles cover
+ * a sliding window of one to two {@code window} lengths, made of the current and the previous
+ * window's histograms, so they follow changes in load instead of averaging over the whole
+ * uptime; the counters and the latency sum and count are cumulative, as Prometheus expects.
+ * Recording takes no locks and allocates nothing once a route has been seen.
+ */
+public final class RouteMetrics {
+
+  /** Default length of a latency window, in seconds. */
+  public static final long DEFAULT_WINDOW_SECONDS = 60;
+
+  private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+  private static final int MIN_STATUS = 100;
+  private static final int MAX_STATUS = 599;
+  private static final int SERVER_ERROR = 500;
+  private static final double MICROS_PER_SECOND = 1e6;
+  private final ConcurrentMap<String, ConcurrentMap<String, Route>> routes =
+      new ConcurrentHashMap<>();
+  private final long windowNanos;
+
+  /**
+   * Creates metrics whose latency percentiles cover windows of {@link #DEFAULT_WINDOW_SECONDS}.
+   */
+  public RouteMetrics() {
+    this(DEFAULT_WINDOW_SECONDS);
+  }
+
+  /**
+   * Creates metrics whose latency percentiles cover windows of the given length.
+   *
+   * @param windowSeconds The window length in seconds; values below one are treated as one.
+   */
+  public RouteMetrics(final long windowSeconds) {
+    this.windowNanos = TimeUnit.SECONDS.toNanos(Math.max(windowSeconds, 1));
+  }
+
+  /**
+   * Returns the metrics of one route, creating them on first use.
+   *
+   * @param method The HTTP method.
+   * @param template The URI template the request matched.
+   * @return The route's metrics.
+   */
+  public Route route(final String method, final String template) {
+    final ConcurrentMap<String, Route> byMethod =
+        routes.computeIfAbsent(template, key -> new ConcurrentHashMap<>());
+    Route result = byMethod.get(method);
+    if (result == null) {
+      result = byMethod.computeIfAbsent(method, key -> new Route(method, template));
+    }
+    return result;
+  }
+
+  /**
+   * Renders every route's metrics in the Prometheus text format (version 0.0.4), ordered by
+   * route and method.
+   *
+   * @return The exposition text.
+   */
+  public String toPrometheusText() {
+    final Map<String, Route> sorted = new TreeMap<>();
+    routes.forEach((template, byMethod) -> byMethod.forEach((method, route) ->
+        sorted.put(template + ' ' + method, route)));
+    final StringBuilder out = new StringBuilder(512 + sorted.size() * 1024);
+
+    header(out, "http_server_request_duration_seconds", "summary",
+        "Request latency by route; quantiles over the last one to two windows");
+    for (final Route route : sorted.values()) {
+      route.writeLatency(out);
+    }
+    header(out, "http_server_requests_total", "counter", "Completed requests by route and status");
+    for (final Route route : sorted.values()) {
+      route.writeStatuses(out, "http_server_requests_total", MIN_STATUS);
+    }
+    header(out, "http_server_errors_total", "counter",
+        "Requests by route that failed with a server error (status 5xx)");
+    for (final Route route : sorted.values()) {
+      route.writeStatuses(out, "http_server_errors_total", SERVER_ERROR);
+    }
+    header(out, "http_server_requests_in_flight", "gauge", "Requests currently being served");
+    for (final Route route : sorted.values()) {
+      route.labels(out.append("http_server_requests_in_flight")).append(' ')
+          .append(route.inFlight.sum()).append('\n');
+    }
+    return out.toString();
+  }
+
+  private static void header(final StringBuilder out, final String name, final String type,
+      final String help) {
+    out.append("# HELP ").append(name).append(' ').append(help).append('\n')
+        .append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private static String escape(final String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  /**
+   * Metrics of one HTTP method and URI template.
+   */
+  public final class Route {
+    private final String labels;
+    private final LongAdder inFlight = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLongArray statuses = new AtomicLongArray(MAX_STATUS - MIN_STATUS + 1);
+    private volatile LatencyHistogram current = new LatencyHistogram();
+    private volatile LatencyHistogram previous = new LatencyHistogram();
+    private volatile long windowStart = System.nanoTime();
+    private final ReentrantLock rotation = new ReentrantLock();
+
+    private Route(final String method, final String template) {
+      this.labels = "method=\"" + escape(method) + "\",route=\"" + escape(template) + "\"";
+    }
+
+    /**
+     * Marks the start of a request.
+     *
+     * @return The start time to pass to {@link #finish}.
+     */
+    public long start() {
+      inFlight.increment();
+      return System.nanoTime();
+    }
+
+    /**
+     * Marks the end of a request started with {@link #start()}.
+     *
+     * @param startNanos The value returned by {@link #start()}.
+     * @param status The HTTP status sent.
+     */
+    public void finish(final long startNanos, final int status) {
+      final long now = System.nanoTime();
+      inFlight.decrement();
+      final long micros = TimeUnit.NANOSECONDS.toMicros(now - startNanos);
+      totalMicros.add(micros);
+      statuses.incrementAndGet(Math.min(Math.max(status, MIN_STATUS), MAX_STATUS) - MIN_STATUS);
+      histogram(now).record(micros);
+    }
+
+    /**
+     * Returns the histogram of the current window, starting a new window when the current one
+     * has run out. One thread rotates while the others keep recording; a sample that lands in
+     * the window just retired only counts towards the previous window.
+     */
+    private LatencyHistogram histogram(final long now) {
+      if (now - windowStart >= windowNanos && rotation.tryLock()) {
+        try {
+          final long start = windowStart;
+          if (now - start >= windowNanos) {
+            previous = now - start >= 2 * windowNanos ? new LatencyHistogram() : current;
+            current = new LatencyHistogram();
+            windowStart = now;
+          }
+        } finally {
+          rotation.unlock();
+        }
+      }
+      return current;
+    }
+
+    private StringBuilder labels(final StringBuilder out) {
+      return out.append('{').append(labels).append('}');
+    }
+
+    private void writeLatency(final StringBuilder out) {
+      final long[] totals = new long[LatencyHistogram.bucketCount()];
+      previous.addTo(totals);
+      current.addTo(totals);
+      for (final double quantile : QUANTILES) {
+        out.append("http_server_request_duration_seconds{").append(labels)
+            .append(",quantile=\"").append(quantile).append("\"} ")
+            .append(LatencyHistogram.percentile(totals, quantile) / MICROS_PER_SECOND)
+            .append('\n');
+      }
+      long count = 0;
+      for (int i = 0; i < statuses.length(); i++) {
+        count += statuses.get(i);
+      }
+      labels(out.append("http_server_request_duration_seconds_sum")).append(' ')
+          .append(totalMicros.sum() / MICROS_PER_SECOND).append('\n');
+      labels(out.append("http_server_request_duration_seconds_count")).append(' ')
+          .append(count).append('\n');
+    }
+
+    private void writeStatuses(final StringBuilder out, final String name, final int from) {
+      for (int status = from; status <= MAX_STATUS; status++) {
+        final long count = statuses.get(status - MIN_STATUS);
+        if (count > 0) {
+          out.append(name).append('{').append(labels).append(",status=\"").append(status)
+              .append("\"} ").append(count).append('\n');
+        }
+      }
+    }
+  }
+}
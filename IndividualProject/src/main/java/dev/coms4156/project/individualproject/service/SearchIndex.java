@@ -0,0 +1,345 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.Book;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory inverted index over the title, authors and subjects of every book, ranked by BM25.
+ *
+ * <p>Text is folded with {@link TextFolding} before indexing, so queries match regardless of
+ * case and diacritics. Each term maps to a posting list of book ids in ascending order with the
+ * term's frequency in that book; each book keeps the ids of its distinct terms, so re-indexing a
+ * book removes exactly its old postings even when the previous version is no longer available
+ * (as with a {@link ColumnarStore}, which overwrites books in place).
+ *
+ * <p>Queries walk the posting lists of their terms document-at-a-time with MaxScore pruning:
+ * once {@code limit} hits are held, terms whose combined best possible contribution cannot beat
+ * the weakest hit stop driving the walk and are only probed, by galloping search, for books that
+ * the other terms already matched. Rare terms therefore decide the cost, and a common word in
+ * the query does not mean scoring a large share of the catalog. Readers share a read lock;
+ * re-indexing a book takes the write lock briefly.
+ */
+public final class SearchIndex {
+
+  private static final double K1 = 1.2;
+  private static final double B = 0.75;
+  private static final Comparator<Hit> WORST_FIRST =
+      Comparator.comparingDouble((Hit hit) -> hit.score)
+          .thenComparing(Comparator.comparingInt((Hit hit) -> hit.bookId).reversed());
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<String, Integer> termIds = new HashMap<>();
+  private final List<Postings> postings = new ArrayList<>();
+  private final int[][] docTerms;
+  private final int[] docLengths;
+  private final Object[][] docFields;
+  private int docCount;
+  private long totalLength;
+
+  /**
+   * Creates an empty index for ids {@code 0..capacity-1}.
+   *
+   * @param capacity One more than the largest id to index.
+   */
+  public SearchIndex(final int capacity) {
+    this.docTerms = new int[Math.max(capacity, 0)][];
+    this.docLengths = new int[Math.max(capacity, 0)];
+    this.docFields = new Object[Math.max(capacity, 0)][];
+  }
+
+  /**
+   * Indexes the current text of {@code book}, replacing whatever was indexed for its id. A book
+   * whose title, authors and subjects equal those last indexed is left as it is, without
+   * locking, so this is cheap to call after every checkout. Calls for the same id must not run
+   * concurrently; ids outside the index are ignored.
+   *
+   * @param book The book to index.
+   * @return {@code true} if the book's text was indexed.
+   */
+  public boolean update(final Book book) {
+    final int bookId = book.getId();
+    final Object[] fields = {book.getTitle(), book.getAuthors(), book.getSubjects()};
+    final boolean result = bookId >= 0 && bookId < docTerms.length
+        && !Arrays.equals(docFields[bookId], fields);
+    if (result) {
+      final Map<String, int[]> counts = new HashMap<>();
+      final int length = countTerms(book, counts);
+      final Lock writeLock = lock.writeLock();
+      writeLock.lock();
+      try {
+        removeLocked(bookId);
+        final int[] terms = new int[counts.size()];
+        int i = 0;
+        for (final Map.Entry<String, int[]> entry : counts.entrySet()) {
+          Integer termId = termIds.get(entry.getKey());
+          if (termId == null) {
+            termId = postings.size();
+            termIds.put(entry.getKey(), termId);
+            postings.add(new Postings());
+          }
+          postings.get(termId).insert(bookId, entry.getValue()[0]);
+          terms[i++] = termId;
+        }
+        docTerms[bookId] = terms;
+        docLengths[bookId] = length;
+        docFields[bookId] = fields;
+        docCount++;
+        totalLength += length;
+      } finally {
+        writeLock.unlock();
+      }
+    }
+    return result;
+  }
+
+  private void removeLocked(final int bookId) {
+    final int[] terms = docTerms[bookId];
+    if (terms != null) {
+      for (final int termId : terms) {
+        postings.get(termId).remove(bookId);
+      }
+      docTerms[bookId] = null;
+      docCount--;
+      totalLength -= docLengths[bookId];
+      docLengths[bookId] = 0;
+      docFields[bookId] = null;
+    }
+  }
+
+  private static int countTerms(final Book book, final Map<String, int[]> counts) {
+    final int[] length = new int[1];
+    final Consumer<String> counter = term -> {
+      counts.computeIfAbsent(term, key -> new int[1])[0]++;
+      length[0]++;
+    };
+    TextFolding.tokenize(book.getTitle(), counter);
+    for (final String author : book.getAuthors()) {
+      TextFolding.tokenize(author, counter);
+    }
+    for (final String subject : book.getSubjects()) {
+      TextFolding.tokenize(subject, counter);
+    }
+    return length[0];
+  }
+
+  /**
+   * Returns the ids of the books best matching {@code query}, best first. A book matches if it
+   * contains any query term; ties are broken by ascending id.
+   *
+   * @param query Free text; folded and split like the indexed text.
+   * @param limit The maximum number of ids to return.
+   * @return The ranked ids; empty if nothing matches.
+   */
+  public int[] search(final String query, final int limit) {
+    final Set<String> words = new LinkedHashSet<>();
+    TextFolding.tokenize(query, words::add);
+    int[] result = new int[0];
+    final Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      final List<Cursor> cursors = new ArrayList<>(words.size());
+      for (final String word : words) {
+        final Integer termId = termIds.get(word);
+        if (termId != null && postings.get(termId).size > 0) {
+          cursors.add(new Cursor(postings.get(termId), docCount));
+        }
+      }
+      if (limit > 0 && !cursors.isEmpty()) {
+        result = rank(cursors, limit);
+      }
+    } finally {
+      readLock.unlock();
+    }
+    return result;
+  }
+
+  /**
+   * Document-at-a-time MaxScore over {@code cursors}. Terms are ordered by their upper bound;
+   * those in the prefix whose bounds sum to at most the current threshold are non-essential.
+   */
+  private int[] rank(final List<Cursor> cursors, final int limit) {
+    cursors.sort(Comparator.comparingDouble(cursor -> cursor.upperBound));
+    final Cursor[] terms = cursors.toArray(new Cursor[0]);
+    final double[] prefixBounds = new double[terms.length];
+    double sum = 0;
+    for (int i = 0; i < terms.length; i++) {
+      sum += terms[i].upperBound;
+      prefixBounds[i] = sum;
+    }
+    final double averageLength = Math.max(1.0, (double) totalLength / Math.max(docCount, 1));
+    final PriorityQueue<Hit> hits = new PriorityQueue<>(limit + 1, WORST_FIRST);
+    double threshold = 0;
+    int firstEssential = 0;
+
+    while (firstEssential < terms.length) {
+      int candidate = Integer.MAX_VALUE;
+      for (int i = firstEssential; i < terms.length; i++) {
+        candidate = Math.min(candidate, terms[i].current());
+      }
+      if (candidate == Integer.MAX_VALUE) {
+        break;
+      }
+      final double norm = K1 * (1 - B + B * docLengths[candidate] / averageLength);
+      double score = 0;
+      for (int i = firstEssential; i < terms.length; i++) {
+        if (terms[i].current() == candidate) {
+          score += terms[i].score(norm);
+          terms[i].next();
+        }
+      }
+      final boolean full = hits.size() >= limit;
+      for (int i = firstEssential - 1; i >= 0 && !(full && score + prefixBounds[i] <= threshold);
+          i--) {
+        if (terms[i].advanceTo(candidate) == candidate) {
+          score += terms[i].score(norm);
+        }
+      }
+      if (!full || score > threshold) {
+        hits.add(new Hit(candidate, score));
+        if (hits.size() > limit) {
+          hits.poll();
+        }
+        if (hits.size() >= limit) {
+          threshold = hits.peek().score;
+          while (firstEssential < terms.length && prefixBounds[firstEssential] <= threshold) {
+            firstEssential++;
+          }
+        }
+      }
+    }
+
+    final Hit[] ranked = hits.toArray(new Hit[0]);
+    Arrays.sort(ranked, WORST_FIRST.reversed());
+    final int[] result = new int[ranked.length];
+    for (int i = 0; i < ranked.length; i++) {
+      result[i] = ranked[i].bookId;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of distinct terms ever indexed.
+   *
+   * @return The vocabulary size.
+   */
+  public int termCount() {
+    final int result;
+    final Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      result = termIds.size();
+    } finally {
+      readLock.unlock();
+    }
+    return result;
+  }
+
+  /**
+   * Book ids containing one term, in ascending order, with the term's frequency in each.
+   */
+  private static final class Postings {
+    private int[] ids = new int[2];
+    private int[] frequencies = new int[2];
+    private int size;
+
+    private void insert(final int bookId, final int frequency) {
+      int index = size > 0 && ids[size - 1] >= bookId
+          ? Arrays.binarySearch(ids, 0, size, bookId) : -size - 1;
+      if (index >= 0) {
+        frequencies[index] = frequency;
+      } else {
+        index = -index - 1;
+        if (size == ids.length) {
+          ids = Arrays.copyOf(ids, size * 2);
+          frequencies = Arrays.copyOf(frequencies, size * 2);
+        }
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        System.arraycopy(frequencies, index, frequencies, index + 1, size - index);
+        ids[index] = bookId;
+        frequencies[index] = frequency;
+        size++;
+      }
+    }
+
+    private void remove(final int bookId) {
+      final int index = Arrays.binarySearch(ids, 0, size, bookId);
+      if (index >= 0) {
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        System.arraycopy(frequencies, index + 1, frequencies, index, size - index - 1);
+        size--;
+      }
+    }
+  }
+
+  /**
+   * Position of a query term in its posting list.
+   */
+  private static final class Cursor {
+    private final Postings postings;
+    private final double idf;
+    private final double upperBound;
+    private int position;
+
+    private Cursor(final Postings postings, final int docCount) {
+      this.postings = postings;
+      this.idf = Math.log(1 + (docCount - postings.size + 0.5) / (postings.size + 0.5));
+      this.upperBound = idf * (K1 + 1);
+    }
+
+    private int current() {
+      return position < postings.size ? postings.ids[position] : Integer.MAX_VALUE;
+    }
+
+    private void next() {
+      position++;
+    }
+
+    private double score(final double norm) {
+      final int frequency = postings.frequencies[position];
+      return idf * frequency * (K1 + 1) / (frequency + norm);
+    }
+
+    /**
+     * Gallops forward to the first posting at or after {@code bookId}.
+     */
+    private int advanceTo(final int bookId) {
+      if (current() < bookId) {
+        int step = 1;
+        int low = position;
+        int high = position + 1;
+        while (high < postings.size && postings.ids[high] < bookId) {
+          low = high;
+          step <<= 1;
+          high = position + step;
+        }
+        high = Math.min(high, postings.size);
+        final int index = Arrays.binarySearch(postings.ids, low + 1, high, bookId);
+        position = index >= 0 ? index : -index - 1;
+      }
+      return current();
+    }
+  }
+
+  /**
+   * A scored book held while ranking.
+   */
+  private static final class Hit {
+    private final int bookId;
+    private final double score;
+
+    private Hit(final int bookId, final double score) {
+      this.bookId = bookId;
+      this.score = score;
+    }
+  }
+}
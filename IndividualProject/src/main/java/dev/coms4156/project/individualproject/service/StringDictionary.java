@@ -0,0 +1,136 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.Book;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Canonicalizes the repeated metadata of a catalog, so every book with the same language,
+ * shelving location, publisher, publication date, author or subject shares one {@code String}
+ * instead of holding the copy the JSON parser created for it.
+ *
+ * <p>The dictionary is bounded: once it holds {@code limit} distinct values, new values are
+ * passed through unchanged, so a catalog of mostly unique strings cannot make it grow without
+ * bound. Titles are nearly unique and are never looked up. Lookups are thread-safe, so the same
+ * dictionary serves the single-threaded load and later concurrent updates.
+ */
+public final class StringDictionary {
+
+  /** Default maximum number of distinct values kept. */
+  public static final int DEFAULT_LIMIT = 1 << 20;
+
+  private static final int STRING_HEADER_BYTES = 24;
+  private static final int ARRAY_HEADER_BYTES = 16;
+  private static final int ALIGNMENT = 8;
+  private final ConcurrentHashMap<String, String> entries = new ConcurrentHashMap<>();
+  private final int limit;
+  private final LongAdder duplicates = new LongAdder();
+  private final LongAdder savedBytes = new LongAdder();
+
+  /**
+   * Creates a dictionary holding at most {@link #DEFAULT_LIMIT} values.
+   */
+  public StringDictionary() {
+    this(DEFAULT_LIMIT);
+  }
+
+  /**
+   * Creates a dictionary holding at most {@code limit} distinct values.
+   *
+   * @param limit The maximum number of distinct values; negative values are treated as zero.
+   */
+  public StringDictionary(final int limit) {
+    this.limit = Math.max(limit, 0);
+  }
+
+  /**
+   * Returns the shared instance equal to {@code value}, registering {@code value} as that
+   * instance if it is new and the dictionary is not full.
+   *
+   * @param value The string to look up, possibly {@code null}.
+   * @return An equal string, or {@code value} itself.
+   */
+  public String canonical(final String value) {
+    String result = value;
+    if (value != null) {
+      String existing = entries.get(value);
+      if (existing == null && entries.size() < limit) {
+        existing = entries.putIfAbsent(value, value);
+      }
+      if (existing != null) {
+        result = existing;
+        if (existing != value) {
+          duplicates.increment();
+          savedBytes.add(estimatedBytes(value));
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Canonicalizes every element of {@code values}.
+   *
+   * @param values The strings to look up; {@code null} is returned as is.
+   * @return A new list of the canonical strings.
+   */
+  public List<String> canonicalAll(final List<String> values) {
+    List<String> result = null;
+    if (values != null) {
+      result = new ArrayList<>(values.size());
+      for (final String value : values) {
+        result.add(canonical(value));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Replaces the repeated metadata fields of {@code book} with their canonical instances.
+   *
+   * @param book The book to rewrite in place.
+   */
+  public void canonicalize(final Book book) {
+    book.setAuthors(canonicalAll(book.getAuthors()));
+    book.setLanguage(canonical(book.getLanguage()));
+    book.setShelvingLocation(canonical(book.getShelvingLocation()));
+    book.setPublicationDate(canonical(book.getPublicationDate()));
+    book.setPublisher(canonical(book.getPublisher()));
+    book.setSubjects(canonicalAll(book.getSubjects()));
+  }
+
+  /**
+   * Returns the number of distinct values shared through the dictionary.
+   *
+   * @return The entry count.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Returns how many duplicate strings were replaced by a shared instance so far.
+   *
+   * @return The duplicate count.
+   */
+  public long duplicates() {
+    return duplicates.sum();
+  }
+
+  /**
+   * Estimates the heap freed by replacing duplicates, assuming compact Latin-1 strings on a
+   * 64-bit JVM with compressed references. The dictionary's own overhead is not subtracted.
+   *
+   * @return The estimated number of bytes no longer retained.
+   */
+  public long savedBytes() {
+    return savedBytes.sum();
+  }
+
+  private static long estimatedBytes(final String value) {
+    final long array = ARRAY_HEADER_BYTES + value.length();
+    return STRING_HEADER_BYTES + (array + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+  }
+}
@@ -0,0 +1,115 @@
+package dev.coms4156.project.individualproject.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only dictionary assigning each distinct string a dense {@code int} code, so the text
+ * columns of {@link ColumnarStore} hold every value once and store only codes per book.
+ *
+ * <p>Decoding is a lock-free array read. Encoding a new value appends it under a lock; callers
+ * publish the code with a volatile write (e.g. into an {@code AtomicIntegerArray}), so any
+ * reader that sees the code also sees the entry it refers to.
+ */
+final class StringPool {
+
+  /** Code representing {@code null}. */
+  static final int NULL_CODE = -1;
+
+  private static final int INITIAL_CAPACITY = 256;
+  private static final int[] NO_CODES = new int[0];
+  private final Map<String, Integer> codes = new HashMap<>();
+  private final ReentrantLock lock = new ReentrantLock();
+  private volatile String[] values = new String[INITIAL_CAPACITY];
+  private int size;
+
+  /**
+   * Returns the code of {@code value}, adding it to the pool if it is new.
+   *
+   * @param value The string to encode, possibly {@code null}.
+   * @return The code of the value, or {@link #NULL_CODE}.
+   */
+  int encode(final String value) {
+    int result = NULL_CODE;
+    if (value != null) {
+      lock.lock();
+      try {
+        final Integer code = codes.get(value);
+        if (code == null) {
+          String[] table = values;
+          if (size == table.length) {
+            table = Arrays.copyOf(table, size * 2);
+            values = table;
+          }
+          table[size] = value;
+          codes.put(value, size);
+          result = size++;
+        } else {
+          result = code;
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Encodes every string of {@code list}. Empty and {@code null} lists share one empty array.
+   *
+   * @param list The strings to encode.
+   * @return The codes in list order.
+   */
+  int[] encodeAll(final List<String> list) {
+    int[] result = NO_CODES;
+    if (list != null && !list.isEmpty()) {
+      result = new int[list.size()];
+      for (int i = 0; i < result.length; i++) {
+        result[i] = encode(list.get(i));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the string a code stands for.
+   *
+   * @param code A code returned by {@link #encode}.
+   * @return The string, or {@code null} for {@link #NULL_CODE}.
+   */
+  String decode(final int code) {
+    return code == NULL_CODE ? null : values[code];
+  }
+
+  /**
+   * Decodes every code into a new mutable list.
+   *
+   * @param codes Codes returned by {@link #encode}.
+   * @return The strings in code order.
+   */
+  List<String> decodeAll(final int[] codes) {
+    final List<String> result = new ArrayList<>(codes.length);
+    for (final int code : codes) {
+      result.add(decode(code));
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of distinct strings in the pool.
+   *
+   * @return The entry count.
+   */
+  int size() {
+    lock.lock();
+    try {
+      return size;
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,379 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.model.Book;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Autocomplete over book titles and author names, tolerant of typos.
+ *
+ * <p>Every distinct title and author name is a key, normalized with
+ * {@link TextFolding#normalize} so MARC punctuation, case and diacritics do not matter; an author
+ * shared by many books is one key. Keys are kept sorted, so the keys starting with a prefix are
+ * found by one range lookup. When that yields fewer suggestions than asked for, keys sharing
+ * enough character trigrams with the prefix are suggested too, best first, which catches
+ * transposed or mistyped letters.
+ *
+ * <p>Memory and latency are bounded for per-keystroke use: only the first
+ * {@value #TRIGRAM_CHARS} characters of a key are trigram-indexed, the fuzzy pass reads at most
+ * {@value #MAX_SCANNED_POSTINGS} postings in full, from the rarest trigrams, and probes the rest
+ * by binary search, and key ids are recycled when a key loses its last book. Readers share a
+ * read lock; re-indexing a book takes the write lock briefly.
+ */
+public final class SuggestIndex {
+
+  /** Number of leading characters of each key whose trigrams are indexed. */
+  public static final int TRIGRAM_CHARS = 48;
+
+  private static final int MAX_SCANNED_POSTINGS = 50_000;
+  private static final int MIN_SHARED_TRIGRAMS = 2;
+  private static final double MIN_SHARED_FRACTION = 0.4;
+  private static final int MIN_FUZZY_LENGTH = 3;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final NavigableMap<String, Key> keys = new TreeMap<>();
+  private final List<Key> keysById = new ArrayList<>();
+  private final Deque<Integer> freeIds = new ArrayDeque<>();
+  private final Map<Long, IntList> trigrams = new HashMap<>();
+  private final int[][] bookKeys;
+  private final Object[][] bookFields;
+
+  /**
+   * The field a suggestion comes from.
+   */
+  public enum Field {
+    TITLE,
+    AUTHOR
+  }
+
+  /**
+   * Creates an empty index for ids {@code 0..capacity-1}.
+   *
+   * @param capacity One more than the largest id to index.
+   */
+  public SuggestIndex(final int capacity) {
+    this.bookKeys = new int[Math.max(capacity, 0)][];
+    this.bookFields = new Object[Math.max(capacity, 0)][];
+  }
+
+  /**
+   * Indexes the current title and authors of {@code book}, replacing whatever was indexed for
+   * its id. A book whose title and authors equal those last indexed is left as it is, without
+   * locking. Calls for the same id must not run concurrently; ids outside the index are ignored.
+   *
+   * @param book The book to index.
+   * @return {@code true} if the book's title and authors were indexed.
+   */
+  public boolean update(final Book book) {
+    final int bookId = book.getId();
+    final Object[] fields = {book.getTitle(), book.getAuthors()};
+    final boolean result = bookId >= 0 && bookId < bookKeys.length
+        && !Arrays.equals(bookFields[bookId], fields);
+    if (result) {
+      final Lock writeLock = lock.writeLock();
+      writeLock.lock();
+      try {
+        if (bookKeys[bookId] != null) {
+          for (final int keyId : bookKeys[bookId]) {
+            removeBook(keysById.get(keyId), bookId);
+          }
+        }
+        final Set<Integer> added = new HashSet<>();
+        addKey(Field.TITLE, book.getTitle(), bookId, added);
+        for (final String author : book.getAuthors()) {
+          addKey(Field.AUTHOR, author, bookId, added);
+        }
+        bookKeys[bookId] = added.stream().mapToInt(Integer::intValue).toArray();
+        bookFields[bookId] = fields;
+      } finally {
+        writeLock.unlock();
+      }
+    }
+    return result;
+  }
+
+  private void addKey(final Field field, final String text, final int bookId,
+      final Set<Integer> added) {
+    final String normalized = TextFolding.normalize(text);
+    if (!normalized.isEmpty()) {
+      final String mapKey = normalized + '\0' + field.ordinal();
+      Key key = keys.get(mapKey);
+      if (key == null) {
+        final int id = freeIds.isEmpty() ? keysById.size() : freeIds.pop();
+        key = new Key(id, field, normalized, TextFolding.trimTrailingPunctuation(text));
+        if (id == keysById.size()) {
+          keysById.add(key);
+        } else {
+          keysById.set(id, key);
+        }
+        keys.put(mapKey, key);
+        for (final long trigram : trigramsOf(normalized)) {
+          trigrams.computeIfAbsent(trigram, t -> new IntList()).insert(id);
+        }
+      }
+      if (added.add(key.id)) {
+        key.books.insert(bookId);
+      }
+    }
+  }
+
+  private void removeBook(final Key key, final int bookId) {
+    key.books.remove(bookId);
+    if (key.books.size == 0) {
+      keys.remove(key.normalized + '\0' + key.field.ordinal());
+      for (final long trigram : trigramsOf(key.normalized)) {
+        final IntList postings = trigrams.get(trigram);
+        postings.remove(key.id);
+        if (postings.size == 0) {
+          trigrams.remove(trigram);
+        }
+      }
+      keysById.set(key.id, null);
+      freeIds.push(key.id);
+    }
+  }
+
+  /**
+   * Suggests titles and author names for what a user has typed so far: first the keys that
+   * start with {@code prefix} in alphabetical order, then, if there is room and the prefix has
+   * at least three characters, the keys sharing the most trigrams with it.
+   *
+   * @param prefix The text typed so far.
+   * @param limit The maximum number of suggestions.
+   * @return At most {@code limit} suggestions, each title or author name at most once.
+   */
+  public List<Suggestion> suggest(final String prefix, final int limit) {
+    final String normalized = TextFolding.normalize(prefix);
+    final List<Suggestion> result = new ArrayList<>();
+    final Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      if (!normalized.isEmpty() && limit > 0) {
+        final Set<Integer> seen = new HashSet<>();
+        for (final Key key : keys.subMap(normalized, true, normalized + Character.MAX_VALUE,
+            false).values()) {
+          if (result.size() >= limit) {
+            break;
+          }
+          seen.add(key.id);
+          result.add(key.toSuggestion());
+        }
+        if (result.size() < limit && normalized.length() >= MIN_FUZZY_LENGTH) {
+          for (final Key key : fuzzyMatches(normalized, limit - result.size(), seen)) {
+            result.add(key.toSuggestion());
+          }
+        }
+      }
+    } finally {
+      readLock.unlock();
+    }
+    return result;
+  }
+
+  /**
+   * Finds the keys containing at least a minimum share of the query's trigrams. A key with
+   * {@code needed} of the query's {@code m} trigrams must appear in at least one of the
+   * {@code m - needed + 1} shortest posting lists, so only those are read in full, up to the scan
+   * budget; each candidate is then looked up in the longer lists by binary search.
+   */
+  private List<Key> fuzzyMatches(final String query, final int limit, final Set<Integer> seen) {
+    final long[] queryTrigrams = trigramsOf(query);
+    final List<IntList> lists = new ArrayList<>(queryTrigrams.length);
+    for (final long trigram : queryTrigrams) {
+      final IntList postings = trigrams.get(trigram);
+      if (postings != null) {
+        lists.add(postings);
+      }
+    }
+    lists.sort(Comparator.comparingInt(postings -> postings.size));
+    final int needed = Math.max(MIN_SHARED_TRIGRAMS,
+        (int) Math.ceil(MIN_SHARED_FRACTION * queryTrigrams.length));
+    final int shortLists = lists.size() - needed + 1;
+
+    int scanned = 0;
+    int readLists = 0;
+    while (readLists < shortLists && scanned + lists.get(readLists).size <= MAX_SCANNED_POSTINGS) {
+      scanned += lists.get(readLists).size;
+      readLists++;
+    }
+    final int[] ids = new int[scanned];
+    int filled = 0;
+    for (int i = 0; i < readLists; i++) {
+      System.arraycopy(lists.get(i).values, 0, ids, filled, lists.get(i).size);
+      filled += lists.get(i).size;
+    }
+    Arrays.sort(ids);
+
+    final List<Key> candidates = new ArrayList<>();
+    final Map<Key, Integer> shared = new HashMap<>();
+    for (int start = 0, end; start < ids.length; start = end) {
+      end = start + 1;
+      while (end < ids.length && ids[end] == ids[start]) {
+        end++;
+      }
+      int count = end - start;
+      for (int i = readLists; i < lists.size(); i++) {
+        if (Arrays.binarySearch(lists.get(i).values, 0, lists.get(i).size, ids[start]) >= 0) {
+          count++;
+        }
+      }
+      if (count >= needed && !seen.contains(ids[start])) {
+        final Key key = keysById.get(ids[start]);
+        candidates.add(key);
+        shared.put(key, count);
+      }
+    }
+    candidates.sort(Comparator.comparingInt((Key key) -> -shared.get(key))
+        .thenComparingInt(key -> key.normalized.length())
+        .thenComparing(key -> key.normalized));
+    return candidates.subList(0, Math.min(limit, candidates.size()));
+  }
+
+  /**
+   * Returns the distinct trigrams of {@code normalized}, padded with a leading space so the
+   * start of the text weighs like the start of a word, each packed into a {@code long}. The
+   * characters are 21 bits apart so that every one of them reaches the low 32 bits of the
+   * packed value's hash code.
+   */
+  private static long[] trigramsOf(final String normalized) {
+    final String padded =
+        ' ' + normalized.substring(0, Math.min(normalized.length(), TRIGRAM_CHARS));
+    final long[] result = new long[Math.max(padded.length() - 2, 0)];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = (long) padded.charAt(i) << 42 | (long) padded.charAt(i + 1) << 21
+          | padded.charAt(i + 2);
+    }
+    Arrays.sort(result);
+    int distinct = 0;
+    for (int i = 0; i < result.length; i++) {
+      if (i == 0 || result[i] != result[i - 1]) {
+        result[distinct++] = result[i];
+      }
+    }
+    return Arrays.copyOf(result, distinct);
+  }
+
+  /**
+   * Returns the number of distinct titles and author names indexed.
+   *
+   * @return The key count.
+   */
+  public int keyCount() {
+    final int result;
+    final Lock readLock = lock.readLock();
+    readLock.lock();
+    try {
+      result = keys.size();
+    } finally {
+      readLock.unlock();
+    }
+    return result;
+  }
+
+  /**
+   * A title or author name suggested for a prefix.
+   */
+  public static final class Suggestion {
+    private final String text;
+    private final Field field;
+    private final int bookId;
+    private final int bookCount;
+
+    private Suggestion(final String text, final Field field, final int bookId,
+        final int bookCount) {
+      this.text = text;
+      this.field = field;
+      this.bookId = bookId;
+      this.bookCount = bookCount;
+    }
+
+    /**
+     * Returns the title or author name as catalogued, without trailing punctuation.
+     *
+     * @return The text to show.
+     */
+    public String getText() {
+      return text;
+    }
+
+    public Field getField() {
+      return field;
+    }
+
+    /**
+     * Returns the lowest id of the books with this title or author.
+     *
+     * @return A book id.
+     */
+    public int getBookId() {
+      return bookId;
+    }
+
+    public int getBookCount() {
+      return bookCount;
+    }
+  }
+
+  /**
+   * One distinct normalized title or author name and the books that have it.
+   */
+  private static final class Key {
+    private final int id;
+    private final Field field;
+    private final String normalized;
+    private final String display;
+    private final IntList books = new IntList();
+
+    private Key(final int id, final Field field, final String normalized, final String display) {
+      this.id = id;
+      this.field = field;
+      this.normalized = normalized;
+      this.display = display;
+    }
+
+    private Suggestion toSuggestion() {
+      return new Suggestion(display, field, books.values[0], books.size);
+    }
+  }
+
+  /**
+   * Sorted set of ints in a growable array.
+   */
+  private static final class IntList {
+    private int[] values = new int[1];
+    private int size;
+
+    private void insert(final int value) {
+      int index = size > 0 && values[size - 1] >= value
+          ? Arrays.binarySearch(values, 0, size, value) : -size - 1;
+      if (index < 0) {
+        index = -index - 1;
+        if (size == values.length) {
+          values = Arrays.copyOf(values, size * 2);
+        }
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+      }
+    }
+
+    private void remove(final int value) {
+      final int index = Arrays.binarySearch(values, 0, size, value);
+      if (index >= 0) {
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+      }
+    }
+  }
+}
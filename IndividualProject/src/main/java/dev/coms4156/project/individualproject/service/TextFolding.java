@@ -0,0 +1,120 @@
+package dev.coms4156.project.individualproject.service;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Normalizes catalog text for matching: diacritics and romanization marks are dropped and case
+ * is folded, so a title romanized with breves and modifier apostrophes, like the Korean entries
+ * of the bundled catalog, matches a plain query such as {@code "hanguk kundae"}.
+ *
+ * <p>Text is decomposed (NFKD) and every combining mark and modifier letter or symbol is removed;
+ * that covers the breves, apostrophes and primes of McCune-Reischauer and similar romanizations
+ * as well as ordinary accents. Tokens are maximal runs of letters and digits in the folded text;
+ * {@link #normalize} instead keeps a field whole, minus the trailing punctuation of MARC records.
+ */
+public final class TextFolding {
+
+  private static final String TRAILING_PUNCTUATION = " \t/:;,.=";
+
+  private TextFolding() {
+  }
+
+  /**
+   * Folds {@code text} to lower case without diacritics.
+   *
+   * @param text The text to fold, possibly {@code null}.
+   * @return The folded text; empty for {@code null}.
+   */
+  public static String fold(final String text) {
+    final StringBuilder result = new StringBuilder(text == null ? 0 : text.length());
+    if (text != null) {
+      final String decomposed = isAscii(text) ? text : Normalizer.normalize(text,
+          Normalizer.Form.NFKD);
+      for (int i = 0; i < decomposed.length(); i++) {
+        final char c = decomposed.charAt(i);
+        if (!isMark(c)) {
+          result.append(c);
+        }
+      }
+    }
+    return result.toString().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Splits {@code text} into folded tokens.
+   *
+   * @param text The text to tokenize, possibly {@code null}.
+   * @param action Called with each token in order, repeats included.
+   */
+  public static void tokenize(final String text, final Consumer<String> action) {
+    final String folded = fold(text);
+    int start = -1;
+    for (int i = 0; i <= folded.length(); i++) {
+      final boolean word = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+      if (word && start < 0) {
+        start = i;
+      } else if (!word && start >= 0) {
+        action.accept(folded.substring(start, i));
+        start = -1;
+      }
+    }
+  }
+
+  /**
+   * Removes the punctuation that MARC records leave at the end of a field, such as the
+   * {@code " /"} before a statement of responsibility or the {@code " :"} before a subtitle.
+   *
+   * @param text The field value, possibly {@code null}.
+   * @return The value without trailing punctuation or whitespace; empty for {@code null}.
+   */
+  public static String trimTrailingPunctuation(final String text) {
+    int end = text == null ? 0 : text.length();
+    while (end > 0 && TRAILING_PUNCTUATION.indexOf(text.charAt(end - 1)) >= 0) {
+      end--;
+    }
+    return end == 0 ? "" : text.substring(0, end).strip();
+  }
+
+  /**
+   * Normalizes a whole field for prefix matching: trailing punctuation is trimmed, the text is
+   * folded and runs of whitespace become single spaces.
+   *
+   * @param text The field value, possibly {@code null}.
+   * @return The normalized value; empty for {@code null}.
+   */
+  public static String normalize(final String text) {
+    final String folded = fold(trimTrailingPunctuation(text));
+    final StringBuilder result = new StringBuilder(folded.length());
+    boolean space = false;
+    for (int i = 0; i < folded.length(); i++) {
+      final char c = folded.charAt(i);
+      if (Character.isWhitespace(c)) {
+        space = result.length() > 0;
+      } else {
+        if (space) {
+          result.append(' ');
+          space = false;
+        }
+        result.append(c);
+      }
+    }
+    return result.toString();
+  }
+
+  private static boolean isAscii(final String text) {
+    boolean result = true;
+    for (int i = 0; i < text.length() && result; i++) {
+      result = text.charAt(i) < 0x80;
+    }
+    return result;
+  }
+
+  private static boolean isMark(final char c) {
+    final int type = Character.getType(c);
+    return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK
+        || type == Character.ENCLOSING_MARK || type == Character.MODIFIER_LETTER
+        || type == Character.MODIFIER_SYMBOL;
+  }
+}
@@ -0,0 +1,626 @@
+package dev.coms4156.project.individualproject.service;
+
+import dev.coms4156.project.individualproject.config.CatalogProperties;
+import dev.coms4156.project.individualproject.config.FsyncPolicy;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.EpochDayMultiset;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only log of catalog mutations, replayed on startup so inventory survives a restart.
+ *
+ * <p>Every record is a post-image of one book: its inventory after a checkout, return, added or
+ * deleted copy, or the whole book after {@link MockApiService#updateBook(Book)}. Replaying a
+ * record overwrites the stored book with that state, so replay is idempotent. Records are
+ * appended while the book's inventory lock is held, so the records of one book are in mutation
+ * order.
+ *
+ * <p>Appending only copies the record into a buffer. A single writer thread drains the buffer to
+ * the file and fsyncs according to the {@link FsyncPolicy}. Everything appended while one batch
+ * is being written goes out together in the next batch, so under {@link FsyncPolicy#PER_OP}
+ * concurrent writers share fsyncs instead of queueing for one each (group commit).
+ *
+ * <p>The file starts with a magic number and format version. Each record is its length, a
+ * sequence number, the payload and a CRC32 of sequence and payload; replay stops at the first
+ * record that is cut short or fails its checksum, and that torn tail is truncated away. Due
+ * dates are logged as distinct epoch days with counts, and strings as their UTF-8 length and
+ * bytes, so no field is capped at the 65,535 bytes of {@code writeUTF}. Logs written in an
+ * earlier format version are rejected.
+ *
+ * <p>{@link #rotate()} moves the records written so far into a previous segment next to the log
+ * (same name plus {@code .prev}) and continues in a fresh file. Once a catalog snapshot covers
+ * those records, {@link #discardPrevious()} deletes the segment; until then replay reads it
+ * before the current file.
+ */
+public class WriteAheadLog implements AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(WriteAheadLog.class);
+  private static final int MAGIC = 0x424B574C;
+  private static final int VERSION = 3;
+  private static final int NULL_STRING = -1;
+  private static final int HEADER_BYTES = 2 * Integer.BYTES;
+  private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+  private static final byte INVENTORY_RECORD = 1;
+  private static final byte BOOK_RECORD = 2;
+
+  private final Path path;
+  private final Path previousPath;
+  private final FsyncPolicy policy;
+  private final long intervalNanos;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition workAvailable = lock.newCondition();
+  private final Condition batchDurable = lock.newCondition();
+  private final CRC32 crc = new CRC32();
+  private final ThreadLocal<long[]> lastAppended = ThreadLocal.withInitial(() -> new long[1]);
+  private final Thread writer;
+  private FileChannel channel;
+  private RecordBuffer buffer = new RecordBuffer();
+  private long appendedSequence;
+  private long durableSequence;
+  private boolean rotateRequested;
+  private long rotations;
+  private boolean closed;
+  private IOException failure;
+
+  private WriteAheadLog(final Path path, final FileChannel channel,
+      final CatalogProperties.Wal settings, final long lastSequence) {
+    this.path = path;
+    this.previousPath = previousSegment(path);
+    this.channel = channel;
+    this.policy = settings.getFsync();
+    this.intervalNanos =
+        TimeUnit.MILLISECONDS.toNanos(Math.max(1, settings.getFsyncIntervalMs()));
+    this.appendedSequence = lastSequence;
+    this.durableSequence = lastSequence;
+    this.writer = new Thread(this::runWriter, "wal-writer");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Opens the log configured in {@code settings}, creating it if needed. Every intact record
+   * already in the log, including a previous segment not yet discarded, is first replayed into
+   * {@code store}, and any torn tail left by a crash is truncated, so new records follow the
+   * last intact one.
+   *
+   * @param settings The {@code catalog.wal.*} settings; the path must be set.
+   * @param store The catalog to bring up to date.
+   * @return The open log, ready for appends.
+   * @throws IOException if the file cannot be read or created, or is not a write-ahead log.
+   */
+  public static WriteAheadLog open(final CatalogProperties.Wal settings, final CatalogStore store)
+      throws IOException {
+    final Path path = Path.of(settings.getPath());
+    final long startNanos = System.nanoTime();
+    final ReplayProgress progress = new ReplayProgress();
+    final Path previous = previousSegment(path);
+    if (Files.exists(previous)) {
+      replaySegment(previous, store, progress);
+    }
+    final long validBytes =
+        Files.exists(path) && Files.size(path) > 0 ? replaySegment(path, store, progress) : 0;
+
+    final FileChannel channel;
+    if (validBytes == 0) {
+      channel = newSegment(path);
+    } else {
+      channel = FileChannel.open(path, StandardOpenOption.WRITE);
+      try {
+        if (channel.size() > validBytes) {
+          if (LOGGER.isWarnEnabled()) {
+            LOGGER.warn("Discarding {} bytes of incomplete records at the end of {}",
+                channel.size() - validBytes, path);
+          }
+          channel.truncate(validBytes);
+          channel.force(true);
+        }
+        channel.position(channel.size());
+      } catch (final IOException e) {
+        channel.close();
+        throw e;
+      }
+    }
+
+    if (LOGGER.isInfoEnabled()) {
+      LOGGER.info("Replayed {} write-ahead log records from {} in {} ms (fsync policy {})",
+          progress.records, path, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+          settings.getFsync());
+    }
+    return new WriteAheadLog(path, channel, settings, progress.lastSequence);
+  }
+
+  private static Path previousSegment(final Path path) {
+    return path.resolveSibling(path.getFileName() + ".prev");
+  }
+
+  /**
+   * Replays every intact record of one segment into {@code store}.
+   *
+   * @return The number of bytes up to the end of the last intact record.
+   */
+  private static long replaySegment(final Path segment, final CatalogStore store,
+      final ReplayProgress progress) throws IOException {
+    long result = HEADER_BYTES;
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(segment)))) {
+      readHeader(in, segment);
+      byte[] record = readRecord(in);
+      while (record != null) {
+        progress.lastSequence = Math.max(progress.lastSequence, apply(record, store));
+        progress.records++;
+        result += Integer.BYTES + record.length + Integer.BYTES;
+        record = readRecord(in);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Creates an empty segment holding only the file header, replacing any existing file.
+   */
+  private static FileChannel newSegment(final Path segment) throws IOException {
+    final FileChannel result = FileChannel.open(segment, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    try {
+      final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+          .putInt(MAGIC)
+          .putInt(VERSION);
+      result.write(header.flip());
+      result.force(true);
+    } catch (final IOException e) {
+      result.close();
+      throw e;
+    }
+    return result;
+  }
+
+  /**
+   * Appends the current inventory of {@code book}. The caller must hold the book's inventory
+   * lock, so the counters and due dates form one consistent state. Never blocks on I/O.
+   *
+   * @param book The book whose inventory changed.
+   */
+  public void appendInventory(final Book book) {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(INVENTORY_RECORD);
+      writeInventory(out, book);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    append(bytes.toByteArray());
+  }
+
+  /**
+   * Appends every field of {@code book}, replacing the logged state of its id. The caller must
+   * hold the book's inventory lock. Never blocks on I/O.
+   *
+   * @param book The new version of the book.
+   */
+  public void appendBook(final Book book) {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(BOOK_RECORD);
+      writeString(out, book.getTitle());
+      writeStrings(out, book.getAuthors());
+      writeString(out, book.getLanguage());
+      writeString(out, book.getShelvingLocation());
+      writeString(out, book.getPublicationDate());
+      writeString(out, book.getPublisher());
+      writeStrings(out, book.getSubjects());
+      writeInventory(out, book);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    append(bytes.toByteArray());
+  }
+
+  private void append(final byte[] payload) {
+    lock.lock();
+    try {
+      if (!closed && failure == null) {
+        appendedSequence++;
+        buffer.writeRecord(appendedSequence, payload, crc);
+        lastAppended.get()[0] = appendedSequence;
+        if (policy == FsyncPolicy.PER_OP) {
+          workAvailable.signal();
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Waits until every record appended by the calling thread is as durable as the fsync policy
+   * promises. Only {@link FsyncPolicy#PER_OP} actually waits; the other policies return at once.
+   * Must not be called while holding an inventory lock.
+   *
+   * @throws UncheckedIOException if the log can no longer be written.
+   */
+  public void awaitDurable() {
+    final long target = lastAppended.get()[0];
+    lock.lock();
+    try {
+      if (policy == FsyncPolicy.PER_OP) {
+        while (durableSequence < target && failure == null) {
+          batchDurable.awaitUninterruptibly();
+        }
+      }
+      if (failure != null) {
+        throw new UncheckedIOException("Write-ahead log " + path + " is no longer writable",
+            failure);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Moves every record appended so far into the previous segment and continues in an empty
+   * file, so the records can be discarded once a snapshot covers them. Does nothing while an
+   * earlier previous segment still exists, so no records are lost if an earlier snapshot
+   * failed; the next snapshot covers both segments.
+   *
+   * @throws IOException if the log can no longer be written.
+   */
+  public void rotate() throws IOException {
+    lock.lock();
+    try {
+      if (!closed && failure == null && !Files.exists(previousPath)) {
+        final long target = rotations + 1;
+        rotateRequested = true;
+        workAvailable.signal();
+        while (rotations < target && failure == null) {
+          batchDurable.awaitUninterruptibly();
+        }
+      }
+      if (failure != null) {
+        throw new IOException("Write-ahead log " + path + " is no longer writable", failure);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Deletes the previous segment left by {@link #rotate()}. Call only once a snapshot that was
+   * started after the rotation has been written.
+   *
+   * @throws IOException if the segment cannot be deleted.
+   */
+  public void discardPrevious() throws IOException {
+    Files.deleteIfExists(previousPath);
+  }
+
+  /**
+   * Returns the sequence number of the most recently appended record.
+   *
+   * @return The sequence number, or {@code 0} if the log has never held a record.
+   */
+  public long lastSequence() {
+    lock.lock();
+    try {
+      return appendedSequence;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Writes and fsyncs everything appended so far, then closes the file. Appends after closing
+   * are ignored.
+   */
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      closed = true;
+      workAvailable.signal();
+    } finally {
+      lock.unlock();
+    }
+    try {
+      writer.join();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    try {
+      channel.close();
+    } catch (final IOException e) {
+      LOGGER.error("Failed to close write-ahead log {}", path, e);
+    }
+  }
+
+  /**
+   * Body of the writer thread: repeatedly swaps out the buffer of appended records, writes it
+   * and, unless the policy is {@link FsyncPolicy#NONE}, fsyncs it. The last batch after closing
+   * and the last batch before a rotation are always fsynced. Rotation happens on this thread
+   * between two batches, so every record of the previous segment precedes every record of the
+   * new one.
+   */
+  private void runWriter() {
+    RecordBuffer spare = new RecordBuffer();
+    boolean running = true;
+    while (running) {
+      final RecordBuffer batch;
+      final long batchSequence;
+      final boolean rotate;
+      lock.lock();
+      try {
+        awaitWork();
+        running = !closed;
+        batch = buffer;
+        buffer = spare;
+        batchSequence = appendedSequence;
+        rotate = rotateRequested;
+        rotateRequested = false;
+      } finally {
+        lock.unlock();
+      }
+
+      IOException error = null;
+      try {
+        batch.writeTo(channel);
+        if (policy != FsyncPolicy.NONE || !running || rotate) {
+          channel.force(false);
+        }
+        if (rotate) {
+          channel.close();
+          Files.move(path, previousPath, StandardCopyOption.ATOMIC_MOVE);
+          channel = newSegment(path);
+        }
+      } catch (final IOException e) {
+        LOGGER.error("Failed to write write-ahead log {}", path, e);
+        error = e;
+        running = false;
+      }
+
+      lock.lock();
+      try {
+        if (error == null) {
+          durableSequence = batchSequence;
+          if (rotate) {
+            rotations++;
+          }
+        } else {
+          failure = error;
+        }
+        batchDurable.signalAll();
+      } finally {
+        lock.unlock();
+      }
+      batch.reset();
+      spare = batch;
+    }
+  }
+
+  /**
+   * Waits, holding {@link #lock}, until the next batch is due: as soon as anything is appended
+   * under {@link FsyncPolicy#PER_OP}, otherwise once per interval.
+   */
+  private void awaitWork() {
+    try {
+      if (policy == FsyncPolicy.PER_OP) {
+        while (buffer.size() == 0 && !closed && !rotateRequested) {
+          workAvailable.await();
+        }
+      } else if (!closed && !rotateRequested) {
+        workAvailable.awaitNanos(intervalNanos);
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      closed = true;
+    }
+  }
+
+  private static void readHeader(final DataInputStream in, final Path path) throws IOException {
+    if (in.readInt() != MAGIC) {
+      throw new IOException(path + " is not a write-ahead log");
+    }
+    final int version = in.readInt();
+    if (version != VERSION) {
+      throw new IOException(path + " has unsupported write-ahead log version " + version);
+    }
+  }
+
+  /**
+   * Reads the next record (sequence number and payload).
+   *
+   * @return The record, or {@code null} at the end of the log or at a torn or corrupt record.
+   */
+  private static byte[] readRecord(final DataInputStream in) throws IOException {
+    byte[] result = null;
+    try {
+      final int length = in.readInt();
+      if (length > Long.BYTES && length <= MAX_RECORD_BYTES) {
+        final byte[] record = new byte[length];
+        in.readFully(record);
+        final CRC32 checksum = new CRC32();
+        checksum.update(record);
+        if (in.readInt() == (int) checksum.getValue()) {
+          result = record;
+        }
+      }
+    } catch (final EOFException e) {
+      // a record cut short by a crash ends the log
+      result = null;
+    }
+    return result;
+  }
+
+  /**
+   * Applies one record to the store.
+   *
+   * @return The sequence number of the record.
+   */
+  private static long apply(final byte[] record, final CatalogStore store) throws IOException {
+    final DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+    final long sequence = in.readLong();
+    final byte kind = in.readByte();
+    if (kind == INVENTORY_RECORD) {
+      final Book book = store.get(in.readInt());
+      final Book inventory = readInventory(in, new Book());
+      if (book != null) {
+        copyInventory(inventory, book);
+      }
+    } else if (kind == BOOK_RECORD) {
+      final Book book = new Book();
+      book.setTitle(readString(in));
+      book.setAuthors(readStrings(in));
+      book.setLanguage(readString(in));
+      book.setShelvingLocation(readString(in));
+      book.setPublicationDate(readString(in));
+      book.setPublisher(readString(in));
+      book.setSubjects(readStrings(in));
+      book.setId(in.readInt());
+      store.replace(readInventory(in, book));
+    } else {
+      throw new IOException("Unknown write-ahead log record type " + kind);
+    }
+    return sequence;
+  }
+
+  private static void writeInventory(final DataOutputStream out, final Book book)
+      throws IOException {
+    out.writeInt(book.getId());
+    out.writeInt(book.getTotalCopies());
+    out.writeInt(book.getCopiesAvailable());
+    out.writeInt(book.getAmountOfTimesCheckedOut());
+    final EpochDayMultiset dueDays = book.dueDays();
+    out.writeInt(dueDays.distinctDays());
+    for (int i = 0; i < dueDays.distinctDays(); i++) {
+      out.writeInt(dueDays.dayAt(i));
+      out.writeInt(dueDays.countAt(i));
+    }
+  }
+
+  /**
+   * Reads the inventory fields following the id into {@code book}.
+   */
+  private static Book readInventory(final DataInputStream in, final Book book)
+      throws IOException {
+    book.setTotalCopies(in.readInt());
+    book.setCopiesAvailable(in.readInt());
+    book.setAmountOfTimesCheckedOut(in.readInt());
+    final EpochDayMultiset dueDays = new EpochDayMultiset();
+    final int distinct = in.readInt();
+    for (int i = 0; i < distinct; i++) {
+      final int day = in.readInt();
+      final int count = in.readInt();
+      if (count <= 0) {
+        throw new IOException("Invalid due date count " + count + " in write-ahead log");
+      }
+      dueDays.add(day, count);
+    }
+    book.restoreDueDays(dueDays);
+    return book;
+  }
+
+  private static void copyInventory(final Book from, final Book to) {
+    to.setTotalCopies(from.getTotalCopies());
+    to.setCopiesAvailable(from.getCopiesAvailable());
+    to.setAmountOfTimesCheckedOut(from.getAmountOfTimesCheckedOut());
+    to.restoreDueDays(from.dueDays());
+  }
+
+  private static void writeString(final DataOutputStream out, final String value)
+      throws IOException {
+    if (value == null) {
+      out.writeInt(NULL_STRING);
+    } else {
+      final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+  }
+
+  private static String readString(final DataInputStream in) throws IOException {
+    String result = null;
+    final int length = in.readInt();
+    if (length < NULL_STRING || length > in.available()) {
+      throw new IOException("Write-ahead log string of " + length + " bytes overruns its record");
+    } else if (length != NULL_STRING) {
+      final byte[] bytes = new byte[length];
+      in.readFully(bytes);
+      result = new String(bytes, StandardCharsets.UTF_8);
+    }
+    return result;
+  }
+
+  private static void writeStrings(final DataOutputStream out, final List<String> values)
+      throws IOException {
+    out.writeInt(values.size());
+    for (final String value : values) {
+      writeString(out, value);
+    }
+  }
+
+  private static List<String> readStrings(final DataInputStream in) throws IOException {
+    final int size = in.readInt();
+    final List<String> result = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      result.add(readString(in));
+    }
+    return result;
+  }
+
+  /**
+   * Running totals of a replay across segments.
+   */
+  private static final class ReplayProgress {
+    private long lastSequence;
+    private int records;
+  }
+
+  /**
+   * Growable byte buffer of framed records that can be written to a channel without copying.
+   */
+  private static final class RecordBuffer extends ByteArrayOutputStream {
+
+    /**
+     * Frames and appends one record: length, sequence, payload and checksum.
+     */
+    void writeRecord(final long sequence, final byte[] payload, final CRC32 checksum) {
+      final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + Long.BYTES)
+          .putInt(Long.BYTES + payload.length)
+          .putLong(sequence);
+      write(header.array(), 0, header.capacity());
+      final int checkedFrom = count - Long.BYTES;
+      write(payload, 0, payload.length);
+      checksum.reset();
+      checksum.update(buf, checkedFrom, count - checkedFrom);
+      final int value = (int) checksum.getValue();
+      write(ByteBuffer.allocate(Integer.BYTES).putInt(value).array(), 0, Integer.BYTES);
+    }
+
+    void writeTo(final FileChannel channel) throws IOException {
+      final ByteBuffer bytes = ByteBuffer.wrap(buf, 0, count);
+      while (bytes.hasRemaining()) {
+        channel.write(bytes);
+      }
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import dev.coms4156.project.individualproject.controller.ReactiveRouteController;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Unit tests for the ReactiveRouteController class, compiled with the {@code reactive} profile.
+ *
+ * <p>Covers single-book lookups and checkouts answering like the servlet controller, and the
+ * streamed list endpoints as JSON arrays and newline-delimited JSON.
+ */
+class ReactiveRouteControllerTest {
+
+  private MockApiService service;
+  private WebTestClient client;
+
+  @BeforeEach
+  void setUp() {
+    service = new MockApiService(List.of(new Book("First", 1), new Book("Second", 2)));
+    client = WebTestClient.bindToController(new ReactiveRouteController(service)).build();
+  }
+
+  @Test
+  void getBook_knownAndUnknownIds() {
+    client.get().uri("/book/1").exchange()
+        .expectStatus().isOk()
+        .expectBody().jsonPath("$.title").isEqualTo("First");
+    client.get().uri("/book/99").exchange()
+        .expectStatus().isNotFound()
+        .expectBody(String.class).isEqualTo("Book not found.");
+  }
+
+  @Test
+  void checkout_removesBookFromStreamedAvailableList() {
+    client.post().uri("/checkout?bookId=2").exchange()
+        .expectStatus().isOk()
+        .expectBody().jsonPath("$.copiesAvailable").isEqualTo(0);
+    client.post().uri("/checkout?bookId=2").exchange()
+        .expectStatus().isEqualTo(409);
+    client.post().uri("/checkout?bookId=0").exchange()
+        .expectStatus().isBadRequest();
+
+    client.put().uri("/books/available").accept(MediaType.APPLICATION_JSON).exchange()
+        .expectStatus().isOk()
+        .expectBodyList(Book.class).hasSize(1);
+    client.put().uri("/books/available").accept(MediaType.APPLICATION_NDJSON).exchange()
+        .expectStatus().isOk()
+        .expectBody(String.class).value(body -> assertEquals(1, body.lines().count()));
+  }
+
+  @Test
+  void addCopyAndRecommendations_matchServletResponses() {
+    client.patch().uri("/book/1/add").exchange()
+        .expectStatus().isOk()
+        .expectBody().jsonPath("$.totalCopies").isEqualTo(2);
+    client.patch().uri("/book/99/add").exchange()
+        .expectStatus().isEqualTo(418);
+
+    client.get().uri("/books/recommendation").exchange()
+        .expectStatus().isOk()
+        .expectBodyList(Book.class).hasSize(2);
+  }
+}
@@ -0,0 +1,259 @@
+package dev.coms4156.project.individualproject.controller;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.BookFilter;
+import dev.coms4156.project.individualproject.service.MockApiService;
+import java.util.List;
+import java.util.concurrent.Callable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking variant of {@link RouteController} on Spring WebFlux, active when the application
+ * runs with {@code spring.main.web-application-type=reactive}.
+ *
+ * <p>The routes, parameters, status codes and messages are those of the servlet controller: the
+ * single-book handlers delegate to it, so both stacks validate and respond identically and can
+ * be compared like for like. Lookups and list endpoints run on the event loop, since the catalog
+ * is in memory. Handlers that mutate inventory may wait for the write-ahead log to fsync, so
+ * they are moved to the bounded elastic scheduler and never block an event-loop thread. List
+ * results are {@code Flux}es pulled lazily from the catalog as the client reads them, so a slow
+ * client holds back the iteration rather than buffering the list; clients asking for
+ * {@code application/x-ndjson} get one book per line.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRouteController {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveRouteController.class);
+  private final MockApiService mockApiService;
+  private final RouteController handlers;
+
+  /**
+   * Creates the controller over the given catalog.
+   *
+   * @param mockApiService The catalog service.
+   */
+  public ReactiveRouteController(final MockApiService mockApiService) {
+    this.mockApiService = mockApiService;
+    this.handlers = new RouteController(mockApiService);
+  }
+
+  @GetMapping({"/", "/index"})
+  public Mono<String> index() {
+    return Mono.fromSupplier(handlers::index);
+  }
+
+  /**
+   * Returns the details of the specified book.
+   *
+   * @param bookId The unique identifier of the book to retrieve.
+   * @return A {@code Mono} of the book with HTTP 200, or a not-found message with HTTP 404.
+   */
+  @GetMapping({"/book/{bookId}"})
+  public Mono<ResponseEntity<?>> getBook(@PathVariable final int bookId) {
+    return Mono.fromSupplier(() -> handlers.getBook(bookId));
+  }
+
+  /**
+   * Streams every book that has at least one copy available, in ascending id order.
+   *
+   * @return A {@code Flux} walking the availability index as the client consumes it.
+   */
+  @PutMapping(value = {"/books/available"},
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  public Flux<Book> getAvailableBooks() {
+    return Flux.defer(() -> Flux.fromIterable(mockApiService.availableBooks()))
+        .doOnError(e -> LOGGER.error("Error occurred when getting all available books", e));
+  }
+
+  /**
+   * Streams the books matching every given condition, in ascending id order.
+   *
+   * @param language The required language code.
+   * @param subject The required subjects.
+   * @param location The required shelving location code.
+   * @param publisher The required publisher.
+   * @param available Whether books must have copies available, or have none.
+   * @param publishedFrom The first publication year wanted.
+   * @param publishedTo The last publication year wanted.
+   * @return A {@code Mono} of a {@code Flux} over the matching books with HTTP 200, or of the
+   *         message of {@link RouteController#filterBooks} with HTTP 400 if no condition is given
+   *         or the year range is empty.
+   */
+  @GetMapping(value = "/books",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  public Mono<ResponseEntity<?>> filterBooks(
+      @RequestParam(required = false) final String language,
+      @RequestParam(required = false) final List<String> subject,
+      @RequestParam(required = false) final String location,
+      @RequestParam(required = false) final String publisher,
+      @RequestParam(required = false) final Boolean available,
+      @RequestParam(required = false) final Integer publishedFrom,
+      @RequestParam(required = false) final Integer publishedTo) {
+    final BookFilter filter =
+        RouteController.filterOf(language, subject, location, publisher, available)
+            .publishedBetween(publishedFrom, publishedTo);
+    final ResponseEntity<?> result;
+    if (filter.isEmpty()) {
+      result = ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.TEXT_PLAIN)
+          .body(RouteController.FILTER_REQUIRED);
+    } else if (!RouteController.isYearRange(publishedFrom, publishedTo)) {
+      result = ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.TEXT_PLAIN)
+          .body(RouteController.YEAR_RANGE_INVALID);
+    } else {
+      result = ResponseEntity.ok(
+          Flux.defer(() -> Flux.fromIterable(mockApiService.filterBooks(filter)))
+              .doOnError(e -> LOGGER.error("Error occurred when filtering books", e)));
+    }
+    return Mono.just(result);
+  }
+
+  /**
+   * Counts titles, available titles and copies per language, shelving location and subject.
+   *
+   * @param language The required language code.
+   * @param subject The required subjects.
+   * @param location The required shelving location code.
+   * @param publisher The required publisher.
+   * @param available Whether counted books must have copies available, or have none.
+   * @param publishedFrom The first publication year counted.
+   * @param publishedTo The last publication year counted.
+   * @param limit The maximum number of values per attribute.
+   * @return A {@code Mono} of the response of {@link RouteController#getFacets}.
+   */
+  @GetMapping("/books/facets")
+  public Mono<ResponseEntity<?>> getFacets(@RequestParam(required = false) final String language,
+      @RequestParam(required = false) final List<String> subject,
+      @RequestParam(required = false) final String location,
+      @RequestParam(required = false) final String publisher,
+      @RequestParam(required = false) final Boolean available,
+      @RequestParam(required = false) final Integer publishedFrom,
+      @RequestParam(required = false) final Integer publishedTo,
+      @RequestParam(required = false) final Integer limit) {
+    return Mono.fromSupplier(() -> handlers.getFacets(language, subject, location, publisher,
+        available, publishedFrom, publishedTo, limit));
+  }
+
+  /**
+   * Finds books by free text over their titles, authors and subjects.
+   *
+   * @param q The words to look for.
+   * @param limit The maximum number of books to return.
+   * @return A {@code Mono} of the response of {@link RouteController#searchBooks}.
+   */
+  @GetMapping("/books/search")
+  public Mono<ResponseEntity<?>> searchBooks(@RequestParam(required = false) final String q,
+      @RequestParam(required = false) final Integer limit) {
+    return Mono.fromSupplier(() -> handlers.searchBooks(q, limit));
+  }
+
+  /**
+   * Suggests titles and author names completing a prefix.
+   *
+   * @param prefix The text typed so far.
+   * @param limit The maximum number of suggestions.
+   * @return A {@code Mono} of the response of {@link RouteController#suggestBooks}.
+   */
+  @GetMapping("/books/suggest")
+  public Mono<ResponseEntity<?>> suggestBooks(
+      @RequestParam(required = false) final String prefix,
+      @RequestParam(required = false) final Integer limit) {
+    return Mono.fromSupplier(() -> handlers.suggestBooks(prefix, limit));
+  }
+
+  /**
+   * Adds a copy to the book if it exists.
+   *
+   * @param bookId The unique id of the book.
+   * @return A {@code Mono} of the response of {@link RouteController#addCopy(Integer)}.
+   */
+  @PatchMapping({"/book/{bookId}/add"})
+  public Mono<ResponseEntity<?>> addCopy(@PathVariable final Integer bookId) {
+    return blocking(() -> handlers.addCopy(bookId));
+  }
+
+  /**
+   * Adds or deletes copies of many books in one request.
+   *
+   * @param adjustments The {@code (bookId, delta)} pairs, applied in order.
+   * @return A {@code Mono} of the response of {@link RouteController#adjustInventory(List)}.
+   */
+  @PatchMapping("/books/inventory")
+  public Mono<ResponseEntity<?>> adjustInventory(
+      @RequestBody(required = false) final List<InventoryAdjustment> adjustments) {
+    return blocking(() -> handlers.adjustInventory(adjustments));
+  }
+
+  /**
+   * Checks out a copy of a book.
+   *
+   * @param bookId The ID of the book to checkout
+   * @return A {@code Mono} of the response of {@link RouteController#checkoutBook(Integer)}.
+   */
+  @PostMapping("/checkout")
+  public Mono<ResponseEntity<?>> checkoutBook(
+      @RequestParam(required = false) final Integer bookId) {
+    return blocking(() -> handlers.checkoutBook(bookId));
+  }
+
+  /**
+   * Checks out one copy of each of several books, all or nothing.
+   *
+   * @param bookIds The IDs of the books to check out
+   * @return A {@code Mono} of the response of {@link RouteController#checkoutBooks(List)}.
+   */
+  @PostMapping("/checkout/batch")
+  public Mono<ResponseEntity<?>> checkoutBooks(
+      @RequestParam(required = false) final List<Integer> bookIds) {
+    return blocking(() -> handlers.checkoutBooks(bookIds));
+  }
+
+  /**
+   * Returns a checked-out copy of a book.
+   *
+   * @param bookId The ID of the book being returned
+   * @param dueDate The due date of the returned copy
+   * @return A {@code Mono} of the response of {@link RouteController#returnBook}.
+   */
+  @PostMapping("/return")
+  public Mono<ResponseEntity<?>> returnBook(
+      @RequestParam(required = false) final Integer bookId,
+      @RequestParam(required = false) final String dueDate) {
+    return blocking(() -> handlers.returnBook(bookId, dueDate));
+  }
+
+  /**
+   * Streams the recommended books: the most popular ones followed by random picks.
+   *
+   * @return A {@code Flux} of the recommendations.
+   */
+  @GetMapping(value = "/books/recommendation",
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  public Flux<Book> getBookRecommendations() {
+    return Flux.defer(() -> Flux.fromIterable(Recommendations.compose(mockApiService)))
+        .doOnError(e -> LOGGER.error("Error generating book recommendations", e));
+  }
+
+  /**
+   * Runs a handler that may block on durability off the event loop.
+   */
+  private static Mono<ResponseEntity<?>> blocking(final Callable<ResponseEntity<?>> handler) {
+    return Mono.fromCallable(handler).subscribeOn(Schedulers.boundedElastic());
+  }
+}
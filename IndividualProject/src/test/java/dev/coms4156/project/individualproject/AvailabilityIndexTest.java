@@ -0,0 +1,67 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.coms4156.project.individualproject.service.AvailabilityIndex;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the AvailabilityIndex class.
+ *
+ * <p>Covers setting and clearing bits across word boundaries, iteration order
+ * and the running count of available books.
+ */
+class AvailabilityIndexTest {
+
+  @Test
+  void update_setsAndClearsBitsAcrossWords() {
+    final AvailabilityIndex index = new AvailabilityIndex(130);
+    index.update(0, true);
+    index.update(63, true);
+    index.update(64, true);
+    index.update(129, true);
+
+    assertEquals(List.of(0, 63, 64, 129), availableIds(index));
+    assertEquals(4, index.count());
+
+    index.update(63, false);
+    assertFalse(index.isAvailable(63));
+    assertTrue(index.isAvailable(64));
+    assertEquals(3, index.count());
+  }
+
+  @Test
+  void update_repeatedValue_doesNotChangeCount() {
+    final AvailabilityIndex index = new AvailabilityIndex(10);
+    index.update(5, true);
+    index.update(5, true);
+    index.update(6, false);
+
+    assertEquals(1, index.count());
+  }
+
+  @Test
+  void outOfRangeIds_areIgnored() {
+    final AvailabilityIndex index = new AvailabilityIndex(10);
+    index.update(-1, true);
+    index.update(10, true);
+
+    assertEquals(0, index.count());
+    assertFalse(index.isAvailable(-1));
+    assertFalse(index.isAvailable(10));
+    assertEquals(-1, index.nextAvailable(0));
+    assertEquals(-1, new AvailabilityIndex(0).nextAvailable(-1));
+  }
+
+  private static List<Integer> availableIds(final AvailabilityIndex index) {
+    final List<Integer> ids = new ArrayList<>();
+    for (int id = index.nextAvailable(0); id >= 0; id = index.nextAvailable(id + 1)) {
+      ids.add(id);
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,106 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.BookStore;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the BookStore class.
+ *
+ * <p>Covers id-keyed lookup, update-only replacement and ordered iteration of the
+ * concurrent catalog store, incremental construction through its builder and sharing of
+ * repeated metadata strings.
+ */
+class BookStoreTest {
+
+  @Test
+  void get_returnsBookByIdAndNullOutsideTable() {
+    final Book first = new Book("First", 1);
+    final Book third = new Book("Third", 3);
+    final BookStore store = new BookStore(List.of(third, first));
+
+    assertSame(first, store.get(1));
+    assertSame(third, store.get(3));
+    assertNull(store.get(2));
+    assertNull(store.get(-1));
+    assertNull(store.get(4));
+    assertEquals(2, store.size());
+    assertEquals(4, store.capacity());
+  }
+
+  @Test
+  void replace_existingId_swapsSlotAndReturnsPrevious() {
+    final Book original = new Book("Original", 1);
+    final BookStore store = new BookStore(List.of(original));
+    final Book replacement = new Book("Replacement", 1);
+
+    assertSame(original, store.replace(replacement));
+    assertSame(replacement, store.get(1));
+    assertEquals(1, store.size());
+  }
+
+  @Test
+  void replace_unknownId_isIgnored() {
+    final BookStore store = new BookStore(List.of(new Book("Only", 1)));
+
+    assertNull(store.replace(new Book("Stranger", 2)));
+    assertNull(store.replace(new Book("Far away", 999)));
+    assertNull(store.get(2));
+    assertEquals(1, store.toList().size());
+  }
+
+  @Test
+  void constructor_skipsNegativeIds() {
+    final BookStore store = new BookStore(List.of(new Book("Bad", -5), new Book("Good", 0)));
+
+    assertEquals(1, store.size());
+    assertEquals("Good", store.get(0).getTitle());
+  }
+
+  @Test
+  void toList_returnsBooksInIdOrder() {
+    final BookStore store = new BookStore(
+        List.of(new Book("C", 3), new Book("A", 1), new Book("B", 2)));
+
+    final List<Book> books = store.toList();
+    assertEquals(3, books.size());
+    assertEquals(1, books.get(0).getId());
+    assertEquals(2, books.get(1).getId());
+    assertEquals(3, books.get(2).getId());
+  }
+
+  @Test
+  void builder_growsTableAndCountsDistinctIds() {
+    final BookStore.Builder builder = new BookStore.Builder();
+    builder.add(new Book("Small", 1)).add(new Book("Large", 5000)).add(new Book("Again", 1));
+    builder.add(new Book("Bad", -1));
+    assertEquals(2, builder.size());
+
+    final BookStore store = builder.build();
+    assertEquals(2, store.size());
+    assertEquals(5001, store.capacity());
+    assertEquals("Again", store.get(1).getTitle());
+    assertEquals("Large", store.get(5000).getTitle());
+  }
+
+  @Test
+  void addAndReplace_shareRepeatedMetadata() {
+    final Book first = new Book("First", 1);
+    first.setPublisher(new String("Press"));
+    final Book second = new Book("Second", 2);
+    second.setPublisher(new String("Press"));
+    final BookStore store = new BookStore(List.of(first, second));
+    assertSame(store.get(1).getPublisher(), store.get(2).getPublisher());
+
+    final Book replacement = new Book("Second, revised", 2);
+    replacement.setPublisher(new String("Press"));
+    store.replace(replacement);
+    assertSame(store.get(1).getPublisher(), store.get(2).getPublisher());
+    assertEquals(2, store.dictionary().duplicates());
+  }
+}
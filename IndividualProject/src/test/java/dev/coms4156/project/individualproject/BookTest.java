@@ -8,8 +8,17 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.InventoryChange;
+import dev.coms4156.project.individualproject.model.InventoryListener;
+import dev.coms4156.project.individualproject.model.LoanPolicy;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -251,10 +260,213 @@ class BookTest {
     assertTrue(book.getReturnDates().isEmpty());
   }
 
+  @Test
+  void setReturnDates_ignoresDateBeyondEpochDayRange() {
+    Book book = new Book("Test Title", 1);
+    book.setReturnDates(List.of("+9999999-01-01", "2025-01-01"));
+
+    assertEquals(List.of("2025-01-01"), book.getReturnDates());
+    assertFalse(book.returnCopy("+9999999-01-01"));
+  }
+
   @Test
   void equalsWithNullObject_returnsFalse() {
     // Test equals method with null object (additional branch coverage)
     Book book = new Book("Test Title", 1);
     assertFalse(book.equals(null));
   }
-}
\ No newline at end of file
+
+  @Test
+  void checkoutCopy_concurrentCallers_neverOversell() throws Exception {
+    // 8 threads race for 50 copies; exactly 50 checkouts may succeed
+    final Book hotBook = new Book("Course Reserve", 7);
+    for (int i = 1; i < 50; i++) {
+      hotBook.addCopy();
+    }
+
+    final AtomicInteger successes = new AtomicInteger();
+    final ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        futures.add(pool.submit(() -> {
+          for (int i = 0; i < 20; i++) {
+            if (hotBook.checkoutCopy() != null) {
+              successes.incrementAndGet();
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      pool.shutdown();
+    }
+
+    assertEquals(50, successes.get());
+    assertEquals(0, hotBook.getCopiesAvailable());
+    assertEquals(50, hotBook.getAmountOfTimesCheckedOut());
+    assertEquals(50, hotBook.getReturnDates().size());
+  }
+
+  @Test
+  void addCopy_concurrentCallers_countsEveryCopy() throws Exception {
+    final ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        futures.add(pool.submit(() -> {
+          for (int i = 0; i < 250; i++) {
+            book.addCopy();
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      pool.shutdown();
+    }
+
+    assertEquals(1001, book.getTotalCopies());
+    assertEquals(1001, book.getCopiesAvailable());
+  }
+
+  @Test
+  void returnDates_manyCopiesShareDueDatesAndReturnInAnyOrder() {
+    book.setTotalCopies(300);
+    book.setCopiesAvailable(300);
+    final String dueDate = book.checkoutCopy();
+    for (int i = 1; i < 300; i++) {
+      assertEquals(dueDate, book.checkoutCopy());
+    }
+    book.setReturnDates(concat(book.getReturnDates(), List.of("2020-01-01", "bogus")));
+
+    assertEquals(301, book.getReturnDates().size());
+    assertEquals("2020-01-01", book.getReturnDates().get(0), "dates are sorted");
+    assertTrue(book.returnCopy("2020-01-01"));
+    assertFalse(book.returnCopy("2020-01-01"));
+    assertFalse(book.returnCopy("bogus"));
+    for (int i = 0; i < 300; i++) {
+      assertTrue(book.returnCopy(dueDate));
+    }
+    assertTrue(book.getReturnDates().isEmpty());
+    assertEquals(301, book.getCopiesAvailable());
+  }
+
+  @Test
+  void checkoutCopies_allOrNothing() {
+    final Book first = new Book("First", 1);
+    final Book second = new Book("Second", 1025);
+    second.addCopy();
+
+    assertNull(Book.checkoutCopies(List.of(first, second, first), LoanPolicy.systemDefault()));
+    assertEquals(1, first.getCopiesAvailable());
+    assertEquals(2, second.getCopiesAvailable());
+    assertTrue(first.getReturnDates().isEmpty());
+
+    final List<String> dueDates =
+        Book.checkoutCopies(List.of(second, first, second), LoanPolicy.systemDefault());
+    assertEquals(3, dueDates.size());
+    assertEquals(0, first.getCopiesAvailable());
+    assertEquals(0, second.getCopiesAvailable());
+    assertEquals(2, second.getAmountOfTimesCheckedOut());
+    assertEquals(List.of(dueDates.get(1)), first.getReturnDates());
+  }
+
+  @Test
+  void checkoutCopies_opposingConcurrentBatches_neverDeadlockOrOversell() throws Exception {
+    final List<Book> books = new ArrayList<>();
+    for (int id = 1; id <= 4; id++) {
+      final Book stocked = new Book("Book " + id, id * 512);
+      stocked.setTotalCopies(100);
+      stocked.setCopiesAvailable(100);
+      books.add(stocked);
+    }
+    final List<Book> reversed = new ArrayList<>(books);
+    Collections.reverse(reversed);
+
+    final AtomicInteger successes = new AtomicInteger();
+    final ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        final List<Book> batch = t % 2 == 0 ? books : reversed;
+        futures.add(pool.submit(() -> {
+          for (int i = 0; i < 40; i++) {
+            if (Book.checkoutCopies(batch, LoanPolicy.systemDefault()) != null) {
+              successes.incrementAndGet();
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      pool.shutdown();
+    }
+
+    assertEquals(100, successes.get());
+    for (final Book stocked : books) {
+      assertEquals(0, stocked.getCopiesAvailable());
+      assertEquals(100, stocked.getReturnDates().size());
+    }
+  }
+
+  @Test
+  void adjustCopies_addsOrDeletesOnlyShelvedCopies() {
+    book.checkoutCopy();
+    assertFalse(book.adjustCopies(-1), "the only copy is on loan");
+    assertFalse(book.adjustCopies(0));
+    assertTrue(book.adjustCopies(5));
+    assertEquals(6, book.getTotalCopies());
+    assertTrue(book.adjustCopies(-5));
+    assertEquals(1, book.getTotalCopies());
+    assertEquals(0, book.getCopiesAvailable());
+  }
+
+  @Test
+  void adjustCopies_minValueDelta_changesNothing() {
+    assertFalse(book.adjustCopies(Integer.MIN_VALUE));
+    assertFalse(Book.adjustCopies(List.of(book), new int[] {Integer.MIN_VALUE})[0]);
+    assertEquals(1, book.getTotalCopies());
+    assertEquals(1, book.getCopiesAvailable());
+  }
+
+  @Test
+  void adjustCopies_batchAppliesEachIndependentlyAndCommitsAfterwards() {
+    final Book other = new Book("Other", 2);
+    final List<String> events = new ArrayList<>();
+    final InventoryListener listener = new InventoryListener() {
+      @Override
+      public void inventoryChanged(final Book changed, final InventoryChange change) {
+        events.add("changed " + changed.getId() + " " + change);
+      }
+
+      @Override
+      public void inventoryCommitted(final Book changed, final InventoryChange change) {
+        events.add("committed " + changed.getId());
+      }
+    };
+    book.attachInventoryListener(listener);
+    other.attachInventoryListener(listener);
+
+    final boolean[] applied =
+        Book.adjustCopies(List.of(book, other, book), new int[] {3, -2, -4});
+    assertTrue(applied[0]);
+    assertFalse(applied[1]);
+    assertTrue(applied[2]);
+    assertEquals(0, book.getTotalCopies());
+    assertEquals(1, other.getTotalCopies());
+    assertEquals(List.of("changed 0 ADD_COPY", "changed 0 DELETE_COPY", "committed 0",
+        "committed 0"), events);
+  }
+
+  private static List<String> concat(final List<String> first, final List<String> second) {
+    final List<String> result = new ArrayList<>(first);
+    result.addAll(second);
+    return result;
+  }
+}
@@ -0,0 +1,101 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.coms4156.project.individualproject.config.CatalogProperties;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.BookStore;
+import dev.coms4156.project.individualproject.service.CatalogLoader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the CatalogLoader class.
+ *
+ * <p>Covers token-by-token parsing of every book field, tolerance of unknown fields and
+ * nulls, and loading from the configured path or the bundled catalog.
+ */
+class CatalogLoaderTest {
+
+  private static final String CATALOG = """
+      [
+        {"id": 2, "title": "Second", "authors": ["A", "B"], "language": "English",
+         "shelvingLocation": "Stacks", "publicationDate": "2001", "publisher": "Press",
+         "subjects": ["Poetry"], "amountOfTimesCheckedOut": 7, "copiesAvailable": 1,
+         "returnDates": ["2025-01-01"], "totalCopies": 3,
+         "edition": {"number": 2, "notes": ["revised"]}},
+        {"id": 1, "title": "First", "authors": null, "subjects": [], "rating": 4.5}
+      ]
+      """;
+
+  private static InputStream stream(final String json) {
+    return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void read_parsesEveryFieldAndSkipsUnknownOnes() throws IOException {
+    final BookStore store = CatalogLoader.read(stream(CATALOG));
+
+    assertEquals(2, store.size());
+    final Book second = store.get(2);
+    assertEquals("Second", second.getTitle());
+    assertEquals(List.of("A", "B"), second.getAuthors());
+    assertEquals("English", second.getLanguage());
+    assertEquals("Stacks", second.getShelvingLocation());
+    assertEquals("2001", second.getPublicationDate());
+    assertEquals("Press", second.getPublisher());
+    assertEquals(List.of("Poetry"), second.getSubjects());
+    assertEquals(7, second.getAmountOfTimesCheckedOut());
+    assertEquals(1, second.getCopiesAvailable());
+    assertEquals(List.of("2025-01-01"), second.getReturnDates());
+    assertEquals(3, second.getTotalCopies());
+
+    final Book first = store.get(1);
+    assertEquals("First", first.getTitle());
+    assertTrue(first.getAuthors().isEmpty());
+    assertTrue(first.getSubjects().isEmpty());
+  }
+
+  @Test
+  void read_emptyArray_givesEmptyStore() throws IOException {
+    assertEquals(0, CatalogLoader.read(stream("[]")).size());
+  }
+
+  @Test
+  void read_notAnArray_throws() {
+    assertThrows(IOException.class, () -> CatalogLoader.read(stream("{\"id\": 1}")));
+    assertThrows(IOException.class, () -> CatalogLoader.read(stream("[1, 2]")));
+  }
+
+  @Test
+  void load_readsConfiguredPath(@TempDir final Path dir) throws IOException {
+    final Path file = dir.resolve("catalog.json");
+    Files.writeString(file, CATALOG);
+    final CatalogProperties properties = new CatalogProperties();
+    properties.setPath(file.toString());
+
+    assertEquals(2, new CatalogLoader(properties).load().size());
+  }
+
+  @Test
+  void load_missingPath_givesEmptyStore(@TempDir final Path dir) {
+    final CatalogProperties properties = new CatalogProperties();
+    properties.setPath(dir.resolve("missing.json").toString());
+
+    assertEquals(0, new CatalogLoader(properties).load().size());
+  }
+
+  @Test
+  void load_noPath_readsBundledCatalog() {
+    assertTrue(new CatalogLoader(new CatalogProperties()).load().size() > 0);
+  }
+}
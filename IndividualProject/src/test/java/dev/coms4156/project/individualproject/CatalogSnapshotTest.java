@@ -0,0 +1,128 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.BookStore;
+import dev.coms4156.project.individualproject.service.CatalogSnapshot;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the CatalogSnapshot class.
+ *
+ * <p>Covers a full round trip of every book field, sharing of dictionary-encoded strings,
+ * sparse ids, and rejection of corrupt, foreign or older-version files.
+ */
+class CatalogSnapshotTest {
+
+  @TempDir
+  Path dir;
+
+  private static Book book(final int bookId, final String title) {
+    final Book book = new Book(title, List.of("Shared Author"), "eng", "Stacks", "1999",
+        "Press", List.of("History", "Poetry"), bookId, 2, 3);
+    book.setAmountOfTimesCheckedOut(bookId * 10);
+    book.setReturnDates(List.of("2025-01-01"));
+    return book;
+  }
+
+  @Test
+  void roundTrip_preservesEveryField() throws IOException {
+    final Book sparse = book(1000, "Far away");
+    sparse.setPublisher(null);
+    sparse.setPublicationDate(null);
+    final BookStore store = new BookStore(List.of(book(1, "First"), book(2, "Second"), sparse));
+    final Path path = dir.resolve("catalog.snapshot");
+
+    assertTrue(CatalogSnapshot.write(store, path) > 0);
+    final BookStore restored = CatalogSnapshot.read(path);
+
+    assertEquals(3, restored.size());
+    final Book first = restored.get(1);
+    assertEquals("First", first.getTitle());
+    assertEquals(List.of("Shared Author"), first.getAuthors());
+    assertEquals("eng", first.getLanguage());
+    assertEquals("Stacks", first.getShelvingLocation());
+    assertEquals("1999", first.getPublicationDate());
+    assertEquals("Press", first.getPublisher());
+    assertEquals(List.of("History", "Poetry"), first.getSubjects());
+    assertEquals(3, first.getTotalCopies());
+    assertEquals(2, first.getCopiesAvailable());
+    assertEquals(10, first.getAmountOfTimesCheckedOut());
+    assertEquals(List.of("2025-01-01"), first.getReturnDates());
+
+    final Book far = restored.get(1000);
+    assertEquals("Far away", far.getTitle());
+    assertNull(far.getPublisher());
+    assertNull(far.getPublicationDate());
+    assertNull(restored.get(500));
+  }
+
+  @Test
+  void read_sharesRepeatedStrings() throws IOException {
+    final List<Book> books = new ArrayList<>();
+    for (int id = 1; id <= 20; id++) {
+      books.add(book(id, "Title " + id));
+    }
+    final Path path = dir.resolve("catalog.snapshot");
+    CatalogSnapshot.write(new BookStore(books), path);
+
+    final BookStore restored = CatalogSnapshot.read(path);
+    assertSame(restored.get(1).getPublisher(), restored.get(20).getPublisher());
+    assertSame(restored.get(1).getAuthors().get(0), restored.get(20).getAuthors().get(0));
+  }
+
+  @Test
+  void write_replacesEarlierSnapshot() throws IOException {
+    final Path path = dir.resolve("catalog.snapshot");
+    CatalogSnapshot.write(new BookStore(List.of(book(1, "Old"))), path);
+    CatalogSnapshot.write(new BookStore(List.of(book(1, "New"), book(2, "Added"))), path);
+
+    assertEquals(2, CatalogSnapshot.read(path).size());
+    assertEquals("New", CatalogSnapshot.read(path).get(1).getTitle());
+  }
+
+  @Test
+  void read_corruptFile_throws() throws IOException {
+    final Path path = dir.resolve("catalog.snapshot");
+    CatalogSnapshot.write(new BookStore(List.of(book(1, "First"))), path);
+    final byte[] bytes = Files.readAllBytes(path);
+    bytes[bytes.length / 2] ^= 1;
+    Files.write(path, bytes);
+
+    assertThrows(IOException.class, () -> CatalogSnapshot.read(path));
+  }
+
+  @Test
+  void read_foreignFile_throws() throws IOException {
+    final Path path = dir.resolve("books.json");
+    Files.writeString(path, "[{\"id\": 1, \"title\": \"Not a snapshot\"}]");
+
+    assertThrows(IOException.class, () -> CatalogSnapshot.read(path));
+  }
+
+  @Test
+  void read_olderFormatVersion_throws() throws IOException {
+    final ByteBuffer body = ByteBuffer.allocate(2 * Integer.BYTES + 1)
+        .putInt(0x424B534E).putInt(1).put((byte) 0);
+    final CRC32 checksum = new CRC32();
+    checksum.update(body.array());
+    final Path path = dir.resolve("catalog.snapshot");
+    Files.write(path, ByteBuffer.allocate(body.capacity() + Integer.BYTES)
+        .put(body.array()).putInt((int) checksum.getValue()).array());
+
+    assertThrows(IOException.class, () -> CatalogSnapshot.read(path));
+  }
+}
@@ -0,0 +1,93 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.coms4156.project.individualproject.service.CheckoutTracer;
+import dev.coms4156.project.individualproject.service.CheckoutTracer.Phase;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the CheckoutTracer class.
+ *
+ * <p>Covers sampling, the per-phase breakdown of slow checkouts, the slow-checkout ring buffer
+ * and the disabled tracer.
+ */
+class CheckoutTracerTest {
+
+  @Test
+  void finish_keepsSlowCheckoutBrokenDownByPhase() throws InterruptedException {
+    final CheckoutTracer tracer = new CheckoutTracer(1, 10, 4);
+    final CheckoutTracer.Span span = tracer.begin(7);
+    span.mark(Phase.LOOKUP);
+    Thread.sleep(20);
+    span.mark(Phase.MUTATE);
+    span.mark(Phase.PERSIST);
+    tracer.finish(200);
+
+    final CheckoutTracer.Report report = tracer.report();
+    assertEquals(1, report.getTracedCheckouts());
+    assertEquals(1, report.getSlowCheckouts().size());
+    final CheckoutTracer.Trace trace = report.getSlowCheckouts().get(0);
+    assertEquals(7, trace.getBookId());
+    assertEquals(200, trace.getStatus());
+    assertTrue(trace.getPhaseMicros().get(Phase.MUTATE) >= 20_000);
+    assertTrue(trace.getTotalMicros() >= trace.getPhaseMicros().get(Phase.MUTATE));
+    assertEquals(List.of(Phase.values()), List.copyOf(trace.getPhaseMicros().keySet()));
+  }
+
+  @Test
+  void finish_countsFastCheckoutWithoutKeepingIt() {
+    final CheckoutTracer tracer = new CheckoutTracer(1, 60_000, 4);
+    tracer.begin(1).mark(Phase.LOOKUP);
+    tracer.finish(404);
+
+    final CheckoutTracer.Report report = tracer.report();
+    assertEquals(1, report.getTracedCheckouts());
+    assertTrue(report.getSlowCheckouts().isEmpty());
+  }
+
+  @Test
+  void report_listsNewestSlowCheckoutsFirstUpToCapacity() {
+    final CheckoutTracer tracer = new CheckoutTracer(1, 0, 3);
+    for (int bookId = 1; bookId <= 5; bookId++) {
+      tracer.begin(bookId);
+      busyWait();
+      tracer.finish(200);
+    }
+
+    final List<CheckoutTracer.Trace> slow = tracer.report().getSlowCheckouts();
+    assertEquals(3, slow.size());
+    assertEquals(5, slow.get(0).getBookId());
+    assertEquals(3, slow.get(2).getBookId());
+  }
+
+  @Test
+  void finish_withoutSampledCheckoutRecordsNothing() {
+    final CheckoutTracer tracer = new CheckoutTracer(1, 0, 4);
+    tracer.finish(200);
+
+    assertEquals(0, tracer.report().getTracedCheckouts());
+  }
+
+  @Test
+  void disabled_tracesNothing() {
+    final CheckoutTracer tracer = CheckoutTracer.disabled();
+    final CheckoutTracer.Span span = tracer.begin(1);
+    span.mark(Phase.LOOKUP);
+    tracer.finish(200);
+
+    assertFalse(tracer.isEnabled());
+    assertEquals(0, tracer.report().getTracedCheckouts());
+    assertEquals(0, tracer.report().getSampleEvery());
+  }
+
+  private static void busyWait() {
+    final long start = System.nanoTime();
+    while (System.nanoTime() - start < 1_000) {
+      Thread.onSpinWait();
+    }
+  }
+}
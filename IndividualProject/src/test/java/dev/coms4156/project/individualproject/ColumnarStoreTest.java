@@ -0,0 +1,136 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.InventoryChange;
+import dev.coms4156.project.individualproject.service.BookStore;
+import dev.coms4156.project.individualproject.service.ColumnarStore;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the ColumnarStore class.
+ *
+ * <p>Covers copying a catalog into columns, the {@code Book} views handed out by lookups,
+ * inventory operations and listeners on views, replacement and primitive inventory scans.
+ */
+class ColumnarStoreTest {
+
+  private static Book sample(final int bookId, final String title) {
+    return new Book(title, List.of("Ann Author", "Bo Author"), "English", "STACKS",
+        "2001", "Press", List.of("fiction"), bookId, 2, 3);
+  }
+
+  @Test
+  void get_viewMatchesCopiedBook() {
+    final Book original = sample(4, "Title");
+    original.checkoutCopy();
+    final ColumnarStore store = new ColumnarStore(new BookStore(List.of(original)));
+
+    final Book view = store.get(4);
+    assertEquals("Title", view.getTitle());
+    assertEquals(List.of("Ann Author", "Bo Author"), view.getAuthors());
+    assertEquals("English", view.getLanguage());
+    assertEquals("STACKS", view.getShelvingLocation());
+    assertEquals("2001", view.getPublicationDate());
+    assertEquals("Press", view.getPublisher());
+    assertEquals(List.of("fiction"), view.getSubjects());
+    assertEquals(1, view.getCopiesAvailable());
+    assertEquals(3, view.getTotalCopies());
+    assertEquals(1, view.getAmountOfTimesCheckedOut());
+    assertEquals(original.getReturnDates(), view.getReturnDates());
+    assertTrue(view.hasMultipleAuthors());
+    assertEquals(1, store.size());
+    assertEquals(5, store.capacity());
+  }
+
+  @Test
+  void get_unknownIdReturnsNull() {
+    final ColumnarStore store = new ColumnarStore(new BookStore(List.of(sample(2, "Only"))));
+
+    assertNull(store.get(0));
+    assertNull(store.get(-1));
+    assertNull(store.get(3));
+  }
+
+  @Test
+  void views_shareStateAndPooledStrings() {
+    final ColumnarStore store = new ColumnarStore(
+        new BookStore(List.of(sample(1, "First"), sample(2, "Second"))));
+
+    final Book first = store.get(1);
+    final Book again = store.get(1);
+    assertNotSame(first, again);
+    assertEquals(first, again);
+    first.checkoutCopy();
+    assertEquals(1, again.getCopiesAvailable());
+    assertSame(store.get(1).getPublisher(), store.get(2).getPublisher());
+    assertEquals(7, store.pooledStringCount());
+  }
+
+  @Test
+  void views_reportInventoryChangesToStoreListener() {
+    final ColumnarStore store = new ColumnarStore(new BookStore(List.of(sample(1, "Only"))));
+    final List<InventoryChange> changes = new ArrayList<>();
+    store.attachInventoryListener((book, change) -> {
+      assertTrue(store.holds(book));
+      changes.add(change);
+    });
+
+    final Book view = store.get(1);
+    final String dueDate = view.checkoutCopy();
+    view.returnCopy(dueDate);
+    view.addCopy();
+    view.deleteCopy();
+    assertEquals(List.of(InventoryChange.CHECKOUT, InventoryChange.RETURN,
+        InventoryChange.ADD_COPY, InventoryChange.DELETE_COPY), changes);
+    assertEquals(2, store.get(1).getCopiesAvailable());
+    assertTrue(store.get(1).getReturnDates().isEmpty());
+  }
+
+  @Test
+  void replace_copiesFieldsIntoExistingIdOnly() {
+    final ColumnarStore store = new ColumnarStore(new BookStore(List.of(sample(1, "Old"))));
+    final Book replacement = new Book("New", 1);
+
+    final Book previous = store.replace(replacement);
+    assertTrue(store.holds(previous));
+    assertFalse(store.holds(replacement));
+    assertEquals("New", store.get(1).getTitle());
+    assertTrue(store.get(1).getAuthors().isEmpty());
+    assertEquals(1, store.get(1).getTotalCopies());
+    assertNull(store.replace(new Book("Stranger", 2)));
+
+    final Book view = store.get(1);
+    assertSame(view, store.replace(view));
+  }
+
+  @Test
+  void forEachInventory_scansCountersInIdOrder() {
+    final Book busy = sample(70, "Busy");
+    busy.checkoutCopy();
+    final ColumnarStore store = new ColumnarStore(
+        new BookStore(List.of(busy, sample(3, "Quiet"))));
+
+    final List<String> seen = new ArrayList<>();
+    store.forEachInventory((bookId, totalCopies, copiesAvailable, timesCheckedOut) ->
+        seen.add(bookId + ":" + totalCopies + "/" + copiesAvailable + "/" + timesCheckedOut));
+    assertEquals(List.of("3:3/2/0", "70:3/1/1"), seen);
+    assertEquals(List.of(3, 70), store.toList().stream().map(Book::getId).toList());
+  }
+
+  @Test
+  void setId_onViewIsRejected() {
+    final ColumnarStore store = new ColumnarStore(new BookStore(List.of(sample(1, "Only"))));
+
+    assertThrows(UnsupportedOperationException.class, () -> store.get(1).setId(2));
+  }
+}
@@ -0,0 +1,103 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.coms4156.project.individualproject.service.CompressedBitmap;
+import java.util.BitSet;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the CompressedBitmap class.
+ *
+ * <p>Covers membership across chunks, the switch between sparse and dense chunks in both
+ * directions, and intersections of every pair of chunk kinds against a {@link BitSet}.
+ */
+class CompressedBitmapTest {
+
+  private static CompressedBitmap bitmapOf(final BitSet bits) {
+    final CompressedBitmap bitmap = new CompressedBitmap();
+    bits.stream().forEach(bitmap::add);
+    return bitmap;
+  }
+
+  private static BitSet randomBits(final Random random, final int count, final int bound) {
+    final BitSet bits = new BitSet();
+    for (int i = 0; i < count; i++) {
+      bits.set(random.nextInt(bound));
+    }
+    return bits;
+  }
+
+  @Test
+  void addRemoveAndContains_spanChunks() {
+    final CompressedBitmap bitmap = new CompressedBitmap();
+    bitmap.add(7);
+    bitmap.add(70_000);
+    bitmap.add(7);
+    bitmap.add(Integer.MAX_VALUE);
+
+    assertEquals(3, bitmap.cardinality());
+    assertTrue(bitmap.contains(70_000));
+    assertFalse(bitmap.contains(70_001));
+    assertArrayEquals(new int[] {7, 70_000, Integer.MAX_VALUE}, bitmap.toArray());
+
+    bitmap.remove(70_000);
+    bitmap.remove(8);
+    assertArrayEquals(new int[] {7, Integer.MAX_VALUE}, bitmap.toArray());
+  }
+
+  @Test
+  void denseChunk_convertsBackWhenEmptied() {
+    final CompressedBitmap bitmap = new CompressedBitmap();
+    for (int i = 0; i < 10_000; i++) {
+      bitmap.add(i * 3);
+    }
+    assertEquals(10_000, bitmap.cardinality());
+    assertTrue(bitmap.contains(29_997));
+
+    for (int i = 0; i < 10_000; i += 2) {
+      bitmap.remove(i * 3);
+    }
+    assertEquals(5_000, bitmap.cardinality());
+    assertFalse(bitmap.contains(0));
+    assertTrue(bitmap.contains(3));
+    for (int i = 1; i < 10_000; i += 2) {
+      bitmap.remove(i * 3);
+    }
+    assertEquals(0, bitmap.cardinality());
+    assertArrayEquals(new int[0], bitmap.toArray());
+  }
+
+  @Test
+  void and_matchesBitSetForSparseAndDenseChunks() {
+    final Random random = new Random(42);
+    final int[] counts = {50, 3_000, 60_000, 150_000};
+    for (final int left : counts) {
+      for (final int right : counts) {
+        final BitSet a = randomBits(random, left, 200_000);
+        final BitSet b = randomBits(random, right, 200_000);
+        final CompressedBitmap intersection = bitmapOf(a).and(bitmapOf(b));
+        a.and(b);
+
+        assertArrayEquals(a.stream().toArray(), intersection.toArray());
+        assertEquals(a.cardinality(), intersection.cardinality());
+      }
+    }
+  }
+
+  @Test
+  void copy_isIndependent() {
+    final CompressedBitmap bitmap = new CompressedBitmap();
+    bitmap.add(1);
+    final CompressedBitmap copy = bitmap.copy();
+    copy.add(2);
+    bitmap.remove(1);
+
+    assertArrayEquals(new int[0], bitmap.toArray());
+    assertArrayEquals(new int[] {1, 2}, copy.toArray());
+  }
+}
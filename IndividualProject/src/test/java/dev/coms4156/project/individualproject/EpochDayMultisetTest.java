@@ -0,0 +1,77 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.coms4156.project.individualproject.model.EpochDayMultiset;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the EpochDayMultiset class.
+ *
+ * <p>Covers counted adds and removes in sorted order, parsing and formatting of ISO-8601
+ * dates, and copies.
+ */
+class EpochDayMultisetTest {
+
+  @Test
+  void addAndRemove_keepDistinctDaysSortedWithCounts() {
+    final EpochDayMultiset days = new EpochDayMultiset();
+    days.add(30, 1);
+    days.add(10, 2);
+    days.add(20, 1);
+    days.add(10, 1);
+
+    assertEquals(5, days.size());
+    assertEquals(3, days.distinctDays());
+    assertEquals(10, days.dayAt(0));
+    assertEquals(3, days.countAt(0));
+    assertEquals(30, days.dayAt(2));
+
+    assertTrue(days.remove(20));
+    assertFalse(days.remove(20));
+    assertEquals(2, days.distinctDays());
+    assertEquals(3, days.count(10));
+    assertEquals(0, days.count(20));
+    assertThrows(IndexOutOfBoundsException.class, () -> days.dayAt(2));
+    assertThrows(IllegalArgumentException.class, () -> days.add(40, 0));
+  }
+
+  @Test
+  void parse_ignoresInvalidDatesAndExpandsInOrder() {
+    final EpochDayMultiset days = EpochDayMultiset.parse(
+        Arrays.asList("2025-04-19", "2025-04-15", "not a date", null, "2025-04-19"));
+
+    assertEquals(3, days.size());
+    assertEquals(List.of("2025-04-15", "2025-04-19", "2025-04-19"), days.toIsoDates());
+    assertEquals(EpochDayMultiset.toEpochDay(LocalDate.of(2025, 4, 15)), days.dayAt(0));
+    assertTrue(EpochDayMultiset.parse(null).isEmpty());
+    assertEquals(Integer.MIN_VALUE, EpochDayMultiset.parseDay("2025-02-30"));
+    assertEquals("1970-01-02", EpochDayMultiset.format(1));
+  }
+
+  @Test
+  void parseDay_epochDayOutsideIntRange_isInvalid() {
+    assertEquals(Integer.MIN_VALUE, EpochDayMultiset.parseDay("+9999999-01-01"));
+    assertEquals(Integer.MIN_VALUE, EpochDayMultiset.parseDay("-9999999-01-01"));
+    assertTrue(EpochDayMultiset.parse(List.of("+9999999-01-01")).isEmpty());
+  }
+
+  @Test
+  void copy_isIndependent() {
+    final EpochDayMultiset original = new EpochDayMultiset();
+    original.add(5, 2);
+    final EpochDayMultiset copy = new EpochDayMultiset(original);
+
+    copy.remove(5);
+    copy.add(6, 1);
+    assertEquals(2, original.count(5));
+    assertEquals(0, original.count(6));
+    assertEquals(List.of("1970-01-06", "1970-01-07"), copy.toIsoDates());
+  }
+}
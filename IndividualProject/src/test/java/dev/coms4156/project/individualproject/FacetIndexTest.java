@@ -0,0 +1,143 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.FacetIndex;
+import dev.coms4156.project.individualproject.service.FacetIndex.Facet;
+import dev.coms4156.project.individualproject.service.FilterIndex.Attribute;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the FacetIndex class.
+ *
+ * <p>Covers the maintained whole-catalog counters through inventory and metadata changes,
+ * ranking with limits of zero and one, recycled value ids, values whose hash codes collide and
+ * aggregation over a subset of books.
+ */
+class FacetIndexTest {
+
+  private static Book shelved(final int bookId, final String language, final String location,
+      final int copiesAvailable, final int totalCopies, final String... subjects) {
+    return new Book("Title", List.of("Author"), language, location, "2000.", "Press",
+        List.of(subjects), bookId, copiesAvailable, totalCopies);
+  }
+
+  /**
+   * Two English books and a German one; book 2 is the only one at {@code glx} and has no copy
+   * on the shelf.
+   */
+  private static FacetIndex twoLanguages() {
+    final FacetIndex index = new FacetIndex(10);
+    index.update(shelved(1, "eng", "off,eax", 1, 2, "Medicine.", "Tombs."));
+    index.update(shelved(2, "eng", "glx", 0, 1, "Medicine."));
+    index.update(shelved(3, "ger", "off,eax", 3, 3, "Medicine."));
+    return index;
+  }
+
+  private static Facet facet(final Map<Attribute, List<Facet>> facets,
+      final Attribute attribute, final String value) {
+    return facets.get(attribute).stream().filter(facet -> facet.getValue().equals(value))
+        .findFirst().orElseThrow();
+  }
+
+  private static List<String> values(final List<Facet> facets) {
+    return facets.stream().map(Facet::getValue).collect(Collectors.toList());
+  }
+
+  @Test
+  void top_countsTitlesAvailableTitlesAndCopies() {
+    final Map<Attribute, List<Facet>> facets = twoLanguages().top(10);
+
+    final Facet english = facet(facets, Attribute.LANGUAGE, "eng");
+    assertEquals(2, english.getTitles());
+    assertEquals(1, english.getAvailableTitles());
+    assertEquals(3, english.getCopies());
+    assertEquals(List.of("medicine", "tombs"), values(facets.get(Attribute.SUBJECT)));
+    assertEquals("Medicine", facets.get(Attribute.SUBJECT).get(0).getLabel());
+    assertEquals(List.of("eax", "off", "glx"), values(facets.get(Attribute.LOCATION)));
+    assertNull(facets.get(Attribute.PUBLISHER));
+  }
+
+  @Test
+  void top_limitOne_keepsMostTitlesAndBreaksTiesByValue() {
+    final Map<Attribute, List<Facet>> facets = twoLanguages().top(1);
+
+    assertEquals(List.of("eng"), values(facets.get(Attribute.LANGUAGE)));
+    assertEquals(List.of("medicine"), values(facets.get(Attribute.SUBJECT)));
+    assertEquals(List.of("eax"), values(facets.get(Attribute.LOCATION)));
+  }
+
+  @Test
+  void topAndCount_limitZero_returnEmptyListPerAttribute() {
+    final FacetIndex index = twoLanguages();
+
+    for (final Map<Attribute, List<Facet>> facets
+        : List.of(index.top(0), index.count(new int[] {1, 2, 3}, 0))) {
+      assertEquals(3, facets.size());
+      facets.values().forEach(list -> assertTrue(list.isEmpty()));
+    }
+  }
+
+  @Test
+  void updateInventory_movesCountersByTheChange() {
+    final FacetIndex index = twoLanguages();
+    final Book book = shelved(2, "eng", "glx", 2, 3, "Medicine.");
+    index.updateInventory(book);
+    index.updateInventory(book);
+
+    final Facet english = facet(index.top(10), Attribute.LANGUAGE, "eng");
+    assertEquals(2, english.getAvailableTitles());
+    assertEquals(5, english.getCopies());
+  }
+
+  @Test
+  void update_refilesChangedAttributes() {
+    final FacetIndex index = twoLanguages();
+    final int before = index.valueCount();
+    index.update(shelved(2, "fre", "off,eax", 0, 1, "Medicine."));
+
+    final Map<Attribute, List<Facet>> facets = index.top(10);
+    assertEquals(1, facet(facets, Attribute.LANGUAGE, "eng").getTitles());
+    assertEquals(1, facet(facets, Attribute.LANGUAGE, "fre").getTitles());
+    assertEquals(List.of("eax", "off"), values(facets.get(Attribute.LOCATION)));
+    assertEquals(before, index.valueCount());
+  }
+
+  @Test
+  void update_recycledValueIdStartsFromZero() {
+    final FacetIndex index = twoLanguages();
+    index.update(shelved(2, "eng", "Stx", 4, 4, "Medicine."));
+
+    final Facet stacks = facet(index.top(10), Attribute.LOCATION, "stx");
+    assertEquals("Stx", stacks.getLabel());
+    assertEquals(1, stacks.getTitles());
+    assertEquals(1, stacks.getAvailableTitles());
+    assertEquals(4, stacks.getCopies());
+  }
+
+  @Test
+  void update_valueWithSameHashCode_isRefiled() {
+    final FacetIndex index = new FacetIndex(10);
+    index.update(shelved(1, "Aa", "eax", 1, 1, "Medicine."));
+    index.update(shelved(1, "BB", "eax", 1, 1, "Medicine."));
+
+    assertEquals(List.of("bb"), values(index.top(10).get(Attribute.LANGUAGE)));
+  }
+
+  @Test
+  void count_aggregatesOverGivenBooks() {
+    final Map<Attribute, List<Facet>> facets = twoLanguages().count(new int[] {1, 3, 7}, 10);
+
+    assertEquals(List.of("eng", "ger"), values(facets.get(Attribute.LANGUAGE)));
+    final Facet eax = facet(facets, Attribute.LOCATION, "eax");
+    assertEquals(2, eax.getTitles());
+    assertEquals(2, eax.getAvailableTitles());
+    assertEquals(5, eax.getCopies());
+  }
+}
@@ -0,0 +1,125 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.FilterIndex;
+import dev.coms4156.project.individualproject.service.FilterIndex.Attribute;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the FilterIndex class.
+ *
+ * <p>Covers normalized attribute matching, multi-code shelving locations, intersections of
+ * several attributes and re-indexing of updated books, including recycled value ids and values
+ * whose hash codes collide.
+ */
+class FilterIndexTest {
+
+  private static Book book(final int bookId, final String language, final String location,
+      final String publisher, final String... subjects) {
+    return new Book("Title", List.of("Author"), language, location, "2000.", publisher,
+        List.of(subjects), bookId, 1, 1);
+  }
+
+  private static FilterIndex catalog() {
+    final FilterIndex index = new FilterIndex(10);
+    index.update(book(1, "eng", "off,eax", "Harrassowitz,", "Medicine.", "Tombs."));
+    index.update(book(2, "eng", "glx", "Hyean,", "Medicine."));
+    index.update(book(3, "ger", "off,eax", "Harrassowitz,", "Medicine."));
+    return index;
+  }
+
+  @Test
+  void match_comparesNormalizedValues() {
+    final FilterIndex index = catalog();
+
+    assertArrayEquals(new int[] {1, 2, 3},
+        index.match(Map.of(Attribute.SUBJECT, List.of("medicine"))).toArray());
+    assertArrayEquals(new int[] {1, 3},
+        index.match(Map.of(Attribute.PUBLISHER, List.of("HARRASSOWITZ"))).toArray());
+  }
+
+  @Test
+  void match_findsEachLocationCode() {
+    final FilterIndex index = catalog();
+
+    assertArrayEquals(new int[] {1, 3},
+        index.match(Map.of(Attribute.LOCATION, List.of("eax"))).toArray());
+    assertArrayEquals(new int[] {1, 3},
+        index.match(Map.of(Attribute.LOCATION, List.of("off"))).toArray());
+  }
+
+  @Test
+  void match_intersectsEveryCondition() {
+    final FilterIndex index = catalog();
+
+    assertArrayEquals(new int[] {1}, index.match(Map.of(
+        Attribute.LANGUAGE, List.of("eng"),
+        Attribute.LOCATION, List.of("eax"),
+        Attribute.SUBJECT, List.of("Medicine", "Tombs"))).toArray());
+    assertArrayEquals(new int[0], index.match(Map.of(
+        Attribute.LANGUAGE, List.of("eng"),
+        Attribute.SUBJECT, List.of("Astronomy"))).toArray());
+    assertNull(index.match(Map.of(Attribute.SUBJECT, List.of(" "))));
+  }
+
+  @Test
+  void update_replacesOldValues() {
+    final FilterIndex index = catalog();
+    final int before = index.valueCount();
+    index.update(book(2, "fre", "glx", "Hyean,", "Medicine."));
+
+    assertArrayEquals(new int[] {1},
+        index.match(Map.of(Attribute.LANGUAGE, List.of("eng"))).toArray());
+    assertArrayEquals(new int[] {2},
+        index.match(Map.of(Attribute.LANGUAGE, List.of("fre"))).toArray());
+    assertEquals(before + 1, index.valueCount());
+  }
+
+  @Test
+  void update_reusesIdOfValueThatLostItsLastBook() {
+    final FilterIndex index = catalog();
+    final int before = index.valueCount();
+    index.update(book(2, "eng", "stx", "Hyean,", "Medicine."));
+
+    assertArrayEquals(new int[0],
+        index.match(Map.of(Attribute.LOCATION, List.of("glx"))).toArray());
+    assertArrayEquals(new int[] {2},
+        index.match(Map.of(Attribute.LOCATION, List.of("stx"))).toArray());
+    assertEquals(before, index.valueCount());
+  }
+
+  @Test
+  void update_valueWithSameHashCode_isReindexed() {
+    final FilterIndex index = catalog();
+    index.update(book(3, "Aa", "off,eax", "Harrassowitz,", "Medicine."));
+    index.update(book(3, "BB", "off,eax", "Harrassowitz,", "Medicine."));
+
+    assertArrayEquals(new int[0],
+        index.match(Map.of(Attribute.LANGUAGE, List.of("aa"))).toArray());
+    assertArrayEquals(new int[] {3},
+        index.match(Map.of(Attribute.LANGUAGE, List.of("bb"))).toArray());
+  }
+
+  @Test
+  void update_sameInstanceEditedInPlace_isReindexed() {
+    final FilterIndex index = new FilterIndex(10);
+    final Book book = book(1, "eng", "eax", "Hyean,", "Medicine.");
+    index.update(book);
+    book.setLanguage("ger");
+
+    assertTrue(index.update(book));
+    assertFalse(index.update(book));
+    assertArrayEquals(new int[0],
+        index.match(Map.of(Attribute.LANGUAGE, List.of("eng"))).toArray());
+    assertArrayEquals(new int[] {1},
+        index.match(Map.of(Attribute.LANGUAGE, List.of("ger"))).toArray());
+  }
+}
@@ -0,0 +1,85 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.coms4156.project.individualproject.service.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the LatencyHistogram class.
+ *
+ * <p>Covers exact small values, the relative error of large values, percentiles over merged
+ * histograms and the handling of empty histograms and out-of-range values.
+ */
+class LatencyHistogramTest {
+
+  private static long[] totals(final LatencyHistogram... histograms) {
+    final long[] result = new long[LatencyHistogram.bucketCount()];
+    for (final LatencyHistogram histogram : histograms) {
+      histogram.addTo(result);
+    }
+    return result;
+  }
+
+  @Test
+  void percentile_smallValuesAreExact() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    for (int micros = 1; micros <= 100; micros++) {
+      histogram.record(micros);
+    }
+
+    final long[] totals = totals(histogram);
+    assertEquals(50, LatencyHistogram.percentile(totals, 0.5));
+    assertEquals(90, LatencyHistogram.percentile(totals, 0.9));
+    assertEquals(100, LatencyHistogram.percentile(totals, 1.0));
+    assertEquals(1, LatencyHistogram.percentile(totals, 0.0));
+  }
+
+  @Test
+  void percentile_largeValuesStayWithinBucketPrecision() {
+    for (long micros = 129; micros < 1L << 36; micros = micros * 3 + 7) {
+      final LatencyHistogram histogram = new LatencyHistogram();
+      histogram.record(micros);
+
+      final long reported = LatencyHistogram.percentile(totals(histogram), 0.5);
+      assertTrue(reported >= micros, micros + " reported as " + reported);
+      assertTrue(reported - micros <= micros * 0.016, micros + " reported as " + reported);
+    }
+  }
+
+  @Test
+  void percentile_mergesHistograms() {
+    final LatencyHistogram fast = new LatencyHistogram();
+    final LatencyHistogram slow = new LatencyHistogram();
+    for (int i = 0; i < 99; i++) {
+      fast.record(10);
+    }
+    slow.record(5_000);
+
+    final long[] totals = totals(fast, slow);
+    assertEquals(10, LatencyHistogram.percentile(totals, 0.99));
+    final long tail = LatencyHistogram.percentile(totals, 0.999);
+    assertTrue(tail >= 5_000 && tail < 5_080, "p999 was " + tail);
+    assertEquals(tail, LatencyHistogram.max(totals));
+  }
+
+  @Test
+  void percentile_emptyHistogramIsZero() {
+    final long[] totals = totals(new LatencyHistogram());
+
+    assertEquals(0, LatencyHistogram.percentile(totals, 0.5));
+    assertEquals(0, LatencyHistogram.max(totals));
+  }
+
+  @Test
+  void record_clampsOutOfRangeValues() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+
+    final long[] totals = totals(histogram);
+    assertEquals(0, LatencyHistogram.percentile(totals, 0.5));
+    assertTrue(LatencyHistogram.max(totals) >= (1L << 40) - 1);
+  }
+}
@@ -0,0 +1,119 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.DueDate;
+import dev.coms4156.project.individualproject.model.LoanPolicy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the LoanPolicy class.
+ *
+ * <p>Covers due dates from an injected clock, the per-day cache and its refresh at local
+ * midnight, and loan periods by shelving location and by book.
+ */
+class LoanPolicyTest {
+
+  private static final ZoneId ZONE = ZoneId.of("America/New_York");
+
+  private static Book book(final int bookId, final String location) {
+    return new Book("Title", List.of(), "English", location, "2001", "Press", List.of(),
+        bookId, 2, 2);
+  }
+
+  @Test
+  void dueDate_isCachedUntilLocalMidnight() {
+    final MutableClock clock = new MutableClock(
+        ZonedDateTime.of(2025, 3, 1, 23, 59, 0, 0, ZONE).toInstant());
+    final LoanPolicy policy = new LoanPolicy(clock, 14, Map.of(), Map.of());
+    final Book book = book(1, "glx");
+
+    final DueDate first = policy.dueDate(book);
+    assertEquals("2025-03-15", first.isoDate());
+    clock.advance(Duration.ofSeconds(59));
+    assertSame(first, policy.dueDate(book));
+
+    clock.advance(Duration.ofSeconds(1));
+    final DueDate next = policy.dueDate(book);
+    assertNotSame(first, next);
+    assertEquals("2025-03-16", next.isoDate());
+    assertEquals(first.epochDay() + 1, next.epochDay());
+  }
+
+  @Test
+  void dueDate_prefersBookThenLocationThenDefault() {
+    final Clock clock = Clock.fixed(Instant.parse("2025-06-10T12:00:00Z"), ZoneId.of("UTC"));
+    final LoanPolicy policy = new LoanPolicy(clock, 14, Map.of("off,glx", 28),
+        Map.of(7, 3));
+
+    assertEquals("2025-06-24", policy.dueDate(book(1, "glx")).isoDate());
+    assertEquals("2025-07-08", policy.dueDate(book(2, "off,glx")).isoDate());
+    assertEquals("2025-06-13", policy.dueDate(book(7, "off,glx")).isoDate());
+    assertSame(policy.dueDate(book(1, "glx")), policy.dueDate(book(3, "ave")));
+    assertEquals(28, policy.loanDays(book(2, "off,glx")));
+    assertEquals(3, policy.loanDays(book(7, "glx")));
+  }
+
+  @Test
+  void checkoutCopy_recordsPolicyDueDate() {
+    final Clock clock = Clock.fixed(Instant.parse("2025-06-10T12:00:00Z"), ZoneId.of("UTC"));
+    final LoanPolicy policy = new LoanPolicy(clock, 21, Map.of(), Map.of());
+    final Book book = book(1, "glx");
+
+    assertEquals("2025-07-01", book.checkoutCopy(policy));
+    assertEquals(List.of("2025-07-01"), book.getReturnDates());
+  }
+
+  @Test
+  void constructor_rejectsNonPositivePeriods() {
+    final Clock clock = Clock.systemUTC();
+
+    assertThrows(IllegalArgumentException.class,
+        () -> new LoanPolicy(clock, 0, Map.of(), Map.of()));
+    assertThrows(IllegalArgumentException.class,
+        () -> new LoanPolicy(clock, 14, Map.of("ref", -1), Map.of()));
+    assertThrows(IllegalArgumentException.class,
+        () -> new LoanPolicy(clock, 14, Map.of(), Map.of(1, 0)));
+  }
+
+  /**
+   * Clock whose time only moves when a test advances it.
+   */
+  private static final class MutableClock extends Clock {
+    private Instant now;
+
+    private MutableClock(final Instant now) {
+      this.now = now;
+    }
+
+    private void advance(final Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZONE;
+    }
+
+    @Override
+    public Clock withZone(final ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
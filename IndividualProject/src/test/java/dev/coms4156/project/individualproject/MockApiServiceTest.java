@@ -1,13 +1,30 @@
 package dev.coms4156.project.individualproject;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import dev.coms4156.project.individualproject.config.CatalogProperties;
+import dev.coms4156.project.individualproject.config.FsyncPolicy;
+import dev.coms4156.project.individualproject.config.StorageEngine;
 import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.BookFilter;
+import dev.coms4156.project.individualproject.service.BookStore;
+import dev.coms4156.project.individualproject.service.FacetIndex;
+import dev.coms4156.project.individualproject.service.FilterIndex;
 import dev.coms4156.project.individualproject.service.MockApiService;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * Unit tests for the MockApiService class.
@@ -139,4 +156,441 @@ class MockApiServiceTest {
       assertEquals(true, false, "printBooks should not throw exceptions");
     }
   }
-}
\ No newline at end of file
+
+  @Test
+  void findById_returnsBookWithMatchingId() {
+    final MockApiService service = new MockApiService();
+    for (final Book book : service.getBooks()) {
+      assertSame(book, service.findById(book.getId()), "index should map id to its book");
+    }
+  }
+
+  @Test
+  void findById_unknownOrNegativeId_returnsNull() {
+    final MockApiService service = new MockApiService();
+    assertNull(service.findById(-1));
+    assertNull(service.findById(Integer.MAX_VALUE));
+  }
+
+  @Test
+  void findById_afterUpdateBook_returnsReplacement() {
+    final MockApiService service = new MockApiService();
+    final List<Book> books = service.getBooks();
+
+    if (!books.isEmpty()) {
+      final Book replacement = new Book("Updated Title", books.get(0).getId());
+      service.updateBook(replacement);
+      assertSame(replacement, service.findById(replacement.getId()));
+    }
+  }
+
+  @Test
+  void getAvailableBooks_returnsOnlyBooksWithCopies() {
+    final Book onShelf = new Book("On shelf", 1);
+    final Book checkedOut = new Book("Checked out", 2);
+    checkedOut.deleteCopy();
+    final MockApiService service = new MockApiService(List.of(onShelf, checkedOut));
+
+    final List<Book> available = service.getAvailableBooks();
+    assertEquals(1, available.size());
+    assertSame(onShelf, available.get(0));
+  }
+
+  @Test
+  void getAvailableBooks_tracksInventoryChanges() {
+    final Book book = new Book("Only copy", 1);
+    final Book other = new Book("Other", 2);
+    other.deleteCopy();
+    final MockApiService service = new MockApiService(List.of(book, other));
+
+    final String dueDate = book.checkoutCopy();
+    assertTrue(service.getAvailableBooks().isEmpty(), "last copy checked out");
+
+    other.addCopy();
+    assertEquals(List.of(other), service.getAvailableBooks());
+
+    book.returnCopy(dueDate);
+    assertEquals(List.of(book, other), service.getAvailableBooks());
+
+    other.deleteCopy();
+    assertEquals(List.of(book), service.getAvailableBooks());
+  }
+
+  @Test
+  void getAvailableBooks_followsReplacedBookOnly() {
+    final Book original = new Book("Original", 1);
+    final MockApiService service = new MockApiService(List.of(original));
+    final Book replacement = new Book("Replacement", 1);
+    replacement.deleteCopy();
+
+    service.updateBook(replacement);
+    assertTrue(service.getAvailableBooks().isEmpty(), "replacement has no copies");
+
+    // The detached original no longer drives the index
+    original.addCopy();
+    assertTrue(service.getAvailableBooks().isEmpty());
+
+    replacement.addCopy();
+    assertEquals(List.of(replacement), service.getAvailableBooks());
+  }
+
+  @Test
+  void getMostPopularBooks_followsCheckouts() {
+    final List<Book> books = new ArrayList<>();
+    for (int id = 1; id <= 8; id++) {
+      books.add(new Book("Book " + id, id));
+    }
+    final CatalogProperties properties = new CatalogProperties();
+    properties.setPopularCount(3);
+    final MockApiService service = new MockApiService(books, properties);
+
+    // With no checkouts, ties are broken by ascending id
+    assertEquals(List.of(books.get(0), books.get(1), books.get(2)),
+        service.getMostPopularBooks());
+
+    final Book rising = service.findById(7);
+    for (int i = 0; i < 2; i++) {
+      rising.returnCopy(rising.checkoutCopy());
+    }
+    final Book runnerUp = service.findById(5);
+    runnerUp.returnCopy(runnerUp.checkoutCopy());
+
+    assertEquals(List.of(rising, runnerUp, books.get(0)), service.getMostPopularBooks());
+  }
+
+  @Test
+  void getMostPopularBooks_replacingLeaderWithLowerCount_reranks() {
+    final Book leader = new Book("Leader", 1);
+    leader.returnCopy(leader.checkoutCopy());
+    final Book second = new Book("Second", 2);
+    final CatalogProperties properties = new CatalogProperties();
+    properties.setPopularCount(1);
+    final MockApiService service = new MockApiService(List.of(leader, second), properties);
+    assertEquals(List.of(leader), service.getMostPopularBooks());
+
+    // The replacement starts at zero checkouts, so the leader is recomputed from the catalog
+    service.updateBook(new Book("Leader, 2nd ed.", 1));
+    assertEquals(1, service.getMostPopularBooks().get(0).getId());
+    assertEquals("Leader, 2nd ed.", service.getMostPopularBooks().get(0).getTitle());
+
+    second.returnCopy(second.checkoutCopy());
+    assertEquals(List.of(second), service.getMostPopularBooks());
+  }
+
+  @Test
+  void sampleBooks_returnsDistinctBooksOutsideExclusions() {
+    final List<Book> books = new ArrayList<>();
+    for (int id = 1; id <= 20; id++) {
+      books.add(new Book("Book " + id, id));
+    }
+    final MockApiService service = new MockApiService(books);
+    final List<Book> exclude = books.subList(0, 5);
+
+    final List<Book> sample = service.sampleBooks(5, exclude);
+    assertEquals(5, sample.size());
+    assertEquals(5, new HashSet<>(sample).size(), "picks should be distinct");
+    for (final Book book : sample) {
+      assertFalse(exclude.contains(book), "excluded book was picked: " + book);
+    }
+  }
+
+  @Test
+  void sampleBooks_moreThanCatalog_returnsEveryOtherBook() {
+    final List<Book> books = List.of(new Book("A", 1), new Book("B", 2), new Book("C", 3));
+    final MockApiService service = new MockApiService(books);
+
+    assertEquals(2, service.sampleBooks(10, List.of(books.get(0))).size());
+    assertTrue(new MockApiService(List.of()).sampleBooks(5, List.of()).isEmpty());
+  }
+
+  @Test
+  void sampleBooks_sparseIds_picksEachBookEvenly() {
+    final List<Book> books = List.of(new Book("A", 7), new Book("B", 50_000),
+        new Book("C", 99_999));
+    final MockApiService service = new MockApiService(books);
+    final int[] picks = new int[3];
+
+    for (int trial = 0; trial < 3000; trial++) {
+      final List<Book> sample = service.sampleBooks(1, List.of());
+      assertEquals(1, sample.size());
+      picks[books.indexOf(sample.get(0))]++;
+    }
+    for (final int count : picks) {
+      assertTrue(count > 800 && count < 1200, "uneven picks: " + count);
+    }
+  }
+
+  @Test
+  void availableBooks_isLiveViewOfAvailability() {
+    final Book first = new Book("First", 1);
+    final Book second = new Book("Second", 2);
+    final MockApiService service = new MockApiService(List.of(first, second));
+    final Iterable<Book> view = service.availableBooks();
+
+    first.checkoutCopy();
+    final List<Book> seen = new ArrayList<>();
+    view.forEach(seen::add);
+    assertEquals(List.of(second), seen, "each iteration reflects current inventory");
+  }
+
+  @Test
+  void writeAheadLog_restoresInventoryAfterRestart(@TempDir final Path dir) {
+    final CatalogProperties properties = new CatalogProperties();
+    properties.getWal().setPath(dir.resolve("catalog.wal").toString());
+    properties.getWal().setFsync(FsyncPolicy.PER_OP);
+
+    final MockApiService service =
+        new MockApiService(List.of(new Book("First", 1), new Book("Second", 2)), properties);
+    final String dueDate = service.findById(1).checkoutCopy();
+    service.findById(2).addCopy();
+    service.updateBook(new Book("Second, revised", 2));
+    service.close();
+
+    final MockApiService restarted =
+        new MockApiService(List.of(new Book("First", 1), new Book("Second", 2)), properties);
+    assertEquals(0, restarted.findById(1).getCopiesAvailable());
+    assertEquals(List.of(dueDate), restarted.findById(1).getReturnDates());
+    assertEquals("Second, revised", restarted.findById(2).getTitle());
+    assertEquals(List.of(restarted.findById(2)), restarted.getAvailableBooks());
+    restarted.close();
+  }
+
+  @Test
+  void snapshot_restartLoadsSnapshotInsteadOfJson(@TempDir final Path dir) {
+    final CatalogProperties properties = new CatalogProperties();
+    properties.getSnapshot().setPath(dir.resolve("catalog.snapshot").toString());
+    properties.getSnapshot().setIntervalSeconds(0);
+    properties.getWal().setPath(dir.resolve("catalog.wal").toString());
+
+    final MockApiService service = new MockApiService(properties);
+    service.findById(1).addCopy();
+    assertTrue(service.writeSnapshot());
+    service.findById(2).addCopy();
+    final int firstTotal = service.findById(1).getTotalCopies();
+    final int secondTotal = service.findById(2).getTotalCopies();
+    service.close();
+
+    properties.setPath(dir.resolve("missing.json").toString());
+    final MockApiService restarted = new MockApiService(properties);
+    assertEquals(service.getBookCount(), restarted.getBookCount());
+    assertEquals(firstTotal, restarted.findById(1).getTotalCopies());
+    assertEquals(secondTotal, restarted.findById(2).getTotalCopies());
+    restarted.close();
+  }
+
+  @Test
+  void columnarStorage_servesSameCatalogAsObjects() {
+    final CatalogProperties properties = new CatalogProperties();
+    properties.setStorage(StorageEngine.COLUMNAR);
+    final MockApiService objects = new MockApiService();
+    final MockApiService columnar = new MockApiService(properties);
+
+    assertEquals(objects.getBookCount(), columnar.getBookCount());
+    for (final Book expected : objects.getBooks()) {
+      final Book actual = columnar.findById(expected.getId());
+      assertEquals(expected.getTitle(), actual.getTitle());
+      assertEquals(expected.getAuthors(), actual.getAuthors());
+      assertEquals(expected.getLanguage(), actual.getLanguage());
+      assertEquals(expected.getPublisher(), actual.getPublisher());
+      assertEquals(expected.getSubjects(), actual.getSubjects());
+      assertEquals(expected.getCopiesAvailable(), actual.getCopiesAvailable());
+      assertEquals(expected.getAmountOfTimesCheckedOut(), actual.getAmountOfTimesCheckedOut());
+    }
+    assertEquals(objects.getAvailableBooks().size(), columnar.getAvailableBooks().size());
+    assertEquals(objects.getMostPopularBooks().stream().map(Book::getId).toList(),
+        columnar.getMostPopularBooks().stream().map(Book::getId).toList());
+  }
+
+  @Test
+  void columnarStorage_indexesFollowViewsAndUpdates(@TempDir final Path dir) {
+    final CatalogProperties properties = new CatalogProperties();
+    properties.setStorage(StorageEngine.COLUMNAR);
+    properties.setPopularCount(1);
+    properties.getWal().setPath(dir.resolve("catalog.wal").toString());
+    final MockApiService service =
+        new MockApiService(List.of(new Book("First", 1), new Book("Second", 2)), properties);
+
+    final String dueDate = service.findById(2).checkoutCopy();
+    assertEquals(List.of(service.findById(1)), service.getAvailableBooks());
+    assertEquals(2, service.getMostPopularBooks().get(0).getId());
+
+    service.updateBook(new Book("Second, revised", 2));
+    assertEquals("Second, revised", service.findById(2).getTitle());
+    assertEquals(2, service.getAvailableBooks().size(), "replacement has a copy on the shelf");
+    assertEquals(1, service.getMostPopularBooks().get(0).getId(), "leader recomputed");
+    service.findById(1).returnCopy(dueDate);
+    service.close();
+
+    final MockApiService restarted =
+        new MockApiService(List.of(new Book("First", 1), new Book("Second", 2)), properties);
+    assertEquals("Second, revised", restarted.findById(2).getTitle());
+    assertEquals(1, restarted.findById(2).getCopiesAvailable());
+    restarted.close();
+  }
+
+  @Test
+  void loanPolicy_usesInjectedClockAndConfiguredPeriods() {
+    final CatalogProperties properties = new CatalogProperties();
+    properties.getLoan().setDays(7);
+    properties.getLoan().getBookDays().put(2, 1);
+    final Clock clock = Clock.fixed(Instant.parse("2025-01-30T10:00:00Z"), ZoneOffset.UTC);
+    final MockApiService service = new MockApiService(
+        new BookStore(List.of(new Book("First", 1), new Book("Second", 2))), properties, clock);
+
+    assertEquals("2025-02-06", service.findById(1).checkoutCopy(service.loanPolicy()));
+    assertEquals("2025-01-31", service.findById(2).checkoutCopy(service.loanPolicy()));
+  }
+
+  @Test
+  void search_followsUpdatedTextForBothStorageEngines() {
+    for (final StorageEngine engine : StorageEngine.values()) {
+      final CatalogProperties properties = new CatalogProperties();
+      properties.setStorage(engine);
+      final MockApiService service = new MockApiService(
+          List.of(new Book("Qurneh /", 1), new Book("Metaponto :", 2)), properties);
+
+      assertEquals(1, service.search("QURNEH", 10).get(0).getId());
+      service.updateBook(new Book("Tombs of Qurneh", 2));
+      assertEquals(2, service.search("tombs", 10).get(0).getId());
+      assertTrue(service.search("metaponto", 10).isEmpty());
+      assertEquals(2, service.search("qurneh", 10).size());
+    }
+  }
+
+  @Test
+  void updateBook_reindexesMetadataEditedInPlaceForBothStorageEngines(
+      @TempDir final Path dir) {
+    for (final StorageEngine engine : StorageEngine.values()) {
+      final CatalogProperties properties = new CatalogProperties();
+      properties.setStorage(engine);
+      properties.getWal().setPath(dir.resolve(engine + ".wal").toString());
+      properties.getWal().setFsync(FsyncPolicy.PER_OP);
+      final MockApiService service = new MockApiService(
+          List.of(new Book("Qurneh /", 1), new Book("Metaponto :", 2)), properties);
+
+      final Book stored = service.findById(2);
+      stored.setTitle("Tombs of Metaponto");
+      stored.setPublicationDate("1909.");
+      service.updateBook(stored);
+      assertEquals(List.of(2), ids(service.search("tombs", 10)), engine.toString());
+      assertEquals("Tombs of Metaponto", service.suggest("tombs of", 10).get(0).getText());
+      assertEquals(List.of(2),
+          ids(service.filterBooks(new BookFilter().publishedBetween(1909, 1909))));
+      service.close();
+
+      final MockApiService restarted = new MockApiService(
+          List.of(new Book("Qurneh /", 1), new Book("Metaponto :", 2)), properties);
+      assertEquals("Tombs of Metaponto", restarted.findById(2).getTitle(), engine.toString());
+      restarted.close();
+    }
+  }
+
+  private static Book titled(final String title, final int bookId, final String language) {
+    final Book book = new Book(title, bookId);
+    book.setLanguage(language);
+    return book;
+  }
+
+  private static List<Integer> ids(final Iterable<Book> books) {
+    final List<Integer> result = new ArrayList<>();
+    books.forEach(book -> result.add(book.getId()));
+    return result;
+  }
+
+  @Test
+  void filterBooks_followsInventoryAndMetadataForBothStorageEngines() {
+    for (final StorageEngine engine : StorageEngine.values()) {
+      final CatalogProperties properties = new CatalogProperties();
+      properties.setStorage(engine);
+      final MockApiService service = new MockApiService(List.of(titled("Qurneh /", 1, "eng"),
+          titled("Metaponto :", 2, "eng"), titled("Tombs", 3, "ger")), properties);
+      final BookFilter english = new BookFilter().require(FilterIndex.Attribute.LANGUAGE, "ENG");
+
+      assertEquals(List.of(1, 2), ids(service.filterBooks(english)));
+      service.findById(1).checkoutCopy(service.loanPolicy());
+      assertEquals(List.of(2), ids(service.filterBooks(
+          new BookFilter().require(FilterIndex.Attribute.LANGUAGE, "eng").available(true))));
+      assertEquals(List.of(1), ids(service.filterBooks(new BookFilter().available(false))));
+
+      service.updateBook(titled("Metaponto :", 2, "ger"));
+      assertEquals(List.of(1), ids(service.filterBooks(english)));
+      assertEquals(List.of(2, 3), ids(service.filterBooks(
+          new BookFilter().require(FilterIndex.Attribute.LANGUAGE, "ger"))));
+    }
+  }
+
+  @Test
+  void filterBooks_followsLanguageEditedInPlaceForBothStorageEngines() {
+    for (final StorageEngine engine : StorageEngine.values()) {
+      final CatalogProperties properties = new CatalogProperties();
+      properties.setStorage(engine);
+      final MockApiService service = new MockApiService(List.of(titled("Qurneh /", 1, "eng"),
+          titled("Metaponto :", 2, "eng")), properties);
+
+      final Book stored = service.findById(2);
+      stored.setLanguage("ger");
+      service.updateBook(stored);
+      assertEquals(List.of(1), ids(service.filterBooks(
+          new BookFilter().require(FilterIndex.Attribute.LANGUAGE, "eng"))), engine.toString());
+      assertEquals(List.of(2), ids(service.filterBooks(
+          new BookFilter().require(FilterIndex.Attribute.LANGUAGE, "ger"))));
+    }
+  }
+
+  @Test
+  void facets_followInventoryAndMetadataForBothStorageEngines() {
+    for (final StorageEngine engine : StorageEngine.values()) {
+      final CatalogProperties properties = new CatalogProperties();
+      properties.setStorage(engine);
+      final MockApiService service = new MockApiService(List.of(titled("Qurneh /", 1, "eng"),
+          titled("Metaponto :", 2, "eng"), titled("Tombs", 3, "ger")), properties);
+
+      service.findById(1).checkoutCopy(service.loanPolicy());
+      service.findById(2).addCopy();
+      FacetIndex.Facet english =
+          service.facets(new BookFilter(), 10).get(FilterIndex.Attribute.LANGUAGE).get(0);
+      assertEquals("eng", english.getValue());
+      assertEquals(2, english.getTitles());
+      assertEquals(1, english.getAvailableTitles());
+      assertEquals(3, english.getCopies());
+
+      service.updateBook(titled("Metaponto :", 2, "ger"));
+      english = service.facets(new BookFilter(), 10).get(FilterIndex.Attribute.LANGUAGE).get(1);
+      assertEquals("eng", english.getValue());
+      assertEquals(1, english.getTitles());
+      assertEquals(0, english.getAvailableTitles());
+      assertEquals(1, english.getCopies());
+
+      final List<FacetIndex.Facet> available = service.facets(
+          new BookFilter().available(true), 10).get(FilterIndex.Attribute.LANGUAGE);
+      assertEquals(1, available.size());
+      assertEquals("ger", available.get(0).getValue());
+      assertEquals(2, available.get(0).getTitles());
+    }
+  }
+
+  @Test
+  void filterBooks_byPublicationYearForBothStorageEngines() {
+    for (final StorageEngine engine : StorageEngine.values()) {
+      final CatalogProperties properties = new CatalogProperties();
+      properties.setStorage(engine);
+      final List<Book> books = List.of(titled("Qurneh /", 1, "eng"),
+          titled("Metaponto :", 2, "eng"), titled("Tombs", 3, "ger"));
+      books.get(0).setPublicationDate("1909.");
+      books.get(1).setPublicationDate("[2005]");
+      books.get(2).setPublicationDate("c1999");
+      final MockApiService service = new MockApiService(books, properties);
+
+      assertEquals(List.of(2, 3),
+          ids(service.filterBooks(new BookFilter().publishedBetween(1999, null))));
+      assertEquals(List.of(2), ids(service.filterBooks(new BookFilter()
+          .require(FilterIndex.Attribute.LANGUAGE, "eng").publishedBetween(1999, 2010))));
+
+      final Book revised = titled("Metaponto :", 2, "eng");
+      revised.setPublicationDate("1908.");
+      service.updateBook(revised);
+      assertEquals(List.of(1, 2),
+          ids(service.filterBooks(new BookFilter().publishedBetween(null, 1910))));
+    }
+  }
+}
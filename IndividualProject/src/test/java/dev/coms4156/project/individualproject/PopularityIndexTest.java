@@ -0,0 +1,83 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.BookStore;
+import dev.coms4156.project.individualproject.service.PopularityIndex;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the PopularityIndex class.
+ *
+ * <p>Covers the initial ranking, incremental re-ranking as checkout counts grow, offers
+ * turned away by a full index and the degenerate zero-size index.
+ */
+class PopularityIndexTest {
+
+  @Test
+  void rebuild_ranksByCheckoutsThenId() {
+    final Book quiet = new Book("Quiet", 1);
+    final Book busy = checkedOut(new Book("Busy", 2), 3);
+    final Book steady = checkedOut(new Book("Steady", 3), 1);
+    final Book alsoSteady = checkedOut(new Book("Also steady", 4), 1);
+    final PopularityIndex index = new PopularityIndex(3);
+
+    index.rebuild(new BookStore(List.of(quiet, busy, steady, alsoSteady)));
+
+    assertEquals(List.of(busy, steady, alsoSteady), index.leaders());
+    assertFalse(index.contains(quiet));
+  }
+
+  @Test
+  void offer_outsiderOvertakesLastLeaderAndMovesUp() {
+    final Book first = checkedOut(new Book("First", 1), 2);
+    final Book second = checkedOut(new Book("Second", 2), 1);
+    final Book outsider = new Book("Outsider", 3);
+    final PopularityIndex index = new PopularityIndex(2);
+    index.rebuild(new BookStore(List.of(first, second, outsider)));
+
+    checkedOut(outsider, 1);
+    index.offer(outsider);
+    assertEquals(List.of(first, second), index.leaders(), "a tie with a lower id stays ahead");
+
+    checkedOut(outsider, 2);
+    index.offer(outsider);
+    assertEquals(List.of(outsider, first), index.leaders());
+    assertTrue(index.contains(outsider));
+  }
+
+  @Test
+  void offer_fullIndex_reranksLeaderThatIsNotLast() {
+    final Book first = checkedOut(new Book("First", 1), 3);
+    final Book second = checkedOut(new Book("Second", 2), 2);
+    final Book third = checkedOut(new Book("Third", 3), 1);
+    final PopularityIndex index = new PopularityIndex(3);
+    index.rebuild(new BookStore(List.of(first, second, third)));
+
+    checkedOut(second, 2);
+    index.offer(second);
+    index.offer(new Book("Outsider", 4));
+    assertEquals(List.of(second, first, third), index.leaders());
+  }
+
+  @Test
+  void zeroLimit_neverRanksAnything() {
+    final PopularityIndex index = new PopularityIndex(0);
+    final Book book = checkedOut(new Book("Book", 1), 5);
+    index.rebuild(new BookStore(List.of(book)));
+    index.offer(book);
+
+    assertTrue(index.leaders().isEmpty());
+  }
+
+  private static Book checkedOut(final Book book, final int times) {
+    for (int i = 0; i < times; i++) {
+      book.returnCopy(book.checkoutCopy());
+    }
+    return book;
+  }
+}
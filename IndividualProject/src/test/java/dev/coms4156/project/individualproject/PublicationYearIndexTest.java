@@ -0,0 +1,110 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.BookStore;
+import dev.coms4156.project.individualproject.service.PublicationYearIndex;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the PublicationYearIndex class.
+ *
+ * <p>Covers parsing of transcribed publication dates, inclusive range queries, the first and
+ * last representable years and moving a book whose date changed.
+ */
+class PublicationYearIndexTest {
+
+  private static Book published(final int bookId, final String publicationDate) {
+    final Book book = new Book("Title", bookId);
+    book.setPublicationDate(publicationDate);
+    return book;
+  }
+
+  /**
+   * Books dated the ways MARC records transcribe dates; book 4 has only a partial year.
+   */
+  private static PublicationYearIndex marcDates() {
+    final PublicationYearIndex index = new PublicationYearIndex(10);
+    index.rebuild(new BookStore(List.of(published(1, "2005."), published(2, "[1909]"),
+        published(3, "c1999"), published(4, "[19--]"), published(5, "1909."),
+        published(6, "[1972], [©1972]"))));
+    return index;
+  }
+
+  @Test
+  void parseYear_toleratesMarcPunctuation() {
+    assertEquals(2005, PublicationYearIndex.parseYear("2005."));
+    assertEquals(1909, PublicationYearIndex.parseYear("[1909]"));
+    assertEquals(1964, PublicationYearIndex.parseYear("[1964?]"));
+    assertEquals(1999, PublicationYearIndex.parseYear("c1999"));
+    assertEquals(2004, PublicationYearIndex.parseYear("[2004], ©2004."));
+    assertEquals(1985, PublicationYearIndex.parseYear("1985-1990."));
+  }
+
+  @Test
+  void parseYear_withoutFullYear_returnsUnknown() {
+    assertEquals(PublicationYearIndex.UNKNOWN, PublicationYearIndex.parseYear("[19--]"));
+    assertEquals(PublicationYearIndex.UNKNOWN, PublicationYearIndex.parseYear("12345"));
+    assertEquals(PublicationYearIndex.UNKNOWN, PublicationYearIndex.parseYear(""));
+    assertEquals(PublicationYearIndex.UNKNOWN, PublicationYearIndex.parseYear(null));
+  }
+
+  @Test
+  void between_isInclusiveAndSortedById() {
+    final PublicationYearIndex index = marcDates();
+
+    assertArrayEquals(new int[] {2, 5, 6}, index.between(1909, 1972));
+    assertArrayEquals(new int[] {1, 2, 3, 5, 6},
+        index.between(Integer.MIN_VALUE, Integer.MAX_VALUE));
+    assertArrayEquals(new int[0], index.between(2006, 1900));
+    assertEquals(PublicationYearIndex.UNKNOWN, index.yearOf(4));
+  }
+
+  @Test
+  void parseYear_acceptsYearsFrom1000To9999() {
+    assertEquals(1000, PublicationYearIndex.parseYear("1000."));
+    assertEquals(9999, PublicationYearIndex.parseYear("[9999]"));
+    assertEquals(PublicationYearIndex.UNKNOWN, PublicationYearIndex.parseYear("0999"));
+    assertEquals(PublicationYearIndex.UNKNOWN, PublicationYearIndex.parseYear("0000"));
+  }
+
+  @Test
+  void between_boundsAtUnknownAndLastYear() {
+    final PublicationYearIndex index = new PublicationYearIndex(10);
+    index.rebuild(new BookStore(List.of(published(1, "1000"), published(2, "9999"),
+        published(3, "0000"))));
+
+    assertArrayEquals(new int[0], index.between(Integer.MIN_VALUE, 0));
+    assertArrayEquals(new int[] {1}, index.between(0, 1000));
+    assertArrayEquals(new int[] {2}, index.between(9999, 9999));
+    assertArrayEquals(new int[] {2}, index.between(9999, Integer.MAX_VALUE));
+    assertArrayEquals(new int[0], index.between(10_000, Integer.MAX_VALUE));
+    assertEquals(PublicationYearIndex.UNKNOWN, index.yearOf(3));
+  }
+
+  @Test
+  void update_movesBookToItsNewYear() {
+    final PublicationYearIndex index = marcDates();
+    index.update(published(1, "1910."));
+    index.update(published(4, "1908"));
+    index.update(published(3, "n.d."));
+
+    assertArrayEquals(new int[] {1, 2, 4, 5}, index.between(1900, 1950));
+    assertArrayEquals(new int[0], index.between(1990, 2010));
+    assertEquals(1910, index.yearOf(1));
+  }
+
+  @Test
+  void update_toAndFromLastYear() {
+    final PublicationYearIndex index = marcDates();
+    index.update(published(2, "9999"));
+
+    assertArrayEquals(new int[] {2}, index.between(2006, Integer.MAX_VALUE));
+    index.update(published(2, "[1909]"));
+    assertArrayEquals(new int[0], index.between(2006, Integer.MAX_VALUE));
+    assertArrayEquals(new int[] {2, 5}, index.between(1909, 1909));
+  }
+}
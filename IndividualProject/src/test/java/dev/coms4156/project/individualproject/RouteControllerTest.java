@@ -2,20 +2,35 @@ package dev.coms4156.project.individualproject;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import dev.coms4156.project.individualproject.controller.RouteController;
 import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.model.LoanPolicy;
+import dev.coms4156.project.individualproject.service.CheckoutTracer;
+import dev.coms4156.project.individualproject.service.FacetIndex;
+import dev.coms4156.project.individualproject.service.FilterIndex;
 import dev.coms4156.project.individualproject.service.MockApiService;
+import dev.coms4156.project.individualproject.service.SuggestIndex;
 import java.util.ArrayList;
 import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,6 +38,9 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 /**
@@ -46,6 +64,14 @@ class RouteControllerTest {
   /** Mocked MockApiService to control service layer behavior during testing. */
   @MockBean private MockApiService mockApiService;
 
+  /**
+   * Gives the mocked service the default loan policy, which checkouts pass to the book.
+   */
+  @BeforeEach
+  void stubLoanPolicy() {
+    when(mockApiService.loanPolicy()).thenReturn(LoanPolicy.systemDefault());
+  }
+
   /**
    * Tests that both index endpoints return a welcome message.
    * 
@@ -81,16 +107,14 @@ class RouteControllerTest {
   @Test
   void getBook_found_and_notFound() throws Exception {
     Book b = new Book("Hello", 1);
-    when(mockApiService.getBooks()).thenReturn(new ArrayList<>(List.of(b)));
+    when(mockApiService.findById(1)).thenReturn(b);
 
     mvc.perform(get("/book/1"))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.id").value(1))
             .andExpect(jsonPath("$.title").value("Hello"));
 
-    // Re-stub (optional, previous return value still applies)
-    when(mockApiService.getBooks()).thenReturn(new ArrayList<>(List.of(b)));
-
+    // Unstubbed ids fall through to the mock's null default
     mvc.perform(get("/book/2"))
             .andExpect(status().isNotFound())
             .andExpect(content().string(containsString("Book not found")));
@@ -99,20 +123,18 @@ class RouteControllerTest {
   /**
    * Tests the getAvailableBooks endpoint returns only available books.
    * 
-   * <p>This test verifies that the endpoint correctly filters and returns
-   * only books that have available copies (copiesAvailable > 0).
-   * Books with no available copies should not be included in the response.
+   * <p>This test verifies that the endpoint returns exactly the books the service
+   * reports as available (copiesAvailable > 0); the filtering itself is covered by
+   * MockApiServiceTest.
    *
    * @throws Exception if the HTTP request fails
    */
   @Test
   void getAvailableBooks_filtersAvailableBooks() throws Exception {
     Book b1 = new Book("A", 1);
-    Book b2 = new Book("B", 2);
-    b2.deleteCopy(); // Make b2 have no available copies
-    when(mockApiService.getBooks()).thenReturn(new ArrayList<>(List.of(b1, b2)));
+    when(mockApiService.availableBooks()).thenReturn(List.of(b1));
 
-    mvc.perform(put("/books/available"))
+    performStreaming(mvc, put("/books/available"))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$[0].id").value(1))
             .andExpect(jsonPath("$[0].title").value("A"))
@@ -120,6 +142,23 @@ class RouteControllerTest {
             .andExpect(jsonPath("$[1]").doesNotExist()); // b2 should not be returned
   }
 
+  @Test
+  void getAvailableBooks_serializesWithTheGivenObjectMapper() throws Exception {
+    MockApiService mockService = Mockito.mock(MockApiService.class);
+    when(mockService.availableBooks()).thenReturn(List.of(new Book("A", 1)));
+    ObjectMapper snakeCase = new ObjectMapper()
+        .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+
+    RouteController controller =
+        new RouteController(mockService, CheckoutTracer.disabled(), snakeCase);
+    MockMvc customMockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+    performStreaming(customMockMvc, put("/books/available"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].copies_available").value(1))
+            .andExpect(jsonPath("$[0].copiesAvailable").doesNotExist());
+  }
+
   /**
    * Tests the addCopy endpoint for both successful and unsuccessful scenarios.
    * 
@@ -137,7 +176,7 @@ class RouteControllerTest {
   @Test
   void addCopy_success_and_notFound418() throws Exception {
     Book book = new Book("A", 10);
-    when(mockApiService.getBooks()).thenReturn(new ArrayList<>(List.of(book)));
+    when(mockApiService.findById(10)).thenReturn(book);
 
     mvc.perform(patch("/book/10/add").contentType(MediaType.APPLICATION_JSON))
             .andExpect(status().isOk())
@@ -145,7 +184,6 @@ class RouteControllerTest {
             .andExpect(jsonPath("$.totalCopies").value(2));
 
     // Not found: current implementation returns 418
-    when(mockApiService.getBooks()).thenReturn(new ArrayList<>(List.of(book)));
     mvc.perform(patch("/book/999/add").contentType(MediaType.APPLICATION_JSON))
             .andExpect(status().is(418));
   }
@@ -163,9 +201,12 @@ class RouteControllerTest {
   @Test
   void getRecommendations_sufficientBooks_returns10Books() throws Exception {
     final List<Book> books = createBooksForRecommendation(15);
-    when(mockApiService.getBooks()).thenReturn(new ArrayList<>(books));
+    when(mockApiService.getBookCount()).thenReturn(books.size());
+    when(mockApiService.getMostPopularBooks()).thenReturn(books.subList(0, 5));
+    when(mockApiService.sampleBooks(anyInt(), anyCollection()))
+        .thenReturn(new ArrayList<>(books.subList(5, 10)));
 
-    mvc.perform(get("/books/recommendation"))
+    performStreaming(mvc, get("/books/recommendation"))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.length()").value(10));
   }
@@ -181,9 +222,10 @@ class RouteControllerTest {
   @Test
   void getRecommendations_insufficientBooks_returnsAllAvailable() throws Exception {
     final List<Book> books = createBooksForRecommendation(5);
+    when(mockApiService.getBookCount()).thenReturn(books.size());
     when(mockApiService.getBooks()).thenReturn(new ArrayList<>(books));
 
-    mvc.perform(get("/books/recommendation"))
+    performStreaming(mvc, get("/books/recommendation"))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.length()").value(5));
   }
@@ -198,9 +240,9 @@ class RouteControllerTest {
    */
   @Test
   void getRecommendations_noBooks_returnsEmptyList() throws Exception {
-    when(mockApiService.getBooks()).thenReturn(new ArrayList<>());
+    when(mockApiService.getBookCount()).thenReturn(0);
 
-    mvc.perform(get("/books/recommendation"))
+    performStreaming(mvc, get("/books/recommendation"))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.length()").value(0));
   }
@@ -208,8 +250,8 @@ class RouteControllerTest {
   /**
    * Tests the book recommendation endpoint ensures popularity ordering.
    * 
-   * <p>Verifies that popular books (higher checkout counts) are included
-   * in recommendations when there are exactly 10 books.
+   * <p>Verifies that the popular books reported by the service (higher checkout
+   * counts) lead the recommendations when there are exactly 10 books.
    *
    * @throws Exception if the HTTP request fails
    */
@@ -232,9 +274,12 @@ class RouteControllerTest {
       books.add(new Book("Regular Book " + i, i));
     }
     
-    when(mockApiService.getBooks()).thenReturn(new ArrayList<>(books));
+    when(mockApiService.getBookCount()).thenReturn(books.size());
+    when(mockApiService.getMostPopularBooks()).thenReturn(books.subList(0, 5));
+    when(mockApiService.sampleBooks(anyInt(), anyCollection()))
+        .thenReturn(new ArrayList<>(books.subList(5, 10)));
 
-    mvc.perform(get("/books/recommendation"))
+    performStreaming(mvc, get("/books/recommendation"))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.length()").value(10))
             .andExpect(jsonPath("$[0].title").value(containsString("Popular")));
@@ -254,7 +299,7 @@ class RouteControllerTest {
   void checkoutBook_validId_returnsUpdatedBook() throws Exception {
     final Book book = new Book("Test Book", 1);
     book.addCopy(); // Ensure there's a copy to checkout
-    when(mockApiService.getBooks()).thenReturn(new ArrayList<>(List.of(book)));
+    when(mockApiService.findById(1)).thenReturn(book);
 
     mvc.perform(post("/checkout").param("bookId", "1"))
             .andExpect(status().isOk())
@@ -275,7 +320,7 @@ class RouteControllerTest {
   @Test
   void checkoutBook_invalidId_returns404() throws Exception {
     final Book book = new Book("Test Book", 1);
-    when(mockApiService.getBooks()).thenReturn(new ArrayList<>(List.of(book)));
+    when(mockApiService.findById(1)).thenReturn(book);
 
     mvc.perform(post("/checkout").param("bookId", "999"))
             .andExpect(status().isNotFound())
@@ -324,7 +369,7 @@ class RouteControllerTest {
   void checkoutBook_noCopiesAvailable_returns409() throws Exception {
     final Book book = new Book("Test Book", 1);
     book.deleteCopy(); // Remove the only copy to make it unavailable
-    when(mockApiService.getBooks()).thenReturn(new ArrayList<>(List.of(book)));
+    when(mockApiService.findById(1)).thenReturn(book);
 
     mvc.perform(post("/checkout").param("bookId", "1"))
             .andExpect(status().isConflict())
@@ -359,7 +404,7 @@ class RouteControllerTest {
     final Book book = new Book("Multi Checkout Book", 1);
     book.addCopy();
     book.addCopy(); // Now has 3 total copies
-    when(mockApiService.getBooks()).thenReturn(new ArrayList<>(List.of(book)));
+    when(mockApiService.findById(1)).thenReturn(book);
 
     // First checkout
     mvc.perform(post("/checkout").param("bookId", "1"))
@@ -374,8 +419,360 @@ class RouteControllerTest {
             .andExpect(jsonPath("$.amountOfTimesCheckedOut").value(2));
   }
 
+  // ========== Tests for /books/inventory endpoint ==========
+
+  /**
+   * Tests a bulk adjustment mixing added copies, a deletion beyond the shelf and an unknown
+   * book.
+   *
+   * @throws Exception if the HTTP request fails
+   */
+  @Test
+  void adjustInventory_reportsOutcomePerItem() throws Exception {
+    final Book shipped = new Book("Shipped", 1);
+    final Book onLoan = new Book("On Loan", 2);
+    onLoan.checkoutCopy();
+    when(mockApiService.findById(1)).thenReturn(shipped);
+    when(mockApiService.findById(2)).thenReturn(onLoan);
+
+    mvc.perform(patch("/books/inventory").contentType(MediaType.APPLICATION_JSON)
+            .content("[{\"bookId\":1,\"delta\":4},{\"bookId\":2,\"delta\":-1},"
+                + "{\"bookId\":3,\"delta\":2}]"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(3)))
+            .andExpect(jsonPath("$[0].status").value("ADJUSTED"))
+            .andExpect(jsonPath("$[0].totalCopies").value(5))
+            .andExpect(jsonPath("$[1].status").value("INSUFFICIENT_COPIES"))
+            .andExpect(jsonPath("$[2].status").value("NOT_FOUND"))
+            .andExpect(jsonPath("$[2].totalCopies").doesNotExist());
+    assertEquals(5, shipped.getCopiesAvailable());
+    assertEquals(1, onLoan.getTotalCopies());
+  }
+
+  /**
+   * Tests bulk adjustments that are empty or contain a zero delta.
+   *
+   * @throws Exception if the HTTP request fails
+   */
+  @Test
+  void adjustInventory_invalidRequests_returnBadRequest() throws Exception {
+    mvc.perform(patch("/books/inventory").contentType(MediaType.APPLICATION_JSON).content("[]"))
+            .andExpect(status().isBadRequest());
+    mvc.perform(patch("/books/inventory").contentType(MediaType.APPLICATION_JSON)
+            .content("[{\"bookId\":1,\"delta\":0}]"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string(containsString("non-zero delta")));
+    mvc.perform(patch("/books/inventory").contentType(MediaType.APPLICATION_JSON)
+            .content("[{\"bookId\":1,\"delta\":" + Integer.MIN_VALUE + "}]"))
+            .andExpect(status().isBadRequest());
+  }
+
+  // ========== Tests for /books/search endpoint ==========
+
+  /**
+   * Tests that search results are returned in the order ranked by the service.
+   *
+   * @throws Exception if the HTTP request fails
+   */
+  @Test
+  void searchBooks_returnsRankedBooks() throws Exception {
+    when(mockApiService.search("mighty world", 20))
+        .thenReturn(List.of(new Book("All the mighty world :", 2), new Book("World", 9)));
+
+    mvc.perform(get("/books/search").param("q", "mighty world"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].id").value(2))
+            .andExpect(jsonPath("$[1].id").value(9));
+  }
+
+  /**
+   * Tests that a blank query or an out-of-range limit is rejected.
+   *
+   * @throws Exception if the HTTP request fails
+   */
+  @Test
+  void searchBooks_invalidRequests_return400() throws Exception {
+    mvc.perform(get("/books/search"))
+            .andExpect(status().isBadRequest());
+    mvc.perform(get("/books/search").param("q", "  "))
+            .andExpect(status().isBadRequest());
+    mvc.perform(get("/books/search").param("q", "world").param("limit", "101"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string(containsString("limit")));
+  }
+
+  // ========== Tests for /books/suggest endpoint ==========
+
+  /**
+   * Tests that suggestions are returned with their text, field and book id.
+   *
+   * @throws Exception if the HTTP request fails
+   */
+  @Test
+  void suggestBooks_returnsSuggestions() throws Exception {
+    final SuggestIndex index = new SuggestIndex(4);
+    index.update(new Book("Qurneh /", 3));
+    when(mockApiService.suggest("qur", 10)).thenReturn(index.suggest("qur", 10));
+
+    mvc.perform(get("/books/suggest").param("prefix", "qur"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].text").value("Qurneh"))
+            .andExpect(jsonPath("$[0].field").value("TITLE"))
+            .andExpect(jsonPath("$[0].bookId").value(3));
+  }
+
+  /**
+   * Tests that a blank prefix or an out-of-range limit is rejected.
+   *
+   * @throws Exception if the HTTP request fails
+   */
+  @Test
+  void suggestBooks_invalidRequests_return400() throws Exception {
+    mvc.perform(get("/books/suggest"))
+            .andExpect(status().isBadRequest());
+    mvc.perform(get("/books/suggest").param("prefix", "qur").param("limit", "0"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string(containsString("limit")));
+  }
+
+  // ========== Tests for GET /books endpoint ==========
+
+  /**
+   * Tests that every query parameter reaches the filter and the matches are streamed.
+   *
+   * @throws Exception if the HTTP request fails
+   */
+  @Test
+  void filterBooks_streamsMatchesOfEveryCondition() throws Exception {
+    when(mockApiService.filterBooks(argThat(filter -> filter != null
+        && filter.getValues().get(FilterIndex.Attribute.LANGUAGE).equals(List.of("eng"))
+        && filter.getValues().get(FilterIndex.Attribute.SUBJECT)
+            .equals(List.of("Medicine", "Tombs"))
+        && filter.getValues().get(FilterIndex.Attribute.LOCATION).equals(List.of("eax"))
+        && Boolean.TRUE.equals(filter.getAvailable()))))
+        .thenReturn(List.of(new Book("Qurneh /", 3)));
+
+    performStreaming(mvc, get("/books").param("language", "eng")
+            .param("subject", "Medicine").param("subject", "Tombs")
+            .param("location", "eax").param("available", "true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].id").value(3));
+  }
+
+  /**
+   * Tests that publication year bounds reach the filter.
+   *
+   * @throws Exception if the HTTP request fails
+   */
+  @Test
+  void filterBooks_passesPublicationYearRange() throws Exception {
+    when(mockApiService.filterBooks(argThat(filter -> filter != null
+        && Integer.valueOf(1900).equals(filter.getPublishedFrom())
+        && filter.getPublishedTo() == null)))
+        .thenReturn(List.of(new Book("Qurneh /", 3)));
+
+    performStreaming(mvc, get("/books").param("publishedFrom", "1900"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(3));
+  }
+
+  /**
+   * Tests that a year range ending before it starts is rejected.
+   *
+   * @throws Exception if the HTTP request fails
+   */
+  @Test
+  void filterBooks_emptyYearRange_returns400() throws Exception {
+    performStreaming(mvc, get("/books").param("publishedFrom", "2005")
+            .param("publishedTo", "1909"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string(containsString("publishedFrom")));
+  }
+
+  /**
+   * Tests that a request without any condition is rejected instead of listing the catalog.
+   *
+   * @throws Exception if the HTTP request fails
+   */
+  @Test
+  void filterBooks_withoutConditions_returns400() throws Exception {
+    performStreaming(mvc, get("/books").param("subject", " "))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string(containsString("At least one of")));
+  }
+
+  // ========== Tests for /books/facets endpoint ==========
+
+  /**
+   * Tests that facet counts are returned per attribute for the requested filter.
+   *
+   * @throws Exception if the HTTP request fails
+   */
+  @Test
+  void getFacets_returnsCountsPerAttribute() throws Exception {
+    final FacetIndex index = new FacetIndex(4);
+    final Book book = new Book("Qurneh /", 3);
+    book.setLanguage("eng");
+    index.update(book);
+    when(mockApiService.facets(argThat(filter -> filter != null
+        && Boolean.TRUE.equals(filter.getAvailable())), eq(5)))
+        .thenReturn(index.top(5));
+
+    mvc.perform(get("/books/facets").param("available", "true").param("limit", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.LANGUAGE[0].value").value("eng"))
+            .andExpect(jsonPath("$.LANGUAGE[0].titles").value(1))
+            .andExpect(jsonPath("$.LANGUAGE[0].availableTitles").value(1))
+            .andExpect(jsonPath("$.LANGUAGE[0].copies").value(1));
+  }
+
+  /**
+   * Tests that an out-of-range limit is rejected.
+   *
+   * @throws Exception if the HTTP request fails
+   */
+  @Test
+  void getFacets_invalidLimit_returns400() throws Exception {
+    mvc.perform(get("/books/facets").param("limit", "101"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string(containsString("limit")));
+  }
+
+  // ========== Tests for /checkout/batch endpoint ==========
+
+  /**
+   * Tests checking out several books, one of them twice, in a single request.
+   *
+   * <p>Verifies that every copy is checked out and a due date is returned per requested id,
+   * in request order.
+   *
+   * @throws Exception if the HTTP request fails
+   */
+  @Test
+  void checkoutBooks_allAvailable_returnsDueDatePerId() throws Exception {
+    final Book first = new Book("First", 1);
+    final Book second = new Book("Second", 2);
+    second.addCopy();
+    when(mockApiService.findById(1)).thenReturn(first);
+    when(mockApiService.findById(2)).thenReturn(second);
+
+    mvc.perform(post("/checkout/batch").param("bookIds", "2,1,2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(3)))
+            .andExpect(jsonPath("$[0].bookId").value(2))
+            .andExpect(jsonPath("$[1].title").value("First"))
+            .andExpect(jsonPath("$[2].dueDate").value(second.getReturnDates().get(1)));
+    assertEquals(0, first.getCopiesAvailable());
+    assertEquals(0, second.getCopiesAvailable());
+  }
+
+  /**
+   * Tests that a batch with one unavailable book checks out nothing.
+   *
+   * @throws Exception if the HTTP request fails
+   */
+  @Test
+  void checkoutBooks_oneUnavailable_checksOutNothing() throws Exception {
+    final Book available = new Book("Available", 1);
+    final Book onLoan = new Book("On Loan", 2);
+    onLoan.checkoutCopy();
+    when(mockApiService.findById(1)).thenReturn(available);
+    when(mockApiService.findById(2)).thenReturn(onLoan);
+
+    mvc.perform(post("/checkout/batch").param("bookIds", "1").param("bookIds", "2"))
+            .andExpect(status().isConflict())
+            .andExpect(content().string(containsString("nothing was checked out")));
+    assertEquals(1, available.getCopiesAvailable());
+  }
+
+  /**
+   * Tests batch requests with missing, malformed or unknown ids.
+   *
+   * @throws Exception if the HTTP request fails
+   */
+  @Test
+  void checkoutBooks_invalidRequests_returnErrors() throws Exception {
+    when(mockApiService.findById(1)).thenReturn(new Book("Only", 1));
+
+    mvc.perform(post("/checkout/batch"))
+            .andExpect(status().isBadRequest());
+    mvc.perform(post("/checkout/batch").param("bookIds", "1,0"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string(containsString("Invalid book ID")));
+    mvc.perform(post("/checkout/batch").param("bookIds", "1,999"))
+            .andExpect(status().isNotFound())
+            .andExpect(content().string(containsString("999")));
+  }
+
+  // ========== Tests for /return endpoint ==========
+
+  /**
+   * Tests returning a checked-out copy by its due date.
+   *
+   * <p>Verifies that the copy is restocked and its due date removed, and that a second
+   * return of the same date is rejected with HTTP 409 Conflict.
+   *
+   * @throws Exception if the HTTP request fails
+   */
+  @Test
+  void returnBook_matchingDueDate_restocksCopy() throws Exception {
+    final Book book = new Book("Test Book", 1);
+    final String dueDate = book.checkoutCopy();
+    when(mockApiService.findById(1)).thenReturn(book);
+
+    mvc.perform(post("/return").param("bookId", "1").param("dueDate", dueDate))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.copiesAvailable").value(1))
+            .andExpect(jsonPath("$.returnDates", hasSize(0)));
+    mvc.perform(post("/return").param("bookId", "1").param("dueDate", dueDate))
+            .andExpect(status().isConflict())
+            .andExpect(content().string(containsString("No checked-out copy")));
+  }
+
+  /**
+   * Tests return requests with missing or malformed parameters and unknown books.
+   *
+   * @throws Exception if the HTTP request fails
+   */
+  @Test
+  void returnBook_invalidRequests_returnErrors() throws Exception {
+    mvc.perform(post("/return").param("dueDate", "2025-01-01"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string(containsString("Invalid book ID")));
+    mvc.perform(post("/return").param("bookId", "1").param("dueDate", "01/01/2025"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string(containsString("Invalid due date")));
+    mvc.perform(post("/return").param("bookId", "1").param("dueDate", "+9999999-01-01"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string(containsString("Invalid due date")));
+    mvc.perform(post("/return").param("bookId", "1"))
+            .andExpect(status().isBadRequest());
+    mvc.perform(post("/return").param("bookId", "999").param("dueDate", "2025-01-01"))
+            .andExpect(status().isNotFound());
+  }
+
   // ========== Helper methods ==========
 
+  /**
+   * Performs a request against one of the streaming list endpoints and dispatches the
+   * asynchronously written body, so the result can be asserted like a normal response.
+   *
+   * @param mockMvc The MockMvc instance to use
+   * @param requestBuilder The request to perform
+   * @return The result of the async dispatch
+   * @throws Exception if the HTTP request fails
+   */
+  private static ResultActions performStreaming(final MockMvc mockMvc,
+      final RequestBuilder requestBuilder) throws Exception {
+    final MvcResult started = mockMvc.perform(requestBuilder)
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    return mockMvc.perform(asyncDispatch(started));
+  }
+
   /**
    * Creates a list of books for recommendation testing.
    *
@@ -402,7 +799,7 @@ class RouteControllerTest {
   void addCopy_withMockException_returnsNotFound() throws Exception {
     // Test exception handling branch in addCopy method
     MockApiService mockService = Mockito.mock(MockApiService.class);
-    when(mockService.getBooks()).thenThrow(new RuntimeException("Mock exception"));
+    when(mockService.findById(1)).thenThrow(new RuntimeException("Mock exception"));
     
     RouteController controller = new RouteController(mockService);
     MockMvc customMvc = MockMvcBuilders.standaloneSetup(controller).build();
@@ -415,13 +812,13 @@ class RouteControllerTest {
   void getAvailableBooks_withMockException_returnsInternalServerError() throws Exception {
     // Test exception handling branch in getAvailableBooks method
     MockApiService mockService = Mockito.mock(MockApiService.class);
-    when(mockService.getBooks()).thenThrow(new RuntimeException("Mock exception"));
+    when(mockService.availableBooks()).thenThrow(new RuntimeException("Mock exception"));
     
     RouteController controller = new RouteController(mockService);
     
     MockMvc customMockMvc = MockMvcBuilders.standaloneSetup(controller).build();
     
-    customMockMvc.perform(put("/books/available"))
+    performStreaming(customMockMvc, put("/books/available"))
                  .andExpect(status().isInternalServerError())
                  .andExpect(content().string("Error occurred when getting all available books"));
   }
@@ -430,7 +827,7 @@ class RouteControllerTest {
   void checkoutBook_withMockServiceException_returnsInternalServerError() throws Exception {
     // Test exception handling branch in checkout method
     MockApiService mockService = Mockito.mock(MockApiService.class);
-    when(mockService.getBooks()).thenThrow(new RuntimeException("Mock exception"));
+    when(mockService.findById(1)).thenThrow(new RuntimeException("Mock exception"));
     
     RouteController controller = new RouteController(mockService);
     MockMvc customMockMvc = MockMvcBuilders.standaloneSetup(controller).build();
@@ -444,12 +841,12 @@ class RouteControllerTest {
   void getBookRecommendations_withMockException_returnsInternalServerError() throws Exception {
     // Test exception handling branch in recommendations method
     MockApiService mockService = Mockito.mock(MockApiService.class);
-    when(mockService.getBooks()).thenThrow(new RuntimeException("Mock exception"));
+    when(mockService.getBookCount()).thenThrow(new RuntimeException("Mock exception"));
     
     RouteController controller = new RouteController(mockService);
     MockMvc customMockMvc = MockMvcBuilders.standaloneSetup(controller).build();
     
-    customMockMvc.perform(get("/books/recommendation"))
+    performStreaming(customMockMvc, get("/books/recommendation"))
                  .andExpect(status().isInternalServerError())
                  .andExpect(content().string("Error generating recommendations"));
   }
@@ -502,7 +899,7 @@ class RouteControllerTest {
     // Test logging branches in recommendation method
     
     // Test with sufficient books (should hit info logging branch)
-    mvc.perform(get("/books/recommendation"))
+    performStreaming(mvc, get("/books/recommendation"))
             .andExpect(status().isOk());
             
     // Test with insufficient books (should hit warn logging branch)
@@ -512,12 +909,13 @@ class RouteControllerTest {
         new Book("Book2", 2),
         new Book("Book3", 3)
     );
+    when(limitedService.getBookCount()).thenReturn(limitedBooks.size());
     when(limitedService.getBooks()).thenReturn(limitedBooks);
     
     RouteController controller = new RouteController(limitedService);
     MockMvc customMockMvc = MockMvcBuilders.standaloneSetup(controller).build();
     
-    customMockMvc.perform(get("/books/recommendation"))
+    performStreaming(customMockMvc, get("/books/recommendation"))
                  .andExpect(status().isOk())
                  .andExpect(jsonPath("$", hasSize(3)));
   }
@@ -0,0 +1,95 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.coms4156.project.individualproject.service.RouteMetrics;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the RouteMetrics class.
+ *
+ * <p>Covers per-route status and error counters, the in-flight gauge, latency quantiles and the
+ * layout and label escaping of the Prometheus text output.
+ */
+class RouteMetricsTest {
+
+  private static List<String> lines(final RouteMetrics metrics) {
+    return Arrays.asList(metrics.toPrometheusText().split("\n"));
+  }
+
+  @Test
+  void route_isSharedPerMethodAndTemplate() {
+    final RouteMetrics metrics = new RouteMetrics();
+
+    assertSame(metrics.route("GET", "/book/{bookId}"), metrics.route("GET", "/book/{bookId}"));
+    assertFalse(metrics.route("GET", "/checkout") == metrics.route("PUT", "/checkout"));
+  }
+
+  @Test
+  void finish_countsStatusesAndServerErrors() {
+    final RouteMetrics metrics = new RouteMetrics();
+    final RouteMetrics.Route route = metrics.route("PUT", "/checkout");
+    route.finish(route.start(), 200);
+    route.finish(route.start(), 200);
+    route.finish(route.start(), 404);
+    route.finish(route.start(), 503);
+
+    final List<String> lines = lines(metrics);
+    final String labels = "{method=\"PUT\",route=\"/checkout\"";
+    assertTrue(lines.contains("http_server_requests_total" + labels + ",status=\"200\"} 2"));
+    assertTrue(lines.contains("http_server_requests_total" + labels + ",status=\"404\"} 1"));
+    assertTrue(lines.contains("http_server_requests_total" + labels + ",status=\"503\"} 1"));
+    assertTrue(lines.contains("http_server_errors_total" + labels + ",status=\"503\"} 1"));
+    assertFalse(lines.contains("http_server_errors_total" + labels + ",status=\"404\"} 1"));
+    assertTrue(lines.contains("http_server_request_duration_seconds_count" + labels + "} 4"));
+    assertTrue(lines.contains("http_server_requests_in_flight" + labels + "} 0"));
+  }
+
+  @Test
+  void start_tracksRequestsInFlight() {
+    final RouteMetrics metrics = new RouteMetrics();
+    final RouteMetrics.Route route = metrics.route("GET", "/books/available");
+    final long first = route.start();
+    route.start();
+    route.finish(first, 200);
+
+    assertTrue(lines(metrics).contains(
+        "http_server_requests_in_flight{method=\"GET\",route=\"/books/available\"} 1"));
+  }
+
+  @Test
+  void toPrometheusText_reportsQuantilesInSeconds() throws InterruptedException {
+    final RouteMetrics metrics = new RouteMetrics();
+    final RouteMetrics.Route route = metrics.route("GET", "/slow");
+    final long startNanos = route.start();
+    Thread.sleep(20);
+    route.finish(startNanos, 200);
+
+    final String prefix =
+        "http_server_request_duration_seconds{method=\"GET\",route=\"/slow\",quantile=\"0.99\"} ";
+    final String line = lines(metrics).stream().filter(l -> l.startsWith(prefix))
+        .findFirst().orElseThrow();
+    final double seconds = Double.parseDouble(line.substring(prefix.length()));
+    assertTrue(seconds >= 0.02 && seconds < 5, "p99 was " + seconds);
+  }
+
+  @Test
+  void toPrometheusText_declaresEachMetricOnceAndEscapesLabels() {
+    final RouteMetrics metrics = new RouteMetrics();
+    final RouteMetrics.Route route = metrics.route("GET", "/odd\"route\\");
+    route.finish(route.start(), 200);
+    metrics.route("GET", "/other").finish(metrics.route("GET", "/other").start(), 200);
+
+    final List<String> lines = lines(metrics);
+    assertEquals(4, lines.stream().filter(l -> l.startsWith("# TYPE ")).count());
+    assertTrue(lines.contains("# TYPE http_server_request_duration_seconds summary"));
+    assertTrue(lines.contains("# TYPE http_server_requests_in_flight gauge"));
+    assertTrue(lines.contains(
+        "http_server_requests_in_flight{method=\"GET\",route=\"/odd\\\"route\\\\\"} 0"));
+  }
+}
@@ -0,0 +1,102 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.SearchIndex;
+import dev.coms4156.project.individualproject.service.TextFolding;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the SearchIndex and TextFolding classes.
+ *
+ * <p>Covers Unicode folding of romanized titles, BM25 ranking, re-indexing of updated books and
+ * agreement of the pruned top hits with an exhaustive ranking.
+ */
+class SearchIndexTest {
+
+  private static Book book(final int bookId, final String title, final String... subjects) {
+    return new Book(title, List.of("Author, Some"), "eng", "eax", "2000.", "Press",
+        List.of(subjects), bookId, 1, 1);
+  }
+
+  @Test
+  void fold_dropsRomanizationMarksAndCase() {
+    assertEquals("hanguk kundae uihak ui kiwon /",
+        TextFolding.fold("Hanʼguk kŭndae ŭihak ŭi kiwŏn /"));
+    assertEquals("cafe", TextFolding.fold("Café"));
+  }
+
+  @Test
+  void search_matchesFoldedQueryAcrossFields() {
+    final SearchIndex index = new SearchIndex(10);
+    index.update(book(1, "Hanʼguk kŭndae", "Medicine"));
+    index.update(book(2, "All the mighty world :", "Photography, Artistic"));
+
+    assertArrayEquals(new int[] {1}, index.search("HANGUK", 10));
+    assertArrayEquals(new int[] {2}, index.search("photography", 10));
+    assertArrayEquals(new int[] {1, 2}, index.search("author", 10));
+    assertArrayEquals(new int[0], index.search("missing", 10));
+    assertArrayEquals(new int[0], index.search(" /: ", 10));
+  }
+
+  @Test
+  void search_ranksRareAndRepeatedTermsFirst() {
+    final SearchIndex index = new SearchIndex(10);
+    index.update(book(1, "Tombs of Egypt"));
+    index.update(book(2, "Tombs"));
+    index.update(book(3, "Egypt Egypt and the tombs of Egypt"));
+    index.update(book(4, "Rivers"));
+
+    final int[] hits = index.search("egypt", 10);
+    assertEquals(3, hits[0]);
+    assertArrayEquals(new int[] {3, 1}, hits);
+    assertArrayEquals(new int[] {2}, index.search("tombs", 1));
+  }
+
+  @Test
+  void update_replacesPreviousText() {
+    final SearchIndex index = new SearchIndex(10);
+    index.update(book(1, "Qurneh /"));
+    index.update(book(1, "Metaponto :"));
+
+    assertArrayEquals(new int[0], index.search("qurneh", 10));
+    assertArrayEquals(new int[] {1}, index.search("metaponto", 10));
+  }
+
+  @Test
+  void update_titleWithSameHashCode_isReindexed() {
+    final SearchIndex index = new SearchIndex(10);
+    index.update(book(1, "Aa"));
+    index.update(book(1, "BB"));
+
+    assertArrayEquals(new int[0], index.search("aa", 10));
+    assertArrayEquals(new int[] {1}, index.search("bb", 10));
+  }
+
+  @Test
+  void search_prunedTopHitsMatchExhaustiveRanking() {
+    final int books = 5000;
+    final SearchIndex index = new SearchIndex(books + 1);
+    final Random random = new Random(42);
+    for (int bookId = 1; bookId <= books; bookId++) {
+      final StringBuilder title = new StringBuilder();
+      for (int i = random.nextInt(8); i >= 0; i--) {
+        title.append('w').append((int) Math.exp(random.nextDouble() * Math.log(2000))).append(' ');
+      }
+      index.update(book(bookId, title.toString()));
+    }
+
+    for (int query = 0; query < 100; query++) {
+      final String text = "w" + (1 + random.nextInt(40)) + " w" + (1 + random.nextInt(2000))
+          + " w" + (1 + random.nextInt(4));
+      final int[] all = index.search(text, books);
+      assertArrayEquals(Arrays.copyOf(all, Math.min(10, all.length)), index.search(text, 10),
+          text);
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.StringDictionary;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the StringDictionary class.
+ *
+ * <p>Covers sharing of equal strings, the entry limit, canonicalizing a book's metadata and
+ * the duplicate and heap saving statistics.
+ */
+class StringDictionaryTest {
+
+  @Test
+  void canonical_returnsFirstInstanceForEqualStrings() {
+    final StringDictionary dictionary = new StringDictionary();
+    final String first = new String("eng");
+    final String second = new String("eng");
+
+    assertSame(first, dictionary.canonical(first));
+    assertSame(first, dictionary.canonical(second));
+    assertNull(dictionary.canonical(null));
+    assertEquals(1, dictionary.size());
+    assertEquals(1, dictionary.duplicates());
+    assertEquals(48, dictionary.savedBytes());
+  }
+
+  @Test
+  void canonical_passesNewValuesThroughOnceFull() {
+    final StringDictionary dictionary = new StringDictionary(1);
+    final String kept = dictionary.canonical("kept");
+    final String overflow = new String("overflow");
+
+    assertSame(overflow, dictionary.canonical(overflow));
+    assertSame(kept, dictionary.canonical(new String("kept")));
+    assertEquals(1, dictionary.size());
+  }
+
+  @Test
+  void canonicalize_sharesMetadataButNotTitles() {
+    final StringDictionary dictionary = new StringDictionary();
+    final Book first = new Book(new String("Title"), List.of(new String("Author")),
+        new String("eng"), new String("STACKS"), new String("1999"), new String("Press"),
+        List.of(new String("Poetry")), 1, 1, 1);
+    final Book second = new Book(new String("Title"), List.of(new String("Author")),
+        new String("eng"), new String("STACKS"), new String("1999"), new String("Press"),
+        List.of(new String("Poetry")), 2, 1, 1);
+
+    dictionary.canonicalize(first);
+    dictionary.canonicalize(second);
+    assertSame(first.getAuthors().get(0), second.getAuthors().get(0));
+    assertSame(first.getLanguage(), second.getLanguage());
+    assertSame(first.getShelvingLocation(), second.getShelvingLocation());
+    assertSame(first.getPublicationDate(), second.getPublicationDate());
+    assertSame(first.getPublisher(), second.getPublisher());
+    assertSame(first.getSubjects().get(0), second.getSubjects().get(0));
+    assertEquals(6, dictionary.duplicates());
+    assertEquals(first.getTitle(), second.getTitle());
+  }
+}
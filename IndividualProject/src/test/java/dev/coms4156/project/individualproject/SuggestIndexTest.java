@@ -0,0 +1,129 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.SuggestIndex;
+import dev.coms4156.project.individualproject.service.SuggestIndex.Field;
+import dev.coms4156.project.individualproject.service.SuggestIndex.Suggestion;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the SuggestIndex class.
+ *
+ * <p>Covers prefix completion over normalized titles and authors, typo-tolerant trigram
+ * matching, de-duplication of shared authors, limits of zero and one, and re-indexing of
+ * updated books, including recycled key ids and titles whose hash codes collide.
+ */
+class SuggestIndexTest {
+
+  private static Book book(final int bookId, final String title, final String... authors) {
+    return new Book(title, List.of(authors), "eng", "eax", "2000.", "Press", List.of(), bookId,
+        1, 1);
+  }
+
+  private static SuggestIndex indexOf(final Book... books) {
+    final SuggestIndex index = new SuggestIndex(10);
+    for (final Book book : books) {
+      index.update(book);
+    }
+    return index;
+  }
+
+  private static List<String> texts(final List<Suggestion> suggestions) {
+    return suggestions.stream().map(Suggestion::getText).collect(Collectors.toList());
+  }
+
+  @Test
+  void suggest_completesNormalizedPrefixWithoutMarcPunctuation() {
+    final List<Suggestion> suggestions =
+        indexOf(book(2, "All the mighty world :", "Baldwin, Gordon,")).suggest("ALL THE  mi", 10);
+
+    assertEquals(List.of("All the mighty world"), texts(suggestions));
+    assertEquals(Field.TITLE, suggestions.get(0).getField());
+    assertEquals(2, suggestions.get(0).getBookId());
+  }
+
+  @Test
+  void suggest_listsSharedAuthorOnce() {
+    final List<Suggestion> suggestions = indexOf(book(3, "Qurneh /", "Petrie, W. M. Flinders"),
+        book(4, "Metaponto :", "Petrie, W. M. Flinders")).suggest("petrie", 10);
+
+    assertEquals(1, suggestions.size());
+    assertEquals(Field.AUTHOR, suggestions.get(0).getField());
+    assertEquals(3, suggestions.get(0).getBookId());
+    assertEquals(2, suggestions.get(0).getBookCount());
+  }
+
+  @Test
+  void suggest_toleratesTypos() {
+    final SuggestIndex index = indexOf(book(2, "All the mighty world :"),
+        book(4, "Metaponto :"));
+
+    assertEquals("Metaponto", index.suggest("metapotno", 10).get(0).getText());
+    assertEquals("All the mighty world", index.suggest("all the mihgty", 10).get(0).getText());
+    assertTrue(index.suggest("xyzzy", 10).isEmpty());
+  }
+
+  @Test
+  void suggest_prefixMatchesComeBeforeFuzzyOnesWithinLimit() {
+    final SuggestIndex index = indexOf(book(4, "Metaponto :"), book(5, "Metaponto II"),
+        book(6, "Metapontino"));
+
+    assertEquals(List.of("Metapontino", "Metaponto", "Metaponto II"),
+        texts(index.suggest("metap", 10)));
+    assertEquals(List.of("Metapontino"), texts(index.suggest("metap", 1)));
+    assertEquals(List.of("Metaponto"), texts(index.suggest("metapotno", 1)));
+  }
+
+  @Test
+  void suggest_limitZero_returnsNothing() {
+    final SuggestIndex index = indexOf(book(4, "Metaponto :", "Carter, Joseph Coleman"));
+
+    assertTrue(index.suggest("metap", 0).isEmpty());
+    assertTrue(index.suggest("metapotno", 0).isEmpty());
+  }
+
+  @Test
+  void update_replacesPreviousTitleAndAuthors() {
+    final SuggestIndex index = indexOf(book(3, "Qurneh /", "Petrie, W. M. Flinders"),
+        book(4, "Metaponto :", "Petrie, W. M. Flinders"));
+    index.update(book(3, "Tombs of the nobles /", "Gardiner, Alan H."));
+
+    assertTrue(index.suggest("qurneh", 10).isEmpty());
+    assertEquals(1, index.suggest("petrie", 10).get(0).getBookCount());
+    assertEquals(List.of("Tombs of the nobles"), texts(index.suggest("tombs", 10)));
+  }
+
+  @Test
+  void update_recycledKeyIdKeepsNoTrigramsOfItsOldKey() {
+    final SuggestIndex index = indexOf(book(3, "Qurneh"));
+    index.update(book(3, "Metaponto"));
+
+    assertEquals(1, index.keyCount());
+    assertTrue(index.suggest("qurenh", 10).isEmpty());
+    assertEquals(List.of("Metaponto"), texts(index.suggest("metapotno", 10)));
+  }
+
+  @Test
+  void update_titleWithSameHashCode_isReindexed() {
+    final SuggestIndex index = indexOf(book(1, "Aa", "Author"));
+    index.update(book(1, "BB", "Author"));
+
+    assertTrue(index.suggest("aa", 10).isEmpty());
+    assertEquals(List.of("BB"), texts(index.suggest("bb", 10)));
+  }
+
+  @Test
+  void update_reportsWhetherTitleOrAuthorsChangedByValue() {
+    final SuggestIndex index = indexOf(book(3, "Qurneh /", "Petrie, W. M. Flinders"));
+
+    assertFalse(index.update(book(3, "Qurneh /", "Petrie, W. M. Flinders")));
+    assertTrue(index.update(book(3, "Qurneh /", "Gardiner, Alan H.")));
+    assertEquals(List.of("Gardiner, Alan H"), texts(index.suggest("gardiner", 10)));
+  }
+}
@@ -0,0 +1,191 @@
+package dev.coms4156.project.individualproject;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.coms4156.project.individualproject.config.CatalogProperties;
+import dev.coms4156.project.individualproject.config.FsyncPolicy;
+import dev.coms4156.project.individualproject.model.Book;
+import dev.coms4156.project.individualproject.service.BookStore;
+import dev.coms4156.project.individualproject.service.WriteAheadLog;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Unit tests for the WriteAheadLog class.
+ *
+ * <p>Covers replay of inventory and whole-book records under every fsync policy, strings
+ * beyond the {@code writeUTF} limit, sequence numbering across reopenings, segment rotation,
+ * recovery from a torn tail or a foreign file, and rejection of logs in an older format version.
+ */
+class WriteAheadLogTest {
+
+  @TempDir
+  Path dir;
+
+  private CatalogProperties.Wal settings(final FsyncPolicy policy) {
+    final CatalogProperties.Wal settings = new CatalogProperties().getWal();
+    settings.setPath(dir.resolve("catalog.wal").toString());
+    settings.setFsync(policy);
+    settings.setFsyncIntervalMs(1);
+    return settings;
+  }
+
+  private static BookStore catalog() {
+    final List<Book> books = new ArrayList<>();
+    for (int id = 1; id <= 3; id++) {
+      books.add(new Book("Book " + id, id));
+    }
+    return new BookStore(books);
+  }
+
+  @ParameterizedTest
+  @EnumSource(FsyncPolicy.class)
+  void reopen_replaysInventoryAndBookRecords(final FsyncPolicy policy) throws IOException {
+    final BookStore store = catalog();
+    try (WriteAheadLog wal = WriteAheadLog.open(settings(policy), store)) {
+      final Book book = store.get(1);
+      book.setTotalCopies(4);
+      book.setCopiesAvailable(2);
+      book.setAmountOfTimesCheckedOut(9);
+      book.setReturnDates(List.of("2025-01-01", "2025-01-02"));
+      wal.appendInventory(book);
+
+      final Book renamed = new Book("Renamed", 2);
+      renamed.setAuthors(List.of("Author"));
+      renamed.setPublisher(null);
+      wal.appendBook(renamed);
+      wal.appendInventory(new Book("Unknown", 42));
+      wal.awaitDurable();
+    }
+
+    final BookStore restored = catalog();
+    try (WriteAheadLog wal = WriteAheadLog.open(settings(policy), restored)) {
+      assertEquals(3, wal.lastSequence());
+    }
+    final Book book = restored.get(1);
+    assertEquals(4, book.getTotalCopies());
+    assertEquals(2, book.getCopiesAvailable());
+    assertEquals(9, book.getAmountOfTimesCheckedOut());
+    assertEquals(List.of("2025-01-01", "2025-01-02"), book.getReturnDates());
+    assertEquals("Renamed", restored.get(2).getTitle());
+    assertEquals(List.of("Author"), restored.get(2).getAuthors());
+    assertNull(restored.get(2).getPublisher());
+    assertNull(restored.get(42));
+  }
+
+  @Test
+  void reopen_replaysTitleLongerThanModifiedUtf8Limit() throws IOException {
+    final String title = "é".repeat(40_000);
+    try (WriteAheadLog wal = WriteAheadLog.open(settings(FsyncPolicy.PER_OP), catalog())) {
+      wal.appendBook(new Book(title, 1));
+      wal.awaitDurable();
+    }
+
+    final BookStore restored = catalog();
+    WriteAheadLog.open(settings(FsyncPolicy.PER_OP), restored).close();
+    assertEquals(title, restored.get(1).getTitle());
+  }
+
+  @Test
+  void reopen_laterRecordsWin() throws IOException {
+    final BookStore store = catalog();
+    try (WriteAheadLog wal = WriteAheadLog.open(settings(FsyncPolicy.PER_OP), store)) {
+      for (int copies = 1; copies <= 5; copies++) {
+        store.get(3).setCopiesAvailable(copies);
+        wal.appendInventory(store.get(3));
+      }
+    }
+
+    final BookStore restored = catalog();
+    WriteAheadLog.open(settings(FsyncPolicy.PER_OP), restored).close();
+    assertEquals(5, restored.get(3).getCopiesAvailable());
+  }
+
+  @Test
+  void reopen_truncatesTornTailAndKeepsAppending() throws IOException {
+    final BookStore store = catalog();
+    try (WriteAheadLog wal = WriteAheadLog.open(settings(FsyncPolicy.PER_OP), store)) {
+      store.get(1).setCopiesAvailable(7);
+      wal.appendInventory(store.get(1));
+      store.get(2).setCopiesAvailable(8);
+      wal.appendInventory(store.get(2));
+    }
+    final Path file = dir.resolve("catalog.wal");
+    final byte[] bytes = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+    final BookStore torn = catalog();
+    try (WriteAheadLog wal = WriteAheadLog.open(settings(FsyncPolicy.PER_OP), torn)) {
+      assertEquals(1, wal.lastSequence());
+      torn.get(3).setCopiesAvailable(9);
+      wal.appendInventory(torn.get(3));
+    }
+    assertEquals(7, torn.get(1).getCopiesAvailable());
+    assertEquals(1, torn.get(2).getCopiesAvailable());
+
+    final BookStore restored = catalog();
+    WriteAheadLog.open(settings(FsyncPolicy.PER_OP), restored).close();
+    assertEquals(7, restored.get(1).getCopiesAvailable());
+    assertEquals(9, restored.get(3).getCopiesAvailable());
+  }
+
+  @Test
+  void open_foreignFile_throws() throws IOException {
+    Files.writeString(dir.resolve("catalog.wal"), "not a log at all");
+
+    assertThrows(IOException.class,
+        () -> WriteAheadLog.open(settings(FsyncPolicy.NONE), catalog()));
+  }
+
+  @Test
+  void rotate_keepsPreviousSegmentUntilDiscarded() throws IOException {
+    final BookStore store = catalog();
+    try (WriteAheadLog wal = WriteAheadLog.open(settings(FsyncPolicy.BATCHED), store)) {
+      store.get(1).setCopiesAvailable(5);
+      wal.appendInventory(store.get(1));
+      wal.rotate();
+      store.get(2).setCopiesAvailable(6);
+      wal.appendInventory(store.get(2));
+    }
+    assertTrue(Files.exists(dir.resolve("catalog.wal.prev")));
+
+    final BookStore restored = catalog();
+    try (WriteAheadLog wal = WriteAheadLog.open(settings(FsyncPolicy.BATCHED), restored)) {
+      assertEquals(2, wal.lastSequence());
+      wal.discardPrevious();
+    }
+    assertEquals(5, restored.get(1).getCopiesAvailable());
+    assertEquals(6, restored.get(2).getCopiesAvailable());
+
+    final BookStore afterDiscard = catalog();
+    WriteAheadLog.open(settings(FsyncPolicy.BATCHED), afterDiscard).close();
+    assertEquals(1, afterDiscard.get(1).getCopiesAvailable());
+    assertEquals(6, afterDiscard.get(2).getCopiesAvailable());
+  }
+
+  @Test
+  void open_olderFormatVersion_throws() throws IOException {
+    final ByteArrayOutputStream file = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(file)) {
+      out.writeInt(0x424B574C);
+      out.writeInt(2);
+    }
+    Files.write(dir.resolve("catalog.wal"), file.toByteArray());
+
+    assertThrows(IOException.class,
+        () -> WriteAheadLog.open(settings(FsyncPolicy.PER_OP), catalog()));
+  }
+}